@@ -28,6 +28,7 @@ import java.util.ArrayList;
 
 import javax.swing.ImageIcon;
 
+import jumpvm.cli.JumpCli;
 import jumpvm.gui.JumpGui;
 
 /**
@@ -110,11 +111,17 @@ public final class Main {
     }
 
     /**
-     * JumpVM entry point.
+     * JumpVM entry point. Starts the GUI if there are no arguments, the command line interface otherwise.
      * 
-     * @param args arguments (ignored)
+     * @see JumpCli#run(String...)
+     * @param args arguments
      */
     public static void main(final String... args) {
+        if (args.length > 0) {
+            System.setProperty("java.awt.headless", "true");
+            System.exit(JumpCli.run(args));
+        }
+
         final Runnable createGui = new Runnable() {
             @Override
             public void run() {
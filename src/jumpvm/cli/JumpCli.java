@@ -0,0 +1,352 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.cli;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Locale;
+
+import jumpvm.Main.VmType;
+import jumpvm.code.Instruction;
+import jumpvm.compiler.Compiler;
+import jumpvm.compiler.LocatedReader;
+import jumpvm.compiler.Parser;
+import jumpvm.compiler.bfma.BfMaCompiler;
+import jumpvm.compiler.bfma.BfMaLexer;
+import jumpvm.compiler.bfma.BfMaParser;
+import jumpvm.compiler.mama.MaMaCompiler;
+import jumpvm.compiler.mama.MaMaLexer;
+import jumpvm.compiler.mama.MaMaParser;
+import jumpvm.compiler.pama.PaMaCompiler;
+import jumpvm.compiler.pama.PaMaLexer;
+import jumpvm.compiler.pama.PaMaParser;
+import jumpvm.compiler.wima.WiMaCompiler;
+import jumpvm.compiler.wima.WiMaLexer;
+import jumpvm.compiler.wima.WiMaParser;
+import jumpvm.exception.CompileException;
+import jumpvm.exception.ExecutionException;
+import jumpvm.exception.ParseException;
+import jumpvm.vm.BfMa;
+import jumpvm.vm.CollectorStatistics;
+import jumpvm.vm.JumpVM;
+import jumpvm.vm.MaMa;
+import jumpvm.vm.PaMa;
+import jumpvm.vm.WiMa;
+
+/**
+ * Headless command line interface.
+ * 
+ * Compiles and runs one or more source files without the GUI. Program output goes to stdout, program input is read from stdin, and the number of executed steps
+ * and the wall time of each program are reported on stderr.
+ */
+public final class JumpCli {
+    /** Exit code: success. */
+    public static final int EXIT_OK = 0;
+
+    /** Exit code: a program failed to compile or run. */
+    public static final int EXIT_FAILURE = 1;
+
+    /** Exit code: invalid arguments. */
+    public static final int EXIT_USAGE = 2;
+
+    /** Usage text. */
+    private static final String USAGE = "Usage: jumpvm run [--vm bfma|mama|pama|wima] [--max-steps n] [--bytecode] [--optimize] [--store-size n] [--gc-threshold n] [--nursery-size n] file...";
+
+    /**
+     * Compile a source file into instructions.
+     * 
+     * @param type VM type
+     * @param reader source code
+     * @param optimize true to enable optional compiler optimizations
+     * @return compiled instructions
+     * @throws CompileException on failure
+     * @throws ParseException on failure
+     */
+    private static ArrayList<Instruction> compile(final VmType type, final LocatedReader reader, final boolean optimize) throws CompileException, ParseException {
+        final Parser<?, ?> parser;
+        final Compiler compiler;
+        switch (type) {
+        case BFMA:
+            parser = new BfMaParser(new BfMaLexer(reader));
+            compiler = new BfMaCompiler(optimize);
+            break;
+        case MAMA:
+            parser = new MaMaParser(new MaMaLexer(reader));
+            compiler = new MaMaCompiler();
+            break;
+        case PAMA:
+            parser = new PaMaParser(new PaMaLexer(reader));
+            compiler = new PaMaCompiler(optimize);
+            break;
+        case WIMA:
+            parser = new WiMaParser(new WiMaLexer(reader));
+            compiler = new WiMaCompiler(optimize);
+            break;
+        default:
+            throw new IllegalArgumentException(String.valueOf(type));
+        }
+
+        compiler.processProgram(parser.parse());
+        return compiler.getInstructions();
+    }
+
+    /**
+     * Create a new vm.
+     * 
+     * @param type VM type
+     * @param storeSize PaMa store size
+     * @param gcThreshold MaMa garbage collection threshold, 0 to disable garbage collection
+     * @param nurserySize MaMa nursery size, 0 to disable the nursery
+     * @return new vm
+     */
+    private static JumpVM createVM(final VmType type, final int storeSize, final int gcThreshold, final int nurserySize) {
+        switch (type) {
+        case BFMA:
+            return new BfMa();
+        case MAMA: {
+            final MaMa mama = new MaMa();
+            mama.setGcThreshold(gcThreshold);
+            mama.setNurserySize(nurserySize);
+            return mama;
+        }
+        case PAMA:
+            return new PaMa(storeSize);
+        case WIMA:
+            return new WiMa();
+        default:
+            throw new IllegalArgumentException(String.valueOf(type));
+        }
+    }
+
+    /**
+     * Returns the VM type for the given name or file extension.
+     * 
+     * @param name name or file extension, case insensitive
+     * @return the VM type or null
+     */
+    private static VmType getVmType(final String name) {
+        for (final VmType type : VmType.values()) {
+            if (type.name().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Command line entry point that does not go through {@link jumpvm.Main}.
+     * 
+     * @param args arguments
+     */
+    public static void main(final String... args) {
+        System.setProperty("java.awt.headless", "true");
+        System.exit(run(args));
+    }
+
+    /**
+     * Command line entry point.
+     * 
+     * @param args arguments
+     * @return exit code
+     */
+    public static int run(final String... args) {
+        if ((args.length == 0) || !"run".equals(args[0])) {
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        VmType type = null;
+        long maxSteps = Long.MAX_VALUE;
+        boolean bytecode = false;
+        boolean optimize = false;
+        int storeSize = PaMa.STORE_SIZE;
+        int gcThreshold = 0;
+        int nurserySize = 0;
+        final ArrayList<File> files = new ArrayList<File>();
+        for (int i = 1; i < args.length; ++i) {
+            if ("--vm".equals(args[i]) && ((i + 1) < args.length)) {
+                type = getVmType(args[++i]);
+                if (type == null) {
+                    System.err.println("Unknown vm: " + args[i]);
+                    return EXIT_USAGE;
+                }
+            } else if ("--max-steps".equals(args[i]) && ((i + 1) < args.length)) {
+                try {
+                    maxSteps = Long.parseLong(args[++i]);
+                } catch (final NumberFormatException e) {
+                    System.err.println("Invalid number of steps: " + args[i]);
+                    return EXIT_USAGE;
+                }
+            } else if ("--bytecode".equals(args[i])) {
+                bytecode = true;
+            } else if ("--optimize".equals(args[i])) {
+                optimize = true;
+            } else if ("--store-size".equals(args[i]) && ((i + 1) < args.length)) {
+                try {
+                    storeSize = Integer.parseInt(args[++i]);
+                } catch (final NumberFormatException e) {
+                    storeSize = -1;
+                }
+                if (storeSize < 0) {
+                    System.err.println("Invalid store size: " + args[i]);
+                    return EXIT_USAGE;
+                }
+            } else if ("--gc-threshold".equals(args[i]) && ((i + 1) < args.length)) {
+                try {
+                    gcThreshold = Integer.parseInt(args[++i]);
+                } catch (final NumberFormatException e) {
+                    gcThreshold = -1;
+                }
+                if (gcThreshold < 0) {
+                    System.err.println("Invalid gc threshold: " + args[i]);
+                    return EXIT_USAGE;
+                }
+            } else if ("--nursery-size".equals(args[i]) && ((i + 1) < args.length)) {
+                try {
+                    nurserySize = Integer.parseInt(args[++i]);
+                } catch (final NumberFormatException e) {
+                    nurserySize = -1;
+                }
+                if (nurserySize < 0) {
+                    System.err.println("Invalid nursery size: " + args[i]);
+                    return EXIT_USAGE;
+                }
+            } else if (args[i].startsWith("--")) {
+                System.err.println(USAGE);
+                return EXIT_USAGE;
+            } else {
+                files.add(new File(args[i]));
+            }
+        }
+
+        if (files.isEmpty()) {
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        final BufferedReader input = new BufferedReader(new InputStreamReader(System.in));
+        final Writer output = new BufferedWriter(new OutputStreamWriter(System.out));
+
+        int result = EXIT_OK;
+        for (final File file : files) {
+            VmType fileType = type;
+            if (fileType == null) {
+                final int dot = file.getName().lastIndexOf('.');
+                fileType = getVmType(file.getName().substring(dot + 1));
+            }
+
+            if (fileType == null) {
+                System.err.println(file + ": Unknown vm, use --vm");
+                result = EXIT_FAILURE;
+                continue;
+            }
+
+            if (!runFile(fileType, file, maxSteps, bytecode, optimize, storeSize, gcThreshold, nurserySize, input, output, System.err)) {
+                result = EXIT_FAILURE;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Compile and run a single source file.
+     * 
+     * @param type VM type
+     * @param file source file
+     * @param maxSteps maximum number of steps to execute
+     * @param bytecode true to use the vm's bytecode engine
+     * @param optimize true to enable optional compiler optimizations
+     * @param storeSize PaMa store size
+     * @param gcThreshold MaMa garbage collection threshold, 0 to disable garbage collection
+     * @param nurserySize MaMa nursery size, 0 to disable the nursery
+     * @param input program input
+     * @param output program output
+     * @param log status and error output
+     * @return true on success
+     */
+    private static boolean runFile(final VmType type, final File file, final long maxSteps, final boolean bytecode, final boolean optimize, final int storeSize, final int gcThreshold, final int nurserySize, final BufferedReader input, final Writer output, final PrintStream log) {
+        final long start = System.nanoTime();
+
+        final ArrayList<Instruction> instructions;
+        try {
+            final LocatedReader reader = new LocatedReader(new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)), file.getName());
+            try {
+                instructions = compile(type, reader, optimize);
+            } finally {
+                reader.close();
+            }
+        } catch (final IOException e) {
+            log.println(file + ": " + e.getLocalizedMessage());
+            return false;
+        } catch (final ParseException e) {
+            log.println("At " + e.getLocation() + ": " + e.getLocalizedMessage());
+            return false;
+        } catch (final CompileException e) {
+            log.println("At " + e.getNode().getBegin() + ": " + e.getLocalizedMessage());
+            return false;
+        }
+
+        final JumpVM vm = createVM(type, storeSize, gcThreshold, nurserySize);
+        vm.setReader(input);
+        vm.setWriter(output);
+        vm.reset(instructions);
+
+        boolean success = true;
+        long steps;
+        try {
+            steps = bytecode ? vm.runBytecode(maxSteps) : vm.run(maxSteps);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.println(file + ": The VM was unable to execute the instruction " + (e.getInstruction() == null ? "" : e.getInstruction().getMnemonic()) + ": " + cause);
+            steps = vm.getStepCounter().getValue();
+            success = false;
+        }
+        vm.getWriter().flush();
+
+        final double millis = (System.nanoTime() - start) / 1e6;
+        log.println(String.format(Locale.ROOT, "%s: %d steps, %.3f ms%s", file, steps, millis, vm.isRunning() && success ? " (step limit reached)" : ""));
+        if (vm instanceof MaMa) {
+            final CollectorStatistics nursery = ((MaMa) vm).getNurseryStatistics();
+            if (nursery.getCollections() > 0) {
+                log.println(String.format(Locale.ROOT, "%s: %d nursery collections, %d objects promoted (%.1f%%), %d reclaimed, %.3f ms pause (max %.3f ms)", file, nursery.getCollections(), nursery.getCopied(), nursery.getSurvivalRate() * 100, nursery.getReclaimed(), nursery.getTotalPause() / 1e6, nursery.getMaxPause() / 1e6));
+            }
+            final CollectorStatistics statistics = ((MaMa) vm).getCollectorStatistics();
+            if (statistics.getCollections() > 0) {
+                log.println(String.format(Locale.ROOT, "%s: %d collections, %d objects copied, %d reclaimed, %.3f ms pause (max %.3f ms)", file, statistics.getCollections(), statistics.getCopied(), statistics.getReclaimed(), statistics.getTotalPause() / 1e6, statistics.getMaxPause() / 1e6));
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Not meant for instantiation.
+     */
+    private JumpCli() {
+    }
+}
@@ -77,6 +77,16 @@ public abstract class Instruction implements MemoryObject {
         }
     }
 
+    /**
+     * Returns an equivalent instruction that does not depend on any {@link jumpvm.memory.Label} that might still change. Instructions without labels return
+     * themselves.
+     * 
+     * @return the linked instruction
+     */
+    public Instruction link() {
+        return this;
+    }
+
     /**
      * Returns the instruction's mnemonic.
      * 
@@ -0,0 +1,77 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.code;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, linked program.
+ * 
+ * All instructions are {@link Instruction#link() linked}, so later changes to the compiler's labels do not affect the image. An image can be shared by any number
+ * of vms.
+ */
+public final class ProgramImage {
+    /** Empty program. */
+    public static final ProgramImage EMPTY = new ProgramImage(new ArrayList<Instruction>());
+
+    /** Linked instructions. */
+    private final Instruction[] instructions;
+
+    /**
+     * Create a new ProgramImage.
+     * 
+     * @param instructions compiled instructions
+     */
+    public ProgramImage(final List<Instruction> instructions) {
+        this.instructions = new Instruction[instructions.size()];
+        for (int i = 0; i < this.instructions.length; ++i) {
+            this.instructions[i] = instructions.get(i).link();
+        }
+    }
+
+    /**
+     * Returns the instruction at the given address.
+     * 
+     * @param address address
+     * @return the instruction at the given address
+     */
+    public Instruction get(final int address) {
+        return instructions[address];
+    }
+
+    /**
+     * Returns the number of instructions.
+     * 
+     * @return the number of instructions
+     */
+    public int getSize() {
+        return instructions.length;
+    }
+
+    /**
+     * Returns the linked instructions as list.
+     * 
+     * @return the linked instructions
+     */
+    public ArrayList<Instruction> toList() {
+        return new ArrayList<Instruction>(Arrays.asList(instructions));
+    }
+}
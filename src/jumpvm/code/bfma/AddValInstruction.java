@@ -0,0 +1,65 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+package jumpvm.code.bfma;
+
+import jumpvm.ast.bfma.BfMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.vm.BfMa;
+
+/**
+ * Add a constant to the value in the current cell. Replaces a run of "+" and "-".
+ * 
+ * <pre>
+ * *ptr += amount;
+ * </pre>
+ */
+public class AddValInstruction extends BfMaInstruction {
+    /** Amount to add. */
+    private final int amount;
+
+    /**
+     * Create a new AddValInstruction.
+     * 
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param amount amount to add
+     */
+    public AddValInstruction(final BfMaAstNode sourceNode, final int amount) {
+        super(sourceNode);
+        this.amount = amount;
+    }
+
+    @Override
+    protected final void execute(final BfMa vm) throws ExecutionException {
+        setValue(vm, getValue(vm) + amount);
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Add " + amount + " to the value in the current cell";
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "add";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(amount);
+    }
+}
@@ -66,4 +66,9 @@ public class BackwardInstruction extends BfMaInstruction {
     public final String getParameter() {
         return String.valueOf(label.getAddress());
     }
+
+    @Override
+    public final BackwardInstruction link() {
+        return new BackwardInstruction((BfMaAstNode) getSourceNode(), label.copy());
+    }
 }
@@ -21,7 +21,6 @@ package jumpvm.code.bfma;
 import jumpvm.ast.bfma.BfMaAstNode;
 import jumpvm.code.Instruction;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
 import jumpvm.vm.BfMa;
 import jumpvm.vm.JumpVM;
 
@@ -62,11 +61,18 @@ public abstract class BfMaInstruction extends Instruction {
      * @return value in the current cell
      */
     protected final int getValue(final BfMa vm) {
-        try {
-            return vm.getStack().getElementAt(vm.getCellPointer()).getIntValue();
-        } catch (final IndexOutOfBoundsException e) {
-            return 0;
-        }
+        return getValueAt(vm, vm.getCellPointer().getValue());
+    }
+
+    /**
+     * Convenience method to get the value in any cell. Cells that were never written are zero.
+     * 
+     * @param vm BfMachine
+     * @param address address of the cell
+     * @return value in the cell
+     */
+    protected final int getValueAt(final BfMa vm, final int address) {
+        return vm.getTape().get(address);
     }
 
     /**
@@ -76,6 +82,17 @@ public abstract class BfMaInstruction extends Instruction {
      * @param value new value
      */
     protected final void setValue(final BfMa vm, final int value) {
-        vm.getStack().setElementAt(vm.getCellPointer(), new BasicValueObject(value, null, null));
+        setValueAt(vm, vm.getCellPointer().getValue(), value);
+    }
+
+    /**
+     * Convenience method to set the value in any cell.
+     * 
+     * @param vm BfMachine
+     * @param address address of the cell
+     * @param value new value
+     */
+    protected final void setValueAt(final BfMa vm, final int address, final int value) {
+        vm.getTape().set(address, value);
     }
 }
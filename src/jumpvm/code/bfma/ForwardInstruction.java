@@ -66,4 +66,9 @@ public class ForwardInstruction extends BfMaInstruction {
     public final String getParameter() {
         return String.valueOf(label.getAddress());
     }
+
+    @Override
+    public final ForwardInstruction link() {
+        return new ForwardInstruction((BfMaAstNode) getSourceNode(), label.copy());
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+package jumpvm.code.bfma;
+
+import jumpvm.ast.bfma.BfMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.Register;
+import jumpvm.vm.BfMa;
+
+/**
+ * Move the cell pointer by a constant, but not below zero. Replaces a run of "&gt;" or of "&lt;".
+ * 
+ * <pre>
+ * ptr = max(0, ptr + distance);
+ * </pre>
+ */
+public class MovePtrInstruction extends BfMaInstruction {
+    /** Distance to move. */
+    private final int distance;
+
+    /**
+     * Create a new MovePtrInstruction.
+     * 
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param distance distance to move
+     */
+    public MovePtrInstruction(final BfMaAstNode sourceNode, final int distance) {
+        super(sourceNode);
+        this.distance = distance;
+    }
+
+    @Override
+    protected final void execute(final BfMa vm) throws ExecutionException {
+        final Register cellPointer = vm.getCellPointer();
+        cellPointer.setValue(Math.max(0, cellPointer.getValue() + distance));
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Move the cell pointer by " + distance;
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "move";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(distance);
+    }
+}
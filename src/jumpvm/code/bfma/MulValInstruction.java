@@ -0,0 +1,119 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+package jumpvm.code.bfma;
+
+import jumpvm.ast.bfma.BfMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.Label;
+import jumpvm.vm.BfMa;
+
+/**
+ * Add multiples of the current cell to other cells and set the current cell to zero. Replaces multiply and copy loops like "[-&gt;+&gt;++&lt;&lt;]".
+ * 
+ * If the loop would move the cell pointer below zero, where it stops, the original loop that follows this instruction is executed instead. Otherwise that
+ * loop is skipped.
+ * 
+ * <pre>
+ * if(ptr + low &lt; 0) goto next;
+ * if(*ptr) { ptr[offset] += *ptr * factor; ...; *ptr = 0; }
+ * goto end;
+ * </pre>
+ */
+public class MulValInstruction extends BfMaInstruction {
+    /** Offsets of the target cells. */
+    private final int[] offsets;
+
+    /** Factors for each target cell. */
+    private final int[] factors;
+
+    /** Lowest offset the loop moves the cell pointer to. */
+    private final int low;
+
+    /** End of the original loop, null if there is none. */
+    private final Label label;
+
+    /**
+     * Create a new MulValInstruction.
+     * 
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param offsets offsets of the target cells
+     * @param factors factors for each target cell
+     * @param low lowest offset the loop moves the cell pointer to
+     * @param label end of the original loop, null if there is none
+     */
+    public MulValInstruction(final BfMaAstNode sourceNode, final int[] offsets, final int[] factors, final int low, final Label label) {
+        super(sourceNode);
+        this.offsets = offsets.clone();
+        this.factors = factors.clone();
+        this.low = low;
+        this.label = label;
+    }
+
+    @Override
+    protected final void execute(final BfMa vm) throws ExecutionException {
+        final int address = vm.getCellPointer().getValue();
+        if ((address + low) < 0) {
+            return;
+        }
+
+        final int value = getValue(vm);
+        if (0 != value) {
+            for (int i = 0; i < offsets.length; ++i) {
+                setValueAt(vm, address + offsets[i], getValueAt(vm, address + offsets[i]) + (value * factors[i]));
+            }
+            setValue(vm, 0);
+        }
+
+        if (label != null) {
+            vm.getProgramCounter().setValue(label.getAddress());
+        }
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Add multiples of the current cell to other cells, then set it to zero";
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "mul";
+    }
+
+    @Override
+    public final String getParameter() {
+        final StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < offsets.length; ++i) {
+            if (i != 0) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(offsets[i]);
+            stringBuilder.append("*");
+            stringBuilder.append(factors[i]);
+        }
+        if (label != null) {
+            stringBuilder.append(", ");
+            stringBuilder.append(label.getAddress());
+        }
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public final MulValInstruction link() {
+        return new MulValInstruction((BfMaAstNode) getSourceNode(), offsets, factors, low, label == null ? null : label.copy());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+package jumpvm.code.bfma;
+
+import jumpvm.ast.bfma.BfMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.Register;
+import jumpvm.vm.BfMa;
+
+/**
+ * Move the cell pointer in fixed steps until it reaches a zero cell. Replaces loops like "[&gt;]" and "[&lt;&lt;]".
+ * 
+ * <pre>
+ * while(*ptr) ptr = max(0, ptr + step);
+ * </pre>
+ */
+public class ScanPtrInstruction extends BfMaInstruction {
+    /** Distance to move per iteration. */
+    private final int step;
+
+    /**
+     * Create a new ScanPtrInstruction.
+     * 
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param step distance to move per iteration
+     */
+    public ScanPtrInstruction(final BfMaAstNode sourceNode, final int step) {
+        super(sourceNode);
+        this.step = step;
+    }
+
+    @Override
+    protected final void execute(final BfMa vm) throws ExecutionException {
+        final Register cellPointer = vm.getCellPointer();
+        int address = cellPointer.getValue();
+        while (0 != getValueAt(vm, address)) {
+            if ((address == 0) && (step < 0)) {
+                /* stuck at the left end of the band, loop forever like the original loop */
+                vm.getProgramCounter().decrement();
+                break;
+            }
+            address = Math.max(0, address + step);
+        }
+        cellPointer.setValue(address);
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Move the cell pointer by " + step + " until the current cell is zero";
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "scan";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(step);
+    }
+}
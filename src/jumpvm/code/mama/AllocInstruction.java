@@ -21,6 +21,8 @@ package jumpvm.code.mama;
 import jumpvm.ast.mama.MaMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.objects.ClosureObject;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -38,6 +40,9 @@ public class AllocInstruction extends MaMaInstruction {
     /** Name of the closure. */
     private final String closureName;
 
+    /** Tag of the pointer to the closure. */
+    private final StackTag tag;
+
     /**
      * Create a new AllocInstruction.
      * 
@@ -47,11 +52,17 @@ public class AllocInstruction extends MaMaInstruction {
     public AllocInstruction(final MaMaAstNode sourceNode, final String closureName) {
         super(sourceNode);
         this.closureName = closureName;
+        this.tag = StackTag.pointer(Type.POINTER_HEAP, "→" + closureName, "Reference to " + closureName);
+    }
+
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.ALLOC, bytecode.addName(closureName));
     }
 
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
-        pushAlloc(vm, new ClosureObject(NIL, NIL, closureName), "→" + closureName, "Reference to " + closureName);
+        pushAlloc(vm, new ClosureObject(NIL, NIL, closureName), tag);
     }
 
     @Override
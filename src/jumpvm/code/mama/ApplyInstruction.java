@@ -25,8 +25,6 @@ import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
 import jumpvm.memory.objects.FunValObject;
 import jumpvm.memory.objects.MemoryObject;
-import jumpvm.memory.objects.PointerObject;
-import jumpvm.memory.objects.PointerObject.Type;
 import jumpvm.memory.objects.VectorObject;
 import jumpvm.vm.MaMa;
 
@@ -58,13 +56,18 @@ public class ApplyInstruction extends MaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.APPLY);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
         final Heap hp = vm.getHeap();
         final Register pc = vm.getProgramCounter();
         final Register gp = vm.getGlobalPointer();
-        final MemoryObject object = hp.getElementAt(st.pop());
+        final MemoryObject object = hp.getElementAt(st.popInt());
         if (object instanceof FunValObject) {
             final FunValObject funval = (FunValObject) object;
 
@@ -75,7 +78,7 @@ public class ApplyInstruction extends MaMaInstruction {
             if (arguments instanceof VectorObject) {
                 final VectorObject vector = (VectorObject) arguments;
                 for (int i = 0; i < vector.getVector().size(); ++i) {
-                    st.push(new PointerObject(vector.getVector().get(i), Type.POINTER_HEAP, "Arg " + i, "Argument " + i));
+                    st.push(vector.getVector().get(i), ARGUMENT, i, 0);
                 }
             } else {
                 throw new ExecutionException(this, "not vector value");
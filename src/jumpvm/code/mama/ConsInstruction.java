@@ -26,6 +26,8 @@ import jumpvm.memory.objects.ClosureObject;
 import jumpvm.memory.objects.ConsObject;
 import jumpvm.memory.objects.MemoryObject;
 import jumpvm.memory.objects.NilPointerObject;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -42,6 +44,9 @@ import jumpvm.vm.MaMa;
  * </pre>
  */
 public class ConsInstruction extends MaMaInstruction {
+    /** Tag of the pointer to the list link. */
+    private static final StackTag TAG = StackTag.pointer(Type.POINTER_HEAP, "→cons", "Reference to List link");
+
     /**
      * Create a new ConsInstruction.
      * 
@@ -51,16 +56,21 @@ public class ConsInstruction extends MaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.CONS);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
         final Heap hp = vm.getHeap();
-        final int head = st.pop().getIntValue();
-        final int body = st.pop().getIntValue();
+        final int head = st.popInt();
+        final int body = st.popInt();
         final MemoryObject object = hp.getElementAt(body);
 
         if ((object instanceof ConsObject) || (object instanceof ClosureObject) || (object instanceof NilPointerObject)) {
-            st.push(hp.allocate(new ConsObject(head, body), "→cons", "Reference to List link"));
+            st.push(hp.allocate(new ConsObject(head, body)), TAG);
         } else {
             throw new ExecutionException(this, "not list object");
         }
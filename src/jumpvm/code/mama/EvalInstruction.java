@@ -23,7 +23,6 @@ import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Heap;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.BasicValueObject;
 import jumpvm.memory.objects.ClosureObject;
 import jumpvm.memory.objects.MemoryObject;
 import jumpvm.vm.MaMa;
@@ -53,6 +52,11 @@ public class EvalInstruction extends MaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.EVAL);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
@@ -61,14 +65,14 @@ public class EvalInstruction extends MaMaInstruction {
         final Register sp = vm.getStackPointer();
         final Register fp = vm.getFramePointer();
         final Register gp = vm.getGlobalPointer();
-        final MemoryObject object = hp.getElementAt(st.peek());
+        final MemoryObject object = hp.getElementAt(st.peekInt());
         if (object instanceof ClosureObject) {
             final ClosureObject closure = (ClosureObject) object;
 
             st.startFrame(MaMa.FRAME_SIZE);
-            st.push(new BasicValueObject(pc));
-            st.push(new BasicValueObject(fp));
-            st.push(new BasicValueObject(gp));
+            st.push(pc.getValue(), pc.getTag());
+            st.push(fp.getValue(), fp.getTag());
+            st.push(gp.getValue(), GLOBAL_POINTER);
 
             gp.setValue(closure.getGp());
             pc.setValue(closure.getCp());
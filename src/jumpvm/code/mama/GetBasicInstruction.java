@@ -45,10 +45,15 @@ public class GetBasicInstruction extends MaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.GETBASIC);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
-        final MemoryObject object = vm.getHeap().getElementAt(st.pop());
+        final MemoryObject object = vm.getHeap().getElementAt(st.popInt());
         if (object instanceof BasicValueObject) {
             st.push((BasicValueObject) object);
         } else {
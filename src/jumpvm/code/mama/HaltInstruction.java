@@ -39,11 +39,16 @@ public class HaltInstruction extends MaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.HALT);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
         final Heap hp = vm.getHeap();
-        final MemoryObject heapObject = hp.getElementAt(st.peek());
+        final MemoryObject heapObject = hp.getElementAt(st.peekInt());
         final PrintWriter writer = vm.getWriter();
 
         vm.getStatus().setValue(JumpVM.STATUS_STOP);
@@ -22,8 +22,8 @@ import jumpvm.ast.mama.MaMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Heap;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.BasicValueObject;
 import jumpvm.memory.objects.NilPointerObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -47,15 +47,20 @@ public class IsNilInstruction extends MaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.ISNIL);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
         final Heap hp = vm.getHeap();
 
-        if (hp.getElementAt(st.pop()) instanceof NilPointerObject) {
-            st.push(new BasicValueObject(1, "true", "true"));
+        if (hp.getElementAt(st.popInt()) instanceof NilPointerObject) {
+            st.push(1, StackTag.BOOLEAN);
         } else {
-            st.push(new BasicValueObject(0, "false", "false"));
+            st.push(0, StackTag.BOOLEAN);
         }
     }
 
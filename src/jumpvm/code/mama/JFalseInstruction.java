@@ -48,9 +48,14 @@ public class JFalseInstruction extends MaMaInstruction {
         this.l = l;
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.JFALSE, l.getAddress());
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
-        if (vm.getStack().pop().getIntValue() == 0) {
+        if (vm.getStack().popInt() == 0) {
             vm.getProgramCounter().setValue(l);
         }
     }
@@ -69,4 +74,9 @@ public class JFalseInstruction extends MaMaInstruction {
     public final String getParameter() {
         return String.valueOf(l.getAddress());
     }
+
+    @Override
+    public final JFalseInstruction link() {
+        return new JFalseInstruction((MaMaAstNode) getSourceNode(), l.copy());
+    }
 }
@@ -20,7 +20,7 @@ package jumpvm.code.mama;
 
 import jumpvm.ast.mama.MaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -46,9 +46,14 @@ public class LdBInstruction extends MaMaInstruction {
         this.value = value;
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.LDB, value);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
-        vm.getStack().push(new BasicValueObject(value, null, null));
+        vm.getStack().push(value, StackTag.VALUE);
     }
 
     @Override
@@ -21,7 +21,7 @@ package jumpvm.code.mama;
 import jumpvm.ast.mama.MaMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Label;
-import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -36,6 +36,9 @@ public class LdLInstruction extends MaMaInstruction {
     /** Label. */
     private final Label l;
 
+    /** Tag of the pushed pointer. */
+    private final StackTag tag;
+
     /**
      * Create new LdL instruction.
      * 
@@ -45,11 +48,17 @@ public class LdLInstruction extends MaMaInstruction {
     public LdLInstruction(final MaMaAstNode sourceNode, final Label l) {
         super(sourceNode);
         this.l = l;
+        this.tag = StackTag.pointer(l);
+    }
+
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.LDL, l.getAddress());
     }
 
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
-        vm.getStack().push(new PointerObject(l));
+        vm.getStack().push(l.getAddress(), tag);
     }
 
     @Override
@@ -66,4 +75,9 @@ public class LdLInstruction extends MaMaInstruction {
     public final String getParameter() {
         return String.valueOf(l.getAddress());
     }
+
+    @Override
+    public final LdLInstruction link() {
+        return new LdLInstruction((MaMaAstNode) getSourceNode(), l.copy());
+    }
 }
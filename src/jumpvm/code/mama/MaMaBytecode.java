@@ -0,0 +1,265 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.code.mama;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import jumpvm.ast.mama.BinOpExpression.BinaryOperator;
+import jumpvm.ast.mama.UnOpExpression.UnaryOperator;
+import jumpvm.code.Instruction;
+import jumpvm.code.ProgramImage;
+
+/**
+ * MaMachine program lowered to an {@code int[]} bytecode.
+ * 
+ * Every instruction occupies {@link #WIDTH} cells: the opcode followed by up to two operands. Thus the program counter still counts instructions and code
+ * addresses stored in memory are the same as for the {@link MaMaInstruction} objects. Names of closures, function values and vectors are kept in a separate
+ * table and referenced by their index.
+ */
+public final class MaMaBytecode {
+    /** Opcode of {@link OpBinInstruction} with {@link BinaryOperator#ADD}. */
+    public static final int ADD = 0;
+
+    /** Opcode of {@link AllocInstruction}. */
+    public static final int ALLOC = 1;
+
+    /** Opcode of {@link OpBinInstruction} with {@link BinaryOperator#AND}. */
+    public static final int AND = 2;
+
+    /** Opcode of {@link ApplyInstruction}. */
+    public static final int APPLY = 3;
+
+    /** Opcode of {@link ConsInstruction}. */
+    public static final int CONS = 4;
+
+    /** Opcode of {@link OpBinInstruction} with {@link BinaryOperator#DIV}. */
+    public static final int DIV = 5;
+
+    /** Opcode of {@link OpBinInstruction} with {@link BinaryOperator#EQL}. */
+    public static final int EQL = 6;
+
+    /** Opcode of {@link EvalInstruction}. */
+    public static final int EVAL = 7;
+
+    /** Opcode of {@link GetBasicInstruction}. */
+    public static final int GETBASIC = 8;
+
+    /** Opcode of {@link OpBinInstruction} with {@link BinaryOperator#GT}. */
+    public static final int GT = 9;
+
+    /** Opcode of {@link OpBinInstruction} with {@link BinaryOperator#GTE}. */
+    public static final int GTE = 10;
+
+    /** Opcode of {@link HaltInstruction}. */
+    public static final int HALT = 11;
+
+    /** Opcode of {@link HdInstruction}. */
+    public static final int HD = 12;
+
+    /** Opcode of {@link IsNilInstruction}. */
+    public static final int ISNIL = 13;
+
+    /** Opcode of {@link JFalseInstruction}. */
+    public static final int JFALSE = 14;
+
+    /** Opcode of {@link LdBInstruction}. */
+    public static final int LDB = 15;
+
+    /** Opcode of {@link LdLInstruction}. */
+    public static final int LDL = 16;
+
+    /** Opcode of {@link OpBinInstruction} with {@link BinaryOperator#LT}. */
+    public static final int LT = 17;
+
+    /** Opcode of {@link OpBinInstruction} with {@link BinaryOperator#LTE}. */
+    public static final int LTE = 18;
+
+    /** Opcode of {@link MarkInstruction}. */
+    public static final int MARK = 19;
+
+    /** Opcode of {@link OpUnInstruction} with {@link UnaryOperator#MINUS}. */
+    public static final int MINUS = 20;
+
+    /** Opcode of {@link MkBasicInstruction}. */
+    public static final int MKBASIC = 21;
+
+    /** Opcode of {@link MkClosInstruction}. */
+    public static final int MKCLOS = 22;
+
+    /** Opcode of {@link MkFunvalInstruction}. */
+    public static final int MKFUNVAL = 23;
+
+    /** Opcode of {@link MkVecInstruction}. */
+    public static final int MKVEC = 24;
+
+    /** Opcode of {@link OpBinInstruction} with {@link BinaryOperator#MUL}. */
+    public static final int MUL = 25;
+
+    /** Opcode of {@link OpBinInstruction} with {@link BinaryOperator#NEQ}. */
+    public static final int NEQ = 26;
+
+    /** Opcode of {@link NilInstruction}. */
+    public static final int NIL = 27;
+
+    /** Opcode of {@link OpUnInstruction} with {@link UnaryOperator#NOT}. */
+    public static final int NOT = 28;
+
+    /** Opcode of {@link OpBinInstruction} with {@link BinaryOperator#OR}. */
+    public static final int OR = 29;
+
+    /** Opcode of {@link PushGlobInstruction}. */
+    public static final int PUSHGLOB = 30;
+
+    /** Opcode of {@link PushLocInstruction}. */
+    public static final int PUSHLOC = 31;
+
+    /** Opcode of {@link ReturnInstruction}. */
+    public static final int RETURN = 32;
+
+    /** Opcode of {@link RewriteInstruction}. */
+    public static final int REWRITE = 33;
+
+    /** Opcode of {@link SlideInstruction}. */
+    public static final int SLIDE = 34;
+
+    /** Opcode of {@link OpBinInstruction} with {@link BinaryOperator#SUB}. */
+    public static final int SUB = 35;
+
+    /** Opcode of {@link TargInstruction}. */
+    public static final int TARG = 36;
+
+    /** Opcode of {@link TlInstruction}. */
+    public static final int TL = 37;
+
+    /** Opcode of {@link UJmpInstruction}. */
+    public static final int UJMP = 38;
+
+    /** Opcode of {@link UpdateInstruction}. */
+    public static final int UPDATE = 39;
+
+    /** Number of cells per instruction. */
+    public static final int WIDTH = 3;
+
+    /** Linked program this bytecode was created from. */
+    private final ProgramImage image;
+
+    /** Bytecode. */
+    private final int[] code;
+
+    /** Number of cells used in {@link #code} so far. */
+    private int size;
+
+    /** Name table. */
+    private final ArrayList<String> names;
+
+    /**
+     * Create a new MaMaBytecode.
+     * 
+     * @param image linked program, all instructions must be {@link MaMaInstruction}s
+     * @throws IllegalArgumentException if the program contains foreign instructions
+     */
+    public MaMaBytecode(final ProgramImage image) {
+        this.image = image;
+        this.code = new int[image.getSize() * WIDTH];
+        this.size = 0;
+        this.names = new ArrayList<String>();
+
+        for (int i = 0; i < image.getSize(); ++i) {
+            final Instruction instruction = image.get(i);
+            if (!(instruction instanceof MaMaInstruction)) {
+                throw new IllegalArgumentException("Not a MaMa instruction: " + instruction.getMnemonic());
+            }
+            ((MaMaInstruction) instruction).assemble(this);
+            if (size != ((i + 1) * WIDTH)) {
+                throw new IllegalStateException("Instruction not assembled: " + instruction.getMnemonic());
+            }
+        }
+    }
+
+    /**
+     * Add a name to the name table.
+     * 
+     * @param name name
+     * @return index of the name
+     */
+    public int addName(final String name) {
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    /**
+     * Append an instruction without operands.
+     * 
+     * @param opcode opcode
+     */
+    public void emit(final int opcode) {
+        emit(opcode, 0, 0);
+    }
+
+    /**
+     * Append an instruction with one operand.
+     * 
+     * @param opcode opcode
+     * @param a operand
+     */
+    public void emit(final int opcode, final int a) {
+        emit(opcode, a, 0);
+    }
+
+    /**
+     * Append an instruction with two operands.
+     * 
+     * @param opcode opcode
+     * @param a first operand
+     * @param b second operand
+     */
+    public void emit(final int opcode, final int a, final int b) {
+        code[size++] = opcode;
+        code[size++] = a;
+        code[size++] = b;
+    }
+
+    /**
+     * Returns a copy of the bytecode.
+     * 
+     * @return the bytecode
+     */
+    public int[] getCode() {
+        return Arrays.copyOf(code, code.length);
+    }
+
+    /**
+     * Returns the linked program this bytecode was created from.
+     * 
+     * @return the linked program
+     */
+    public ProgramImage getImage() {
+        return image;
+    }
+
+    /**
+     * Returns a copy of the name table.
+     * 
+     * @return the name table
+     */
+    public ArrayList<String> getNames() {
+        return new ArrayList<String>(names);
+    }
+}
@@ -22,6 +22,8 @@ import jumpvm.ast.AstNode;
 import jumpvm.code.Instruction;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.objects.MemoryObject;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.JumpVM;
 import jumpvm.vm.MaMa;
 
@@ -29,6 +31,22 @@ import jumpvm.vm.MaMa;
  * MaMa instruction.
  */
 public abstract class MaMaInstruction extends Instruction {
+    /** Tag of function arguments pushed from an argument vector, expecting the argument number as first argument. */
+    protected static final StackTag ARGUMENT = new StackTag(Type.POINTER_HEAP) {
+        @Override
+        public String getDescription(final int value, final int first, final int second) {
+            return "Arg " + first;
+        }
+
+        @Override
+        public String getHoverText(final int value, final int first, final int second) {
+            return "Argument " + first;
+        }
+    };
+
+    /** Tag of a saved global pointer in the organizational cells of a stack frame. */
+    protected static final StackTag GLOBAL_POINTER = StackTag.pointer(Type.POINTER_HEAP, "GP", "Global Pointer");
+
     /**
      * Convenience method to allocate an object on the heap an push the pointer to that object on the stack.
      * 
@@ -39,11 +57,10 @@ public abstract class MaMaInstruction extends Instruction {
      * 
      * @param vm MaMa
      * @param object object to allocate on the heap
-     * @param descriptionShort short description for the pointer
-     * @param descriptionLong long description for the pointer
+     * @param tag tag describing the pointer
      */
-    protected static void pushAlloc(final MaMa vm, final MemoryObject object, final String descriptionShort, final String descriptionLong) {
-        vm.getStack().push(vm.getHeap().allocate(object, descriptionShort, descriptionLong));
+    protected static void pushAlloc(final MaMa vm, final MemoryObject object, final StackTag tag) {
+        vm.getStack().push(vm.getHeap().allocate(object), tag);
     }
 
     /**
@@ -55,13 +72,24 @@ public abstract class MaMaInstruction extends Instruction {
         super(sourceNode);
     }
 
+    /**
+     * Append this instruction to the given bytecode.
+     * 
+     * @param bytecode bytecode
+     */
+    public abstract void assemble(MaMaBytecode bytecode);
+
     @Override
     public final void execute(final JumpVM jumpVM) throws ExecutionException {
         if (!(jumpVM instanceof MaMa)) {
             throw new ExecutionException(this, "wrong VM");
         }
 
-        execute((MaMa) jumpVM);
+        final MaMa mama = (MaMa) jumpVM;
+        execute(mama);
+
+        /* garbage is only collected between two instructions. */
+        mama.pollCollector();
     }
 
     /**
@@ -23,8 +23,7 @@ import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Label;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.BasicValueObject;
-import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -42,6 +41,9 @@ public class MarkInstruction extends MaMaInstruction {
     /** Label. */
     private final Label l;
 
+    /** Tag of the pushed pointer. */
+    private final StackTag tag;
+
     /**
      * Create new Mark instruction.
      * 
@@ -52,6 +54,12 @@ public class MarkInstruction extends MaMaInstruction {
     public MarkInstruction(final MaMaAstNode sourceNode, final Label l) {
         super(sourceNode);
         this.l = l;
+        this.tag = StackTag.pointer(l);
+    }
+
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.MARK, l.getAddress());
     }
 
     @Override
@@ -62,9 +70,9 @@ public class MarkInstruction extends MaMaInstruction {
         final Register gp = vm.getGlobalPointer();
 
         st.startFrame(MaMa.FRAME_SIZE);
-        st.push(new PointerObject(l));
-        st.push(new BasicValueObject(fp));
-        st.push(new BasicValueObject(gp));
+        st.push(l.getAddress(), tag);
+        st.push(fp.getValue(), fp.getTag());
+        st.push(gp.getValue(), GLOBAL_POINTER);
         fp.setValue(sp);
     }
 
@@ -82,4 +90,9 @@ public class MarkInstruction extends MaMaInstruction {
     public final String getParameter() {
         return String.valueOf(l.getAddress());
     }
+
+    @Override
+    public final MarkInstruction link() {
+        return new MarkInstruction((MaMaAstNode) getSourceNode(), l.copy());
+    }
 }
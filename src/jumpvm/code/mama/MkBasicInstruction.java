@@ -22,7 +22,9 @@ import jumpvm.ast.mama.MaMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Heap;
 import jumpvm.memory.Stack;
+import jumpvm.memory.objects.PointerObject.Type;
 import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -33,6 +35,19 @@ import jumpvm.vm.MaMa;
  * </pre>
  */
 public class MkBasicInstruction extends MaMaInstruction {
+    /** Tag of the pointer to the value, expecting the value as first argument. */
+    private static final StackTag TAG = new StackTag(Type.POINTER_HEAP) {
+        @Override
+        public String getDescription(final int value, final int first, final int second) {
+            return "→" + first;
+        }
+
+        @Override
+        public String getHoverText(final int value, final int first, final int second) {
+            return "Reference to Value " + first;
+        }
+    };
+
     /**
      * Create a new MkBasicInstruction.
      * 
@@ -42,13 +57,18 @@ public class MkBasicInstruction extends MaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.MKBASIC);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
         final Heap hp = vm.getHeap();
         final StackObject object = st.pop();
 
-        st.push(hp.allocate(object, "→" + object.getDisplayValue(), "Reference to Value " + object.getDisplayValue()));
+        st.push(hp.allocate(object), TAG, object.getIntValue(), 0);
     }
 
     @Override
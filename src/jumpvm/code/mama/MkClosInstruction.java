@@ -22,6 +22,8 @@ import jumpvm.ast.mama.MaMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Stack;
 import jumpvm.memory.objects.ClosureObject;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -36,6 +38,9 @@ public class MkClosInstruction extends MaMaInstruction {
     /** Name of the closure. */
     private final String closureName;
 
+    /** Tag of the pointer to the closure. */
+    private final StackTag tag;
+
     /**
      * Create a new MkClosInstruction.
      * 
@@ -45,14 +50,20 @@ public class MkClosInstruction extends MaMaInstruction {
     public MkClosInstruction(final MaMaAstNode sourceNode, final String closureName) {
         super(sourceNode);
         this.closureName = closureName;
+        this.tag = StackTag.pointer(Type.POINTER_HEAP, "→" + closureName, "Reference to " + closureName);
+    }
+
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.MKCLOS, bytecode.addName(closureName));
     }
 
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
-        final int cpValue = st.pop().getIntValue();
-        final int gpValue = st.pop().getIntValue();
-        pushAlloc(vm, new ClosureObject(cpValue, gpValue, closureName), "→" + closureName, "Reference to " + closureName);
+        final int cpValue = st.popInt();
+        final int gpValue = st.popInt();
+        pushAlloc(vm, new ClosureObject(cpValue, gpValue, closureName), tag);
     }
 
     @Override
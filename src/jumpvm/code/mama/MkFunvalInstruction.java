@@ -22,6 +22,8 @@ import jumpvm.ast.mama.MaMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Stack;
 import jumpvm.memory.objects.FunValObject;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -36,6 +38,9 @@ public class MkFunvalInstruction extends MaMaInstruction {
     /** Function name. */
     private final String name;
 
+    /** Tag of the pointer to the function value. */
+    private final StackTag tag;
+
     /**
      * Create a new MkFunvalInstruction.
      * 
@@ -45,15 +50,21 @@ public class MkFunvalInstruction extends MaMaInstruction {
     public MkFunvalInstruction(final MaMaAstNode sourceNode, final String name) {
         super(sourceNode);
         this.name = name;
+        this.tag = StackTag.pointer(Type.POINTER_HEAP, "→" + name, "Reference to " + name);
+    }
+
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.MKFUNVAL, bytecode.addName(name));
     }
 
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
-        final int cf = st.pop().getIntValue();
-        final int fap = st.pop().getIntValue();
-        final int fgp = st.pop().getIntValue();
-        pushAlloc(vm, new FunValObject(cf, fap, fgp, name), "→" + name, "Reference to " + name);
+        final int cf = st.popInt();
+        final int fap = st.popInt();
+        final int fgp = st.popInt();
+        pushAlloc(vm, new FunValObject(cf, fap, fgp, name), tag);
     }
 
     @Override
@@ -24,6 +24,8 @@ import java.util.Collections;
 import jumpvm.ast.mama.MaMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Stack;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.memory.objects.VectorObject;
 import jumpvm.vm.MaMa;
 
@@ -42,6 +44,9 @@ public class MkVecInstruction extends MaMaInstruction {
     /** Vector name. */
     private final String vectorName;
 
+    /** Tag of the pointer to the vector. */
+    private final StackTag tag;
+
     /**
      * Create new MkVec instruction.
      * 
@@ -53,6 +58,12 @@ public class MkVecInstruction extends MaMaInstruction {
         super(sourceNode);
         this.n = n;
         this.vectorName = vectorName;
+        this.tag = StackTag.pointer(Type.POINTER_HEAP, "→" + vectorName, "Reference to " + vectorName + " vector");
+    }
+
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.MKVEC, n, bytecode.addName(vectorName));
     }
 
     @Override
@@ -60,11 +71,11 @@ public class MkVecInstruction extends MaMaInstruction {
         final Stack st = vm.getStack();
         final ArrayList<Integer> vector = new ArrayList<Integer>();
         for (int i = 0; i < n; ++i) {
-            vector.add(st.pop().getIntValue());
+            vector.add(st.popInt());
         }
 
         Collections.reverse(vector);
-        pushAlloc(vm, new VectorObject(vector, vectorName), "→" + vectorName, "Reference to " + vectorName + " vector");
+        pushAlloc(vm, new VectorObject(vector, vectorName), tag);
     }
 
     @Override
@@ -21,6 +21,8 @@ package jumpvm.code.mama;
 import jumpvm.ast.mama.MaMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.objects.NilPointerObject;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -32,6 +34,9 @@ import jumpvm.vm.MaMa;
  * </pre>
  */
 public class NilInstruction extends MaMaInstruction {
+    /** Tag of the pointer to the empty list. */
+    private static final StackTag TAG = StackTag.pointer(Type.POINTER_HEAP, "→[]", "Reference to an list");
+
     /**
      * Create a new NilInstruction.
      * 
@@ -41,9 +46,14 @@ public class NilInstruction extends MaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.NIL);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
-        pushAlloc(vm, new NilPointerObject("[]", "Empty list"), "→[]", "Reference to an list");
+        pushAlloc(vm, new NilPointerObject("[]", "Empty list"), TAG);
     }
 
     @Override
@@ -22,7 +22,7 @@ import jumpvm.ast.mama.BinOpExpression.BinaryOperator;
 import jumpvm.ast.mama.MaMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -96,13 +96,57 @@ public class OpBinInstruction extends MaMaInstruction {
         }
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        switch (operator) {
+        case ADD:
+            bytecode.emit(MaMaBytecode.ADD);
+            break;
+        case AND:
+            bytecode.emit(MaMaBytecode.AND);
+            break;
+        case DIV:
+            bytecode.emit(MaMaBytecode.DIV);
+            break;
+        case EQL:
+            bytecode.emit(MaMaBytecode.EQL);
+            break;
+        case GT:
+            bytecode.emit(MaMaBytecode.GT);
+            break;
+        case GTE:
+            bytecode.emit(MaMaBytecode.GTE);
+            break;
+        case LT:
+            bytecode.emit(MaMaBytecode.LT);
+            break;
+        case LTE:
+            bytecode.emit(MaMaBytecode.LTE);
+            break;
+        case MUL:
+            bytecode.emit(MaMaBytecode.MUL);
+            break;
+        case NEQ:
+            bytecode.emit(MaMaBytecode.NEQ);
+            break;
+        case OR:
+            bytecode.emit(MaMaBytecode.OR);
+            break;
+        case SUB:
+            bytecode.emit(MaMaBytecode.SUB);
+            break;
+        default:
+            throw new IllegalArgumentException();
+        }
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
-        final int rhs = st.pop().getIntValue();
-        final int lhs = st.pop().getIntValue();
+        final int rhs = st.popInt();
+        final int lhs = st.popInt();
         final int result = binop(lhs, rhs);
-        st.push(new BasicValueObject(result, null, null));
+        st.push(result, StackTag.VALUE);
     }
 
     @Override
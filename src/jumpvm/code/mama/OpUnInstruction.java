@@ -22,7 +22,7 @@ import jumpvm.ast.mama.MaMaAstNode;
 import jumpvm.ast.mama.UnOpExpression.UnaryOperator;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -47,12 +47,26 @@ public class OpUnInstruction extends MaMaInstruction {
         this.operator = operator;
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        switch (operator) {
+        case MINUS:
+            bytecode.emit(MaMaBytecode.MINUS);
+            break;
+        case NOT:
+            bytecode.emit(MaMaBytecode.NOT);
+            break;
+        default:
+            throw new IllegalArgumentException();
+        }
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
-        final int rhs = st.pop().getIntValue();
+        final int rhs = st.popInt();
         final int result = unop(rhs);
-        st.push(new BasicValueObject(result, null, null));
+        st.push(result, StackTag.VALUE);
     }
 
     @Override
@@ -24,8 +24,8 @@ import jumpvm.memory.Heap;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
 import jumpvm.memory.objects.MemoryObject;
-import jumpvm.memory.objects.PointerObject;
 import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.memory.objects.VectorObject;
 import jumpvm.vm.MaMa;
 
@@ -44,6 +44,9 @@ public class PushGlobInstruction extends MaMaInstruction {
     /** Global name. */
     private final String name;
 
+    /** Tag of the pushed pointer. */
+    private final StackTag tag;
+
     /**
      * Create new PushGlob instruction.
      * 
@@ -55,6 +58,12 @@ public class PushGlobInstruction extends MaMaInstruction {
         super(sourceNode);
         this.j = j;
         this.name = name;
+        this.tag = StackTag.pointer(Type.POINTER_HEAP, "→" + name, "Reference to global " + name);
+    }
+
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.PUSHGLOB, j);
     }
 
     @Override
@@ -67,7 +76,7 @@ public class PushGlobInstruction extends MaMaInstruction {
         if (object instanceof VectorObject) {
             /* "j - 1": index starts at 0, not at 1! */
             final int address = ((VectorObject) object).getVector().get(j - 1);
-            st.push(new PointerObject(address, Type.POINTER_HEAP, "→" + name, "Reference to global " + name));
+            st.push(address, tag);
         } else {
             throw new ExecutionException(this, "not vector value");
         }
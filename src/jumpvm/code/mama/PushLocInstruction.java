@@ -48,12 +48,17 @@ public class PushLocInstruction extends MaMaInstruction {
         this.j = j;
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.PUSHLOC, j);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
         final Register sp = vm.getStackPointer();
 
-        st.push(st.getElementAt((sp.getValue() + 1) - j));
+        st.pushCopy((sp.getValue() + 1) - j);
     }
 
     @Override
@@ -24,9 +24,6 @@ import jumpvm.memory.Heap;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
 import jumpvm.memory.objects.FunValObject;
-import jumpvm.memory.objects.PointerObject;
-import jumpvm.memory.objects.PointerObject.Type;
-import jumpvm.memory.objects.StackObject;
 import jumpvm.memory.objects.VectorObject;
 import jumpvm.vm.MaMa;
 
@@ -71,6 +68,11 @@ public class ReturnInstruction extends MaMaInstruction {
         this.n = n;
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.RETURN, n);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
@@ -81,23 +83,23 @@ public class ReturnInstruction extends MaMaInstruction {
         final Register gp = vm.getGlobalPointer();
 
         if (sp.getValue() == (fp.getValue() + 1 + n)) {
-            pc.setValue(st.getElementAt(fp.getValue() - 2));
-            gp.setValue(st.getElementAt(fp));
-            st.setElementAt(fp.getValue() - 2, st.peek());
+            pc.setValue(st.getInt(fp.getValue() - 2));
+            gp.setValue(st.getInt(fp.getValue()));
+            st.copy(sp.getValue(), fp.getValue() - 2);
             /* if sp is decreased too early the fp value is lost. */
-            final StackObject newFP = st.getElementAt(fp.getValue() - 1);
-            sp.setValue(fp.getValue() - 2);
+            final int newFP = st.getInt(fp.getValue() - 1);
+            st.setStackPointer(fp.getValue() - 2);
             fp.setValue(newFP);
         } else {
-            final FunValObject funval = (FunValObject) hp.getElementAt(st.peek());
+            final FunValObject funval = (FunValObject) hp.getElementAt(st.peekInt());
 
             pc.setValue(funval.getCf());
             gp.setValue(funval.getFgp());
-            sp.setValue(sp.getValue() - n - 1);
+            st.setStackPointer(sp.getValue() - n - 1);
 
             final VectorObject vector = (VectorObject) hp.getElementAt(funval.getFap());
             for (int i = 0; i < vector.getVector().size(); ++i) {
-                st.push(new PointerObject(vector.getVector().get(i), Type.POINTER_HEAP, "Arg " + i, "Argument " + i));
+                st.push(vector.getVector().get(i), ARGUMENT, i, 0);
             }
         }
     }
@@ -49,13 +49,20 @@ public class RewriteInstruction extends MaMaInstruction {
         this.m = m;
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.REWRITE, m);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
         final Heap hp = vm.getHeap();
         final Register sp = vm.getStackPointer();
-        final MemoryObject object = hp.getElementAt(st.pop());
-        hp.setElementAt(st.getElementAt(sp.getValue() - (m - 1)), object);
+        final MemoryObject object = hp.getElementAt(st.popInt());
+        final int target = st.getInt(sp.getValue() - (m - 1));
+        vm.writeBarrier(target);
+        hp.setElementAt(target, object);
     }
 
     @Override
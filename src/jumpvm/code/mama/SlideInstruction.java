@@ -47,13 +47,18 @@ public class SlideInstruction extends MaMaInstruction {
         this.m = m;
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.SLIDE, m);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
         final Register sp = vm.getStackPointer();
 
-        st.setElementAt(sp.getValue() - m, st.peek());
-        sp.setValue(sp.getValue() - m);
+        st.copy(sp.getValue(), sp.getValue() - m);
+        st.setStackPointer(sp.getValue() - m);
     }
 
     @Override
@@ -26,7 +26,8 @@ import jumpvm.memory.Heap;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
 import jumpvm.memory.objects.FunValObject;
-import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.memory.objects.VectorObject;
 import jumpvm.vm.MaMa;
 
@@ -52,6 +53,9 @@ public class TargInstruction extends MaMaInstruction {
     /** Function name. */
     private final String name;
 
+    /** Tag of the pointer to the function value. */
+    private final StackTag tag;
+
     /**
      * Create new Targ instruction.
      * 
@@ -63,6 +67,12 @@ public class TargInstruction extends MaMaInstruction {
         super(sourceNode);
         this.n = n;
         this.name = name;
+        this.tag = StackTag.pointer(Type.POINTER_HEAP, "→" + name, "Reference to " + name);
+    }
+
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.TARG, n, bytecode.addName(name));
     }
 
     @Override
@@ -78,21 +88,21 @@ public class TargInstruction extends MaMaInstruction {
             return;
         }
 
-        final int h = st.getElementAt(fp.getValue() - 2).getIntValue();
+        final int h = st.getInt(fp.getValue() - 2);
         final int length = sp.getValue() - fp.getValue();
         final ArrayList<Integer> values = new ArrayList<Integer>();
 
         for (int i = 0; i < length; ++i) {
-            values.add(st.getElementAt(fp.getValue() + i + 1).getIntValue());
+            values.add(st.getInt(fp.getValue() + i + 1));
         }
 
-        final FunValObject funval = new FunValObject(pc.getValue() - 1, hp.allocate(new VectorObject(values, "Args"), name + " Args", name + " Args").getIntValue(), gp.getValue(), name);
+        final FunValObject funval = new FunValObject(pc.getValue() - 1, hp.allocate(new VectorObject(values, "Args")), gp.getValue(), name);
 
-        st.setElementAt(fp.getValue() - 2, hp.allocate(funval, "→" + name, "Reference to " + name));
-        gp.setValue(st.getElementAt(fp));
+        st.set(fp.getValue() - 2, hp.allocate(funval), tag);
+        gp.setValue(st.getInt(fp.getValue()));
 
-        final StackObject newFP = st.getElementAt(fp.getValue() - 1);
-        sp.setValue(fp.getValue() - 2);
+        final int newFP = st.getInt(fp.getValue() - 1);
+        st.setStackPointer(fp.getValue() - 2);
         fp.setValue(newFP);
         pc.setValue(h);
     }
@@ -24,8 +24,8 @@ import jumpvm.memory.Heap;
 import jumpvm.memory.Stack;
 import jumpvm.memory.objects.ConsObject;
 import jumpvm.memory.objects.MemoryObject;
-import jumpvm.memory.objects.PointerObject;
 import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.MaMa;
 
 /**
@@ -40,6 +40,9 @@ import jumpvm.vm.MaMa;
  * </pre>
  */
 public class TlInstruction extends MaMaInstruction {
+    /** Tag of the pushed pointer. */
+    private static final StackTag TAG = StackTag.pointer(Type.POINTER_HEAP, "→tl", "Reference to tail");
+
     /**
      * Create a new TlInstruction.
      * 
@@ -49,13 +52,18 @@ public class TlInstruction extends MaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.TL);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
         final Heap hp = vm.getHeap();
-        final MemoryObject object = hp.getElementAt(st.pop());
+        final MemoryObject object = hp.getElementAt(st.popInt());
         if (object instanceof ConsObject) {
-            st.push(new PointerObject(((ConsObject) object).getTl(), Type.POINTER_HEAP, "→tl", "Reference to tail"));
+            st.push(((ConsObject) object).getTl(), TAG);
         } else {
             throw new ExecutionException(this, "not cons value");
         }
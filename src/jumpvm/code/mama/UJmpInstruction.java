@@ -45,6 +45,11 @@ public class UJmpInstruction extends MaMaInstruction {
         this.l = l;
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.UJMP, l.getAddress());
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         vm.getProgramCounter().setValue(l);
@@ -64,4 +69,9 @@ public class UJmpInstruction extends MaMaInstruction {
     public final String getParameter() {
         return String.valueOf(l.getAddress());
     }
+
+    @Override
+    public final UJmpInstruction link() {
+        return new UJmpInstruction((MaMaAstNode) getSourceNode(), l.copy());
+    }
 }
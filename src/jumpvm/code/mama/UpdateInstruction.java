@@ -24,7 +24,6 @@ import jumpvm.memory.Heap;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
 import jumpvm.memory.objects.MemoryObject;
-import jumpvm.memory.objects.StackObject;
 import jumpvm.vm.MaMa;
 
 /**
@@ -48,6 +47,11 @@ public class UpdateInstruction extends MaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final MaMaBytecode bytecode) {
+        bytecode.emit(MaMaBytecode.UPDATE);
+    }
+
     @Override
     public final void execute(final MaMa vm) throws ExecutionException {
         final Stack st = vm.getStack();
@@ -56,14 +60,16 @@ public class UpdateInstruction extends MaMaInstruction {
         final Register sp = vm.getStackPointer();
         final Register fp = vm.getFramePointer();
         final Register gp = vm.getGlobalPointer();
-        final MemoryObject object = hp.getElementAt(st.peek());
-        hp.setElementAt(st.getElementAt(sp.getValue() - MaMa.FRAME_SIZE - 1), object);
+        final MemoryObject object = hp.getElementAt(st.peekInt());
+        final int target = st.getInt(sp.getValue() - MaMa.FRAME_SIZE - 1);
+        vm.writeBarrier(target);
+        hp.setElementAt(target, object);
 
-        pc.setValue(st.getElementAt(fp.getValue() - 2));
-        gp.setValue(st.getElementAt(fp));
+        pc.setValue(st.getInt(fp.getValue() - 2));
+        gp.setValue(st.getInt(fp.getValue()));
         /* if sp is decreased too early the fp value is lost. */
-        final StackObject newFP = st.getElementAt(fp.getValue() - 1);
-        sp.setValue(fp.getValue() - MaMa.FRAME_SIZE);
+        final int newFP = st.getInt(fp.getValue() - 1);
+        st.setStackPointer(fp.getValue() - MaMa.FRAME_SIZE);
         fp.setValue(newFP);
     }
 
@@ -19,8 +19,7 @@
 package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
-import jumpvm.memory.objects.BasicValueObject;
-import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StackTag;
 
 /**
  * Numerical addition.
@@ -31,6 +30,9 @@ import jumpvm.memory.objects.StackObject;
  * </pre>
  */
 public class AddInstruction extends BinaryOperationInstruction {
+    /** Tag of the result. */
+    private static final StackTag TAG = StackTag.operation(" + ");
+
     /**
      * Create a new AddInstruction.
      *
@@ -41,8 +43,18 @@ public class AddInstruction extends BinaryOperationInstruction {
     }
 
     @Override
-    protected final StackObject execute(final int lhs, final int rhs) {
-        return new BasicValueObject(lhs + rhs, null, String.valueOf(lhs) + " + " + String.valueOf(rhs));
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.ADD);
+    }
+
+    @Override
+    protected final int execute(final int lhs, final int rhs) {
+        return lhs + rhs;
+    }
+
+    @Override
+    protected final StackTag getTag() {
+        return TAG;
     }
 
     @Override
@@ -20,8 +20,7 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
-import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -38,21 +37,21 @@ public abstract class BinaryOperationInstruction extends PaMaInstruction {
     }
 
     /**
-     * Create a BasicValueObject with the boolean value of "false".
+     * Returns the boolean value "false".
      *
-     * @return BasicValueObject with the boolean value of "false"
+     * @return 0
      */
-    protected final BasicValueObject createFalse() {
-        return new BasicValueObject(0, "false", "false");
+    protected final int createFalse() {
+        return 0;
     }
 
     /**
-     * Create a BasicValueObject with the boolean value of "true".
+     * Returns the boolean value "true".
      *
-     * @return BasicValueObject with the boolean value of "true"
+     * @return 1
      */
-    protected final BasicValueObject createTrue() {
-        return new BasicValueObject(1, "true", "true");
+    protected final int createTrue() {
+        return 1;
     }
 
     /**
@@ -62,17 +61,26 @@ public abstract class BinaryOperationInstruction extends PaMaInstruction {
      * @param rhs rhs value
      * @return result of the binary operation
      */
-    protected abstract StackObject execute(int lhs, int rhs);
+    protected abstract int execute(int lhs, int rhs);
 
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int rhs = vm.pop().getIntValue();
-        final int lhs = vm.pop().getIntValue();
-        vm.push(execute(lhs, rhs));
+        final int rhs = vm.popInt();
+        final int lhs = vm.popInt();
+        vm.push(execute(lhs, rhs), getTag(), lhs, rhs);
     }
 
     @Override
     public final String getParameter() {
         return null;
     }
+
+    /**
+     * Returns the tag describing the result, given both operands as arguments.
+     *
+     * @return the tag describing the result
+     */
+    protected StackTag getTag() {
+        return StackTag.BOOLEAN;
+    }
 }
@@ -49,11 +49,16 @@ public class ChdInstruction extends PaMaInstruction {
         this.d = d;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.CHD, d);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int value = vm.peek().getIntValue();
-        final int address = vm.getElementAt(vm.getStackPointer().getValue() - DESCRIPTOR_ADDRESS).getIntValue();
-        if ((value < vm.getElementAt(address + d + d + 1).getIntValue()) || (value > vm.getElementAt(address + d + d + 2).getIntValue())) {
+        final int value = vm.peekInt();
+        final int address = vm.getInt(vm.getStackPointer().getValue() - DESCRIPTOR_ADDRESS);
+        if ((value < vm.getInt(address + d + d + 1)) || (value > vm.getInt(address + d + d + 2))) {
             throw new ExecutionException(this, "Index out of range");
         }
     }
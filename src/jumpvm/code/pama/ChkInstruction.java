@@ -51,9 +51,14 @@ public class ChkInstruction extends PaMaInstruction {
         this.q = q;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.CHK, p, q);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int value = vm.peek().getIntValue();
+        final int value = vm.peekInt();
         if ((value < p) || (value > q)) {
             throw new ExecutionException(this, "Index out of range");
         }
@@ -21,7 +21,6 @@ package jumpvm.code.pama;
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Label;
-import jumpvm.memory.objects.BasicValueObject;
 import jumpvm.vm.PaMa;
 
 /**
@@ -53,10 +52,15 @@ public class CupInstruction extends PaMaInstruction {
         this.address = address;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.CUP, size, address.getAddress());
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
         vm.getMarkPointer().setValue(vm.getStackPointer().getValue() - ((size + PaMa.FRAME_SIZE) - 1));
-        vm.setElementAt(vm.getMarkPointer().getValue() + PaMa.OFFSET_RSA, new BasicValueObject(vm.getProgramCounter()));
+        vm.set(vm.getMarkPointer().getValue() + PaMa.OFFSET_RSA, vm.getProgramCounter().getValue(), vm.getProgramCounter().getTag());
         vm.getProgramCounter().setValue(address);
     }
 
@@ -74,4 +78,9 @@ public class CupInstruction extends PaMaInstruction {
     public final String getParameter() {
         return String.valueOf(size) + " " + String.valueOf(address.getAddress());
     }
+
+    @Override
+    public final CupInstruction link() {
+        return new CupInstruction((PaMaAstNode) getSourceNode(), size, address.copy());
+    }
 }
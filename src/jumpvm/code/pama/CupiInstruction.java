@@ -20,7 +20,6 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
 import jumpvm.vm.PaMa;
 
 /**
@@ -56,10 +55,15 @@ public class CupiInstruction extends PaMaInstruction {
         this.identifier = identifier;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.CUPI, p, q);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        vm.setElementAt(vm.getMarkPointer().getValue() + PaMa.OFFSET_RSA, new BasicValueObject(vm.getProgramCounter()));
-        vm.getProgramCounter().setValue(vm.getElementAt(base(vm, p, vm.getElementAt(vm.getMarkPointer().getValue() + 2).getIntValue()) + q));
+        vm.set(vm.getMarkPointer().getValue() + PaMa.OFFSET_RSA, vm.getProgramCounter().getValue(), vm.getProgramCounter().getTag());
+        vm.getProgramCounter().setValue(vm.getInt(base(vm, p, vm.getInt(vm.getMarkPointer().getValue() + 2)) + q));
     }
 
     @Override
@@ -0,0 +1,83 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.code.pama;
+
+import jumpvm.ast.pama.PaMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.vm.PaMa;
+
+/**
+ * Call user procedure indirectly, finding the procedure descriptor via the display.
+ *
+ * <pre>
+ *     STORE[MP + 4] := PC;
+ *     PC := STORE[D[d] + q];
+ * </pre>
+ */
+public class CupidInstruction extends PaMaInstruction {
+    /** Static depth. */
+    private final int d;
+
+    /** Address. */
+    private final int q;
+
+    /** Procedure name or name of the variable. */
+    private final String identifier;
+
+    /**
+     * Create a new CupidInstruction.
+     *
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param d static depth
+     * @param q address
+     * @param identifier procedure name or name of the variable
+     */
+    public CupidInstruction(final PaMaAstNode sourceNode, final int d, final int q, final String identifier) {
+        super(sourceNode);
+        this.d = d;
+        this.q = q;
+        this.identifier = identifier;
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.CUPID, d, q);
+    }
+
+    @Override
+    public final void execute(final PaMa vm) throws ExecutionException {
+        vm.set(vm.getMarkPointer().getValue() + PaMa.OFFSET_RSA, vm.getProgramCounter().getValue(), vm.getProgramCounter().getTag());
+        vm.getProgramCounter().setValue(vm.getInt(vm.getDisplayEntry(d) + q));
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Call User Procedure \"" + identifier + "\" Indirectly via Display";
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "cupid";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(d) + " " + String.valueOf(q);
+    }
+}
@@ -40,9 +40,14 @@ public class DplInstruction extends PaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.DPL);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        vm.push(vm.peek());
+        vm.pushCopy(vm.getStackPointer().getValue());
     }
 
     @Override
@@ -0,0 +1,93 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.code.pama;
+
+import jumpvm.ast.pama.PaMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.objects.StackTag;
+import jumpvm.vm.PaMa;
+
+/**
+ * Set display.
+ *
+ * Makes the display hold the static chain of the current frame, which is of static depth d. Entries that are still valid are kept, so entering a procedure
+ * called directly or returning to the caller of a procedure of the same or the next depth only takes one or two steps.
+ *
+ * <pre>
+ * k := d;
+ * f := MP;
+ * while k >= 0 and (k > DP or D[k] != f) do
+ *     D[k] := f;
+ *     f := STORE[f + 1];
+ *     k := k - 1;
+ * end while
+ * DP := d;
+ * </pre>
+ */
+public class DspInstruction extends PaMaInstruction {
+    /** Tag of a display entry. */
+    private static final StackTag FRAME = StackTag.basic("frame", "Innermost frame of this depth");
+
+    /** Static depth. */
+    private final int d;
+
+    /**
+     * Create a new DspInstruction.
+     *
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param d static depth
+     */
+    public DspInstruction(final PaMaAstNode sourceNode, final int d) {
+        super(sourceNode);
+        this.d = d;
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.DSP, d);
+    }
+
+    @Override
+    public final void execute(final PaMa vm) throws ExecutionException {
+        final int dp = vm.getDisplayPointer().getValue();
+        int frame = vm.getMarkPointer().getValue();
+        for (int k = d; (k >= 0) && ((k > dp) || (vm.getDisplayEntry(k) != frame)); --k) {
+            vm.setDisplayEntry(k, frame, FRAME);
+            if (k > 0) {
+                frame = vm.getInt(frame + PaMa.OFFSET_SPD);
+            }
+        }
+        vm.setDisplayPointer(d);
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Set DiSPlay for depth " + d;
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "dsp";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(d);
+    }
+}
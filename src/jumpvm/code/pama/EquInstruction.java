@@ -19,7 +19,6 @@
 package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
-import jumpvm.memory.objects.StackObject;
 
 /**
  * Relation "equals".
@@ -40,7 +39,12 @@ public class EquInstruction extends BinaryOperationInstruction {
       }
 
       @Override
-      protected final StackObject execute(final int lhs, final int rhs) {
+      public final void assemble(final PaMaBytecode bytecode) {
+          bytecode.emit(PaMaBytecode.EQU);
+      }
+
+      @Override
+      protected final int execute(final int lhs, final int rhs) {
           return lhs == rhs ? createTrue() : createFalse();
       }
 
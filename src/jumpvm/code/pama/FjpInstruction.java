@@ -48,9 +48,14 @@ public class FjpInstruction extends PaMaInstruction {
         this.label = label;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.FJP, label.getAddress());
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int value = vm.pop().getIntValue();
+        final int value = vm.popInt();
         if (value == 0) {
             vm.getProgramCounter().setValue(label.getAddress());
         }
@@ -70,4 +75,9 @@ public class FjpInstruction extends PaMaInstruction {
     public final String getParameter() {
         return String.valueOf(label.getAddress());
     }
+
+    @Override
+    public final FjpInstruction link() {
+        return new FjpInstruction((PaMaAstNode) getSourceNode(), label.copy());
+    }
 }
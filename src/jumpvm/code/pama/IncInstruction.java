@@ -20,7 +20,7 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -45,10 +45,15 @@ public class IncInstruction extends PaMaInstruction {
         this.value = value;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.INC, value);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int oldValue = vm.pop().getIntValue();
-        vm.push(new BasicValueObject(oldValue + value, null, null));
+        final int oldValue = vm.popInt();
+        vm.push(oldValue + value, StackTag.VALUE);
     }
 
     @Override
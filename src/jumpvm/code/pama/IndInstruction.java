@@ -39,10 +39,15 @@ public class IndInstruction extends PaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.IND);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int address = vm.pop().getIntValue();
-        vm.push(vm.getElementAt(address));
+        final int address = vm.popInt();
+        vm.pushCopy(address);
     }
 
     @Override
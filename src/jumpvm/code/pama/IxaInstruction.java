@@ -20,7 +20,7 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -32,6 +32,9 @@ import jumpvm.vm.PaMa;
  * </pre>
  */
 public class IxaInstruction extends PaMaInstruction {
+    /** Tag of the pushed address. */
+    private static final StackTag TAG = StackTag.basic(null, "virtual start address");
+
     /** Size of sub field. */
     private final int offset;
 
@@ -46,11 +49,16 @@ public class IxaInstruction extends PaMaInstruction {
         this.offset = offset;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.IXA, offset);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int d = vm.pop().getIntValue();
-        final int g = vm.pop().getIntValue();
-        vm.push(new BasicValueObject(g + (d * offset), null, "virtual start address"));
+        final int d = vm.popInt();
+        final int g = vm.popInt();
+        vm.push(g + (d * offset), TAG);
     }
 
     @Override
@@ -46,9 +46,14 @@ public class IxjInstruction extends PaMaInstruction {
         this.jumptable = jumptable;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.IXJ, jumptable.getAddress());
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        vm.getProgramCounter().setValue((vm.pop().getIntValue() + jumptable.getAddress()) - 1);
+        vm.getProgramCounter().setValue((vm.popInt() + jumptable.getAddress()) - 1);
     }
 
     @Override
@@ -65,4 +70,9 @@ public class IxjInstruction extends PaMaInstruction {
     public final String getParameter() {
         return String.valueOf(jumptable.getAddress() - 1);
     }
+
+    @Override
+    public final IxjInstruction link() {
+        return new IxjInstruction((PaMaAstNode) getSourceNode(), jumptable.copy());
+    }
 }
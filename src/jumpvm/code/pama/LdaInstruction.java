@@ -21,6 +21,7 @@ package jumpvm.code.pama;
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -41,6 +42,9 @@ public class LdaInstruction extends PaMaInstruction {
     /** Object name. */
     private final String identifier;
 
+    /** Tag of the pushed pointer. */
+    private final StackTag tag;
+
     /**
      * Create a new LdaInstruction.
      *
@@ -54,11 +58,17 @@ public class LdaInstruction extends PaMaInstruction {
         this.p = p;
         this.q = q;
         this.identifier = identifier;
+        this.tag = StackTag.pointer(PointerObject.Type.POINTER_STACK, "→ " + identifier, "Pointer to " + identifier);
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.LDA, p, q);
     }
 
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        vm.push(new PointerObject(base(vm, p, vm.getMarkPointer().getValue()) + q, PointerObject.Type.POINTER_STACK, "→ " + identifier, "Pointer to " + identifier));
+        vm.push(base(vm, p, vm.getMarkPointer().getValue()) + q, tag);
     }
 
     @Override
@@ -0,0 +1,88 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.code.pama;
+
+import jumpvm.ast.pama.PaMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.StackTag;
+import jumpvm.vm.PaMa;
+
+/**
+ * Load address via the display.
+ *
+ * <pre>
+ * SP := SP + 1;
+ * STORE[SP] := D[d] + q;
+ * </pre>
+ */
+public class LdadInstruction extends PaMaInstruction {
+    /** Static depth. */
+    private final int d;
+
+    /** Relative address. */
+    private final int q;
+
+    /** Object name. */
+    private final String identifier;
+
+    /** Tag of the pushed pointer. */
+    private final StackTag tag;
+
+    /**
+     * Create a new LdadInstruction.
+     *
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param d static depth
+     * @param q relative address
+     * @param identifier object / address name
+     */
+    public LdadInstruction(final PaMaAstNode sourceNode, final int d, final int q, final String identifier) {
+        super(sourceNode);
+        this.d = d;
+        this.q = q;
+        this.identifier = identifier;
+        this.tag = StackTag.pointer(PointerObject.Type.POINTER_STACK, "→ " + identifier, "Pointer to " + identifier);
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.LDAD, d, q);
+    }
+
+    @Override
+    public final void execute(final PaMa vm) throws ExecutionException {
+        vm.push(vm.getDisplayEntry(d) + q, tag);
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Load address of " + identifier + " via Display";
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "ldad";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(d) + " " + String.valueOf(q);
+    }
+}
@@ -20,7 +20,7 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -41,6 +41,9 @@ public class LdcInstruction extends PaMaInstruction {
     /** Long description. */
     private final String descriptionLong;
 
+    /** Tag of the pushed value. */
+    private final StackTag tag;
+
     /**
      * Create a new LdcInstruction.
      *
@@ -54,11 +57,17 @@ public class LdcInstruction extends PaMaInstruction {
         this.value = value;
         this.descriptionShort = descriptionShort;
         this.descriptionLong = descriptionLong;
+        this.tag = StackTag.basic(descriptionShort, descriptionLong);
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.LDC, value);
     }
 
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        vm.push(new BasicValueObject(value, descriptionShort, descriptionLong));
+        vm.push(value, tag);
     }
 
     @Override
@@ -20,7 +20,6 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.StackObject;
 import jumpvm.vm.PaMa;
 
 /**
@@ -46,11 +45,15 @@ public class LddInstruction extends PaMaInstruction {
         this.offset = offset;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.LDD, offset);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int address = vm.getElementAt(vm.getStackPointer().getValue() - 2).getIntValue();
-        final StackObject object = vm.getElementAt(address + offset);
-        vm.push(object);
+        final int address = vm.getInt(vm.getStackPointer().getValue() - 2);
+        vm.pushCopy(address + offset);
     }
 
     @Override
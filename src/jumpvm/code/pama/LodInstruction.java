@@ -20,7 +20,6 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.StackObject;
 import jumpvm.vm.PaMa;
 
 /**
@@ -56,10 +55,14 @@ public class LodInstruction extends PaMaInstruction {
         this.identifier = identifier;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.LOD, p, q);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final StackObject object = vm.getElementAt(base(vm, p, vm.getMarkPointer().getValue()) + q);
-        vm.push(object);
+        vm.pushCopy(base(vm, p, vm.getMarkPointer().getValue()) + q);
     }
 
     @Override
@@ -0,0 +1,82 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.code.pama;
+
+import jumpvm.ast.pama.PaMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.vm.PaMa;
+
+/**
+ * Load Object Data via the display.
+ *
+ * <pre>
+ * SP := SP + 1;
+ * STORE[SP] := STORE[D[d] + q];
+ * </pre>
+ */
+public class LoddInstruction extends PaMaInstruction {
+    /** Static depth. */
+    private final int d;
+
+    /** Relative address. */
+    private final int q;
+
+    /** Object name. */
+    private final String identifier;
+
+    /**
+     * Create a new LoddInstruction.
+     *
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param d static depth
+     * @param q relative address
+     * @param identifier object name
+     */
+    public LoddInstruction(final PaMaAstNode sourceNode, final int d, final int q, final String identifier) {
+        super(sourceNode);
+        this.d = d;
+        this.q = q;
+        this.identifier = identifier;
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.LODD, d, q);
+    }
+
+    @Override
+    public final void execute(final PaMa vm) throws ExecutionException {
+        vm.pushCopy(vm.getDisplayEntry(d) + q);
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Load Object Data " + identifier + " via Display";
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "lodd";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(d) + " " + String.valueOf(q);
+    }
+}
@@ -40,11 +40,16 @@ public class LowInstruction extends PaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.LOW);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int dimension = vm.pop().getIntValue();
-        final int descriptor = vm.pop().getIntValue();
-        vm.push(vm.getElementAt(descriptor + dimension + dimension + 1));
+        final int dimension = vm.popInt();
+        final int descriptor = vm.popInt();
+        vm.pushCopy(descriptor + dimension + dimension + 1);
     }
 
     @Override
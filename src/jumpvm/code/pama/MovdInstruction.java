@@ -21,6 +21,7 @@ package jumpvm.code.pama;
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -41,6 +42,9 @@ public class MovdInstruction extends PaMaInstruction {
     /** Element name. */
     private final String identifier;
 
+    /** Tag of the array start pointer. */
+    private final StackTag tag;
+
     /**
      * Create a new MovdInstruction.
      *
@@ -52,19 +56,23 @@ public class MovdInstruction extends PaMaInstruction {
         super(sourceNode);
         this.q = q;
         this.identifier = identifier;
+        this.tag = StackTag.pointer(PointerObject.Type.POINTER_STACK, "̣→ " + identifier, "Start of array " + identifier);
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.MOVD, q);
     }
 
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int address = vm.getElementAt(vm.getMarkPointer().getValue() + q).getIntValue();
-        final int size = vm.getElementAt(vm.getMarkPointer().getValue() + q + 1).getIntValue();
-        final int subtractor = vm.getElementAt(vm.getMarkPointer().getValue() + q + 2).getIntValue();
+        final int address = vm.getInt(vm.getMarkPointer().getValue() + q);
+        final int size = vm.getInt(vm.getMarkPointer().getValue() + q + 1);
+        final int subtractor = vm.getInt(vm.getMarkPointer().getValue() + q + 2);
         final int sp = vm.getStackPointer().getValue();
 
-        for (int i = 0; i < size; ++i) {
-            vm.push(vm.getElementAt(address + subtractor + i));
-        }
-        vm.setElementAt(vm.getMarkPointer().getValue() + q, new PointerObject((sp + 1) - subtractor, PointerObject.Type.POINTER_STACK, "̣→ " + identifier, "Start of array " + identifier));
+        vm.pushRange(address + subtractor, size);
+        vm.set(vm.getMarkPointer().getValue() + q, (sp + 1) - subtractor, tag);
     }
 
     @Override
@@ -52,12 +52,15 @@ public class MovsInstruction extends PaMaInstruction {
         this.identifier = identifier;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.MOVS, q);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int base = vm.pop().getIntValue();
-        for (int i = 0; i < q; ++i) {
-            vm.push(vm.getElementAt(base + i));
-        }
+        final int base = vm.popInt();
+        vm.pushRange(base, q);
     }
 
     @Override
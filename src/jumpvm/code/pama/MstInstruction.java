@@ -20,7 +20,7 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -40,6 +40,9 @@ public class MstInstruction extends PaMaInstruction {
     /** Frame name. */
     private final String identifier;
 
+    /** Tag of the result cell. */
+    private final StackTag resultTag;
+
     /**
      * Create a new MstInstruction.
      *
@@ -51,16 +54,22 @@ public class MstInstruction extends PaMaInstruction {
         super(sourceNode);
         this.p = p;
         this.identifier = identifier;
+        this.resultTag = StackTag.basic("RVAL", "result of " + identifier);
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.MST, p);
     }
 
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
         vm.startFrame();
-        vm.push(new BasicValueObject(0, "RVAL", "result of " + identifier));
-        vm.push(new BasicValueObject(base(vm, p, vm.getMarkPointer().getValue()), "SPD", "Static predecessor"));
-        vm.push(new BasicValueObject(vm.getMarkPointer().getValue(), "DPD", "Dynamic predecessor"));
-        vm.push(new BasicValueObject(vm.getExtremePointer()));
-        vm.push(new BasicValueObject(0, "RA", "return address"));
+        vm.push(0, resultTag);
+        vm.push(base(vm, p, vm.getMarkPointer().getValue()), STATIC_PREDECESSOR);
+        vm.push(vm.getMarkPointer().getValue(), DYNAMIC_PREDECESSOR);
+        vm.push(vm.getExtremePointer().getValue(), vm.getExtremePointer().getTag());
+        vm.push(0, RETURN_ADDRESS);
     }
 
     @Override
@@ -0,0 +1,89 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.code.pama;
+
+import jumpvm.ast.pama.PaMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.objects.StackTag;
+import jumpvm.vm.PaMa;
+
+/**
+ * Mark stack, taking the static predecessor from the display.
+ *
+ * <pre>
+ * STORE[SP + 2] := D[d];
+ * STORE[SP + 3] := MP;
+ * STORE[SP + 4] := EP;
+ * SP := SP + 5;
+ * </pre>
+ */
+public class MstdInstruction extends PaMaInstruction {
+    /** Static depth of the declaring scope. */
+    private final int d;
+
+    /** Frame name. */
+    private final String identifier;
+
+    /** Tag of the result cell. */
+    private final StackTag resultTag;
+
+    /**
+     * Create a new MstdInstruction.
+     *
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param d static depth of the declaring scope
+     * @param identifier frame name
+     */
+    public MstdInstruction(final PaMaAstNode sourceNode, final int d, final String identifier) {
+        super(sourceNode);
+        this.d = d;
+        this.identifier = identifier;
+        this.resultTag = StackTag.basic("RVAL", "result of " + identifier);
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.MSTD, d);
+    }
+
+    @Override
+    public final void execute(final PaMa vm) throws ExecutionException {
+        vm.startFrame();
+        vm.push(0, resultTag);
+        vm.push(vm.getDisplayEntry(d), STATIC_PREDECESSOR);
+        vm.push(vm.getMarkPointer().getValue(), DYNAMIC_PREDECESSOR);
+        vm.push(vm.getExtremePointer().getValue(), vm.getExtremePointer().getTag());
+        vm.push(0, RETURN_ADDRESS);
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Mark stack of " + identifier + " via Display";
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "mstd";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(d);
+    }
+}
@@ -20,7 +20,7 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -43,6 +43,9 @@ public class MstfInstruction extends PaMaInstruction {
     /** Frame name. */
     private final String identifier;
 
+    /** Tag of the result cell. */
+    private final StackTag resultTag;
+
     /**
      * Create a new MstInstruction.
      *
@@ -56,16 +59,22 @@ public class MstfInstruction extends PaMaInstruction {
         this.p = p;
         this.q = q;
         this.identifier = identifier;
+        this.resultTag = StackTag.basic("RVAL", "result of " + identifier);
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.MSTF, p, q);
     }
 
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
         vm.startFrame();
-        vm.push(new BasicValueObject(0, "RVAL", "result of " + identifier));
-        vm.push(vm.getElementAt(base(vm, p, vm.getMarkPointer().getValue()) + q + 1));
-        vm.push(new BasicValueObject(vm.getMarkPointer()));
-        vm.push(new BasicValueObject(vm.getExtremePointer()));
-        vm.push(new BasicValueObject(0, "RA", "return address"));
+        vm.push(0, resultTag);
+        vm.pushCopy(base(vm, p, vm.getMarkPointer().getValue()) + q + 1);
+        vm.push(vm.getMarkPointer().getValue(), vm.getMarkPointer().getTag());
+        vm.push(vm.getExtremePointer().getValue(), vm.getExtremePointer().getTag());
+        vm.push(0, RETURN_ADDRESS);
     }
 
     @Override
@@ -20,8 +20,7 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
-import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -41,10 +40,14 @@ public class NegInstruction extends PaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.NEG);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final StackObject object = vm.pop();
-        vm.push(new BasicValueObject(-object.getIntValue(), null, null));
+        vm.push(-vm.popInt(), StackTag.VALUE);
     }
 
     @Override
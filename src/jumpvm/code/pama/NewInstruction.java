@@ -23,6 +23,7 @@ import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Register;
 import jumpvm.memory.objects.NilPointerObject;
 import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -39,9 +40,15 @@ import jumpvm.vm.PaMa;
  * </pre>
  */
 public class NewInstruction extends PaMaInstruction {
+    /** Initial content of the new cells. */
+    private static final NilPointerObject NIL = new NilPointerObject();
+
     /** Variable name. */
     private final String identifier;
 
+    /** Tag of the pointer to the new object. */
+    private final StackTag tag;
+
     /**
      * Create a new NewInstruction.
      *
@@ -51,24 +58,28 @@ public class NewInstruction extends PaMaInstruction {
     public NewInstruction(final PaMaAstNode sourceNode, final String identifier) {
         super(sourceNode);
         this.identifier = identifier;
+        this.tag = StackTag.pointer(PointerObject.Type.POINTER_STACK, "→ " + identifier, "Pointer to " + identifier);
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.NEW);
     }
 
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
         final Register np = vm.getNewPointer();
-        final int size = vm.pop().getIntValue();
-        final int address = vm.pop().getIntValue();
+        final int size = vm.popInt();
+        final int address = vm.popInt();
 
         if ((np.getValue() - size) <= vm.getExtremePointer().getValue()) {
             throw new ExecutionException(this, "Store overflow");
         }
 
         np.setValue(np.getValue() - size);
-        vm.setElementAt(address, new PointerObject(np.getValue(), PointerObject.Type.POINTER_STACK, "→ " + identifier, "Pointer to " + identifier));
+        vm.set(address, np.getValue(), tag);
 
-        for (int i = 0; i < size; ++i) {
-            vm.setElementAt(np.getValue() + i, new NilPointerObject());
-        }
+        vm.fillRange(np.getValue(), size, NIL);
     }
 
     @Override
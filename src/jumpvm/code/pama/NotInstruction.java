@@ -20,7 +20,7 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -40,13 +40,18 @@ public class NotInstruction extends PaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.NOT);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int value = vm.pop().getIntValue();
+        final int value = vm.popInt();
         if (value == 0) {
-            vm.push(new BasicValueObject(1, "true", "true"));
+            vm.push(1, StackTag.BOOLEAN);
         } else {
-            vm.push(new BasicValueObject(0, "false", "false"));
+            vm.push(0, StackTag.BOOLEAN);
         }
     }
 
@@ -19,7 +19,6 @@
 package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
-import jumpvm.memory.objects.StackObject;
 
 /**
  * Logical or.
@@ -40,7 +39,12 @@ public class OrInstruction extends BinaryOperationInstruction {
     }
 
     @Override
-    protected final StackObject execute(final int lhs, final int rhs) {
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.OR);
+    }
+
+    @Override
+    protected final int execute(final int lhs, final int rhs) {
         return ((lhs != 0) || (rhs != 0)) ? createTrue() : createFalse();
     }
 
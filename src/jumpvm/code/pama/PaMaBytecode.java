@@ -0,0 +1,279 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.code.pama;
+
+import java.util.Arrays;
+
+import jumpvm.code.Instruction;
+import jumpvm.code.ProgramImage;
+
+/**
+ * PaMachine program lowered to an {@code int[]} bytecode.
+ *
+ * Every instruction occupies {@link #WIDTH} cells: the opcode followed by up to two operands. Thus the program counter still counts instructions and code
+ * addresses stored in memory are the same as for the {@link PaMaInstruction} objects.
+ */
+public final class PaMaBytecode {
+    /** Opcode of {@link AddInstruction}. */
+    public static final int ADD = 0;
+
+    /** Opcode of {@link AndInstruction}. */
+    public static final int AND = 1;
+
+    /** Opcode of {@link ChdInstruction}. */
+    public static final int CHD = 2;
+
+    /** Opcode of {@link ChkInstruction}. */
+    public static final int CHK = 3;
+
+    /** Opcode of {@link CupInstruction}. */
+    public static final int CUP = 4;
+
+    /** Opcode of {@link CupiInstruction}. */
+    public static final int CUPI = 5;
+
+    /** Opcode of {@link CupidInstruction}. */
+    public static final int CUPID = 6;
+
+    /** Opcode of {@link DivInstruction}. */
+    public static final int DIV = 7;
+
+    /** Opcode of {@link DplInstruction}. */
+    public static final int DPL = 8;
+
+    /** Opcode of {@link DspInstruction}. */
+    public static final int DSP = 9;
+
+    /** Opcode of {@link EquInstruction}. */
+    public static final int EQU = 10;
+
+    /** Opcode of {@link FjpInstruction}. */
+    public static final int FJP = 11;
+
+    /** Opcode of {@link GeqInstruction}. */
+    public static final int GEQ = 12;
+
+    /** Opcode of {@link GrtInstruction}. */
+    public static final int GRT = 13;
+
+    /** Opcode of {@link HighInstruction}. */
+    public static final int HIGH = 14;
+
+    /** Opcode of {@link IncInstruction}. */
+    public static final int INC = 15;
+
+    /** Opcode of {@link IndInstruction}. */
+    public static final int IND = 16;
+
+    /** Opcode of {@link IxaInstruction}. */
+    public static final int IXA = 17;
+
+    /** Opcode of {@link IxjInstruction}. */
+    public static final int IXJ = 18;
+
+    /** Opcode of {@link LdaInstruction}. */
+    public static final int LDA = 19;
+
+    /** Opcode of {@link LdadInstruction}. */
+    public static final int LDAD = 20;
+
+    /** Opcode of {@link LdcInstruction}. */
+    public static final int LDC = 21;
+
+    /** Opcode of {@link LddInstruction}. */
+    public static final int LDD = 22;
+
+    /** Opcode of {@link LeqInstruction}. */
+    public static final int LEQ = 23;
+
+    /** Opcode of {@link LesInstruction}. */
+    public static final int LES = 24;
+
+    /** Opcode of {@link LodInstruction}. */
+    public static final int LOD = 25;
+
+    /** Opcode of {@link LoddInstruction}. */
+    public static final int LODD = 26;
+
+    /** Opcode of {@link LowInstruction}. */
+    public static final int LOW = 27;
+
+    /** Opcode of {@link MovdInstruction}. */
+    public static final int MOVD = 28;
+
+    /** Opcode of {@link MovsInstruction}. */
+    public static final int MOVS = 29;
+
+    /** Opcode of {@link MstInstruction}. */
+    public static final int MST = 30;
+
+    /** Opcode of {@link MstdInstruction}. */
+    public static final int MSTD = 31;
+
+    /** Opcode of {@link MstfInstruction}. */
+    public static final int MSTF = 32;
+
+    /** Opcode of {@link MstfdInstruction}. */
+    public static final int MSTFD = 33;
+
+    /** Opcode of {@link MulInstruction}. */
+    public static final int MUL = 34;
+
+    /** Opcode of {@link NegInstruction}. */
+    public static final int NEG = 35;
+
+    /** Opcode of {@link NeqInstruction}. */
+    public static final int NEQ = 36;
+
+    /** Opcode of {@link NewInstruction}. */
+    public static final int NEW = 37;
+
+    /** Opcode of {@link NotInstruction}. */
+    public static final int NOT = 38;
+
+    /** Opcode of {@link OrInstruction}. */
+    public static final int OR = 39;
+
+    /** Opcode of {@link PopInstruction}. */
+    public static final int POP = 40;
+
+    /** Opcode of {@link ReadlnInstruction}. */
+    public static final int READLN = 41;
+
+    /** Opcode of {@link RetfInstruction}. */
+    public static final int RETF = 42;
+
+    /** Opcode of {@link RetpInstruction}. */
+    public static final int RETP = 43;
+
+    /** Opcode of {@link SepInstruction}. */
+    public static final int SEP = 44;
+
+    /** Opcode of {@link SliInstruction}. */
+    public static final int SLI = 45;
+
+    /** Opcode of {@link SmpInstruction}. */
+    public static final int SMP = 46;
+
+    /** Opcode of {@link SofInstruction}. */
+    public static final int SOF = 47;
+
+    /** Opcode of {@link SspInstruction}. */
+    public static final int SSP = 48;
+
+    /** Opcode of {@link StoInstruction}. */
+    public static final int STO = 49;
+
+    /** Opcode of {@link StpInstruction}. */
+    public static final int STP = 50;
+
+    /** Opcode of {@link SubInstruction}. */
+    public static final int SUB = 51;
+
+    /** Opcode of {@link UjpInstruction}. */
+    public static final int UJP = 52;
+
+    /** Opcode of {@link WritelnInstruction}. */
+    public static final int WRITELN = 53;
+
+    /** Number of cells per instruction. */
+    public static final int WIDTH = 3;
+
+    /** Linked program this bytecode was created from. */
+    private final ProgramImage image;
+
+    /** Bytecode. */
+    private final int[] code;
+
+    /** Number of cells used in {@link #code} so far. */
+    private int size;
+
+    /**
+     * Create a new PaMaBytecode.
+     *
+     * @param image linked program, all instructions must be {@link PaMaInstruction}s
+     * @throws IllegalArgumentException if the program contains foreign instructions
+     */
+    public PaMaBytecode(final ProgramImage image) {
+        this.image = image;
+        this.code = new int[image.getSize() * WIDTH];
+        this.size = 0;
+
+        for (int i = 0; i < image.getSize(); ++i) {
+            final Instruction instruction = image.get(i);
+            if (!(instruction instanceof PaMaInstruction)) {
+                throw new IllegalArgumentException("Not a PaMa instruction: " + instruction.getMnemonic());
+            }
+            ((PaMaInstruction) instruction).assemble(this);
+            if (size != ((i + 1) * WIDTH)) {
+                throw new IllegalStateException("Instruction not assembled: " + instruction.getMnemonic());
+            }
+        }
+    }
+
+    /**
+     * Append an instruction without operands.
+     *
+     * @param opcode opcode
+     */
+    public void emit(final int opcode) {
+        emit(opcode, 0, 0);
+    }
+
+    /**
+     * Append an instruction with one operand.
+     *
+     * @param opcode opcode
+     * @param a operand
+     */
+    public void emit(final int opcode, final int a) {
+        emit(opcode, a, 0);
+    }
+
+    /**
+     * Append an instruction with two operands.
+     *
+     * @param opcode opcode
+     * @param a first operand
+     * @param b second operand
+     */
+    public void emit(final int opcode, final int a, final int b) {
+        code[size++] = opcode;
+        code[size++] = a;
+        code[size++] = b;
+    }
+
+    /**
+     * Returns a copy of the bytecode.
+     *
+     * @return the bytecode
+     */
+    public int[] getCode() {
+        return Arrays.copyOf(code, code.length);
+    }
+
+    /**
+     * Returns the linked program this bytecode was created from.
+     *
+     * @return the linked program
+     */
+    public ProgramImage getImage() {
+        return image;
+    }
+}
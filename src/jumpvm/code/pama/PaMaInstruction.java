@@ -21,11 +21,24 @@ package jumpvm.code.pama;
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.code.Instruction;
 import jumpvm.exception.ExecutionException;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.JumpVM;
 import jumpvm.vm.PaMa;
 
 /** PaMachine {@link Instruction}. */
 public abstract class PaMaInstruction extends Instruction {
+    /** Tag of the static predecessor cell of a frame. */
+    protected static final StackTag STATIC_PREDECESSOR = StackTag.basic("SPD", "Static predecessor");
+
+    /** Tag of the dynamic predecessor cell of a frame. */
+    protected static final StackTag DYNAMIC_PREDECESSOR = StackTag.basic("DPD", "Dynamic predecessor");
+
+    /** Tag of the extreme pointer cell of a frame. */
+    protected static final StackTag EXTREME_POINTER = StackTag.basic("EP", "Extreme pointer");
+
+    /** Tag of the return address cell of a frame. */
+    protected static final StackTag RETURN_ADDRESS = StackTag.basic("RA", "return address");
+
     /**
      * Create a new PaMaInstruction.
      *
@@ -35,6 +48,13 @@ public abstract class PaMaInstruction extends Instruction {
         super(sourceNode);
     }
 
+    /**
+     * Append this instruction to the given bytecode.
+     *
+     * @param bytecode bytecode
+     */
+    public abstract void assemble(PaMaBytecode bytecode);
+
     /**
      * Calculate the address of an object, given it's stacking depth and relative address.
      *
@@ -48,7 +68,7 @@ public abstract class PaMaInstruction extends Instruction {
             return a;
         }
 
-        return base(vm, p - 1, vm.getElementAt(a + 1).getIntValue());
+        return base(vm, p - 1, vm.getInt(a + 1));
     }
 
     @Override
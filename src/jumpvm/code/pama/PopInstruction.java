@@ -39,9 +39,14 @@ public class PopInstruction extends PaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.POP);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        vm.pop();
+        vm.popInt();
     }
 
     @Override
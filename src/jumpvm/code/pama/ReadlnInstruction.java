@@ -41,6 +41,11 @@ public class ReadlnInstruction extends PaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.READLN);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
         while (true) {
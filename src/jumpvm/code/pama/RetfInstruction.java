@@ -45,16 +45,21 @@ public class RetfInstruction extends PaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.RETF);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
         final int mp = vm.getMarkPointer().getValue();
-        vm.getProgramCounter().setValue(vm.getElementAt(mp + PaMa.OFFSET_RSA).getIntValue());
-        vm.getExtremePointer().setValue(vm.getElementAt(mp + PaMa.OFFSET_EP).getIntValue());
+        vm.getProgramCounter().setValue(vm.getInt(mp + PaMa.OFFSET_RSA));
+        vm.getExtremePointer().setValue(vm.getInt(mp + PaMa.OFFSET_EP));
         if (vm.getExtremePointer().getValue() >= vm.getNewPointer().getValue()) {
             throw new ExecutionException(this, "Store overflow");
         }
-        vm.getMarkPointer().setValue(vm.getElementAt(mp + 2).getIntValue());
-        vm.getStackPointer().setValue(mp);
+        vm.getMarkPointer().setValue(vm.getInt(mp + 2));
+        vm.setStackPointer(mp);
     }
 
     @Override
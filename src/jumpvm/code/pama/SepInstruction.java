@@ -47,6 +47,11 @@ public class SepInstruction extends PaMaInstruction {
         this.size = size;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.SEP, size);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
         vm.getExtremePointer().setValue(vm.getStackPointer().getValue() + size);
@@ -20,7 +20,6 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.StackObject;
 import jumpvm.vm.PaMa;
 
 /**
@@ -41,11 +40,16 @@ public class SliInstruction extends PaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.SLI);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final StackObject object = vm.pop();
-        vm.pop();
-        vm.push(object);
+        final int top = vm.getStackPointer().getValue();
+        vm.copy(top, top - 1);
+        vm.popInt();
     }
 
     @Override
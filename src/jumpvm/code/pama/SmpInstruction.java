@@ -44,6 +44,11 @@ public class SmpInstruction extends PaMaInstruction {
         this.p = p;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.SMP, p);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
         vm.getMarkPointer().setValue(vm.getStackPointer().getValue() - p - (PaMa.FRAME_SIZE - 1));
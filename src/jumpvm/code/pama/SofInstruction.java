@@ -20,7 +20,7 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -43,6 +43,9 @@ public class SofInstruction extends PaMaInstruction {
     /** Long description. */
     private final String descriptionLong;
 
+    /** Tag of the stored value. */
+    private final StackTag tag;
+
     /**
      * Create a new SofInstruction.
      *
@@ -58,11 +61,17 @@ public class SofInstruction extends PaMaInstruction {
         this.value = value;
         this.descriptionShort = descriptionShort;
         this.descriptionLong = descriptionLong;
+        this.tag = StackTag.basic(descriptionShort, descriptionLong);
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.SOF, offset, value);
     }
 
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        vm.setElementAt(offset + vm.getElementAt(vm.getStackPointer().getValue()).getIntValue(), new BasicValueObject(value, descriptionShort, descriptionLong));
+        vm.set(offset + vm.peekInt(), value, tag);
     }
 
     @Override
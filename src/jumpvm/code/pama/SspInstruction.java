@@ -20,7 +20,7 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -37,6 +37,9 @@ public class SspInstruction extends PaMaInstruction {
     /** Frame name. */
     private final String identifier;
 
+    /** Tag of the result cell. */
+    private final StackTag resultTag;
+
     /**
      * Create a new SspInstruction.
      *
@@ -48,6 +51,12 @@ public class SspInstruction extends PaMaInstruction {
         super(sourceNode);
         this.size = size;
         this.identifier = identifier;
+        this.resultTag = StackTag.basic("RVAL", "result of " + identifier);
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.SSP, size);
     }
 
     @Override
@@ -56,18 +65,18 @@ public class SspInstruction extends PaMaInstruction {
 
         if ((s - vm.getStackPointer().getValue()) > (PaMa.FRAME_SIZE - 1)) {
             vm.startFrame();
-            vm.push(new BasicValueObject(0, "RVAL", "result of " + identifier));
-            vm.push(new BasicValueObject(0, "SPD", "Static predecessor"));
-            vm.push(new BasicValueObject(0, "DPD", "Dynamic predecessor"));
-            vm.push(new BasicValueObject(0, "EP", "Extreme pointer"));
-            vm.push(new BasicValueObject(0, "RA", "return address"));
+            vm.push(0, resultTag);
+            vm.push(0, STATIC_PREDECESSOR);
+            vm.push(0, DYNAMIC_PREDECESSOR);
+            vm.push(0, EXTREME_POINTER);
+            vm.push(0, RETURN_ADDRESS);
         }
 
         while (vm.getStackPointer().getValue() < s) {
-            vm.push(new BasicValueObject(0, null, null));
+            vm.push(0, StackTag.VALUE);
         }
         while (vm.getStackPointer().getValue() > s) {
-            vm.pop();
+            vm.popInt();
         }
     }
 
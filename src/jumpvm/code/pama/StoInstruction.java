@@ -20,7 +20,7 @@ package jumpvm.code.pama;
 
 import jumpvm.ast.pama.PaMaAstNode;
 import jumpvm.exception.ExecutionException;
-import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.PaMa;
 
 /**
@@ -35,6 +35,9 @@ public class StoInstruction extends PaMaInstruction {
     /** Target name. */
     private final String identifier;
 
+    /** Tag of the stored value. */
+    private final StackTag tag;
+
     /**
      * Create a new StoInstruction.
      *
@@ -44,13 +47,19 @@ public class StoInstruction extends PaMaInstruction {
     public StoInstruction(final PaMaAstNode sourceNode, final String identifier) {
         super(sourceNode);
         this.identifier = identifier;
+        this.tag = StackTag.basic(identifier, null);
+    }
+
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.STO);
     }
 
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        final int value = vm.pop().getIntValue();
-        final int address = vm.pop().getIntValue();
-        vm.setElementAt(address, new BasicValueObject(value, identifier, null));
+        final int value = vm.popInt();
+        final int address = vm.popInt();
+        vm.set(address, value, tag);
     }
 
     @Override
@@ -33,6 +33,11 @@ public class StpInstruction extends PaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.STP);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
         vm.getStatus().setValue(PaMa.STATUS_STOP);
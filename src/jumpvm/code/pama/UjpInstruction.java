@@ -45,6 +45,11 @@ public class UjpInstruction extends PaMaInstruction {
         this.label = label;
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.UJP, label.getAddress());
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
         vm.getProgramCounter().setValue(label.getAddress());
@@ -64,4 +69,9 @@ public class UjpInstruction extends PaMaInstruction {
     public final String getParameter() {
         return String.valueOf(label.getAddress());
     }
+
+    @Override
+    public final UjpInstruction link() {
+        return new UjpInstruction((PaMaAstNode) getSourceNode(), label.copy());
+    }
 }
@@ -40,9 +40,14 @@ public class WritelnInstruction extends PaMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final PaMaBytecode bytecode) {
+        bytecode.emit(PaMaBytecode.WRITELN);
+    }
+
     @Override
     public final void execute(final PaMa vm) throws ExecutionException {
-        vm.getWriter().println(vm.pop().getIntValue());
+        vm.getWriter().println(vm.popInt());
     }
 
     @Override
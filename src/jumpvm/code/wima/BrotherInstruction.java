@@ -23,8 +23,8 @@ import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Heap;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.BasicValueObject;
 import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.WiMa;
 
 /**
@@ -49,6 +49,9 @@ public class BrotherInstruction extends WiMaInstruction {
     /** Structure name. */
     private final String name;
 
+    /** Tag of the pushed element address. */
+    private final StackTag tag;
+
     /**
      * Create new Brother instruction.
      * 
@@ -60,6 +63,22 @@ public class BrotherInstruction extends WiMaInstruction {
         super(sourceNode);
         this.i = i;
         this.name = name;
+        this.tag = new StackTag(null) {
+            @Override
+            public String getDescription(final int value, final int first, final int second) {
+                return "element " + value;
+            }
+
+            @Override
+            public String getHoverText(final int value, final int first, final int second) {
+                return "Unify with element " + value + " of " + name;
+            }
+        };
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.BROTHER, i);
     }
 
     @Override
@@ -68,12 +87,12 @@ public class BrotherInstruction extends WiMaInstruction {
         final Heap heap = vm.getHeap();
         final Register modus = vm.getModus();
 
-        final int value = stack.peek().getIntValue() + i;
+        final int value = stack.peekInt() + i;
 
         if (modus.getValue() == WiMa.MODUS_READ) {
             stack.push((StackObject) heap.getElementAt(value));
         } else {
-            stack.push(new BasicValueObject(value, "element " + value, "Unify with element " + value + " of " + name));
+            stack.push(value, tag);
         }
     }
 
@@ -23,8 +23,6 @@ import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Label;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.PointerObject;
-import jumpvm.memory.objects.PointerObject.Type;
 import jumpvm.vm.WiMa;
 
 /**
@@ -56,6 +54,11 @@ public class CallInstruction extends WiMaInstruction {
         this.arity = arity;
     }
 
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.CALL, address.getAddress(), arity);
+    }
+
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
         final Stack stack = vm.getStack();
@@ -64,7 +67,7 @@ public class CallInstruction extends WiMaInstruction {
         final Register fp = vm.getFramePointer();
 
         fp.setValue(sp.getValue() - arity - (WiMa.FRAME_SIZE - 1));
-        stack.setElementAt(fp.getValue() + WiMa.OFFSET_ADDR_POS, new PointerObject(pc.getValue(), Type.POINTER_PROGRAM, "+PC", "positive return address"));
+        stack.set(fp.getValue() + WiMa.OFFSET_ADDR_POS, pc.getValue(), POSITIVE_RETURN);
         pc.setValue(address);
     }
 
@@ -82,4 +85,9 @@ public class CallInstruction extends WiMaInstruction {
     public final String getParameter() {
         return String.valueOf(address.getAddress()) + " / " + String.valueOf(arity);
     }
+
+    @Override
+    public final CallInstruction link() {
+        return new CallInstruction((WiMaAstNode) getSourceNode(), address.copy(), arity);
+    }
 }
@@ -41,13 +41,18 @@ public class DelBtpInstruction extends WiMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.DELBTP);
+    }
+
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
         final Stack stack = vm.getStack();
         final Register fp = vm.getFramePointer();
         final Register btp = vm.getBackTrackPointer();
 
-        btp.setValue(stack.getElementAt(fp.getValue() + WiMa.OFFSET_REG_BTP));
+        btp.setValue(stack.getInt(fp.getValue() + WiMa.OFFSET_REG_BTP));
     }
 
     @Override
@@ -22,8 +22,8 @@ import jumpvm.ast.wima.WiMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Heap;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.BasicValueObject;
 import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.WiMa;
 
 /**
@@ -43,6 +43,9 @@ public class DownInstruction extends WiMaInstruction {
     /** Structure name. */
     private final String name;
 
+    /** Tag of the pushed element address. */
+    private final StackTag tag;
+
     /**
      * Create a new DownInstruction.
      * 
@@ -52,18 +55,24 @@ public class DownInstruction extends WiMaInstruction {
     public DownInstruction(final WiMaAstNode sourceNode, final String name) {
         super(sourceNode);
         this.name = name;
+        this.tag = StackTag.basic("element 1", "Unify with element 1 of " + name);
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.DOWN);
     }
 
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
         final Stack stack = vm.getStack();
         final Heap heap = vm.getHeap();
-        final int value = stack.peek().getIntValue() + 1;
+        final int value = stack.peekInt() + 1;
 
         if (vm.getModus().getValue() == WiMa.MODUS_READ) {
             stack.push((StackObject) heap.getElementAt(value));
         } else {
-            stack.push(new BasicValueObject(value, "element 1", "Unify with element 1 of " + name));
+            stack.push(value, tag);
         }
     }
 
@@ -21,9 +21,6 @@ package jumpvm.code.wima;
 import jumpvm.ast.wima.WiMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.BasicValueObject;
-import jumpvm.memory.objects.PointerObject;
-import jumpvm.memory.objects.PointerObject.Type;
 import jumpvm.vm.WiMa;
 
 /**
@@ -44,16 +41,21 @@ public class EnterInstruction extends WiMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.ENTER);
+    }
+
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
         final Stack stack = vm.getStack();
         stack.startFrame(WiMa.FRAME_SIZE + 1);
-        stack.push(new PointerObject(0, Type.POINTER_PROGRAM, "+PC", "positive return address"));
-        stack.push(new BasicValueObject(vm.getFramePointer()));
-        stack.push(new BasicValueObject(vm.getBackTrackPointer(), 0));
-        stack.push(new BasicValueObject(vm.getTrailPointer(), 0));
-        stack.push(new BasicValueObject(vm.getHeapPointer(), 0));
-        stack.push(new PointerObject(0, Type.POINTER_PROGRAM, "-PC", "negative return address"));
+        stack.push(0, POSITIVE_RETURN);
+        stack.push(vm.getFramePointer().getValue(), vm.getFramePointer().getTag());
+        stack.push(0, vm.getBackTrackPointer().getTag());
+        stack.push(0, vm.getTrailPointer().getTag());
+        stack.push(0, vm.getHeapPointer().getTag());
+        stack.push(0, NEGATIVE_RETURN);
     }
 
     @Override
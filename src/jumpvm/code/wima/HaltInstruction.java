@@ -54,6 +54,11 @@ public class HaltInstruction extends WiMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.HALT);
+    }
+
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
         final Stack stack = vm.getStack();
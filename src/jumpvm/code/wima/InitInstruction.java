@@ -22,9 +22,6 @@ import jumpvm.ast.wima.WiMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.BasicValueObject;
-import jumpvm.memory.objects.PointerObject;
-import jumpvm.memory.objects.PointerObject.Type;
 import jumpvm.vm.WiMa;
 
 /**
@@ -51,6 +48,11 @@ public class InitInstruction extends WiMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.INIT);
+    }
+
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
         final Stack stack = vm.getStack();
@@ -65,12 +67,12 @@ public class InitInstruction extends WiMaInstruction {
         btp.setValue(1);
 
         stack.startFrame(WiMa.FRAME_SIZE + 1);
-        stack.push(new PointerObject(0, Type.POINTER_PROGRAM, "+PC", "positive return address"));
-        stack.push(new BasicValueObject(fp, 0));
-        stack.push(new BasicValueObject(btp, 0));
-        stack.push(new BasicValueObject(tp, -1));
-        stack.push(new BasicValueObject(hp, -1));
-        stack.push(new PointerObject(0, Type.POINTER_PROGRAM, "-PC", "negative return address"));
+        stack.push(0, POSITIVE_RETURN);
+        stack.push(0, fp.getTag());
+        stack.push(0, btp.getTag());
+        stack.push(-1, tp.getTag());
+        stack.push(-1, hp.getTag());
+        stack.push(0, NEGATIVE_RETURN);
     }
 
     @Override
@@ -0,0 +1,111 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+
+package jumpvm.code.wima;
+
+import jumpvm.ast.wima.WiMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.Label;
+import jumpvm.memory.Register;
+import jumpvm.memory.Stack;
+import jumpvm.vm.WiMa;
+
+/**
+ * Jump to code for procedure as the last goal of a clause. The current frame is replaced by the new one unless it is protected by a back track point,
+ * otherwise the new frame returns directly to the current frame's caller.
+ * 
+ * <pre>
+ * if FP > BTP then
+ *     ST[FP + 1 ... FP + n + 4] := ST[SP - (n + 3) ... SP];
+ *     SP := FP + n + 4;
+ * else
+ *     ST[SP - (n + 5)] := ST[FP - 1];
+ *     ST[SP - (n + 4)] := ST[FP];
+ *     FP := SP - (n + 4);
+ * fi;
+ * PC := Adr(Code(p/n));
+ * </pre>
+ */
+public class LastCallInstruction extends WiMaInstruction {
+    /** Address of procedure. */
+    private final Label address;
+
+    /** Arity of procedure. */
+    private final int arity;
+
+    /**
+     * Create new LastCall instruction.
+     * 
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param address Address of procedure
+     * @param arity Arity of procedure
+     */
+    public LastCallInstruction(final WiMaAstNode sourceNode, final Label address, final int arity) {
+        super(sourceNode);
+        this.address = address;
+        this.arity = arity;
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.LASTCALL, address.getAddress(), arity);
+    }
+
+    @Override
+    public final void execute(final WiMa vm) throws ExecutionException {
+        final Stack stack = vm.getStack();
+        final Register pc = vm.getProgramCounter();
+        final Register sp = vm.getStackPointer();
+        final Register fp = vm.getFramePointer();
+        final Register btp = vm.getBackTrackPointer();
+
+        final int newFP = sp.getValue() - arity - (WiMa.FRAME_SIZE - 1);
+        if (fp.getValue() > btp.getValue()) {
+            /* move the new frame down, keeping the return address and frame pointer of the current one. */
+            final int count = sp.getValue() - newFP;
+            stack.copyRange(newFP + WiMa.OFFSET_REG_BTP, fp.getValue() + WiMa.OFFSET_REG_BTP, count);
+            stack.setStackPointer(fp.getValue() + count);
+        } else {
+            stack.copy(fp.getValue() + WiMa.OFFSET_ADDR_POS, newFP + WiMa.OFFSET_ADDR_POS);
+            stack.copy(fp.getValue() + WiMa.OFFSET_REG_FP, newFP + WiMa.OFFSET_REG_FP);
+            fp.setValue(newFP);
+        }
+        pc.setValue(address);
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Replace current frame and jump to code for procedure " + address.getName();
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "lastcall";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(address.getAddress()) + " / " + String.valueOf(arity);
+    }
+
+    @Override
+    public final LastCallInstruction link() {
+        return new LastCallInstruction((WiMaAstNode) getSourceNode(), address.copy(), arity);
+    }
+}
@@ -23,7 +23,7 @@ import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Label;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.WiMa;
 
 /**
@@ -37,6 +37,9 @@ public class NextAltInstruction extends WiMaInstruction {
     /** Next alternative. */
     private final Label label;
 
+    /** Tag of the negative return address. */
+    private final StackTag tag;
+
     /**
      * Create a new NextAltInstruction.
      * 
@@ -46,6 +49,12 @@ public class NextAltInstruction extends WiMaInstruction {
     public NextAltInstruction(final WiMaAstNode sourceNode, final Label label) {
         super(sourceNode);
         this.label = label;
+        this.tag = StackTag.pointer(label);
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.NEXTALT, label.getAddress());
     }
 
     @Override
@@ -53,7 +62,7 @@ public class NextAltInstruction extends WiMaInstruction {
         final Stack stack = vm.getStack();
         final Register fp = vm.getFramePointer();
 
-        stack.setElementAt(fp.getValue() + WiMa.OFFSET_ADDR_NEG, new PointerObject(label));
+        stack.set(fp.getValue() + WiMa.OFFSET_ADDR_NEG, label.getAddress(), tag);
     }
 
     @Override
@@ -70,4 +79,9 @@ public class NextAltInstruction extends WiMaInstruction {
     public final String getParameter() {
         return String.valueOf(label.getAddress());
     }
+
+    @Override
+    public final NextAltInstruction link() {
+        return new NextAltInstruction((WiMaAstNode) getSourceNode(), label.copy());
+    }
 }
@@ -45,19 +45,23 @@ public class PopEnvInstruction extends WiMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.POPENV);
+    }
+
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
         final Stack stack = vm.getStack();
         final Register pc = vm.getProgramCounter();
-        final Register sp = vm.getStackPointer();
         final Register fp = vm.getFramePointer();
         final Register btp = vm.getBackTrackPointer();
 
-        final int newPC = stack.getElementAt(fp.getValue() + WiMa.OFFSET_ADDR_POS).getIntValue();
-        final int newFP = stack.getElementAt(fp.getValue() + WiMa.OFFSET_REG_FP).getIntValue();
+        final int newPC = stack.getInt(fp.getValue() + WiMa.OFFSET_ADDR_POS);
+        final int newFP = stack.getInt(fp.getValue() + WiMa.OFFSET_REG_FP);
 
         if (fp.getValue() > btp.getValue()) {
-            sp.setValue(fp.getValue() - 2);
+            stack.setStackPointer(fp.getValue() - 2);
         }
         pc.setValue(newPC);
         fp.setValue(newFP);
@@ -52,12 +52,17 @@ public class PushArgInstruction extends WiMaInstruction {
         this.identifier = identifier;
     }
 
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.PUSHARG, i);
+    }
+
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
         final Stack stack = vm.getStack();
         final Register fp = vm.getFramePointer();
 
-        stack.push(stack.getElementAt(fp.getValue() + WiMa.OFFSET_ADDR_NEG + i));
+        stack.pushCopy(fp.getValue() + WiMa.OFFSET_ADDR_NEG + i);
     }
 
     @Override
@@ -22,7 +22,7 @@ import jumpvm.ast.wima.WiMaAstNode;
 import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.NilPointerObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.WiMa;
 
 /**
@@ -36,6 +36,9 @@ public class PushEnvInstruction extends WiMaInstruction {
     /** Number of arguments and variables. */
     private final int k;
 
+    /** Tag of the reserved cells. */
+    private final StackTag tag;
+
     /**
      * Create new PushEnv instruction.
      * 
@@ -45,6 +48,12 @@ public class PushEnvInstruction extends WiMaInstruction {
     public PushEnvInstruction(final WiMaAstNode sourceNode, final int k) {
         super(sourceNode);
         this.k = k;
+        this.tag = StackTag.nil("↛", "Reserved space for " + (k - (WiMa.FRAME_SIZE - 1)) + " arguments and globals");
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.PUSHENV, k);
     }
 
     @Override
@@ -54,10 +63,10 @@ public class PushEnvInstruction extends WiMaInstruction {
         final Register fp = vm.getFramePointer();
 
         while (sp.getValue() < (fp.getValue() + k)) {
-            stack.push(new NilPointerObject("↛", "Reserved space for " + (k - (WiMa.FRAME_SIZE - 1)) + " arguments and globals"));
+            stack.push(0, tag);
         }
         while (sp.getValue() > (fp.getValue() + k)) {
-            stack.pop();
+            stack.popInt();
         }
     }
 
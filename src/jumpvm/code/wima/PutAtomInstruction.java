@@ -20,6 +20,8 @@ package jumpvm.code.wima;
 
 import jumpvm.ast.wima.WiMaAstNode;
 import jumpvm.exception.ExecutionException;
+import jumpvm.memory.objects.StackTag;
+import jumpvm.memory.objects.SymbolTable;
 import jumpvm.vm.WiMa;
 
 /**
@@ -34,6 +36,12 @@ public class PutAtomInstruction extends WiMaInstruction {
     /** Identifier. */
     private final String identifier;
 
+    /** Id of the atom, interned at compile time. */
+    private final int symbol;
+
+    /** Tag of the pushed atom reference. */
+    private final StackTag tag;
+
     /**
      * Create new PutAtom instruction.
      * 
@@ -43,11 +51,18 @@ public class PutAtomInstruction extends WiMaInstruction {
     public PutAtomInstruction(final WiMaAstNode sourceNode, final String identifier) {
         super(sourceNode);
         this.identifier = identifier;
+        this.symbol = SymbolTable.internAtom(identifier);
+        this.tag = atomReference(identifier);
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.PUTATOM, symbol);
     }
 
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
-        vm.getStack().push(allocateAtomObject(vm, identifier));
+        vm.getStack().push(allocateAtomObject(vm, symbol, tag));
     }
 
     @Override
@@ -52,12 +52,17 @@ public class PutRefInstruction extends WiMaInstruction {
         this.identifier = identifier;
     }
 
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.PUTREF, offset);
+    }
+
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
         final Stack stack = vm.getStack();
         final Register fp = vm.getFramePointer();
 
-        stack.push(stack.getElementAt(fp.getValue() + offset));
+        stack.pushCopy(fp.getValue() + offset);
     }
 
     @Override
@@ -26,6 +26,8 @@ import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Heap;
 import jumpvm.memory.Stack;
 import jumpvm.memory.objects.MemoryObject;
+import jumpvm.memory.objects.StackTag;
+import jumpvm.memory.objects.SymbolTable;
 import jumpvm.vm.WiMa;
 
 /**
@@ -43,6 +45,12 @@ public class PutStructInstruction extends WiMaInstruction {
     /** Arity. */
     private final int n;
 
+    /** Id of the functor, interned at compile time. */
+    private final int functor;
+
+    /** Tag of the pushed structure reference. */
+    private final StackTag tag;
+
     /**
      * Create new PutStruct instruction.
      * 
@@ -54,6 +62,13 @@ public class PutStructInstruction extends WiMaInstruction {
         super(sourceNode);
         this.f = f;
         this.n = n;
+        this.functor = SymbolTable.internFunctor(f, n);
+        this.tag = structureReference(f, n);
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.PUTSTRUCT, functor, n);
     }
 
     @Override
@@ -66,10 +81,10 @@ public class PutStructInstruction extends WiMaInstruction {
         }
 
         Collections.reverse(elements);
-        stack.push(allocateStructureObject(vm, f, n));
+        stack.push(allocateStructureObject(vm, functor, tag));
 
         for (final MemoryObject object : elements) {
-            heap.allocate(object, null, null);
+            heap.allocate(object);
         }
     }
 
@@ -25,6 +25,8 @@ import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
 import jumpvm.memory.objects.NilPointerObject;
 import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.WiMa;
 
 /**
@@ -43,6 +45,9 @@ public class PutVarInstruction extends WiMaInstruction {
     /** Variable name. */
     private final String identifier;
 
+    /** Tag of the variable reference. */
+    private final StackTag tag;
+
     /**
      * Create new PutVar Instruction.
      * 
@@ -54,6 +59,12 @@ public class PutVarInstruction extends WiMaInstruction {
         super(sourceNode);
         this.offset = offset;
         this.identifier = identifier;
+        this.tag = StackTag.pointer(Type.POINTER_HEAP, "↺" + identifier, "Reference to unbound variable " + identifier);
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.PUTVAR, offset);
     }
 
     @Override
@@ -63,11 +74,11 @@ public class PutVarInstruction extends WiMaInstruction {
         final Register fp = vm.getFramePointer();
 
         /* pointer to itself. */
-        final PointerObject object = heap.allocate(new NilPointerObject(), "↺" + identifier, "Reference to unbound variable " + identifier);
+        final PointerObject object = heap.allocate(new NilPointerObject(), tag);
         heap.setElementAt(object.getIntValue(), object);
 
-        stack.push(object);
-        stack.setElementAt(fp.getValue() + offset, object);
+        stack.push(object.getIntValue(), tag);
+        stack.set(fp.getValue() + offset, object.getIntValue(), tag);
     }
 
     @Override
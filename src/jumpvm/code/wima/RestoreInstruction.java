@@ -42,14 +42,19 @@ public class RestoreInstruction extends WiMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.RESTORE);
+    }
+
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
         final Stack stack = vm.getStack();
         final Register pc = vm.getProgramCounter();
         final Register fp = vm.getFramePointer();
 
-        pc.setValue(stack.getElementAt(fp.getValue() + WiMa.OFFSET_ADDR_POS));
-        fp.setValue(stack.getElementAt(fp.getValue() + WiMa.OFFSET_REG_FP));
+        pc.setValue(stack.getInt(fp.getValue() + WiMa.OFFSET_ADDR_POS));
+        fp.setValue(stack.getInt(fp.getValue() + WiMa.OFFSET_REG_FP));
     }
 
     @Override
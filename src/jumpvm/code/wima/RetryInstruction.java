@@ -0,0 +1,96 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+
+package jumpvm.code.wima;
+
+import jumpvm.ast.wima.WiMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.Label;
+import jumpvm.memory.Register;
+import jumpvm.memory.Stack;
+import jumpvm.memory.objects.StackTag;
+import jumpvm.vm.WiMa;
+
+/**
+ * Continue with next alternative and jump to one of several clauses.
+ * 
+ * <pre>
+ * ST[FP + 4] := l;
+ * PC := c;
+ * </pre>
+ */
+public class RetryInstruction extends WiMaInstruction {
+    /** Next alternative. */
+    private final Label label;
+
+    /** Code of the clause. */
+    private final Label clause;
+
+    /** Tag of the negative return address. */
+    private final StackTag tag;
+
+    /**
+     * Create a new RetryInstruction.
+     * 
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param label next alternative
+     * @param clause code of the clause
+     */
+    public RetryInstruction(final WiMaAstNode sourceNode, final Label label, final Label clause) {
+        super(sourceNode);
+        this.label = label;
+        this.clause = clause;
+        this.tag = StackTag.pointer(label);
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.RETRY, label.getAddress(), clause.getAddress());
+    }
+
+    @Override
+    public final void execute(final WiMa vm) throws ExecutionException {
+        final Stack stack = vm.getStack();
+        final Register pc = vm.getProgramCounter();
+        final Register fp = vm.getFramePointer();
+
+        stack.set(fp.getValue() + WiMa.OFFSET_ADDR_NEG, label.getAddress(), tag);
+        pc.setValue(clause);
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Continue with next alternative at instruction " + label.getAddress() + " (" + label.getName() + ") and jump to clause " + clause.getName();
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "retry";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(label.getAddress()) + " / " + String.valueOf(clause.getAddress());
+    }
+
+    @Override
+    public final RetryInstruction link() {
+        return new RetryInstruction((WiMaAstNode) getSourceNode(), label.copy(), clause.copy());
+    }
+}
@@ -23,8 +23,7 @@ import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Label;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.BasicValueObject;
-import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.WiMa;
 
 /**
@@ -42,6 +41,9 @@ public class SetBtpInstruction extends WiMaInstruction {
     /** Next alternative. */
     private final Label label;
 
+    /** Tag of the negative return address. */
+    private final StackTag tag;
+
     /**
      * Create new SetBtpInstruction.
      * 
@@ -51,6 +53,12 @@ public class SetBtpInstruction extends WiMaInstruction {
     public SetBtpInstruction(final WiMaAstNode sourceNode, final Label label) {
         super(sourceNode);
         this.label = label;
+        this.tag = StackTag.pointer(label);
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.SETBTP, label.getAddress());
     }
 
     @Override
@@ -61,10 +69,10 @@ public class SetBtpInstruction extends WiMaInstruction {
         final Register tp = vm.getTrailPointer();
 
         final int fp = vm.getFramePointer().getValue();
-        stack.setElementAt(fp + WiMa.OFFSET_REG_BTP, new BasicValueObject(btp));
-        stack.setElementAt(fp + WiMa.OFFSET_REG_TP, new BasicValueObject(tp));
-        stack.setElementAt(fp + WiMa.OFFSET_REG_HP, new BasicValueObject(hp));
-        stack.setElementAt(fp + WiMa.OFFSET_ADDR_NEG, new PointerObject(label));
+        stack.set(fp + WiMa.OFFSET_REG_BTP, btp.getValue(), btp.getTag());
+        stack.set(fp + WiMa.OFFSET_REG_TP, tp.getValue(), tp.getTag());
+        stack.set(fp + WiMa.OFFSET_REG_HP, hp.getValue(), hp.getTag());
+        stack.set(fp + WiMa.OFFSET_ADDR_NEG, label.getAddress(), tag);
         btp.setValue(fp);
     }
 
@@ -82,4 +90,9 @@ public class SetBtpInstruction extends WiMaInstruction {
     public final String getParameter() {
         return String.valueOf(label.getAddress());
     }
+
+    @Override
+    public final SetBtpInstruction link() {
+        return new SetBtpInstruction((WiMaAstNode) getSourceNode(), label.copy());
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+
+package jumpvm.code.wima;
+
+import java.util.HashMap;
+import java.util.Map.Entry;
+
+import jumpvm.ast.wima.WiMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.Label;
+import jumpvm.memory.Register;
+import jumpvm.memory.objects.AtomObject;
+import jumpvm.vm.WiMa;
+
+/**
+ * Dispatch on the atom in the first argument through a hash table.
+ * 
+ * <pre>
+ * case H[deref(ST[FP + 5])] of
+ * (ATOM: a):
+ *     if t contains a then
+ *         PC := t[a];
+ *     else if o = nil then
+ *         goto backtrack;
+ *     else
+ *         PC := o;
+ *     fi
+ * esac
+ * </pre>
+ */
+public class SwitchOnConstantInstruction extends WiMaInstruction {
+    /** Code for each atom, by atom id. */
+    private final HashMap<Integer, Label> table;
+
+    /** Code for other atoms, null to back track. */
+    private final Label otherwise;
+
+    /**
+     * Create a new SwitchOnConstantInstruction.
+     * 
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param table code for each atom, by atom id
+     * @param otherwise code for other atoms, null to back track
+     */
+    public SwitchOnConstantInstruction(final WiMaAstNode sourceNode, final HashMap<Integer, Label> table, final Label otherwise) {
+        super(sourceNode);
+        this.table = table;
+        this.otherwise = otherwise;
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        final int[] pairs = new int[table.size() * 2];
+        int i = 0;
+        for (final Entry<Integer, Label> entry : table.entrySet()) {
+            pairs[i++] = entry.getKey();
+            pairs[i++] = entry.getValue().getAddress();
+        }
+        bytecode.emit(WiMaBytecode.SWITCHONCONSTANT, bytecode.addTable(pairs), otherwise == null ? -1 : otherwise.getAddress());
+    }
+
+    @Override
+    public final void execute(final WiMa vm) throws ExecutionException {
+        final Register pc = vm.getProgramCounter();
+        final AtomObject argument = (AtomObject) firstArgument(vm);
+        final Label label = table.get(argument.getAtom());
+
+        if (label != null) {
+            pc.setValue(label);
+        } else if (otherwise != null) {
+            pc.setValue(otherwise);
+        } else {
+            backtrack(vm);
+        }
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Jump to the clauses for the atom in the first argument, one of " + table.size() + " atoms";
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "switchonconstant";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(table.size()) + " / " + (otherwise == null ? "-" : String.valueOf(otherwise.getAddress()));
+    }
+
+    @Override
+    public final SwitchOnConstantInstruction link() {
+        final HashMap<Integer, Label> linked = new HashMap<Integer, Label>();
+        for (final Entry<Integer, Label> entry : table.entrySet()) {
+            linked.put(entry.getKey(), entry.getValue().copy());
+        }
+        return new SwitchOnConstantInstruction((WiMaAstNode) getSourceNode(), linked, otherwise == null ? null : otherwise.copy());
+    }
+}
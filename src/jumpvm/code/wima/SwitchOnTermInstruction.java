@@ -0,0 +1,99 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+
+package jumpvm.code.wima;
+
+import jumpvm.ast.wima.WiMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.Label;
+import jumpvm.memory.Register;
+import jumpvm.memory.objects.AtomObject;
+import jumpvm.memory.objects.MemoryObject;
+import jumpvm.memory.objects.StructureObject;
+import jumpvm.vm.WiMa;
+
+/**
+ * Dispatch on the kind of the first argument. Unbound variables continue with the next instruction.
+ * 
+ * <pre>
+ * case H[deref(ST[FP + 5])] of
+ * (ATOM: _):
+ *     PC := c;
+ * (STRUCT: _):
+ *     PC := s;
+ * esac
+ * </pre>
+ */
+public class SwitchOnTermInstruction extends WiMaInstruction {
+    /** Code for atoms. */
+    private final Label constant;
+
+    /** Code for structures. */
+    private final Label structure;
+
+    /**
+     * Create a new SwitchOnTermInstruction.
+     * 
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param constant code for atoms
+     * @param structure code for structures
+     */
+    public SwitchOnTermInstruction(final WiMaAstNode sourceNode, final Label constant, final Label structure) {
+        super(sourceNode);
+        this.constant = constant;
+        this.structure = structure;
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.SWITCHONTERM, constant.getAddress(), structure.getAddress());
+    }
+
+    @Override
+    public final void execute(final WiMa vm) throws ExecutionException {
+        final Register pc = vm.getProgramCounter();
+        final MemoryObject argument = firstArgument(vm);
+
+        if (argument instanceof AtomObject) {
+            pc.setValue(constant);
+        } else if (argument instanceof StructureObject) {
+            pc.setValue(structure);
+        }
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Jump to instruction " + constant.getAddress() + " for atoms or " + structure.getAddress() + " for structures in the first argument";
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "switchonterm";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(constant.getAddress()) + " / " + String.valueOf(structure.getAddress());
+    }
+
+    @Override
+    public final SwitchOnTermInstruction link() {
+        return new SwitchOnTermInstruction((WiMaAstNode) getSourceNode(), constant.copy(), structure.copy());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+
+package jumpvm.code.wima;
+
+import jumpvm.ast.wima.WiMaAstNode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.Label;
+import jumpvm.memory.Register;
+import jumpvm.memory.Stack;
+import jumpvm.vm.WiMa;
+
+/**
+ * Delete back track point and jump to the last of several clauses.
+ * 
+ * <pre>
+ * BTP := ST[FP + 1];
+ * PC := c;
+ * </pre>
+ */
+public class TrustInstruction extends WiMaInstruction {
+    /** Code of the clause. */
+    private final Label clause;
+
+    /**
+     * Create a new TrustInstruction.
+     * 
+     * @param sourceNode AstNode that is responsible for this instruction's creation
+     * @param clause code of the clause
+     */
+    public TrustInstruction(final WiMaAstNode sourceNode, final Label clause) {
+        super(sourceNode);
+        this.clause = clause;
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.TRUST, clause.getAddress());
+    }
+
+    @Override
+    public final void execute(final WiMa vm) throws ExecutionException {
+        final Stack stack = vm.getStack();
+        final Register pc = vm.getProgramCounter();
+        final Register fp = vm.getFramePointer();
+        final Register btp = vm.getBackTrackPointer();
+
+        btp.setValue(stack.getInt(fp.getValue() + WiMa.OFFSET_REG_BTP));
+        pc.setValue(clause);
+    }
+
+    @Override
+    public final String getDisplayHoverText() {
+        return "Delete back track point and jump to clause " + clause.getName();
+    }
+
+    @Override
+    public final String getMnemonic() {
+        return "trust";
+    }
+
+    @Override
+    public final String getParameter() {
+        return String.valueOf(clause.getAddress());
+    }
+
+    @Override
+    public final TrustInstruction link() {
+        return new TrustInstruction((WiMaAstNode) getSourceNode(), clause.copy());
+    }
+}
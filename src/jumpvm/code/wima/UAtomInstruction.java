@@ -26,6 +26,8 @@ import jumpvm.memory.Stack;
 import jumpvm.memory.objects.AtomObject;
 import jumpvm.memory.objects.MemoryObject;
 import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.StackTag;
+import jumpvm.memory.objects.SymbolTable;
 import jumpvm.vm.WiMa;
 
 /**
@@ -55,6 +57,12 @@ public class UAtomInstruction extends WiMaInstruction {
     /** Atom identifier. */
     private final String atom;
 
+    /** Id of the atom, interned at compile time. */
+    private final int symbol;
+
+    /** Tag of the atom reference. */
+    private final StackTag tag;
+
     /**
      * Create new UAtomInstruction.
      * 
@@ -64,6 +72,13 @@ public class UAtomInstruction extends WiMaInstruction {
     public UAtomInstruction(final WiMaAstNode sourceNode, final String atom) {
         super(sourceNode);
         this.atom = atom;
+        this.symbol = SymbolTable.internAtom(atom);
+        this.tag = atomReference(atom);
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.UATOM, symbol);
     }
 
     @Override
@@ -73,11 +88,11 @@ public class UAtomInstruction extends WiMaInstruction {
         final Register modus = vm.getModus();
 
         if (modus.getValue() == WiMa.MODUS_READ) {
-            final int v = deref(vm, stack.pop().getIntValue());
+            final int v = deref(vm, stack.popInt());
             final MemoryObject o = heap.getElementAt(v);
             if (o instanceof AtomObject) {
                 /* _same_ atom. */
-                if (!atom.equals(((AtomObject) o).getIdentifier())) {
+                if (((AtomObject) o).getAtom() != symbol) {
                     backtrack(vm);
                 }
                 return;
@@ -85,7 +100,7 @@ public class UAtomInstruction extends WiMaInstruction {
                 if (v == ((PointerObject) o).getIntValue()) {
                     final String name = heap.getElementAt(v).getDisplayDescription();
                     /* _unbound_ variable. */
-                    heap.setElementAt(v, allocateAtomObject(vm, atom));
+                    heap.setElementAt(v, allocateAtomObject(vm, symbol, tag));
                     trail(vm, v, name);
                 } else {
                     backtrack(vm);
@@ -96,7 +111,7 @@ public class UAtomInstruction extends WiMaInstruction {
                 return;
             }
         } else {
-            heap.setElementAt(stack.pop(), allocateAtomObject(vm, atom));
+            heap.setElementAt(stack.popInt(), allocateAtomObject(vm, symbol, tag));
         }
     }
 
@@ -23,7 +23,6 @@ import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Heap;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.StackObject;
 import jumpvm.vm.WiMa;
 
 /**
@@ -59,6 +58,11 @@ public class URefInstruction extends WiMaInstruction {
         this.identifier = identifier;
     }
 
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.UREF, i);
+    }
+
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
         final Stack stack = vm.getStack();
@@ -66,13 +70,13 @@ public class URefInstruction extends WiMaInstruction {
         final Register fp = vm.getFramePointer();
         final Register modus = vm.getModus();
 
-        final StackObject stackObject = stack.peek();
+        final int top = stack.peekInt();
         if (modus.getValue() == WiMa.MODUS_READ) {
-            unify(vm, stackObject.getIntValue(), stack.getElementAt(fp.getValue() + i).getIntValue());
+            unify(vm, top, stack.getInt(fp.getValue() + i));
         } else {
-            heap.setElementAt(stackObject, stack.getElementAt(fp.getValue() + i));
+            heap.setElementAt(top, stack.getElementAt(fp.getValue() + i));
         }
-        stack.pop();
+        stack.popInt();
     }
 
     @Override
@@ -23,11 +23,11 @@ import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Heap;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
-import jumpvm.memory.objects.BasicValueObject;
 import jumpvm.memory.objects.MemoryObject;
 import jumpvm.memory.objects.NilPointerObject;
 import jumpvm.memory.objects.PointerObject;
-import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
+import jumpvm.memory.objects.SymbolTable;
 import jumpvm.memory.objects.StructureObject;
 import jumpvm.vm.WiMa;
 
@@ -66,6 +66,12 @@ public class UStructInstruction extends WiMaInstruction {
     /** Arity. */
     private final int n;
 
+    /** Id of the functor, interned at compile time. */
+    private final int functor;
+
+    /** Tag of the pushed structure reference. */
+    private final StackTag tag;
+
     /**
      * Create a new UStructInstruction.
      * 
@@ -77,6 +83,13 @@ public class UStructInstruction extends WiMaInstruction {
         super(sourceNode);
         this.f = f;
         this.n = n;
+        this.functor = SymbolTable.internFunctor(f, n);
+        this.tag = structureReference(f, n);
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.USTRUCT, functor, n);
     }
 
     @Override
@@ -86,30 +99,27 @@ public class UStructInstruction extends WiMaInstruction {
         final Register modus = vm.getModus();
 
         if (modus.getValue() == WiMa.MODUS_READ) {
-            final int v = deref(vm, stack.pop().getIntValue());
+            final int v = deref(vm, stack.popInt());
             final MemoryObject o = heap.getElementAt(v);
-            final String name = o.getDisplayDescription();
-
             if (o instanceof StructureObject) {
                 /* _same_ structure. */
-                final StructureObject s = (StructureObject) o;
-                if (f.equals(s.getIdentifier()) && (s.getArity() == n)) {
-                    stack.push(new PointerObject(v, Type.POINTER_HEAP, "→" + f + "/" + n, "Reference to structure " + f + "/" + n));
+                if (((StructureObject) o).getFunctor() == functor) {
+                    stack.push(v, tag);
                 } else {
                     backtrack(vm);
                     return;
                 }
             } else if (o instanceof PointerObject) {
                 if (v == ((PointerObject) o).getIntValue()) {
-                    stack.push(new BasicValueObject(modus));
-                    final PointerObject pointer = allocateStructureObject(vm, f, n);
+                    stack.push(modus.getValue(), modus.getTag());
+                    final PointerObject pointer = allocateStructureObject(vm, functor, tag);
                     for (int i = 0; i < n; ++i) {
-                        heap.allocate(new NilPointerObject(), "→" + String.valueOf(i), "Reference to element # " + i + " of structure " + f + "/" + n);
+                        heap.allocate(new NilPointerObject());
                     }
                     stack.push(pointer);
                     heap.setElementAt(v, pointer);
                     modus.setValue(WiMa.MODUS_WRITE);
-                    trail(vm, v, name);
+                    trail(vm, v, o.getDisplayDescription());
                 } else {
                     backtrack(vm);
                     return;
@@ -119,11 +129,11 @@ public class UStructInstruction extends WiMaInstruction {
                 return;
             }
         } else {
-            final PointerObject pointer = allocateStructureObject(vm, f, n);
+            final PointerObject pointer = allocateStructureObject(vm, functor, tag);
             for (int i = 0; i < n; ++i) {
-                heap.allocate(new NilPointerObject(), "→" + String.valueOf(i), "Reference to element # " + i + " of structure " + f + "/" + n);
+                heap.allocate(new NilPointerObject());
             }
-            heap.setElementAt(stack.peek(), pointer);
+            heap.setElementAt(stack.peekInt(), pointer);
             stack.push(pointer);
         }
     }
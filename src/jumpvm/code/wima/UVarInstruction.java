@@ -25,7 +25,7 @@ import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
 import jumpvm.memory.objects.PointerObject;
 import jumpvm.memory.objects.PointerObject.Type;
-import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.vm.WiMa;
 
 /**
@@ -50,6 +50,9 @@ public class UVarInstruction extends WiMaInstruction {
     /** Identifier. */
     private final String identifier;
 
+    /** Tag of the variable reference. */
+    private final StackTag tag;
+
     /**
      * Create a new UVarInstruction.
      * 
@@ -61,6 +64,12 @@ public class UVarInstruction extends WiMaInstruction {
         super(sourceNode);
         this.i = i;
         this.identifier = identifier;
+        this.tag = StackTag.pointer(Type.POINTER_HEAP, "→" + identifier, "Reference to " + identifier);
+    }
+
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.UVAR, i);
     }
 
     @Override
@@ -70,14 +79,14 @@ public class UVarInstruction extends WiMaInstruction {
         final Register fp = vm.getFramePointer();
         final Register hp = vm.getHeapPointer();
         final Register modus = vm.getModus();
-        final StackObject stackObject = stack.pop();
+        final int top = stack.popInt();
 
         if (modus.getValue() == WiMa.MODUS_READ) {
-            stack.setElementAt(fp.getValue() + i, new PointerObject(deref(vm, stackObject.getIntValue()), Type.POINTER_HEAP, "→" + identifier, "Reference to " + identifier));
+            stack.set(fp.getValue() + i, deref(vm, top), tag);
         } else {
-            final PointerObject p = heap.allocate(new PointerObject(hp.getValue(), Type.POINTER_HEAP, "→" + identifier, "Reference to " + identifier), "→" + identifier, "Reference to " + identifier);
-            stack.setElementAt(fp.getValue() + i, p);
-            heap.setElementAt(stackObject, p);
+            final PointerObject p = heap.allocate(new PointerObject(hp.getValue(), Type.POINTER_HEAP, tag, 0, 0), tag);
+            stack.set(fp.getValue() + i, p.getIntValue(), tag);
+            heap.setElementAt(top, p);
         }
     }
 
@@ -45,14 +45,19 @@ public class UpInstruction extends WiMaInstruction {
         super(sourceNode);
     }
 
+    @Override
+    public final void assemble(final WiMaBytecode bytecode) {
+        bytecode.emit(WiMaBytecode.UP);
+    }
+
     @Override
     public final void execute(final WiMa vm) throws ExecutionException {
         final Stack stack = vm.getStack();
         final Register modus = vm.getModus();
 
-        stack.pop();
+        stack.popInt();
         if (modus.getValue() == WiMa.MODUS_WRITE) {
-            modus.setValue(stack.pop().getIntValue());
+            modus.setValue(stack.popInt());
         }
     }
 
@@ -0,0 +1,241 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.code.wima;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import jumpvm.code.Instruction;
+import jumpvm.code.ProgramImage;
+import jumpvm.memory.objects.SymbolTable;
+
+/**
+ * WiMachine program lowered to an {@code int[]} bytecode.
+ * 
+ * Every instruction occupies {@link #WIDTH} cells: the opcode followed by up to two operands. Thus the program counter still counts instructions and code
+ * addresses stored in memory are the same as for the {@link WiMaInstruction} objects. Atoms and functors are operands by their ids in the global
+ * {@link SymbolTable}, so they can be compared as integers.
+ */
+public final class WiMaBytecode {
+    /** Opcode of {@link BrotherInstruction}. */
+    public static final int BROTHER = 0;
+
+    /** Opcode of {@link CallInstruction}. */
+    public static final int CALL = 1;
+
+    /** Opcode of {@link DelBtpInstruction}. */
+    public static final int DELBTP = 2;
+
+    /** Opcode of {@link DownInstruction}. */
+    public static final int DOWN = 3;
+
+    /** Opcode of {@link EnterInstruction}. */
+    public static final int ENTER = 4;
+
+    /** Opcode of {@link HaltInstruction}. */
+    public static final int HALT = 5;
+
+    /** Opcode of {@link InitInstruction}. */
+    public static final int INIT = 6;
+
+    /** Opcode of {@link LastCallInstruction}. */
+    public static final int LASTCALL = 7;
+
+    /** Opcode of {@link NextAltInstruction}. */
+    public static final int NEXTALT = 8;
+
+    /** Opcode of {@link PopEnvInstruction}. */
+    public static final int POPENV = 9;
+
+    /** Opcode of {@link PushArgInstruction}. */
+    public static final int PUSHARG = 10;
+
+    /** Opcode of {@link PushEnvInstruction}. */
+    public static final int PUSHENV = 11;
+
+    /** Opcode of {@link PutAtomInstruction}. */
+    public static final int PUTATOM = 12;
+
+    /** Opcode of {@link PutRefInstruction}. */
+    public static final int PUTREF = 13;
+
+    /** Opcode of {@link PutStructInstruction}. */
+    public static final int PUTSTRUCT = 14;
+
+    /** Opcode of {@link PutVarInstruction}. */
+    public static final int PUTVAR = 15;
+
+    /** Opcode of {@link RestoreInstruction}. */
+    public static final int RESTORE = 16;
+
+    /** Opcode of {@link RetryInstruction}. */
+    public static final int RETRY = 17;
+
+    /** Opcode of {@link SetBtpInstruction}. */
+    public static final int SETBTP = 18;
+
+    /** Opcode of {@link SwitchOnConstantInstruction}. */
+    public static final int SWITCHONCONSTANT = 19;
+
+    /** Opcode of {@link SwitchOnStructureInstruction}. */
+    public static final int SWITCHONSTRUCTURE = 20;
+
+    /** Opcode of {@link SwitchOnTermInstruction}. */
+    public static final int SWITCHONTERM = 21;
+
+    /** Opcode of {@link TrustInstruction}. */
+    public static final int TRUST = 22;
+
+    /** Opcode of {@link TryInstruction}. */
+    public static final int TRY = 23;
+
+    /** Opcode of {@link UAtomInstruction}. */
+    public static final int UATOM = 24;
+
+    /** Opcode of {@link UpInstruction}. */
+    public static final int UP = 25;
+
+    /** Opcode of {@link URefInstruction}. */
+    public static final int UREF = 26;
+
+    /** Opcode of {@link UStructInstruction}. */
+    public static final int USTRUCT = 27;
+
+    /** Opcode of {@link UVarInstruction}. */
+    public static final int UVAR = 28;
+
+    /** Number of cells per instruction. */
+    public static final int WIDTH = 3;
+
+    /** Linked program this bytecode was created from. */
+    private final ProgramImage image;
+
+    /** Bytecode. */
+    private final int[] code;
+
+    /** Number of cells used in {@link #code} so far. */
+    private int size;
+
+    /** Switch tables, each holding pairs of atom or functor id and code address. */
+    private final ArrayList<int[]> tables;
+
+    /**
+     * Create a new WiMaBytecode.
+     * 
+     * @param image linked program, all instructions must be {@link WiMaInstruction}s
+     * @throws IllegalArgumentException if the program contains foreign instructions
+     */
+    public WiMaBytecode(final ProgramImage image) {
+        this.image = image;
+        this.code = new int[image.getSize() * WIDTH];
+        this.size = 0;
+        this.tables = new ArrayList<int[]>();
+
+        for (int i = 0; i < image.getSize(); ++i) {
+            final Instruction instruction = image.get(i);
+            if (!(instruction instanceof WiMaInstruction)) {
+                throw new IllegalArgumentException("Not a WiMa instruction: " + instruction.getMnemonic());
+            }
+            ((WiMaInstruction) instruction).assemble(this);
+            if (size != ((i + 1) * WIDTH)) {
+                throw new IllegalStateException("Instruction not assembled: " + instruction.getMnemonic());
+            }
+        }
+    }
+
+    /**
+     * Add a switch table.
+     * 
+     * @param pairs pairs of atom or functor id and code address
+     * @return index of the table
+     */
+    public int addTable(final int[] pairs) {
+        tables.add(pairs);
+        return tables.size() - 1;
+    }
+
+    /**
+     * Append an instruction without operands.
+     * 
+     * @param opcode opcode
+     */
+    public void emit(final int opcode) {
+        emit(opcode, 0, 0);
+    }
+
+    /**
+     * Append an instruction with one operand.
+     * 
+     * @param opcode opcode
+     * @param a operand
+     */
+    public void emit(final int opcode, final int a) {
+        emit(opcode, a, 0);
+    }
+
+    /**
+     * Append an instruction with two operands.
+     * 
+     * @param opcode opcode
+     * @param a first operand
+     * @param b second operand
+     */
+    public void emit(final int opcode, final int a, final int b) {
+        code[size++] = opcode;
+        code[size++] = a;
+        code[size++] = b;
+    }
+
+    /**
+     * Returns a copy of the bytecode.
+     * 
+     * @return the bytecode
+     */
+    public int[] getCode() {
+        return Arrays.copyOf(code, code.length);
+    }
+
+    /**
+     * Returns a switch table.
+     * 
+     * @param index index of the table
+     * @return pairs of atom or functor id and code address
+     */
+    public int[] getTable(final int index) {
+        return tables.get(index);
+    }
+
+    /**
+     * Returns the number of switch tables.
+     * 
+     * @return the number of switch tables
+     */
+    public int getTableCount() {
+        return tables.size();
+    }
+
+    /**
+     * Returns the linked program this bytecode was created from.
+     * 
+     * @return the linked program
+     */
+    public ProgramImage getImage() {
+        return image;
+    }
+}
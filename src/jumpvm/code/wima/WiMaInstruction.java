@@ -18,7 +18,7 @@
 
 package jumpvm.code.wima;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 import jumpvm.ast.AstNode;
 import jumpvm.code.Instruction;
@@ -31,6 +31,7 @@ import jumpvm.memory.objects.MemoryObject;
 import jumpvm.memory.objects.PointerObject;
 import jumpvm.memory.objects.PointerObject.Type;
 import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StackTag;
 import jumpvm.memory.objects.StructureObject;
 import jumpvm.vm.JumpVM;
 import jumpvm.vm.WiMa;
@@ -39,6 +40,15 @@ import jumpvm.vm.WiMa;
  * WiMa instruction.
  */
 public abstract class WiMaInstruction extends Instruction {
+    /** Initial capacity of the push-down list used by {@link #unify(WiMa, int, int)}. */
+    private static final int PDL_CAPACITY = 16;
+
+    /** Tag of the positive return address cell of a frame. */
+    protected static final StackTag POSITIVE_RETURN = StackTag.pointer(Type.POINTER_PROGRAM, "+PC", "positive return address");
+
+    /** Tag of the negative return address cell of a frame. */
+    protected static final StackTag NEGATIVE_RETURN = StackTag.pointer(Type.POINTER_PROGRAM, "-PC", "negative return address");
+
     /**
      * Convenience method to push an atom to the heap and get a pointer to that object.
      * 
@@ -47,11 +57,12 @@ public abstract class WiMaInstruction extends Instruction {
      * </pre>
      * 
      * @param vm WiMa
-     * @param identifier atom's identifier
+     * @param atom id of the atom
+     * @param tag tag describing the reference, see {@link #atomReference(String)}
      * @return reference to that atom on the heap
      */
-    protected static PointerObject allocateAtomObject(final WiMa vm, final String identifier) {
-        return vm.getHeap().allocate(new AtomObject(identifier), "→" + identifier, "Reference to atom " + identifier);
+    protected static PointerObject allocateAtomObject(final WiMa vm, final int atom, final StackTag tag) {
+        return vm.getHeap().allocate(new AtomObject(atom), tag);
     }
 
     /**
@@ -62,12 +73,22 @@ public abstract class WiMaInstruction extends Instruction {
      * </pre>
      * 
      * @param vm WiMa
-     * @param identifier structure's identifier
-     * @param arity structure's arity
+     * @param functor id of the structure's functor
+     * @param tag tag describing the reference, see {@link #structureReference(String, int)}
      * @return reference to that structure on the heap
      */
-    protected static PointerObject allocateStructureObject(final WiMa vm, final String identifier, final int arity) {
-        return vm.getHeap().allocate(new StructureObject(identifier, arity), "→" + identifier + "/" + arity, "Reference to structure " + identifier + "/" + arity);
+    protected static PointerObject allocateStructureObject(final WiMa vm, final int functor, final StackTag tag) {
+        return vm.getHeap().allocate(new StructureObject(functor), tag);
+    }
+
+    /**
+     * Returns the tag describing references to the given atom.
+     * 
+     * @param identifier atom's identifier
+     * @return the tag describing references to the atom
+     */
+    protected static StackTag atomReference(final String identifier) {
+        return StackTag.pointer(Type.POINTER_HEAP, "→" + identifier, "Reference to atom " + identifier);
     }
 
     /**
@@ -86,9 +107,9 @@ public abstract class WiMaInstruction extends Instruction {
         final Register tp = vm.getTrailPointer();
 
         final int newFP = btp.getValue();
-        final int newHP = stack.getElementAt(newFP + WiMa.OFFSET_REG_HP).getIntValue();
-        final int newTP = stack.getElementAt(newFP + WiMa.OFFSET_REG_TP).getIntValue();
-        final int newPC = stack.getElementAt(newFP + WiMa.OFFSET_ADDR_NEG).getIntValue();
+        final int newHP = stack.getInt(newFP + WiMa.OFFSET_REG_HP);
+        final int newTP = stack.getInt(newFP + WiMa.OFFSET_REG_TP);
+        final int newPC = stack.getInt(newFP + WiMa.OFFSET_ADDR_NEG);
 
         if (newPC == 0) {
             fail(vm);
@@ -97,20 +118,12 @@ public abstract class WiMaInstruction extends Instruction {
 
         fp.setValue(newFP);
         /* Remove excessive elements from the heap. */
-        if (newHP < hp.getValue()) {
-            final ArrayList<MemoryObject> content = heap.getContent();
-            content.subList(newHP, content.size()).clear();
-            heap.reset(content);
-        }
+        heap.truncate(newHP);
         hp.setValue(newHP);
 
-        reset(vm, stack.getElementAt(newFP + WiMa.OFFSET_REG_TP).getIntValue(), tp.getValue());
+        reset(vm, stack.getInt(newFP + WiMa.OFFSET_REG_TP), tp.getValue());
         /* Remove excessive elements from the trail. */
-        if (newTP < tp.getValue()) {
-            final ArrayList<MemoryObject> content = trail.getContent();
-            content.subList(newTP + 1, content.size()).clear();
-            trail.reset(content);
-        }
+        trail.truncate(newTP + 1);
 
         tp.setValue(newTP);
         pc.setValue(newPC);
@@ -124,24 +137,29 @@ public abstract class WiMaInstruction extends Instruction {
      * @return address of target element
      */
     protected static int deref(final WiMa vm, final int address) {
-        final MemoryObject object = vm.getHeap().getElementAt(address);
+        final Heap heap = vm.getHeap();
+        int current = address;
 
-        if (!(object instanceof PointerObject)) {
-            return address;
-        }
+        while (true) {
+            final MemoryObject object = heap.getElementAt(current);
 
-        final PointerObject pointer = (PointerObject) object;
+            if (!(object instanceof PointerObject)) {
+                return current;
+            }
 
-        if (pointer.getType() != Type.POINTER_HEAP) {
-            return address;
-        }
+            final PointerObject pointer = (PointerObject) object;
+
+            if (pointer.getType() != Type.POINTER_HEAP) {
+                return current;
+            }
+
+            if (pointer.getIntValue() == current) {
+                /* free variable */
+                return current;
+            }
 
-        if (pointer.getIntValue() == address) {
-            /* free variable */
-            return address;
-        } else {
             /* bound variable */
-            return deref(vm, pointer.getIntValue());
+            current = pointer.getIntValue();
         }
     }
 
@@ -155,6 +173,17 @@ public abstract class WiMaInstruction extends Instruction {
         vm.getWriter().println("no");
     }
 
+    /**
+     * Returns the dereferenced first argument of the current frame.
+     * 
+     * @param vm WiMa
+     * @return the term the first argument is bound to, or the unbound variable
+     */
+    protected static MemoryObject firstArgument(final WiMa vm) {
+        final int argument = vm.getStack().getInt(vm.getFramePointer().getValue() + WiMa.OFFSET_ADDR_NEG + 1);
+        return vm.getHeap().getElementAt(deref(vm, argument));
+    }
+
     /**
      * Reset the variables in the given range of trail memory.
      * 
@@ -169,6 +198,17 @@ public abstract class WiMaInstruction extends Instruction {
         }
     }
 
+    /**
+     * Returns the tag describing references to the given structure.
+     * 
+     * @param identifier structure's identifier
+     * @param arity structure's arity
+     * @return the tag describing references to the structure
+     */
+    protected static StackTag structureReference(final String identifier, final int arity) {
+        return StackTag.pointer(Type.POINTER_HEAP, "→" + identifier + "/" + arity, "Reference to structure " + identifier + "/" + arity);
+    }
+
     /**
      * Track variable bindings in current frame.
      * 
@@ -182,7 +222,7 @@ public abstract class WiMaInstruction extends Instruction {
         final Register btp = vm.getBackTrackPointer();
         final Register tp = vm.getTrailPointer();
 
-        if (a < stack.getElementAt(btp.getValue() + WiMa.OFFSET_REG_HP).getIntValue()) {
+        if (a < stack.getInt(btp.getValue() + WiMa.OFFSET_REG_HP)) {
             tp.increment();
             trail.setElementAt(tp, new PointerObject(a, Type.POINTER_HEAP, description, null));
         }
@@ -197,6 +237,13 @@ public abstract class WiMaInstruction extends Instruction {
         super(sourceNode);
     }
 
+    /**
+     * Append this instruction to the given bytecode.
+     * 
+     * @param bytecode bytecode
+     */
+    public abstract void assemble(WiMaBytecode bytecode);
+
     @Override
     public final void execute(final JumpVM jumpVM) throws ExecutionException {
         if (!(jumpVM instanceof WiMa)) {
@@ -219,7 +266,9 @@ public abstract class WiMaInstruction extends Instruction {
     public abstract void execute(final WiMa vm) throws ExecutionException;
 
     /**
-     * Unify two elements on the heap.
+     * Unify two elements on the heap. The elements themselves are not dereferenced, the arguments of structures are. Pairs of arguments still to be unified
+     * are kept on an explicit push-down list instead of recursing, so the depth of the terms is not limited by the host stack. Unification stops at the first
+     * mismatch.
      * 
      * @param vm WiMa
      * @param a first element
@@ -229,93 +278,94 @@ public abstract class WiMaInstruction extends Instruction {
     protected final void unify(final WiMa vm, final int a, final int b) throws ExecutionException {
         final Heap heap = vm.getHeap();
 
-        final MemoryObject t1 = heap.getElementAt(a);
-        final MemoryObject t2 = heap.getElementAt(b);
+        /* push-down list of address pairs, first elements at even indices. */
+        int[] pdl = new int[PDL_CAPACITY];
+        int pending = 0;
+        int x = a;
+        int y = b;
 
-        if (t1 instanceof PointerObject) {
-            if (((PointerObject) t1).getType() != Type.POINTER_HEAP) {
-                throw new ExecutionException(this, "t1 of unexpected type");
+        while (true) {
+            final MemoryObject t1 = heap.getElementAt(x);
+            final MemoryObject t2 = heap.getElementAt(y);
+
+            if (t1 instanceof PointerObject) {
+                if (((PointerObject) t1).getType() != Type.POINTER_HEAP) {
+                    throw new ExecutionException(this, "t1 of unexpected type");
+                }
             }
-        }
 
-        if (t2 instanceof PointerObject) {
-            if (((PointerObject) t2).getType() != Type.POINTER_HEAP) {
-                throw new ExecutionException(this, "t2 of unexpected type");
+            if (t2 instanceof PointerObject) {
+                if (((PointerObject) t2).getType() != Type.POINTER_HEAP) {
+                    throw new ExecutionException(this, "t2 of unexpected type");
+                }
             }
-        }
 
-        if (t1 instanceof AtomObject) {
-            if (t2 instanceof AtomObject) {
-                /* Atom & atom. */
-                if (!((AtomObject) t1).getIdentifier().equals(((AtomObject) t2).getIdentifier())) {
+            if (t1 instanceof AtomObject) {
+                if (t2 instanceof AtomObject) {
+                    /* Atom & atom. */
+                    if (((AtomObject) t1).getAtom() != ((AtomObject) t2).getAtom()) {
+                        fail(vm);
+                        return;
+                    }
+                } else if (t2 instanceof PointerObject) {
+                    /* Atom & variable. */
+                    heap.setElementAt(y, new PointerObject(x, Type.POINTER_HEAP, StackTag.reference(t1), 0, 0));
+                } else if (t2 instanceof StructureObject) {
+                    /* Atom & structure. */
                     fail(vm);
+                    return;
+                } else {
+                    throw new ExecutionException(this, "t2 of unexpected type");
                 }
-            } else if (t2 instanceof PointerObject) {
-                /* Atom & variable. */
-                heap.setElementAt(b, new PointerObject(a, Type.POINTER_HEAP, "→" + t1.getDisplayValue(), "Reference to " + t1.getDisplayValue()));
-            } else if (t2 instanceof StructureObject) {
-                /* Atom & structure. */
-                fail(vm);
-            } else {
-                throw new ExecutionException(this, "t2 of unexpected type");
-            }
-        } else if (t1 instanceof PointerObject) {
-            if (t2 instanceof AtomObject) {
-                /* Variable & atom. */
-                heap.setElementAt(a, new PointerObject(b, Type.POINTER_HEAP, "→" + t2.getDisplayValue(), "Reference to " + t2.getDisplayValue()));
-            } else if (t2 instanceof PointerObject) {
-                /* Variable & variable. */
-                if (((PointerObject) t1).getIntValue() != ((PointerObject) t2).getIntValue()) {
-                    heap.setElementAt(a, new PointerObject(b, Type.POINTER_HEAP, "→" + t2.getDisplayValue(), "Reference to " + t2.getDisplayValue()));
+            } else if (t1 instanceof PointerObject) {
+                if (t2 instanceof AtomObject) {
+                    /* Variable & atom. */
+                    heap.setElementAt(x, new PointerObject(y, Type.POINTER_HEAP, StackTag.reference(t2), 0, 0));
+                } else if (t2 instanceof PointerObject) {
+                    /* Variable & variable. */
+                    if (((PointerObject) t1).getIntValue() != ((PointerObject) t2).getIntValue()) {
+                        heap.setElementAt(x, new PointerObject(y, Type.POINTER_HEAP, StackTag.reference(t2), 0, 0));
+                    }
+                } else if (t2 instanceof StructureObject) {
+                    /* Variable & structure. */
+                    heap.setElementAt(x, new PointerObject(y, Type.POINTER_HEAP, StackTag.reference(t2), 0, 0));
+                } else {
+                    throw new ExecutionException(this, "t2 of unexpected type");
+                }
+            } else if (t1 instanceof StructureObject) {
+                if (t2 instanceof AtomObject) {
+                    /* Structure & atom. */
+                    fail(vm);
+                    return;
+                } else if (t2 instanceof PointerObject) {
+                    /* Structure & variable. */
+                    heap.setElementAt(y, new PointerObject(x, Type.POINTER_HEAP, StackTag.reference(t1), 0, 0));
+                } else if (t2 instanceof StructureObject) {
+                    /* Structure & structure: unify the arguments, the first one next. */
+                    if (((StructureObject) t1).getFunctor() != ((StructureObject) t2).getFunctor()) {
+                        fail(vm);
+                        return;
+                    }
+                    final int arity = ((StructureObject) t1).getArity();
+                    if ((pending + arity + arity) > pdl.length) {
+                        pdl = Arrays.copyOf(pdl, Math.max(pdl.length * 2, pending + arity + arity));
+                    }
+                    for (int i = arity; i > 0; --i) {
+                        pdl[pending++] = x + i;
+                        pdl[pending++] = y + i;
+                    }
+                } else {
+                    throw new ExecutionException(this, "t2 of unexpected type");
                 }
-            } else if (t2 instanceof StructureObject) {
-                /* Variable & structure. */
-                heap.setElementAt(a, new PointerObject(b, Type.POINTER_HEAP, "→" + t2.getDisplayValue(), "Reference to " + t2.getDisplayValue()));
-            } else {
-                throw new ExecutionException(this, "t2 of unexpected type");
-            }
-        } else if (t1 instanceof StructureObject) {
-            if (t2 instanceof AtomObject) {
-                /* Structure & atom. */
-                fail(vm);
-            } else if (t2 instanceof PointerObject) {
-                /* Structure & variable. */
-                heap.setElementAt(b, new PointerObject(a, Type.POINTER_HEAP, "→" + t1.getDisplayValue(), "Reference to " + t1.getDisplayValue()));
-            } else if (t2 instanceof StructureObject) {
-                /* Structure & structure. */
-                unifyList(vm, a, b);
             } else {
-                throw new ExecutionException(this, "t2 of unexpected type");
+                throw new ExecutionException(this, "t1 of unexpected type");
             }
-        } else {
-            throw new ExecutionException(this, "t1 of unexpected type");
-        }
-    }
-
-    /**
-     * Unify two structures.
-     * 
-     * @param vm WiMa
-     * @param a first structure
-     * @param b second structure
-     * @throws ExecutionException on failure
-     */
-    protected final void unifyList(final WiMa vm, final int a, final int b) throws ExecutionException {
-        final Heap heap = vm.getHeap();
 
-        final StructureObject t = (StructureObject) heap.getElementAt(a);
-        final StructureObject s = (StructureObject) heap.getElementAt(b);
-
-        if (!t.getIdentifier().equals(s.getIdentifier())) {
-            fail(vm);
-        }
-
-        if (t.getArity() != s.getArity()) {
-            fail(vm);
-        }
-
-        for (int i = 0; i < t.getArity(); ++i) {
-            unify(vm, deref(vm, a + i + 1), deref(vm, b + i + 1));
+            if (pending == 0) {
+                return;
+            }
+            y = deref(vm, pdl[--pending]);
+            x = deref(vm, pdl[--pending]);
         }
     }
 }
@@ -18,6 +18,9 @@
 
 package jumpvm.compiler.bfma;
 
+import java.util.ArrayList;
+import java.util.TreeMap;
+
 import jumpvm.ast.AstNode;
 import jumpvm.ast.bfma.BfMaAstNode;
 import jumpvm.ast.bfma.Input;
@@ -28,7 +31,9 @@ import jumpvm.ast.bfma.Output;
 import jumpvm.ast.bfma.Plus;
 import jumpvm.ast.bfma.Program;
 import jumpvm.ast.bfma.Right;
+import jumpvm.code.bfma.AddValInstruction;
 import jumpvm.code.bfma.BackwardInstruction;
+import jumpvm.code.bfma.ClearValInstruction;
 import jumpvm.code.bfma.DecPtrInstruction;
 import jumpvm.code.bfma.DecValInstruction;
 import jumpvm.code.bfma.ForwardInstruction;
@@ -36,47 +41,184 @@ import jumpvm.code.bfma.HaltInstruction;
 import jumpvm.code.bfma.IncPtrInstruction;
 import jumpvm.code.bfma.IncValInstruction;
 import jumpvm.code.bfma.InputInstruction;
+import jumpvm.code.bfma.MovePtrInstruction;
+import jumpvm.code.bfma.MulValInstruction;
 import jumpvm.code.bfma.OutputInstruction;
+import jumpvm.code.bfma.ScanPtrInstruction;
 import jumpvm.compiler.Compiler;
 import jumpvm.exception.CompileException;
 import jumpvm.memory.Label;
 
 /**
  * BfMachine {@link Compiler}.
+ * 
+ * If optimization is enabled, runs of "+"/"-" and of "&gt;" or "&lt;" are folded into single instructions and clear, scan and multiply loops are replaced by
+ * specialized instructions. Cells are unbounded ints, so a loop whose counter cell changes by exactly one per iteration always ends with that cell at zero,
+ * even if it has to wrap around. The cell pointer stops at zero, which is why runs of "&gt;" and "&lt;" are not folded together and multiply loops that
+ * reach left of their counter cell keep the original loop as a fallback.
  */
 public class BfMaCompiler extends Compiler implements BfMaAstWalker {
+    /** True to fold runs and replace loop idioms. */
+    private final boolean optimize;
+
     /**
-     * Create a new BfMaCompiler.
+     * Create a new BfMaCompiler that emits one instruction per character.
      */
     public BfMaCompiler() {
+        this(false);
     }
 
-    @Override
-    public final void process(final Input node) throws CompileException {
-        emit(new InputInstruction(node));
+    /**
+     * Create a new BfMaCompiler.
+     * 
+     * @param optimize true to fold runs and replace loop idioms
+     */
+    public BfMaCompiler(final boolean optimize) {
+        this.optimize = optimize;
     }
 
-    @Override
-    public final void process(final Left node) throws CompileException {
-        emit(new DecPtrInstruction(node));
+    /**
+     * Try to replace a loop with a single instruction.
+     * 
+     * @param node loop
+     * @return true if the loop needs no further code
+     * @throws CompileException on failure
+     */
+    private boolean emitIdiom(final Loop node) throws CompileException {
+        final TreeMap<Integer, Integer> changes = new TreeMap<Integer, Integer>();
+        int offset = 0;
+        int low = 0;
+        boolean changesValues = false;
+        for (final BfMaAstNode character : node.getCharacters()) {
+            final int amount = getAmount(character);
+            final int distance = getDistance(character);
+            if ((amount == 0) && (distance == 0)) {
+                return false;
+            }
+
+            if (amount != 0) {
+                final Integer previous = changes.get(offset);
+                changes.put(offset, (previous == null ? 0 : previous) + amount);
+                changesValues = true;
+            }
+            offset += distance;
+            low = Math.min(low, offset);
+        }
+
+        if (!changesValues) {
+            if ((offset == 0) || ((offset > 0) && (low < 0)) || ((offset < 0) && (low < offset))) {
+                return false;
+            }
+            emit(new ScanPtrInstruction(node, offset));
+            return true;
+        }
+
+        final Integer counter = changes.remove(0);
+        if ((offset != 0) || (counter == null) || ((counter != 1) && (counter != -1))) {
+            return false;
+        }
+
+        final ArrayList<Integer> offsets = new ArrayList<Integer>();
+        final ArrayList<Integer> factors = new ArrayList<Integer>();
+        for (final Integer target : changes.keySet()) {
+            if (changes.get(target) != 0) {
+                offsets.add(target);
+                factors.add(-counter * changes.get(target));
+            }
+        }
+
+        if (offsets.isEmpty() && (low == 0)) {
+            emit(new ClearValInstruction(node));
+            return true;
+        }
+
+        final int[] offsetArray = new int[offsets.size()];
+        final int[] factorArray = new int[factors.size()];
+        for (int i = 0; i < offsetArray.length; ++i) {
+            offsetArray[i] = offsets.get(i);
+            factorArray[i] = factors.get(i);
+        }
+
+        if (low == 0) {
+            emit(new MulValInstruction(node, offsetArray, factorArray, low, null));
+            return true;
+        }
+
+        final Label end = new Label("end");
+        emit(new MulValInstruction(node, offsetArray, factorArray, low, end));
+        emitLoop(node);
+        end.setAddress(getCurrentPosition());
+        return true;
     }
 
-    @Override
-    public final void process(final Loop node) throws CompileException {
+    /**
+     * Emit a loop without replacing it.
+     * 
+     * @param node loop
+     * @throws CompileException on failure
+     */
+    private void emitLoop(final Loop node) throws CompileException {
         final Label begin = new Label("begin");
         final Label end = new Label("end");
 
         emit(new ForwardInstruction(node, end));
         begin.setAddress(getCurrentPosition());
 
-        for (final BfMaAstNode character : node.getCharacters()) {
-            character.process(this);
-        }
+        processCharacters(node.getCharacters());
 
         emit(new BackwardInstruction(node, begin));
         end.setAddress(getCurrentPosition());
     }
 
+    /**
+     * Returns the change of the cell value of a "+" or "-" node.
+     * 
+     * @param node node
+     * @return 1, -1 or 0 if the node is neither "+" nor "-"
+     */
+    private static int getAmount(final BfMaAstNode node) {
+        if (node instanceof Plus) {
+            return 1;
+        } else if (node instanceof Minus) {
+            return -1;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the change of the cell pointer of a "&gt;" or "&lt;" node.
+     * 
+     * @param node node
+     * @return 1, -1 or 0 if the node is neither "&gt;" nor "&lt;"
+     */
+    private static int getDistance(final BfMaAstNode node) {
+        if (node instanceof Right) {
+            return 1;
+        } else if (node instanceof Left) {
+            return -1;
+        } else {
+            return 0;
+        }
+    }
+
+    @Override
+    public final void process(final Input node) throws CompileException {
+        emit(new InputInstruction(node));
+    }
+
+    @Override
+    public final void process(final Left node) throws CompileException {
+        emit(new DecPtrInstruction(node));
+    }
+
+    @Override
+    public final void process(final Loop node) throws CompileException {
+        if (!optimize || !emitIdiom(node)) {
+            emitLoop(node);
+        }
+    }
+
     @Override
     public final void process(final Minus node) throws CompileException {
         emit(new DecValInstruction(node));
@@ -94,9 +236,7 @@ public class BfMaCompiler extends Compiler implements BfMaAstWalker {
 
     @Override
     public final void process(final Program node) throws CompileException {
-        for (final BfMaAstNode character : node.getCharacters()) {
-            character.process(this);
-        }
+        processCharacters(node.getCharacters());
         emit(new HaltInstruction(node));
     }
 
@@ -105,6 +245,45 @@ public class BfMaCompiler extends Compiler implements BfMaAstWalker {
         emit(new IncPtrInstruction(node));
     }
 
+    /**
+     * Process a sequence of nodes, folding runs if optimization is enabled.
+     * 
+     * @param characters nodes
+     * @throws CompileException on failure
+     */
+    private void processCharacters(final ArrayList<BfMaAstNode> characters) throws CompileException {
+        if (!optimize) {
+            for (final BfMaAstNode character : characters) {
+                character.process(this);
+            }
+            return;
+        }
+
+        int i = 0;
+        while (i < characters.size()) {
+            final BfMaAstNode first = characters.get(i);
+            if (getAmount(first) != 0) {
+                int amount = 0;
+                while ((i < characters.size()) && (getAmount(characters.get(i)) != 0)) {
+                    amount += getAmount(characters.get(i++));
+                }
+                if (amount != 0) {
+                    emit(new AddValInstruction(first, amount));
+                }
+            } else if (getDistance(first) != 0) {
+                final int direction = getDistance(first);
+                int distance = 0;
+                while ((i < characters.size()) && (getDistance(characters.get(i)) == direction)) {
+                    distance += getDistance(characters.get(i++));
+                }
+                emit(new MovePtrInstruction(first, distance));
+            } else {
+                first.process(this);
+                ++i;
+            }
+        }
+    }
+
     @Override
     public final void processProgram(final AstNode<?> program) throws CompileException {
         try {
@@ -74,8 +74,10 @@ import jumpvm.code.pama.AndInstruction;
 import jumpvm.code.pama.ChdInstruction;
 import jumpvm.code.pama.CupInstruction;
 import jumpvm.code.pama.CupiInstruction;
+import jumpvm.code.pama.CupidInstruction;
 import jumpvm.code.pama.DivInstruction;
 import jumpvm.code.pama.DplInstruction;
+import jumpvm.code.pama.DspInstruction;
 import jumpvm.code.pama.EquInstruction;
 import jumpvm.code.pama.FjpInstruction;
 import jumpvm.code.pama.GeqInstruction;
@@ -86,16 +88,20 @@ import jumpvm.code.pama.IndInstruction;
 import jumpvm.code.pama.IxaInstruction;
 import jumpvm.code.pama.IxjInstruction;
 import jumpvm.code.pama.LdaInstruction;
+import jumpvm.code.pama.LdadInstruction;
 import jumpvm.code.pama.LdcInstruction;
 import jumpvm.code.pama.LddInstruction;
 import jumpvm.code.pama.LeqInstruction;
 import jumpvm.code.pama.LesInstruction;
 import jumpvm.code.pama.LodInstruction;
+import jumpvm.code.pama.LoddInstruction;
 import jumpvm.code.pama.LowInstruction;
 import jumpvm.code.pama.MovdInstruction;
 import jumpvm.code.pama.MovsInstruction;
 import jumpvm.code.pama.MstInstruction;
+import jumpvm.code.pama.MstdInstruction;
 import jumpvm.code.pama.MstfInstruction;
+import jumpvm.code.pama.MstfdInstruction;
 import jumpvm.code.pama.MulInstruction;
 import jumpvm.code.pama.NegInstruction;
 import jumpvm.code.pama.NeqInstruction;
@@ -317,7 +323,13 @@ public class PaMaCompiler extends Compiler {
 
             final int depthDifference = getDepth() - position.getDepth();
             if (direct) {
-                emit(new MstInstruction(node, depthDifference, identifier));
+                if (display && (depthDifference > 0)) {
+                    emit(new MstdInstruction(node, position.getDepth() - 1, identifier));
+                } else {
+                    emit(new MstInstruction(node, depthDifference, identifier));
+                }
+            } else if (display && (depthDifference > 0)) {
+                emit(new MstfdInstruction(node, position.getDepth() - 1, position.getAddress().getAddress(), identifier));
             } else {
                 emit(new MstfInstruction(node, depthDifference, position.getAddress().getAddress(), identifier));
             }
@@ -352,7 +364,56 @@ public class PaMaCompiler extends Compiler {
                 emit(new CupInstruction(node, s, position.getAddress()));
             } else {
                 emit(new SmpInstruction(node, s));
-                emit(new CupiInstruction(node, depthDifference, position.getAddress().getAddress(), identifier));
+                if (display && (depthDifference > 0)) {
+                    emit(new CupidInstruction(node, position.getDepth() - 1, position.getAddress().getAddress(), identifier));
+                } else {
+                    emit(new CupiInstruction(node, depthDifference, position.getAddress().getAddress(), identifier));
+                }
+            }
+            emitDsp(node);
+        }
+
+        /**
+         * Emit the update of the display to the current frame, if display code is generated.
+         *
+         * @param node node
+         */
+        protected final void emitDsp(final PaMaAstNode node) {
+            if (display) {
+                emit(new DspInstruction(node, getDepth() - 1));
+            }
+        }
+
+        /**
+         * Emit the loading of an address relative to the frame of the given position.
+         *
+         * @param node node
+         * @param position position
+         * @param q relative address
+         * @param identifier object name
+         */
+        protected final void emitLda(final PaMaAstNode node, final Position position, final int q, final String identifier) {
+            final int depthDifference = getDepth() - position.getDepth();
+            if (display && (depthDifference > 0)) {
+                emit(new LdadInstruction(node, position.getDepth() - 1, q, identifier));
+            } else {
+                emit(new LdaInstruction(node, depthDifference, q, identifier));
+            }
+        }
+
+        /**
+         * Emit the loading of the object at the given position.
+         *
+         * @param node node
+         * @param position position
+         * @param identifier object name
+         */
+        protected final void emitLod(final PaMaAstNode node, final Position position, final String identifier) {
+            final int depthDifference = getDepth() - position.getDepth();
+            if (display && (depthDifference > 0)) {
+                emit(new LoddInstruction(node, position.getDepth() - 1, position.getAddress().getAddress(), identifier));
+            } else {
+                emit(new LodInstruction(node, depthDifference, position.getAddress().getAddress(), identifier));
             }
         }
 
@@ -564,7 +625,7 @@ public class PaMaCompiler extends Compiler {
             /* is a reference parameter */
             position = getPositionOfParameterReference(node.getIdentifier());
             if (position != null) {
-                emit(new LodInstruction(node, getDepth() - position.getDepth(), position.getAddress().getAddress(), node.getIdentifier()));
+                emitLod(node, position, node.getIdentifier());
                 for (final DesignatorPart designatorPart : node.getDesignatorPartList()) {
                     designatorPart.process(this);
                 }
@@ -574,7 +635,7 @@ public class PaMaCompiler extends Compiler {
             /* is a value parameter */
             position = getPositionOfParameterValue(node.getIdentifier());
             if (position != null) {
-                emit(new LdaInstruction(node, getDepth() - position.getDepth(), position.getAddress().getAddress(), node.getIdentifier()));
+                emitLda(node, position, position.getAddress().getAddress(), node.getIdentifier());
                 for (final DesignatorPart designatorPart : node.getDesignatorPartList()) {
                     designatorPart.process(this);
                 }
@@ -584,7 +645,7 @@ public class PaMaCompiler extends Compiler {
             /* is a value */
             position = getPositionOfVariable(node.getIdentifier());
             if (position != null) {
-                emit(new LdaInstruction(node, getDepth() - position.getDepth(), position.getAddress().getAddress(), node.getIdentifier()));
+                emitLda(node, position, position.getAddress().getAddress(), node.getIdentifier());
                 for (final DesignatorPart designatorPart : node.getDesignatorPartList()) {
                     designatorPart.process(this);
                 }
@@ -601,7 +662,7 @@ public class PaMaCompiler extends Compiler {
             position = getPositionOfFunction(node.getIdentifier());
             if (position != null) {
                 emit(new LdcInstruction(node, position.getAddress().getAddress(), position.getAddress().getName(), null));
-                emit(new LdaInstruction(node, getDepth() - position.getDepth(), 0, node.getIdentifier()));
+                emitLda(node, position, 0, node.getIdentifier());
                 return;
             }
 
@@ -1212,6 +1273,7 @@ public class PaMaCompiler extends Compiler {
             final int maxElabStack = Math.max(elabVdecls(node.getDeclarations().getVarDeclList()), node.getMaxStackSize());
             emit(new SspInstruction(node, getNextAddress(), node.getIdentifier()));
             emit(new SepInstruction(node, maxElabStack));
+            emitDsp(node);
 
             /* codeS */
             for (final FormalParameter formalParameter : node.getFormalParameterList()) {
@@ -1359,6 +1421,7 @@ public class PaMaCompiler extends Compiler {
             final int maxElabStack = Math.max(elabVdecls(node.getDeclarations().getVarDeclList()), node.getMaxStackSize());
             emit(new SspInstruction(node, getNextAddress(), "main"));
             emit(new SepInstruction(node, maxElabStack));
+            emitDsp(node);
 
             /* codeP */
             for (final VarDecl varDecl : node.getDeclarations().getVarDeclList()) {
@@ -1485,11 +1548,24 @@ public class PaMaCompiler extends Compiler {
         }
     }
 
+    /** True to access non-local objects via the display instead of the static chain. */
+    private final boolean display;
+
     /**
-     * Create a new PaMaCompiler.
+     * Create a new PaMaCompiler that generates static chain code.
      */
     public PaMaCompiler() {
+        this(false);
+    }
+
+    /**
+     * Create a new PaMaCompiler.
+     *
+     * @param display true to access non-local objects via the display instead of the static chain
+     */
+    public PaMaCompiler(final boolean display) {
         super();
+        this.display = display;
     }
 
     @Override
@@ -21,6 +21,7 @@ package jumpvm.compiler.wima;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map.Entry;
 
 import jumpvm.ast.AstNode;
@@ -41,6 +42,7 @@ import jumpvm.code.wima.DownInstruction;
 import jumpvm.code.wima.EnterInstruction;
 import jumpvm.code.wima.HaltInstruction;
 import jumpvm.code.wima.InitInstruction;
+import jumpvm.code.wima.LastCallInstruction;
 import jumpvm.code.wima.NextAltInstruction;
 import jumpvm.code.wima.PopEnvInstruction;
 import jumpvm.code.wima.PushArgInstruction;
@@ -50,7 +52,13 @@ import jumpvm.code.wima.PutRefInstruction;
 import jumpvm.code.wima.PutStructInstruction;
 import jumpvm.code.wima.PutVarInstruction;
 import jumpvm.code.wima.RestoreInstruction;
+import jumpvm.code.wima.RetryInstruction;
 import jumpvm.code.wima.SetBtpInstruction;
+import jumpvm.code.wima.SwitchOnConstantInstruction;
+import jumpvm.code.wima.SwitchOnStructureInstruction;
+import jumpvm.code.wima.SwitchOnTermInstruction;
+import jumpvm.code.wima.TrustInstruction;
+import jumpvm.code.wima.TryInstruction;
 import jumpvm.code.wima.UAtomInstruction;
 import jumpvm.code.wima.URefInstruction;
 import jumpvm.code.wima.UStructInstruction;
@@ -59,10 +67,18 @@ import jumpvm.code.wima.UpInstruction;
 import jumpvm.compiler.Compiler;
 import jumpvm.exception.CompileException;
 import jumpvm.memory.Label;
+import jumpvm.memory.objects.SymbolTable;
 import jumpvm.vm.WiMa;
 
 /**
  * WiMachine {@link Compiler}.
+ * 
+ * If optimization is enabled, predicates with several clauses are indexed on their first argument: {@code switchonterm} dispatches on the kind of the
+ * dereferenced argument, {@code switchonconstant} and {@code switchonstructure} look up the atom or functor in a hash table built at compile time. Only the
+ * clauses whose first argument is the same atom or functor or a variable are tried, a single such clause is entered without creating a back track point.
+ * Unbound arguments still try all clauses. Each clause's code exists once, the alternatives are chained with {@code try}, {@code retry} and {@code trust}.
+ * The last goal of a clause is called with {@code lastcall}, which reuses the clause's frame if no back track point protects it, so tail recursion runs in
+ * constant stack space.
  */
 public class WiMaCompiler extends Compiler {
     /**
@@ -172,19 +188,48 @@ public class WiMaCompiler extends Compiler {
      * Translates a predicate. Create a new frame on the stack ({@code enter}), create arguments ({@code CodeA}), then execute this predicate ( {@code call}).
      */
     class CodeG extends Code {
+        /** True if this is the last goal of a clause and replaces the clause's frame. */
+        private final boolean last;
+
         /**
          * Create a new CodeG.
          * 
          * @param rho variable context
          */
         public CodeG(final HashMap<String, Integer> rho) {
+            this(rho, false);
+        }
+
+        /**
+         * Create a new CodeG.
+         * 
+         * @param rho variable context
+         * @param last true if this is the last goal of a clause and replaces the clause's frame
+         */
+        public CodeG(final HashMap<String, Integer> rho, final boolean last) {
             super(rho);
+            this.last = last;
+        }
+
+        /**
+         * Jump to the code for a predicate.
+         * 
+         * @param node predicate
+         * @param arity arity of the predicate
+         */
+        private void call(final Predicate node, final int arity) {
+            final Label label = getLabel(node.getIdentifier(), arity);
+            if (last) {
+                emit(new LastCallInstruction(node, label, arity));
+            } else {
+                emit(new CallInstruction(node, label, arity));
+            }
         }
 
         @Override
         public void process(final Atom node) throws CompileException {
             emit(new EnterInstruction(node));
-            emit(new CallInstruction(node, getLabel(node.getIdentifier(), 0), 0));
+            call(node, 0);
         }
 
         @Override
@@ -215,7 +260,7 @@ public class WiMaCompiler extends Compiler {
                 term.process(new CodeA(getRho()));
             }
 
-            emit(new CallInstruction(node, getLabel(node.getIdentifier(), node.getTermList().size()), node.getTermList().size()));
+            call(node, node.getTermList().size());
         }
 
         @Override
@@ -302,12 +347,25 @@ public class WiMaCompiler extends Compiler {
      */
     private final HashSet<String> knownVariables;
 
+    /** True to index clauses on their first argument. */
+    private final boolean optimize;
+
     /**
-     * Create a new WiMaCompiler.
+     * Create a new WiMaCompiler that tries all clauses of a predicate in order.
      */
     public WiMaCompiler() {
+        this(false);
+    }
+
+    /**
+     * Create a new WiMaCompiler.
+     * 
+     * @param optimize true to index clauses on their first argument
+     */
+    public WiMaCompiler(final boolean optimize) {
         this.clauseMap = new HashMap<String, Label>();
         this.knownVariables = new HashSet<String>();
+        this.optimize = optimize;
     }
 
     /**
@@ -381,11 +439,14 @@ public class WiMaCompiler extends Compiler {
             }
         }
 
-        for (final Predicate predicate : clause.getBody()) {
-            predicate.process(new CodeG(rho));
+        final ArrayList<Predicate> body = clause.getBody();
+        for (int i = 0; i < body.size(); ++i) {
+            body.get(i).process(new CodeG(rho, optimize && (i == (body.size() - 1))));
         }
 
-        btFin(btParam, clause);
+        if (!optimize || body.isEmpty()) {
+            btFin(btParam, clause);
+        }
     }
 
     /**
@@ -414,6 +475,8 @@ public class WiMaCompiler extends Compiler {
 
             if (currentClauseList.size() == 1) {
                 codePR(clause);
+            } else if (optimize && isIndexable(currentClauseList)) {
+                codePI(currentClauseList);
             } else {
                 codePR(currentClauseList);
             }
@@ -424,6 +487,73 @@ public class WiMaCompiler extends Compiler {
         }
     }
 
+    /**
+     * Translate a list of clauses with same identifier and arity in the program, indexed on the first argument.
+     * 
+     * @param clauseList list of clauses
+     * @throws CompileException on failure
+     */
+    private void codePI(final ArrayList<Clause> clauseList) throws CompileException {
+        final Clause first = clauseList.get(0);
+        final String clauseName = first.getHead().getIdentifier() + "/" + first.getHead().getArity();
+        final Label constantLabel = new Label(clauseName + " (atoms)");
+        final Label structureLabel = new Label(clauseName + " (structures)");
+
+        final ArrayList<Label> clauseLabels = new ArrayList<Label>();
+        final ArrayList<Label> variableLabels = new ArrayList<Label>();
+        final LinkedHashMap<Integer, ArrayList<Label>> constants = new LinkedHashMap<Integer, ArrayList<Label>>();
+        final LinkedHashMap<Integer, ArrayList<Label>> structures = new LinkedHashMap<Integer, ArrayList<Label>>();
+        for (int i = 0; i < clauseList.size(); ++i) {
+            final Label label = new Label(clauseName + " (" + (i + 1) + ")");
+            clauseLabels.add(label);
+
+            final Term term = ((Structure) clauseList.get(i).getHead()).getTermList().get(0);
+            if (term instanceof Variable) {
+                /* matches every key, including those of later clauses. */
+                variableLabels.add(label);
+                for (final ArrayList<Label> labels : constants.values()) {
+                    labels.add(label);
+                }
+                for (final ArrayList<Label> labels : structures.values()) {
+                    labels.add(label);
+                }
+            } else {
+                final LinkedHashMap<Integer, ArrayList<Label>> map = term instanceof Structure ? structures : constants;
+                final int key = getKey(term);
+                if (!map.containsKey(key)) {
+                    map.put(key, new ArrayList<Label>(variableLabels));
+                }
+                map.get(key).add(label);
+            }
+        }
+
+        /* unbound first argument: all clauses. */
+        emit(new SwitchOnTermInstruction(first, constantLabel, structureLabel));
+        codeChain(clauseLabels, clauseName, first);
+
+        final HashMap<Integer, Label> constantTable = new HashMap<Integer, Label>();
+        for (final Entry<Integer, ArrayList<Label>> entry : constants.entrySet()) {
+            final String name = SymbolTable.getAtom(entry.getKey());
+            constantTable.put(entry.getKey(), codeChain(entry.getValue(), clauseName + " " + name, first));
+        }
+        final HashMap<Integer, Label> structureTable = new HashMap<Integer, Label>();
+        for (final Entry<Integer, ArrayList<Label>> entry : structures.entrySet()) {
+            final String name = SymbolTable.getFunctorIdentifier(entry.getKey()) + "/" + SymbolTable.getFunctorArity(entry.getKey());
+            structureTable.put(entry.getKey(), codeChain(entry.getValue(), clauseName + " " + name, first));
+        }
+        final Label otherwise = variableLabels.isEmpty() ? null : codeChain(variableLabels, clauseName + " _", first);
+
+        constantLabel.setAddress(getCurrentPosition());
+        emit(new SwitchOnConstantInstruction(first, constantTable, otherwise));
+        structureLabel.setAddress(getCurrentPosition());
+        emit(new SwitchOnStructureInstruction(first, structureTable, otherwise));
+
+        for (int i = 0; i < clauseList.size(); ++i) {
+            clauseLabels.get(i).setAddress(getCurrentPosition());
+            codeC(clauseList.get(i), BtParam.SINGLE, null);
+        }
+    }
+
     /**
      * Translate a list of clauses with same identifier and arity in the program.
      * 
@@ -459,6 +589,35 @@ public class WiMaCompiler extends Compiler {
         codeC(clause, BtParam.SINGLE, null);
     }
 
+    /**
+     * Chain alternative clauses with {@code try}, {@code retry} and {@code trust}.
+     * 
+     * @param clauseLabels code of the clauses
+     * @param chainName name of the chain
+     * @param node current node
+     * @return start of the chain, or the code of the clause if there is only one
+     */
+    private Label codeChain(final ArrayList<Label> clauseLabels, final String chainName, final Clause node) {
+        if (clauseLabels.size() == 1) {
+            return clauseLabels.get(0);
+        }
+
+        final Label start = new Label(chainName);
+        start.setAddress(getCurrentPosition());
+        Label label = new Label(chainName + " (" + 2 + ")");
+        emit(new TryInstruction(node, label, clauseLabels.get(0)));
+
+        for (int i = 1; i < (clauseLabels.size() - 1); ++i) {
+            label.setAddress(getCurrentPosition());
+            label = new Label(chainName + " (" + (i + 2) + ")");
+            emit(new RetryInstruction(node, label, clauseLabels.get(i)));
+        }
+
+        label.setAddress(getCurrentPosition());
+        emit(new TrustInstruction(node, clauseLabels.get(clauseLabels.size() - 1)));
+        return start;
+    }
+
     /**
      * Translate the given query.
      * 
@@ -491,6 +650,23 @@ public class WiMaCompiler extends Compiler {
         return rho;
     }
 
+    /**
+     * Returns the key of an atom or structure in the switch tables, interning it in the {@link SymbolTable}.
+     * 
+     * @param term atom, numeral or structure
+     * @return the id of an atom, the id of the functor of a structure
+     */
+    private int getKey(final Term term) {
+        if (term instanceof Structure) {
+            final Structure structure = (Structure) term;
+            return SymbolTable.internFunctor(structure.getAtom().getIdentifier(), structure.getTermList().size());
+        } else if (term instanceof Numeral) {
+            return SymbolTable.internAtom(((Numeral) term).getIdentifier());
+        } else {
+            return SymbolTable.internAtom(((Atom) term).getIdentifier());
+        }
+    }
+
     /**
      * Returns the address of the unification code for the given clause.
      * 
@@ -512,6 +688,23 @@ public class WiMaCompiler extends Compiler {
         return label;
     }
 
+    /**
+     * Returns true if the clauses can be indexed on their first argument.
+     * 
+     * @param clauseList list of clauses
+     * @return true if all clauses have a first argument and at least one of them is not a variable
+     */
+    private boolean isIndexable(final ArrayList<Clause> clauseList) {
+        boolean bound = false;
+        for (final Clause clause : clauseList) {
+            if (!(clause.getHead() instanceof Structure) || ((Structure) clause.getHead()).getTermList().isEmpty()) {
+                return false;
+            }
+            bound |= !(((Structure) clause.getHead()).getTermList().get(0) instanceof Variable);
+        }
+        return bound;
+    }
+
     @Override
     public final void processProgram(final AstNode<?> programNode) throws CompileException {
         try {
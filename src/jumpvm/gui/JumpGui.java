@@ -266,6 +266,31 @@ public class JumpGui extends JFrame {
         tab.actionExportState(fileChooser);
     }
 
+    /**
+     * Action "go to step".
+     */
+    public final void actionGoToStep() {
+        runningToggle.setSelected(false);
+
+        final JumpTab tab = getCurrentTab();
+        if (tab == null) {
+            return;
+        }
+
+        final String input = JOptionPane.showInputDialog(this, "Go to step:", tab.getVm().getStepCounter().getValue());
+        if (input == null) {
+            return;
+        }
+
+        try {
+            tab.actionGoToStep(Integer.parseInt(input.trim()));
+        } catch (final NumberFormatException e) {
+            showExceptionDialog(tab, e, "Not a valid step: " + input, "JumpVM error");
+        } catch (final ExecutionException e) {
+            showExceptionDialog(tab, e.getCause() != null ? e.getCause() : e, "The VM was unable to execute the instruction " + (e.getInstruction() == null ? "" : e.getInstruction().getMnemonic()), "JumpVM failure");
+        }
+    }
+
     /**
      * Action "help".
      */
@@ -402,7 +427,11 @@ public class JumpGui extends JFrame {
             return;
         }
 
-        tab.actionStepBackward();
+        try {
+            tab.actionStepBackward();
+        } catch (final ExecutionException e) {
+            showExceptionDialog(tab, e.getCause() != null ? e.getCause() : e, "The VM was unable to execute the instruction " + (e.getInstruction() == null ? "" : e.getInstruction().getMnemonic()), "JumpVM failure");
+        }
     }
 
     /**
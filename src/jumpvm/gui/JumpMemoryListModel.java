@@ -0,0 +1,122 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.gui;
+
+import javax.swing.AbstractListModel;
+
+import jumpvm.memory.MemoryStore;
+import jumpvm.memory.objects.MemoryObject;
+
+/**
+ * Swing list model of a {@link MemoryStore}.
+ * 
+ * The store does not notify the model, instead {@link #update()} collects the modifications since the last update and fires at most one event per kind.
+ */
+public class JumpMemoryListModel extends AbstractListModel<MemoryObject> {
+    /** Default serialVersionUID. */
+    private static final long serialVersionUID = 1L;
+
+    /** Underlying memory. */
+    private final MemoryStore<?> memory;
+
+    /** Lowest address shown at the last update. */
+    private int low;
+
+    /** Highest address shown at the last update plus one. */
+    private int high;
+
+    /**
+     * Create a new JumpMemoryListModel.
+     * 
+     * @param memory underlying memory
+     */
+    public JumpMemoryListModel(final MemoryStore<?> memory) {
+        this.memory = memory;
+        this.low = memory.getLow();
+        this.high = Math.max(low, memory.getSize());
+        memory.takeDirtyRange();
+    }
+
+    @Override
+    public final MemoryObject getElementAt(final int index) {
+        final int address = low + index;
+        if ((address < memory.getLow()) || (address >= memory.getSize())) {
+            /* shrunk since the last update */
+            return null;
+        }
+        return memory.getElementAt(address);
+    }
+
+    /**
+     * Returns the address of the first row.
+     * 
+     * @return the address of the first row
+     */
+    public final int getLow() {
+        return low;
+    }
+
+    @Override
+    public final int getSize() {
+        return high - low;
+    }
+
+    /**
+     * Publish the modifications of the memory since the last update. Call this on the event dispatch thread. Rows are added or removed at the end, and at the
+     * beginning for memories that keep only their upper addresses.
+     */
+    public final void update() {
+        final int oldLow = low;
+        final int oldHigh = high;
+        final int[] range = memory.takeDirtyRange();
+        low = memory.getLow();
+        high = Math.max(low, memory.getSize());
+
+        if ((low >= oldHigh) || (high <= oldLow)) {
+            /* no row survives */
+            if (oldHigh > oldLow) {
+                fireIntervalRemoved(this, 0, (oldHigh - oldLow) - 1);
+            }
+            if (high > low) {
+                fireIntervalAdded(this, 0, (high - low) - 1);
+            }
+            return;
+        }
+
+        if (low < oldLow) {
+            fireIntervalAdded(this, 0, (oldLow - low) - 1);
+        } else if (low > oldLow) {
+            fireIntervalRemoved(this, 0, (low - oldLow) - 1);
+        }
+
+        if (high < oldHigh) {
+            fireIntervalRemoved(this, high - low, (oldHigh - low) - 1);
+        } else if (high > oldHigh) {
+            fireIntervalAdded(this, oldHigh - low, (high - low) - 1);
+        }
+
+        if (range != null) {
+            final int from = Math.max(range[0], Math.max(oldLow, low));
+            final int to = Math.min(range[1], Math.min(oldHigh, high) - 1);
+            if (from <= to) {
+                fireContentsChanged(this, from - low, to - low);
+            }
+        }
+    }
+}
@@ -59,6 +59,9 @@ public class JumpMemoryPanel extends JPanel implements ListCellRenderer<MemoryOb
     /** GUI element: Memory content. */
     private final JList<MemoryObject> list;
 
+    /** List model of the memory. */
+    private final JumpMemoryListModel model;
+
     /** Underlying memory. */
     private final Memory<?> memory;
 
@@ -69,7 +72,8 @@ public class JumpMemoryPanel extends JPanel implements ListCellRenderer<MemoryOb
      * @param tab parent JumpTab
      */
     public JumpMemoryPanel(final Memory<? extends MemoryObject> memory, final JumpTab tab) {
-        this.list = new JList<MemoryObject>(memory);
+        this.model = new JumpMemoryListModel(memory);
+        this.list = new JList<MemoryObject>(model);
         this.tab = tab;
         this.memory = memory;
 
@@ -100,7 +104,7 @@ public class JumpMemoryPanel extends JPanel implements ListCellRenderer<MemoryOb
         final Color color = tab.getColorMemoryObject(object) == null ? CELL_COLOR_DEFAULT : tab.getColorMemoryObject(object);
         box.setBackground(color);
 
-        final JLabel label = new JLabel(String.format("<html><b>%04d</b> %s%s</html>", index, displayType == null ? "" : "[" + displayType + "] ", displayValue));
+        final JLabel label = new JLabel(String.format("<html><b>%04d</b> %s%s</html>", model.getLow() + index, displayType == null ? "" : "[" + displayType + "] ", displayValue));
         label.setFont(JumpGui.FONT_MONOSPACED);
         box.add(label);
 
@@ -121,12 +125,13 @@ public class JumpMemoryPanel extends JPanel implements ListCellRenderer<MemoryOb
             }
         } else if (memory instanceof Stack) {
             final Stack stack = (Stack) memory;
-            for (final int start : stack.getFrames().keySet()) {
+            for (int frame = 0; frame < stack.getFrameCount(); ++frame) {
+                final int start = stack.getFrameStart(frame);
                 if (start == index) {
                     box.setBorder(new MatteBorder(2, 0, 0, 0, Color.BLACK));
                 }
 
-                if ((start <= index) && (index < stack.getFrames().get(start))) {
+                if ((start <= index) && (index < stack.getFrameEnd(frame))) {
                     box.setBackground(CELL_COLOR_ORGANIZATIONAL);
                 }
             }
@@ -139,6 +144,8 @@ public class JumpMemoryPanel extends JPanel implements ListCellRenderer<MemoryOb
      * Update this panel.
      */
     public final void update() {
+        model.update();
+
         final int selection = list.getSelectedIndex();
         if (selection >= 0) {
             list.ensureIndexIsVisible(selection);
@@ -140,6 +140,9 @@ public class JumpMenuBar extends JMenuBar implements ActionListener {
     /** Menu item "Run -> Step forward". */
     private final JMenuItem runStepForwardItem;
 
+    /** Menu item "Run -> Go to step". */
+    private final JMenuItem runGoToStepItem;
+
     /** Menu item "Run -> Run". */
     private final JCheckBoxMenuItem runRunItem;
 
@@ -208,6 +211,7 @@ public class JumpMenuBar extends JMenuBar implements ActionListener {
         runStepBackwardItem = item("Step backward", "go-previous");
         runStepForwardItem = item("Step forward", "go-next");
         runRunItem = item("Run", "go-last", gui.getRunningToggle());
+        runGoToStepItem = item("Go to step", "go-next");
         runResetItem = item("Reset", "view-refresh");
 
         helpMenu = new JMenu("Help");
@@ -260,6 +264,7 @@ public class JumpMenuBar extends JMenuBar implements ActionListener {
         runMenu.add(runStepBackwardItem);
         runMenu.add(runStepForwardItem);
         runMenu.add(runRunItem);
+        runMenu.add(runGoToStepItem);
         runMenu.addSeparator();
         runMenu.add(runResetItem);
 
@@ -317,6 +322,8 @@ public class JumpMenuBar extends JMenuBar implements ActionListener {
             gui.actionStepForward();
         } else if (source == runStepBackwardItem) {
             gui.actionStepBackward();
+        } else if (source == runGoToStepItem) {
+            gui.actionGoToStep();
         } else if (source == runResetItem) {
             gui.actionReset();
         } else if (source == helpHelpItem) {
@@ -417,6 +424,7 @@ public class JumpMenuBar extends JMenuBar implements ActionListener {
             runStepForwardItem.setEnabled(false);
             runStepBackwardItem.setEnabled(false);
             runRunItem.setEnabled(false);
+            runGoToStepItem.setEnabled(false);
             runResetItem.setEnabled(false);
         } else {
             fileSaveItem.setEnabled(true);
@@ -431,6 +439,7 @@ public class JumpMenuBar extends JMenuBar implements ActionListener {
                 runStepForwardItem.setEnabled(false);
                 runStepBackwardItem.setEnabled(false);
                 runRunItem.setEnabled(false);
+                runGoToStepItem.setEnabled(false);
                 runResetItem.setEnabled(false);
             } else {
                 fileExportAsmItem.setEnabled(true);
@@ -441,6 +450,7 @@ public class JumpMenuBar extends JMenuBar implements ActionListener {
                 runStepForwardItem.setEnabled(true);
                 runStepBackwardItem.setEnabled(true);
                 runRunItem.setEnabled(true);
+                runGoToStepItem.setEnabled(true);
                 runResetItem.setEnabled(true);
             }
         }
@@ -27,7 +27,9 @@ import javax.swing.JPanel;
 import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
 
+import jumpvm.memory.Memory;
 import jumpvm.memory.Register;
+import jumpvm.memory.Stack;
 import jumpvm.vm.JumpVM;
 
 /**
@@ -40,6 +42,9 @@ public class JumpModifyRegisterPanel extends JPanel {
     /** Value map. */
     private final HashMap<Register, JSpinner> values;
 
+    /** Stacks by their stack pointer register. */
+    private final HashMap<Register, Stack> stacks;
+
     /**
      * Create a new JumpModifyRegisterPanel.
      * 
@@ -47,6 +52,12 @@ public class JumpModifyRegisterPanel extends JPanel {
      */
     public JumpModifyRegisterPanel(final JumpVM vm) {
         this.values = new HashMap<Register, JSpinner>();
+        this.stacks = new HashMap<Register, Stack>();
+        for (final Memory<?> memory : vm.getDisplayMemories()) {
+            if (memory instanceof Stack) {
+                stacks.put(((Stack) memory).getStackPointer(), (Stack) memory);
+            }
+        }
 
         setLayout(new GridLayout(0, 2));
         add(new JLabel("Name"));
@@ -65,7 +76,12 @@ public class JumpModifyRegisterPanel extends JPanel {
      */
     public final void apply() {
         for (final Entry<Register, JSpinner> entry : values.entrySet()) {
-            entry.getKey().setValue(((Number) entry.getValue().getValue()).intValue());
+            final int value = ((Number) entry.getValue().getValue()).intValue();
+            if (stacks.containsKey(entry.getKey())) {
+                stacks.get(entry.getKey()).setStackPointer(value);
+            } else {
+                entry.getKey().setValue(value);
+            }
         }
     }
 }
@@ -20,8 +20,7 @@ package jumpvm.gui;
 
 import java.awt.GridLayout;
 import java.util.HashMap;
-import java.util.Observable;
-import java.util.Observer;
+import java.util.Map.Entry;
 
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -33,7 +32,7 @@ import jumpvm.memory.Register;
 /**
  * JumpRegisterPanel.
  */
-public class JumpRegisterPanel extends JPanel implements Observer {
+public class JumpRegisterPanel extends JPanel {
     /** Default serialVersionUID. */
     private static final long serialVersionUID = 1L;
 
@@ -62,20 +61,20 @@ public class JumpRegisterPanel extends JPanel implements Observer {
 
             add(label);
             add(textField);
-            register.addObserver(this);
             registerMap.put(register, textField);
-            update(register, null);
         }
+        update();
     }
 
-    @Override
-    public final void update(final Observable o, final Object arg) {
-        final JTextField textField = registerMap.get(o);
-
-        if (textField == null) {
-            return;
+    /**
+     * Show the current register values.
+     */
+    public final void update() {
+        for (final Entry<Register, JTextField> entry : registerMap.entrySet()) {
+            final String value = entry.getKey().getDisplayValue();
+            if (!value.equals(entry.getValue().getText())) {
+                entry.getValue().setText(value);
+            }
         }
-
-        textField.setText(((Register) o).getDisplayValue());
     }
 }
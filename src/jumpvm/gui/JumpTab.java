@@ -27,7 +27,6 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -51,8 +50,8 @@ import jumpvm.exception.ParseException;
 import jumpvm.memory.Memory;
 import jumpvm.memory.Program;
 import jumpvm.memory.objects.MemoryObject;
+import jumpvm.vm.Checkpoints;
 import jumpvm.vm.JumpVM;
-import jumpvm.vm.VmState;
 
 /**
  * JumpVM IDE.
@@ -67,8 +66,8 @@ public abstract class JumpTab extends JPanel {
     /** This tab's vm. */
     private final JumpVM vm;
 
-    /** Backlog of execution steps. */
-    private final ArrayDeque<VmState> stateStack;
+    /** Periodic snapshots of the vm for random seeking. */
+    private final Checkpoints checkpoints;
 
     /** Associated source code file. */
     private File associatedFile;
@@ -111,7 +110,7 @@ public abstract class JumpTab extends JPanel {
      */
     public JumpTab(final JumpVM vm) {
         this.vm = vm;
-        this.stateStack = new ArrayDeque<VmState>();
+        this.checkpoints = new Checkpoints(vm);
         this.dotRepresentation = new ArrayList<String>();
 
         this.registerPanel = new JumpRegisterPanel(this);
@@ -163,8 +162,8 @@ public abstract class JumpTab extends JPanel {
             dotBackend.processProgram(program);
 
             /* Reset VM. */
-            stateStack.clear();
             vm.reset(compiler.getInstructions());
+            checkpoints.clear();
             treePanel.setTree(program);
 
             dotRepresentation = dotBackend.getContent();
@@ -185,6 +184,8 @@ public abstract class JumpTab extends JPanel {
         final JumpModifyMemoryPanel jumpModifyMemoryPanel = new JumpModifyMemoryPanel(this);
         if (JOptionPane.showConfirmDialog(this, jumpModifyMemoryPanel, "Memories", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) == JOptionPane.OK_OPTION) {
             jumpModifyMemoryPanel.apply();
+            checkpoints.clear();
+            update();
         }
     }
 
@@ -195,6 +196,8 @@ public abstract class JumpTab extends JPanel {
         final JumpModifyRegisterPanel jumpModifyRegisterPanel = new JumpModifyRegisterPanel(vm);
         if (JOptionPane.showConfirmDialog(this, jumpModifyRegisterPanel, "Registers", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) == JOptionPane.OK_OPTION) {
             jumpModifyRegisterPanel.apply();
+            checkpoints.clear();
+            update();
         }
     }
 
@@ -280,11 +283,30 @@ public abstract class JumpTab extends JPanel {
         }
     }
 
+    /**
+     * Action "go to step".
+     * 
+     * @param step target step
+     * @throws ExecutionException on VM failure
+     */
+    public final void actionGoToStep(final int step) throws ExecutionException {
+        if (vm.getProgram().getSize() == 0) {
+            return;
+        }
+
+        try {
+            checkpoints.seek(step);
+        } finally {
+            update();
+        }
+    }
+
     /**
      * Action "reset".
      */
     public final void actionReset() {
         vm.reset();
+        checkpoints.clear();
         update();
     }
 
@@ -326,15 +348,16 @@ public abstract class JumpTab extends JPanel {
     }
 
     /**
-     * Action "step backward".
+     * Action "step backward". Steps that are no longer journaled are reverted by seeking to the previous step.
+     * 
+     * @throws ExecutionException on VM failure
      */
-    public final void actionStepBackward() {
-        if (stateStack.isEmpty()) {
-            return;
+    public final void actionStepBackward() throws ExecutionException {
+        try {
+            checkpoints.stepBackward();
+        } finally {
+            update();
         }
-
-        stateStack.pop().set();
-        update();
     }
 
     /**
@@ -351,7 +374,7 @@ public abstract class JumpTab extends JPanel {
             return;
         }
 
-        stateStack.push(vm.step());
+        checkpoints.step();
         update();
     }
 
@@ -523,6 +546,7 @@ public abstract class JumpTab extends JPanel {
 
     /** Update GUI elements. */
     private void update() {
+        registerPanel.update();
         sourcePanel.update();
         treePanel.update();
         for (final JumpMemoryPanel memoryPanel : memoryPanelList) {
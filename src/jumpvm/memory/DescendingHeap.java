@@ -0,0 +1,406 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import jumpvm.memory.objects.MemoryObject;
+import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StackTag;
+
+/**
+ * Heap at the top of a store, growing down.
+ * 
+ * Addresses range from 0 to the size of the store, but only the cells from the lowest written address up to the top are kept, in primitive arrays ordered from
+ * the top down. The arrays double when the heap grows, addresses stay the same. As seen through the {@link Memory} interface, cells below the lowest written
+ * address are empty. Like in {@link Stack}, a cell either holds an explicit {@link StackObject} or a value together with a {@link StackTag}.
+ * 
+ * Snapshots and views only cover the kept cells, see {@link #getSnapshot()} and {@link #getLow()}, so their cost does not depend on the size of the store.
+ */
+public class DescendingHeap extends Memory<StackObject> {
+    /** Cells from the lowest kept address up to the top, as returned by {@link DescendingHeap#getSnapshot()}. */
+    private static final class Snapshot extends ArrayList<StackObject> {
+        /** Default serialVersionUID. */
+        private static final long serialVersionUID = 1L;
+
+        /** Address of the first cell. */
+        private final int low;
+
+        /**
+         * Create a new Snapshot.
+         * 
+         * @param low address of the first cell
+         * @param capacity number of cells
+         */
+        Snapshot(final int low, final int capacity) {
+            super(capacity);
+            this.low = low;
+        }
+    }
+
+    /** Initial capacity of the cell arrays. */
+    private static final int CAPACITY = 64;
+
+    /** Size of the store = first address above the heap. */
+    private final int top;
+
+    /** Cell values, index 0 being the top cell. */
+    private int[] values;
+
+    /** Cell tags, null for cells holding an explicit object or no object at all. */
+    private StackTag[] tags;
+
+    /** Explicit cell objects, null for tagged cells. */
+    private StackObject[] objects;
+
+    /** Number of cells below the top, including empty ones. */
+    private int count;
+
+    /** Journal recording modifications, may be null. */
+    private Journal journal;
+
+    /**
+     * Create a new DescendingHeap.
+     * 
+     * @param name This memory's name
+     * @param top size of the store = first address above the heap
+     */
+    public DescendingHeap(final String name, final int top) {
+        super(name);
+        if (top < 0) {
+            throw new IllegalArgumentException("Invalid store size: " + top);
+        }
+        this.top = top;
+        this.values = new int[CAPACITY];
+        this.tags = new StackTag[CAPACITY];
+        this.objects = new StackObject[CAPACITY];
+        this.count = 0;
+        this.journal = null;
+    }
+
+    /**
+     * Check that the given address is inside the store.
+     * 
+     * @param address address
+     */
+    private void checkAddress(final int address) {
+        if ((address < 0) || (address >= top)) {
+            throw new IndexOutOfBoundsException("Index: " + address + ", Size: " + top);
+        }
+    }
+
+    /**
+     * Make room for the given number of cells.
+     * 
+     * @param capacity required number of cells
+     */
+    private void ensureCapacity(final int capacity) {
+        if (capacity <= values.length) {
+            return;
+        }
+        final int length = Math.max(capacity, values.length * 2);
+        values = Arrays.copyOf(values, length);
+        tags = Arrays.copyOf(tags, length);
+        objects = Arrays.copyOf(objects, length);
+    }
+
+    /**
+     * Sets a range of cells to the same object, growing the heap down if necessary.
+     * 
+     * @param address lowest address
+     * @param length number of cells
+     * @param object object, shared by all cells
+     */
+    public final void fillRange(final int address, final int length, final StackObject object) {
+        if (length <= 0) {
+            return;
+        }
+        checkAddress(address);
+        checkAddress((address + length) - 1);
+        final int from = top - address - length;
+        final int to = top - address;
+
+        if ((journal != null) && journal.isRecording()) {
+            for (int index = from; index < Math.min(to, count); ++index) {
+                journal.recordSet(this, top - 1 - index, getElementAt(top - 1 - index), count);
+            }
+            if (to > count) {
+                journal.recordSet(this, address, null, count);
+            }
+        }
+
+        ensureCapacity(to);
+        Arrays.fill(values, from, to, object == null ? 0 : object.getIntValue());
+        Arrays.fill(tags, from, to, null);
+        Arrays.fill(objects, from, to, object);
+
+        if (to > count) {
+            count = to;
+        }
+        markDirty(address, (address + length) - 1);
+    }
+
+    @Override
+    public final ArrayList<StackObject> getContent() {
+        final int size = getSize();
+        final ArrayList<StackObject> content = new ArrayList<StackObject>(size);
+        for (int i = 0; i < size; ++i) {
+            content.add(getElementAt(i));
+        }
+        return content;
+    }
+
+    @Override
+    public final StackObject getElementAt(final int address) {
+        checkAddress(address);
+        final int index = top - 1 - address;
+        if (index >= count) {
+            return null;
+        }
+        if (objects[index] != null) {
+            return objects[index];
+        }
+        if (tags[index] != null) {
+            return tags[index].toObject(values[index], 0, 0);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of a cell, without creating its object.
+     * 
+     * @param address address
+     * @return the value of the cell
+     */
+    public final int getInt(final int address) {
+        checkAddress(address);
+        final int index = top - 1 - address;
+        if ((index >= count) || ((objects[index] == null) && (tags[index] == null))) {
+            throw new NullPointerException("Empty cell: " + address);
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns the lowest address kept, the top if the heap is empty.
+     * 
+     * @return the lowest address kept
+     */
+    @Override
+    public final int getLow() {
+        return top - count;
+    }
+
+    @Override
+    public final int getSize() {
+        return count == 0 ? 0 : top;
+    }
+
+    /**
+     * Returns a copy of the cells from the lowest kept address up to the top. Its size does not depend on the size of the store.
+     * 
+     * @return a copy of the kept cells
+     */
+    @Override
+    public final ArrayList<StackObject> getSnapshot() {
+        final int low = getLow();
+        final Snapshot snapshot = new Snapshot(low, count);
+        for (int address = low; address < top; ++address) {
+            snapshot.add(getElementAt(address));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the size of the store = first address above the heap.
+     * 
+     * @return the size of the store
+     */
+    public final int getTop() {
+        return top;
+    }
+
+    /**
+     * Push copies of a range of cells on a stack, without creating their objects.
+     * 
+     * @param address lowest address
+     * @param length number of cells
+     * @param stack target stack
+     */
+    public final void pushRange(final int address, final int length, final Stack stack) {
+        if (length <= 0) {
+            return;
+        }
+        checkAddress(address);
+        checkAddress((address + length) - 1);
+        stack.pushDescending(values, tags, objects, count, top - 1 - address, length);
+    }
+
+    @Override
+    public final void reset() {
+        reset(new ArrayList<StackObject>());
+    }
+
+    @Override
+    public final void reset(final ArrayList<? extends MemoryObject> content) {
+        final int oldLow = getLow();
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordReset(this, getSnapshot());
+        }
+
+        Arrays.fill(tags, 0, count, null);
+        Arrays.fill(objects, 0, count, null);
+        count = 0;
+        if (content instanceof Snapshot) {
+            /* snapshots only hold the cells from their lowest address on */
+            final int low = ((Snapshot) content).low;
+            count = top - low;
+            ensureCapacity(count);
+            for (int address = low; address < top; ++address) {
+                write(top - 1 - address, (StackObject) content.get(address - low));
+            }
+        } else {
+            for (int address = 0; address < content.size(); ++address) {
+                final MemoryObject object = content.get(address);
+                if (object != null) {
+                    checkAddress(address);
+                    if (count == 0) {
+                        count = top - address;
+                        ensureCapacity(count);
+                    }
+                    write(top - 1 - address, (StackObject) object);
+                }
+            }
+        }
+
+        markDirty(Math.min(oldLow, getLow()), top - 1);
+    }
+
+    /**
+     * Clear the content of this heap, then set the cells from the given address up to the top to plain values.
+     * 
+     * @param low lowest address to set
+     * @param cells values, the value of address a being at index a + offset
+     * @param offset offset of the values in cells
+     */
+    public final void reset(final int low, final int[] cells, final int offset) {
+        if ((low < 0) || (low > top)) {
+            throw new IndexOutOfBoundsException("Index: " + low + ", Size: " + top);
+        }
+
+        final int oldLow = getLow();
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordReset(this, getSnapshot());
+        }
+
+        Arrays.fill(tags, 0, count, null);
+        Arrays.fill(objects, 0, count, null);
+        count = top - low;
+        ensureCapacity(count);
+        for (int address = low; address < top; ++address) {
+            final int index = top - 1 - address;
+            values[index] = cells[address + offset];
+            tags[index] = StackTag.VALUE;
+        }
+
+        markDirty(Math.min(oldLow, low), top - 1);
+    }
+
+    /**
+     * Sets the value of a cell.
+     * 
+     * @param address address
+     * @param value value
+     * @param tag tag describing the value
+     */
+    public final void set(final int address, final int value, final StackTag tag) {
+        store(address, value, tag, null);
+    }
+
+    @Override
+    public final void setElementAt(final int address, final StackObject object) {
+        store(address, object == null ? 0 : object.getIntValue(), null, object);
+    }
+
+    @Override
+    public final void setJournal(final Journal journal) {
+        super.setJournal(journal);
+        this.journal = journal;
+    }
+
+    /**
+     * Sets a cell, growing the heap down if necessary. Cells between the previous bottom and the new cell are empty.
+     * 
+     * @param address address
+     * @param value value
+     * @param tag tag describing the value, or null
+     * @param object explicit object, or null
+     */
+    private void store(final int address, final int value, final StackTag tag, final StackObject object) {
+        checkAddress(address);
+        final int index = top - 1 - address;
+
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordSet(this, address, index < count ? getElementAt(address) : null, count);
+        }
+
+        ensureCapacity(index + 1);
+        values[index] = value;
+        tags[index] = tag;
+        objects[index] = object;
+
+        if (index >= count) {
+            count = index + 1;
+        }
+        markDirty(address, address);
+    }
+
+    @Override
+    public final String toString() {
+        return "DescendingHeap [name=" + getName() + ", top=" + top + ", values=" + Arrays.toString(Arrays.copyOf(values, count)) + "]";
+    }
+
+    @Override
+    final void undoSetElementAt(final int address, final MemoryObject object, final int oldCount) {
+        final int index = top - 1 - address;
+        if (index < oldCount) {
+            write(index, (StackObject) object);
+            markDirty(address, address);
+        } else if (count > oldCount) {
+            final int oldLow = getLow();
+            Arrays.fill(tags, oldCount, count, null);
+            Arrays.fill(objects, oldCount, count, null);
+            count = oldCount;
+            markDirty(oldLow, getLow());
+        }
+    }
+
+    /**
+     * Sets a cell to an explicit object without recording or marking the modification.
+     * 
+     * @param index index into the cell arrays, below the capacity
+     * @param object object, or null for an empty cell
+     */
+    private void write(final int index, final StackObject object) {
+        values[index] = object == null ? 0 : object.getIntValue();
+        tags[index] = null;
+        objects[index] = object;
+    }
+}
@@ -21,12 +21,10 @@ package jumpvm.memory;
 import jumpvm.memory.objects.MemoryObject;
 import jumpvm.memory.objects.PointerObject;
 import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackTag;
 
 /** JumpVM heap. */
 public class Heap extends Memory<MemoryObject> {
-    /** Default serialVersionUID. */
-    private static final long serialVersionUID = 1L;
-
     /**
      * Create a new Heap.
      */
@@ -44,16 +42,35 @@ public class Heap extends Memory<MemoryObject> {
     }
 
     /**
-     * Allocate space for a new object on the heap and return a pointer to its address.
+     * Allocate space for a new object on the heap and return its address.
      * 
      * @param object object to put on the next free heap cell
-     * @param descriptionShort short description for the pointer to this cell
-     * @param descriptionLong long description for the pointer to this cell
-     * @return a pointer to the object on the heap
+     * @return the address of the object on the heap
      */
-    public final PointerObject allocate(final MemoryObject object, final String descriptionShort, final String descriptionLong) {
+    public final int allocate(final MemoryObject object) {
         final int index = getSize();
         setElementAt(index, object);
-        return new PointerObject(index, Type.POINTER_HEAP, descriptionShort, descriptionLong);
+        return index;
+    }
+
+    /**
+     * Allocate space for a new object on the heap and return a pointer to its address.
+     * 
+     * @param object object to put on the next free heap cell
+     * @param tag tag rendering the descriptions of the pointer to this cell
+     * @return a pointer to the object on the heap
+     */
+    public final PointerObject allocate(final MemoryObject object, final StackTag tag) {
+        return new PointerObject(allocate(object), Type.POINTER_HEAP, tag, 0, 0);
+    }
+
+    /**
+     * Removes all objects from the given address on, e.g. to drop everything allocated since a choice point. Only the removed objects are touched.
+     * 
+     * @param size new size
+     */
+    @Override
+    public final void truncate(final int size) {
+        super.truncate(size);
     }
 }
@@ -0,0 +1,362 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.memory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+import jumpvm.memory.objects.MemoryObject;
+
+/**
+ * Write journal of {@link Memory} and {@link Register} modifications.
+ *
+ * Instead of copying the whole vm state before each step, only the previous content of each modified cell or register is recorded. Undoing a step replays these
+ * records in reverse order.
+ */
+public class Journal {
+    /** Journal entry. */
+    private abstract static class Entry {
+        /** Revert the recorded modification. */
+        abstract void undo();
+    }
+
+    /** Overwritten memory cell. */
+    private static final class SetEntry extends Entry {
+        /** Modified memory. */
+        private final Memory<?> memory;
+
+        /** Address. */
+        private final int index;
+
+        /** Previous value. */
+        private final MemoryObject value;
+
+        /** Previous size of the memory. */
+        private final int size;
+
+        /**
+         * Create a new SetEntry.
+         *
+         * @param memory modified memory
+         * @param index address
+         * @param value previous value
+         * @param size previous size of the memory
+         */
+        SetEntry(final Memory<?> memory, final int index, final MemoryObject value, final int size) {
+            this.memory = memory;
+            this.index = index;
+            this.value = value;
+            this.size = size;
+        }
+
+        @Override
+        void undo() {
+            memory.undoSetElementAt(index, value, size);
+        }
+    }
+
+    /** Removed memory cell. */
+    private static final class RemoveEntry extends Entry {
+        /** Modified memory. */
+        private final Memory<?> memory;
+
+        /** Address. */
+        private final int index;
+
+        /** Removed value. */
+        private final MemoryObject value;
+
+        /**
+         * Create a new RemoveEntry.
+         *
+         * @param memory modified memory
+         * @param index address
+         * @param value removed value
+         */
+        RemoveEntry(final Memory<?> memory, final int index, final MemoryObject value) {
+            this.memory = memory;
+            this.index = index;
+            this.value = value;
+        }
+
+        @Override
+        void undo() {
+            memory.undoRemoveElementAt(index, value);
+        }
+    }
+
+    /** Removed memory cells at the end. */
+    private static final class TruncateEntry extends Entry {
+        /** Modified memory. */
+        private final Memory<?> memory;
+
+        /** Removed values. */
+        private final ArrayList<? extends MemoryObject> values;
+
+        /**
+         * Create a new TruncateEntry.
+         *
+         * @param memory modified memory
+         * @param values removed values
+         */
+        TruncateEntry(final Memory<?> memory, final ArrayList<? extends MemoryObject> values) {
+            this.memory = memory;
+            this.values = values;
+        }
+
+        @Override
+        void undo() {
+            memory.undoTruncate(values);
+        }
+    }
+
+    /** Replaced memory content. */
+    private static final class ResetEntry extends Entry {
+        /** Modified memory. */
+        private final Memory<?> memory;
+
+        /** Previous content. */
+        private final ArrayList<? extends MemoryObject> content;
+
+        /**
+         * Create a new ResetEntry.
+         *
+         * @param memory modified memory
+         * @param content previous content
+         */
+        ResetEntry(final Memory<?> memory, final ArrayList<? extends MemoryObject> content) {
+            this.memory = memory;
+            this.content = content;
+        }
+
+        @Override
+        void undo() {
+            memory.reset(content);
+        }
+    }
+
+    /** Modified register. */
+    private static final class RegisterEntry extends Entry {
+        /** Modified register. */
+        private final Register register;
+
+        /** Previous value. */
+        private final int value;
+
+        /**
+         * Create a new RegisterEntry.
+         *
+         * @param register modified register
+         * @param value previous value
+         */
+        RegisterEntry(final Register register, final int value) {
+            this.register = register;
+            this.value = value;
+        }
+
+        @Override
+        void undo() {
+            register.setValue(value);
+        }
+    }
+
+    /** Marker for the beginning of a step. */
+    private static final Entry STEP = new Entry() {
+        @Override
+        void undo() {
+        }
+    };
+
+    /** Recorded entries, oldest first. */
+    private final ArrayDeque<Entry> entries;
+
+    /** Number of steps in {@link #entries}. */
+    private int steps;
+
+    /** Maximum number of completed steps to keep. */
+    private int limit;
+
+    /** True while modifications are recorded. */
+    private boolean recording;
+
+    /**
+     * Create a new Journal that only keeps the current step.
+     */
+    public Journal() {
+        this.entries = new ArrayDeque<Entry>();
+        this.steps = 0;
+        this.limit = 0;
+        this.recording = true;
+    }
+
+    /**
+     * Begin a new step. All following modifications are recorded as part of this step.
+     */
+    public final void beginStep() {
+        while (steps > limit) {
+            dropOldestStep();
+        }
+
+        entries.addLast(STEP);
+        ++steps;
+    }
+
+    /**
+     * Forget all recorded steps.
+     */
+    public final void clear() {
+        entries.clear();
+        steps = 0;
+    }
+
+    /**
+     * Remove the oldest step from the journal.
+     */
+    private void dropOldestStep() {
+        entries.pollFirst();
+        while (!entries.isEmpty() && (entries.peekFirst() != STEP)) {
+            entries.pollFirst();
+        }
+        --steps;
+    }
+
+    /**
+     * Returns the maximum number of completed steps to keep.
+     *
+     * @return the maximum number of completed steps to keep
+     */
+    public final int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of recorded steps, including the current one.
+     *
+     * @return the number of recorded steps
+     */
+    public final int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Add an entry to the current step.
+     *
+     * @param entry entry
+     */
+    private void record(final Entry entry) {
+        entries.addLast(entry);
+    }
+
+    /**
+     * Returns true if modifications are to be recorded right now.
+     *
+     * @return true if modifications are to be recorded
+     */
+    final boolean isRecording() {
+        return recording && (steps > 0);
+    }
+
+    /**
+     * Record the modification of a register.
+     *
+     * @param register register
+     * @param value previous value
+     */
+    final void recordRegister(final Register register, final int value) {
+        record(new RegisterEntry(register, value));
+    }
+
+    /**
+     * Record the removal of a memory cell.
+     *
+     * @param memory memory
+     * @param index address
+     * @param value removed value
+     */
+    final void recordRemove(final Memory<?> memory, final int index, final MemoryObject value) {
+        record(new RemoveEntry(memory, index, value));
+    }
+
+    /**
+     * Record the replacement of the whole memory content.
+     *
+     * @param memory memory
+     * @param content previous content
+     */
+    final void recordReset(final Memory<?> memory, final ArrayList<? extends MemoryObject> content) {
+        record(new ResetEntry(memory, content));
+    }
+
+    /**
+     * Record the modification of a memory cell.
+     *
+     * @param memory memory
+     * @param index address
+     * @param value previous value
+     * @param size previous size of the memory
+     */
+    final void recordSet(final Memory<?> memory, final int index, final MemoryObject value, final int size) {
+        record(new SetEntry(memory, index, value, size));
+    }
+
+    /**
+     * Record the removal of all memory cells from some address on.
+     *
+     * @param memory memory
+     * @param values removed values
+     */
+    final void recordTruncate(final Memory<?> memory, final ArrayList<? extends MemoryObject> values) {
+        record(new TruncateEntry(memory, values));
+    }
+
+    /**
+     * Set the maximum number of completed steps to keep.
+     *
+     * @param limit maximum number of completed steps to keep
+     */
+    public final void setLimit(final int limit) {
+        this.limit = Math.max(0, limit);
+    }
+
+    /**
+     * Revert all modifications of the most recent step and remove it from the journal.
+     *
+     * @return false if there was no step to revert
+     */
+    public final boolean undoStep() {
+        if (steps == 0) {
+            return false;
+        }
+
+        recording = false;
+        try {
+            while (true) {
+                final Entry entry = entries.pollLast();
+                if (entry == STEP) {
+                    break;
+                }
+                entry.undo();
+            }
+        } finally {
+            recording = true;
+        }
+        --steps;
+        return true;
+    }
+}
@@ -49,6 +49,15 @@ public class Label {
         this.address = address;
     }
 
+    /**
+     * Returns a copy of this label with the current address. The copy is not affected by later changes to this label.
+     * 
+     * @return a copy of this label
+     */
+    public final Label copy() {
+        return new Label(name, address);
+    }
+
     /**
      * Returns the address.
      * 
@@ -20,8 +20,6 @@ package jumpvm.memory;
 
 import java.util.ArrayList;
 
-import javax.swing.AbstractListModel;
-
 import jumpvm.memory.objects.MemoryObject;
 import jumpvm.memory.objects.StackObject;
 
@@ -30,16 +28,22 @@ import jumpvm.memory.objects.StackObject;
  * 
  * @param <E> Type of the objects to store
  */
-public class Memory<E extends MemoryObject> extends AbstractListModel<MemoryObject> {
-    /** Default serialVersionUID. */
-    private static final long serialVersionUID = 1L;
-
+public class Memory<E extends MemoryObject> implements MemoryStore<E> {
     /** This memory's name. */
     private final String name;
 
     /** Internal memory. */
     private final ArrayList<MemoryObject> memory;
 
+    /** Journal recording modifications, may be null. */
+    private Journal journal;
+
+    /** Lowest modified address since the last {@link #takeDirtyRange()}. */
+    private int dirtyLow;
+
+    /** Highest modified address since the last {@link #takeDirtyRange()}. */
+    private int dirtyHigh;
+
     /**
      * Create a new Memory.
      * 
@@ -48,15 +52,14 @@ public class Memory<E extends MemoryObject> extends AbstractListModel<MemoryObje
     public Memory(final String name) {
         this.memory = new ArrayList<MemoryObject>();
         this.name = name;
+        this.journal = null;
+        this.dirtyLow = Integer.MAX_VALUE;
+        this.dirtyHigh = -1;
     }
 
-    /**
-     * Returns raw access to this memory's data.
-     * 
-     * @return raw access to this memory's data
-     */
+    @Override
     @SuppressWarnings("unchecked")
-    public final ArrayList<E> getContent() {
+    public ArrayList<E> getContent() {
         final ArrayList<E> copy = new ArrayList<E>();
         copy.addAll((ArrayList<E>) memory);
         return copy;
@@ -64,7 +67,7 @@ public class Memory<E extends MemoryObject> extends AbstractListModel<MemoryObje
 
     @Override
     @SuppressWarnings("unchecked")
-    public final E getElementAt(final int index) {
+    public E getElementAt(final int index) {
         return (E) memory.get(index);
     }
 
@@ -88,20 +91,45 @@ public class Memory<E extends MemoryObject> extends AbstractListModel<MemoryObje
         return getElementAt(index.getIntValue());
     }
 
-    /**
-     * Returns this memory's name.
-     * 
-     * @return this memory's name
-     */
+    @Override
+    public int getLow() {
+        return 0;
+    }
+
+    @Override
     public final String getName() {
         return name;
     }
 
     @Override
-    public final int getSize() {
+    public int getSize() {
         return memory.size();
     }
 
+    /**
+     * Returns a copy of this memory's data to be restored with {@link #reset(ArrayList)}. Memories keeping only part of their addresses return just that part.
+     * 
+     * @return a copy of this memory's data
+     */
+    public ArrayList<? extends MemoryObject> getSnapshot() {
+        return getContent();
+    }
+
+    /**
+     * Extend the range of modified addresses.
+     * 
+     * @param from lowest modified address
+     * @param to highest modified address
+     */
+    protected final void markDirty(final int from, final int to) {
+        if (from < dirtyLow) {
+            dirtyLow = from;
+        }
+        if (to > dirtyHigh) {
+            dirtyHigh = to;
+        }
+    }
+
     /**
      * Removes the object at the given index.
      * 
@@ -111,44 +139,45 @@ public class Memory<E extends MemoryObject> extends AbstractListModel<MemoryObje
     @SuppressWarnings("unchecked")
     protected final E removeElementAt(final int index) {
         final E retValue = (E) memory.remove(index);
-        fireIntervalRemoved(this, index, index);
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordRemove(this, index, retValue);
+        }
+        markDirty(index, memory.size());
         return retValue;
     }
 
-    /**
-     * Clear the content of this memory.
-     */
-    public final void reset() {
+    @Override
+    public void reset() {
         final int size = memory.size();
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordReset(this, new ArrayList<MemoryObject>(memory));
+        }
         memory.clear();
-        fireIntervalRemoved(this, 0, size);
+        markDirty(0, size);
     }
 
-    /**
-     * Clear the content of this memory, then set it to given new content.
-     * 
-     * @param values new content
-     */
-    public final void reset(final ArrayList<? extends MemoryObject> values) {
+    @Override
+    public void reset(final ArrayList<? extends MemoryObject> values) {
         final int size = memory.size();
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordReset(this, new ArrayList<MemoryObject>(memory));
+        }
         memory.clear();
         memory.addAll(values);
-        fireIntervalRemoved(this, 0, size);
-        fireIntervalAdded(this, 0, memory.size());
+        markDirty(0, Math.max(size, memory.size()));
     }
 
-    /**
-     * Sets the object at a given index.
-     * 
-     * @param index Address
-     * @param object Value
-     */
-    public final void setElementAt(final int index, final E object) {
+    @Override
+    public void setElementAt(final int index, final E object) {
+        if ((journal != null) && journal.isRecording()) {
+            final int size = memory.size();
+            journal.recordSet(this, index, (index < size) ? memory.get(index) : null, size);
+        }
         while (memory.size() <= index) {
             memory.add(null);
         }
         memory.set(index, object);
-        fireContentsChanged(this, index, index);
+        markDirty(index, index);
     }
 
     /**
@@ -171,8 +200,85 @@ public class Memory<E extends MemoryObject> extends AbstractListModel<MemoryObje
         setElementAt(index.getIntValue(), object);
     }
 
+    /**
+     * Sets the journal recording modifications of this memory.
+     * 
+     * @param journal journal, or null to disable recording
+     */
+    public void setJournal(final Journal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public final int[] takeDirtyRange() {
+        if (dirtyHigh < dirtyLow) {
+            return null;
+        }
+        final int[] range = new int[] {dirtyLow, dirtyHigh};
+        dirtyLow = Integer.MAX_VALUE;
+        dirtyHigh = -1;
+        return range;
+    }
+
+    /**
+     * Removes all objects from the given index on.
+     * 
+     * @param size new size
+     */
+    protected void truncate(final int size) {
+        final int oldSize = memory.size();
+        if (oldSize <= size) {
+            return;
+        }
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordTruncate(this, new ArrayList<MemoryObject>(memory.subList(size, oldSize)));
+        }
+        memory.subList(size, oldSize).clear();
+        markDirty(size, oldSize);
+    }
+
     @Override
-    public final String toString() {
+    public String toString() {
         return "Memory [name=" + name + ", memory=" + memory + "]";
     }
+
+    /**
+     * Reinsert an object removed by {@link #removeElementAt(int)}.
+     * 
+     * @param index Address
+     * @param object removed object
+     */
+    void undoRemoveElementAt(final int index, final MemoryObject object) {
+        memory.add(index, object);
+        markDirty(index, memory.size());
+    }
+
+    /**
+     * Reappend the objects removed by {@link #truncate(int)}.
+     * 
+     * @param objects removed objects
+     */
+    void undoTruncate(final ArrayList<? extends MemoryObject> objects) {
+        final int size = memory.size();
+        memory.addAll(objects);
+        markDirty(size, memory.size());
+    }
+
+    /**
+     * Revert a modification done by {@link #setElementAt(int, E)}.
+     * 
+     * @param index Address
+     * @param object previous value
+     * @param size previous size
+     */
+    void undoSetElementAt(final int index, final MemoryObject object, final int size) {
+        if (index < size) {
+            memory.set(index, object);
+            markDirty(index, index);
+        } else if (memory.size() > size) {
+            final int oldSize = memory.size();
+            memory.subList(size, oldSize).clear();
+            markDirty(size, oldSize);
+        }
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.memory;
+
+import java.util.ArrayList;
+
+import jumpvm.memory.objects.MemoryObject;
+
+/**
+ * Storage of a JumpVM memory, as seen by the vms.
+ * 
+ * Stores do not notify anybody about modifications. Instead they remember the range of addresses that changed since the last call to
+ * {@link #takeDirtyRange()}, so a view can refresh itself once per frame.
+ * 
+ * @param <E> Type of the objects to store
+ */
+public interface MemoryStore<E extends MemoryObject> {
+    /**
+     * Returns a copy of this memory's data.
+     * 
+     * @return a copy of this memory's data
+     */
+    ArrayList<E> getContent();
+
+    /**
+     * Returns the object at the given index.
+     * 
+     * @param index the requested index
+     * @return the value at index
+     */
+    E getElementAt(final int index);
+
+    /**
+     * Returns the lowest address a view has to show, all cells below it are empty.
+     * 
+     * @return the lowest address to show
+     */
+    int getLow();
+
+    /**
+     * Returns this memory's name.
+     * 
+     * @return this memory's name
+     */
+    String getName();
+
+    /**
+     * Returns the number of cells.
+     * 
+     * @return the number of cells
+     */
+    int getSize();
+
+    /**
+     * Clear the content of this memory.
+     */
+    void reset();
+
+    /**
+     * Clear the content of this memory, then set it to given new content.
+     * 
+     * @param values new content
+     */
+    void reset(final ArrayList<? extends MemoryObject> values);
+
+    /**
+     * Sets the object at a given index.
+     * 
+     * @param index Address
+     * @param object Value
+     */
+    void setElementAt(final int index, final E object);
+
+    /**
+     * Returns the range of addresses modified since the last call and starts a new range.
+     * 
+     * @return lowest and highest modified address, or null if nothing was modified
+     */
+    int[] takeDirtyRange();
+}
@@ -26,9 +26,6 @@ import jumpvm.code.Instruction;
  * JumpVM program memory.
  */
 public class Program extends Memory<Instruction> {
-    /** Default serialVersionUID. */
-    private static final long serialVersionUID = 1L;
-
     /**
      * Create a new program.
      */
@@ -19,14 +19,16 @@
 package jumpvm.memory;
 
 import java.util.HashMap;
-import java.util.Observable;
 
 import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StackTag;
 
 /**
  * JumpVM register.
+ * 
+ * The value is a plain field without any synchronization or change notification. Observers like the gui poll the registers they display after each step.
  */
-public class Register extends Observable {
+public class Register {
     /** Short name or abbreviation. */
     private final String shortName;
 
@@ -42,6 +44,12 @@ public class Register extends Observable {
     /** Displayable value map: Values that will be displayed with special string instead of the integer value. */
     private final HashMap<Integer, String> displayValueMap;
 
+    /** Journal recording modifications, may be null. */
+    private Journal journal;
+
+    /** Tag for stack cells holding a copy of this register. */
+    private final StackTag tag;
+
     /**
      * Create a new Register.
      * 
@@ -67,15 +75,18 @@ public class Register extends Observable {
         this.defaultValue = defaultValue;
         this.value = defaultValue;
         this.displayValueMap = displayValueMap;
+        this.journal = null;
+        this.tag = StackTag.basic(shortName, longName);
     }
 
     /**
      * Decrement current value.
      */
     public final void decrement() {
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordRegister(this, this.value);
+        }
         --value;
-        setChanged();
-        notifyObservers();
     }
 
     /**
@@ -119,6 +130,15 @@ public class Register extends Observable {
         return shortName;
     }
 
+    /**
+     * Returns the tag for stack cells holding a copy of this register, described by the register's names.
+     * 
+     * @return the tag for stack cells holding a copy of this register
+     */
+    public final StackTag getTag() {
+        return tag;
+    }
+
     /**
      * Returns the current value.
      * 
@@ -132,9 +152,10 @@ public class Register extends Observable {
      * Increment current value.
      */
     public final void increment() {
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordRegister(this, this.value);
+        }
         ++value;
-        setChanged();
-        notifyObservers();
     }
 
     /**
@@ -144,15 +165,25 @@ public class Register extends Observable {
         setValue(defaultValue);
     }
 
+    /**
+     * Sets the journal recording modifications of this register.
+     * 
+     * @param journal journal, or null to disable recording
+     */
+    public final void setJournal(final Journal journal) {
+        this.journal = journal;
+    }
+
     /**
      * Sets the current value.
      * 
      * @param value new value
      */
     public final void setValue(final int value) {
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordRegister(this, this.value);
+        }
         this.value = value;
-        setChanged();
-        notifyObservers();
     }
 
     /**
@@ -19,24 +19,64 @@
 package jumpvm.memory;
 
 import java.util.ArrayList;
-import java.util.Observable;
-import java.util.Observer;
-import java.util.TreeMap;
+import java.util.Arrays;
 
+import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.MemoryObject;
+import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.PointerObject.Type;
 import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StackTag;
 
 /**
  * JumpVM stack.
+ * 
+ * Cells above the stack pointer are only discarded by {@link #pop()} and {@link #setStackPointer(int)}, changing the stack pointer register directly leaves
+ * them in place.
+ * 
+ * Cells are kept in parallel primitive arrays. A cell either holds an explicit {@link StackObject} or a value together with a {@link StackTag}, in which case
+ * the object is only created when somebody, e.g. the gui, asks for it. The int accessors like {@link #push(int, StackTag)} and {@link #popInt()} never create
+ * objects.
  */
-public class Stack extends Memory<StackObject> implements Observer {
-    /** Default serialVersionUID. */
-    private static final long serialVersionUID = 1L;
+public class Stack extends Memory<StackObject> {
+    /** Initial capacity of the cell arrays. */
+    private static final int CAPACITY = 64;
+
+    /** Initial capacity of the frame arrays. */
+    private static final int FRAME_CAPACITY = 16;
 
     /** Register: Stack pointer. */
     private final Register stackPointer;
 
-    /** Frames: Start Index, End Index. */
-    private final TreeMap<Integer, Integer> frames;
+    /** Cell values. */
+    private int[] values;
+
+    /** Cell tags, null for cells holding an explicit object or no object at all. */
+    private StackTag[] tags;
+
+    /** First tag arguments. */
+    private int[] firsts;
+
+    /** Second tag arguments. */
+    private int[] seconds;
+
+    /** Explicit cell objects, null for tagged cells. */
+    private StackObject[] objects;
+
+    /** Number of cells. */
+    private int size;
+
+    /** Journal recording modifications, may be null. */
+    private Journal journal;
+
+    /** Frame start indices, strictly increasing from the bottom to the top frame. */
+    private int[] frameStarts;
+
+    /** Frame end indices = first cell after the organizational cells. */
+    private int[] frameEnds;
+
+    /** Number of frames. */
+    private int frameCount;
 
     /**
      * Create a new stack.
@@ -56,18 +96,221 @@ public class Stack extends Memory<StackObject> implements Observer {
     public Stack(final Register stackPointer, final String name) {
         super(name);
         this.stackPointer = stackPointer;
-        this.frames = new TreeMap<Integer, Integer>();
+        this.values = new int[CAPACITY];
+        this.tags = new StackTag[CAPACITY];
+        this.firsts = new int[CAPACITY];
+        this.seconds = new int[CAPACITY];
+        this.objects = new StackObject[CAPACITY];
+        this.size = 0;
+        this.journal = null;
+        this.frameStarts = new int[FRAME_CAPACITY];
+        this.frameEnds = new int[FRAME_CAPACITY];
+        this.frameCount = 0;
+    }
+
+    /**
+     * Check that the given cell exists.
+     * 
+     * @param index address
+     */
+    private void checkIndex(final int index) {
+        if ((index < 0) || (index >= size)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Discard all frames.
+     */
+    public final void clearFrames() {
+        frameCount = 0;
+    }
+
+    /**
+     * Copy a cell to another address, without creating its object.
+     * 
+     * @param from source address
+     * @param to target address
+     */
+    public final void copy(final int from, final int to) {
+        checkIndex(from);
+        store(to, values[from], tags[from], firsts[from], seconds[from], objects[from]);
+    }
+
+    /**
+     * Copy a range of cells to another address, without creating their objects. The ranges may overlap, cells between the current top and the target are
+     * empty.
+     * 
+     * @param from source address
+     * @param to target address
+     * @param count number of cells
+     */
+    public final void copyRange(final int from, final int to, final int count) {
+        if (count <= 0) {
+            return;
+        }
+        checkIndex(from);
+        checkIndex((from + count) - 1);
+        if (to < 0) {
+            throw new IndexOutOfBoundsException("Index: " + to);
+        }
+
+        if ((journal != null) && journal.isRecording()) {
+            final int end = Math.min(to + count, size);
+            for (int i = to; i < end; ++i) {
+                journal.recordSet(this, i, getElementAt(i), size);
+            }
+            if ((to + count) > size) {
+                journal.recordSet(this, Math.max(to, size), null, size);
+            }
+        }
+
+        ensureCapacity(to + count);
+        System.arraycopy(values, from, values, to, count);
+        System.arraycopy(tags, from, tags, to, count);
+        System.arraycopy(firsts, from, firsts, to, count);
+        System.arraycopy(seconds, from, seconds, to, count);
+        System.arraycopy(objects, from, objects, to, count);
+
+        if ((to + count) > size) {
+            size = to + count;
+        }
+        markDirty(to, (to + count) - 1);
+    }
+
+    /**
+     * Discard frames from the top as long as they start above the stack pointer, or at the stack pointer if inclusive is set.
+     * 
+     * @param inclusive true if a frame starting at the stack pointer is discarded as well
+     */
+    private void dropFrames(final boolean inclusive) {
+        final int top = stackPointer.getValue();
+        while ((frameCount > 0) && ((frameStarts[frameCount - 1] > top) || (inclusive && (frameStarts[frameCount - 1] == top)))) {
+            --frameCount;
+        }
+    }
+
+    /**
+     * Make room for the given number of cells.
+     * 
+     * @param capacity required number of cells
+     */
+    private void ensureCapacity(final int capacity) {
+        if (capacity <= values.length) {
+            return;
+        }
+        final int length = Math.max(capacity, values.length * 2);
+        values = Arrays.copyOf(values, length);
+        tags = Arrays.copyOf(tags, length);
+        firsts = Arrays.copyOf(firsts, length);
+        seconds = Arrays.copyOf(seconds, length);
+        objects = Arrays.copyOf(objects, length);
+    }
+
+    @Override
+    public final ArrayList<StackObject> getContent() {
+        final ArrayList<StackObject> content = new ArrayList<StackObject>(size);
+        for (int i = 0; i < size; ++i) {
+            content.add(getElementAt(i));
+        }
+        return content;
+    }
+
+    @Override
+    public final StackObject getElementAt(final int index) {
+        checkIndex(index);
+        if (objects[index] != null) {
+            return objects[index];
+        }
+        if (tags[index] != null) {
+            return tags[index].toObject(values[index], firsts[index], seconds[index]);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of frames.
+     * 
+     * @return the number of frames
+     */
+    public final int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Returns the end index of the given frame, that is the first cell after its organizational cells.
+     * 
+     * @param frame frame number, 0 being the bottom frame
+     * @return the end index of the given frame
+     */
+    public final int getFrameEnd(final int frame) {
+        return frameEnds[frame];
+    }
+
+    /**
+     * Returns the value of a cell, without creating its object.
+     * 
+     * @param index address
+     * @return the value of the cell
+     */
+    public final int getInt(final int index) {
+        checkIndex(index);
+        if ((objects[index] == null) && (tags[index] == null)) {
+            throw new NullPointerException("Empty cell: " + index);
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns a copy of all frames as pairs of start and end index.
+     * 
+     * @return a copy of all frames
+     */
+    public final int[] getFrames() {
+        final int[] result = new int[frameCount * 2];
+        for (int i = 0; i < frameCount; ++i) {
+            result[i * 2] = frameStarts[i];
+            result[(i * 2) + 1] = frameEnds[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the start index of the given frame.
+     * 
+     * @param frame frame number, 0 being the bottom frame
+     * @return the start index of the given frame
+     */
+    public final int getFrameStart(final int frame) {
+        return frameStarts[frame];
+    }
+
+    /**
+     * Returns the associated stack pointer.
+     * 
+     * @return the associated stack pointer
+     */
+    public final Register getStackPointer() {
+        return stackPointer;
+    }
 
-        stackPointer.addObserver(this);
+    @Override
+    public final int getSize() {
+        return size;
     }
 
     /**
-     * Returns the map of stack frames.
+     * Returns the pointer type of a cell, without creating its object.
      * 
-     * @return the map of stack frames
+     * @param index address
+     * @return the pointer type, or null for basic values and empty cells
      */
-    public final TreeMap<Integer, Integer> getFrames() {
-        return frames;
+    public final Type getType(final int index) {
+        checkIndex(index);
+        if (objects[index] != null) {
+            return objects[index] instanceof PointerObject ? ((PointerObject) objects[index]).getType() : null;
+        }
+        return tags[index] == null ? null : tags[index].getType();
     }
 
     /**
@@ -79,22 +322,60 @@ public class Stack extends Memory<StackObject> implements Observer {
         return getElementAt(stackPointer.getValue());
     }
 
+    /**
+     * Returns the the top value from the stack without removing it or creating its object.
+     * 
+     * @return the top value from the stack
+     */
+    public final int peekInt() {
+        return getInt(stackPointer.getValue());
+    }
+
     /**
      * Returns and removes the top value from the stack.
      * 
      * @return the top value from the stack
      */
     public final StackObject pop() {
-        final StackObject result = removeElementAt(stackPointer.getValue());
+        final StackObject result = getElementAt(stackPointer.getValue());
+        remove(stackPointer.getValue());
         stackPointer.decrement();
-        for (final Integer key : new ArrayList<Integer>(frames.keySet())) {
-            if (key > stackPointer.getValue()) {
-                frames.remove(key);
-            }
-        }
+        dropFrames(false);
+        return result;
+    }
+
+    /**
+     * Returns and removes the top value from the stack, without creating its object.
+     * 
+     * @return the top value from the stack
+     */
+    public final int popInt() {
+        final int result = getInt(stackPointer.getValue());
+        remove(stackPointer.getValue());
+        stackPointer.decrement();
+        dropFrames(false);
         return result;
     }
 
+    /**
+     * Put a frame on top of the frame stack. Frames starting at or above the given start index are replaced.
+     * 
+     * @param start start index
+     * @param end end index
+     */
+    private void pushFrame(final int start, final int end) {
+        while ((frameCount > 0) && (frameStarts[frameCount - 1] >= start)) {
+            --frameCount;
+        }
+        if (frameCount == frameStarts.length) {
+            frameStarts = Arrays.copyOf(frameStarts, frameCount * 2);
+            frameEnds = Arrays.copyOf(frameEnds, frameCount * 2);
+        }
+        frameStarts[frameCount] = start;
+        frameEnds[frameCount] = end;
+        ++frameCount;
+    }
+
     /**
      * Push a value on the stack.
      * 
@@ -105,26 +386,319 @@ public class Stack extends Memory<StackObject> implements Observer {
         stackPointer.increment();
     }
 
+    /**
+     * Push a value on the stack.
+     * 
+     * @param value value
+     * @param tag tag describing the value
+     */
+    public final void push(final int value, final StackTag tag) {
+        push(value, tag, 0, 0);
+    }
+
+    /**
+     * Push a value on the stack.
+     * 
+     * @param value value
+     * @param tag tag describing the value
+     * @param first first tag argument
+     * @param second second tag argument
+     */
+    public final void push(final int value, final StackTag tag, final int first, final int second) {
+        store(stackPointer.getValue() + 1, value, tag, first, second, null);
+        stackPointer.increment();
+    }
+
+    /**
+     * Push a copy of a cell on the stack, without creating its object.
+     * 
+     * @param index address of the cell to copy
+     */
+    public final void pushCopy(final int index) {
+        copy(index, stackPointer.getValue() + 1);
+        stackPointer.increment();
+    }
+
+    /**
+     * Push copies of a range of cells on the stack, without creating their objects.
+     * 
+     * @param from address of the first cell to copy
+     * @param count number of cells
+     */
+    public final void pushRange(final int from, final int count) {
+        copyRange(from, stackPointer.getValue() + 1, count);
+        stackPointer.setValue(stackPointer.getValue() + count);
+    }
+
+    /**
+     * Push cells taken from arrays ordered from the top down, as kept by {@link DescendingHeap}, without creating their objects. Source indices at or beyond
+     * the given length are empty cells.
+     * 
+     * @param sourceValues source cell values
+     * @param sourceTags source cell tags
+     * @param sourceObjects source cell objects
+     * @param sourceLength number of valid source cells
+     * @param last source index of the first cell to push, the following ones being at decreasing indices
+     * @param count number of cells
+     */
+    final void pushDescending(final int[] sourceValues, final StackTag[] sourceTags, final StackObject[] sourceObjects, final int sourceLength, final int last,
+            final int count) {
+        final int to = stackPointer.getValue() + 1;
+        if ((journal != null) && journal.isRecording()) {
+            final int end = Math.min(to + count, size);
+            for (int i = to; i < end; ++i) {
+                journal.recordSet(this, i, getElementAt(i), size);
+            }
+            if ((to + count) > size) {
+                journal.recordSet(this, Math.max(to, size), null, size);
+            }
+        }
+
+        ensureCapacity(to + count);
+        for (int i = 0; i < count; ++i) {
+            final int index = last - i;
+            final boolean valid = index < sourceLength;
+            values[to + i] = valid ? sourceValues[index] : 0;
+            tags[to + i] = valid ? sourceTags[index] : null;
+            firsts[to + i] = 0;
+            seconds[to + i] = 0;
+            objects[to + i] = valid ? sourceObjects[index] : null;
+        }
+
+        if ((to + count) > size) {
+            size = to + count;
+        }
+        markDirty(to, (to + count) - 1);
+        stackPointer.setValue((to + count) - 1);
+    }
+
+    /**
+     * Remove a cell, moving all cells above it down by one.
+     * 
+     * @param index address
+     */
+    private void remove(final int index) {
+        checkIndex(index);
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordRemove(this, index, getElementAt(index));
+        }
+        final int moved = size - index - 1;
+        System.arraycopy(values, index + 1, values, index, moved);
+        System.arraycopy(tags, index + 1, tags, index, moved);
+        System.arraycopy(firsts, index + 1, firsts, index, moved);
+        System.arraycopy(seconds, index + 1, seconds, index, moved);
+        System.arraycopy(objects, index + 1, objects, index, moved);
+        --size;
+        tags[size] = null;
+        objects[size] = null;
+        markDirty(index, size);
+    }
+
+    @Override
+    public final void reset() {
+        reset(new ArrayList<StackObject>());
+        clearFrames();
+    }
+
+    @Override
+    public final void reset(final ArrayList<? extends MemoryObject> content) {
+        final int oldSize = size;
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordReset(this, getContent());
+        }
+
+        Arrays.fill(tags, 0, size, null);
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+        ensureCapacity(content.size());
+        for (final MemoryObject value : content) {
+            write(size, (StackObject) value);
+            ++size;
+        }
+
+        markDirty(0, Math.max(oldSize, size));
+    }
+
+    /**
+     * Sets the value of a cell.
+     * 
+     * @param index address
+     * @param value value
+     * @param tag tag describing the value
+     */
+    public final void set(final int index, final int value, final StackTag tag) {
+        store(index, value, tag, 0, 0, null);
+    }
+
+    @Override
+    public final void setElementAt(final int index, final StackObject object) {
+        store(index, object == null ? 0 : object.getIntValue(), null, 0, 0, object);
+    }
+
+    /**
+     * Replace all frames.
+     * 
+     * @param frames pairs of start and end index, as returned by {@link #getFrames()}
+     */
+    public final void setFrames(final int[] frames) {
+        frameCount = 0;
+        for (int i = 0; i < frames.length; i += 2) {
+            pushFrame(frames[i], frames[i + 1]);
+        }
+    }
+
+    @Override
+    public final void setJournal(final Journal journal) {
+        super.setJournal(journal);
+        this.journal = journal;
+        stackPointer.setJournal(journal);
+    }
+
+    /**
+     * Sets the stack pointer and discards all cells and frames above it.
+     * 
+     * @param value new stack pointer
+     */
+    public final void setStackPointer(final int value) {
+        stackPointer.setValue(value);
+
+        final boolean removed = value < (getSize() - 1);
+        if (removed) {
+            truncate(value + 1);
+        }
+        dropFrames(removed);
+    }
+
+    /**
+     * Sets the value of a cell, keeping its description. Used to relocate pointers.
+     * 
+     * @param index address
+     * @param value new value
+     */
+    public final void setValue(final int index, final int value) {
+        checkIndex(index);
+        final StackObject object = objects[index];
+        if (object == null) {
+            store(index, value, tags[index], firsts[index], seconds[index], null);
+        } else if (object instanceof PointerObject) {
+            final PointerObject pointer = (PointerObject) object;
+            store(index, value, null, 0, 0, new PointerObject(value, pointer.getType(), pointer.getDisplayDescription(), pointer.getDisplayHoverText()));
+        } else {
+            store(index, value, null, 0, 0, new BasicValueObject(value, object.getDisplayDescription(), object.getDisplayHoverText()));
+        }
+    }
+
     /**
      * Start a new frame at the current position and the given amount of organizational cells.
      * 
      * @param length frame header = organizational cells
      */
     public final void startFrame(final int length) {
-        frames.put(getSize(), getSize() + length);
+        pushFrame(size, size + length);
+    }
+
+    /**
+     * Sets a cell, growing the stack if necessary. Cells between the previous top and the new cell are empty.
+     * 
+     * @param index address
+     * @param value value
+     * @param tag tag describing the value, or null
+     * @param first first tag argument
+     * @param second second tag argument
+     * @param object explicit object, or null
+     */
+    private void store(final int index, final int value, final StackTag tag, final int first, final int second, final StackObject object) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordSet(this, index, index < size ? getElementAt(index) : null, size);
+        }
+
+        ensureCapacity(index + 1);
+        values[index] = value;
+        tags[index] = tag;
+        firsts[index] = first;
+        seconds[index] = second;
+        objects[index] = object;
+
+        if (index >= size) {
+            size = index + 1;
+        }
+        markDirty(index, index);
+    }
+
+    @Override
+    public final String toString() {
+        return "Stack [name=" + getName() + ", values=" + Arrays.toString(Arrays.copyOf(values, size)) + "]";
     }
 
     @Override
-    public final void update(final Observable o, final Object arg) {
-        boolean removed = false;
-        while (stackPointer.getValue() < (getSize() - 1)) {
-            removeElementAt(getSize() - 1);
-            removed = true;
-        }
-        for (final Integer key : new ArrayList<Integer>(frames.keySet())) {
-            if ((key > stackPointer.getValue()) || (removed && (key == stackPointer.getValue()))) {
-                frames.remove(key);
+    protected final void truncate(final int newSize) {
+        final int oldSize = size;
+        if (oldSize <= newSize) {
+            return;
+        }
+        if ((journal != null) && journal.isRecording()) {
+            final ArrayList<StackObject> removed = new ArrayList<StackObject>(oldSize - newSize);
+            for (int i = newSize; i < oldSize; ++i) {
+                removed.add(getElementAt(i));
             }
+            journal.recordTruncate(this, removed);
         }
+        Arrays.fill(tags, newSize, oldSize, null);
+        Arrays.fill(objects, newSize, oldSize, null);
+        size = newSize;
+        markDirty(newSize, oldSize);
+    }
+
+    @Override
+    final void undoRemoveElementAt(final int index, final MemoryObject object) {
+        ensureCapacity(size + 1);
+        final int moved = size - index;
+        System.arraycopy(values, index, values, index + 1, moved);
+        System.arraycopy(tags, index, tags, index + 1, moved);
+        System.arraycopy(firsts, index, firsts, index + 1, moved);
+        System.arraycopy(seconds, index, seconds, index + 1, moved);
+        System.arraycopy(objects, index, objects, index + 1, moved);
+        ++size;
+        write(index, (StackObject) object);
+        markDirty(index, size);
+    }
+
+    @Override
+    final void undoSetElementAt(final int index, final MemoryObject object, final int oldSize) {
+        if (index < oldSize) {
+            write(index, (StackObject) object);
+            markDirty(index, index);
+        } else if (size > oldSize) {
+            truncate(oldSize);
+        }
+    }
+
+    @Override
+    final void undoTruncate(final ArrayList<? extends MemoryObject> removed) {
+        final int oldSize = size;
+        ensureCapacity(size + removed.size());
+        for (final MemoryObject object : removed) {
+            write(size, (StackObject) object);
+            ++size;
+        }
+        markDirty(oldSize, size);
+    }
+
+    /**
+     * Sets a cell to an explicit object without recording or marking the modification.
+     * 
+     * @param index address, below the capacity
+     * @param object object, or null for an empty cell
+     */
+    private void write(final int index, final StackObject object) {
+        values[index] = object == null ? 0 : object.getIntValue();
+        tags[index] = null;
+        firsts[index] = 0;
+        seconds[index] = 0;
+        objects[index] = object;
     }
 }
@@ -0,0 +1,208 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.MemoryObject;
+import jumpvm.memory.objects.StackObject;
+
+/**
+ * Band of int cells that grows to the right as cells are written.
+ * 
+ * Cells are kept in an int array, reads outside of the written part return zero. The {@link MemoryObject}s seen through the {@link Memory} interface are
+ * only created when somebody, e.g. the gui, asks for them. Cells may be narrower than 32 bits, values then wrap around to the range 0 to 2^bits - 1.
+ */
+public class Tape extends Memory<StackObject> {
+    /** Number of cells the band grows by at least. */
+    private static final int CHUNK = 1024;
+
+    /** Width of a cell in bits. */
+    private final int bits;
+
+    /** Cells. */
+    private int[] cells;
+
+    /** Number of written cells, including unwritten cells left of written ones. */
+    private int size;
+
+    /** Journal recording modifications, may be null. */
+    private Journal journal;
+
+    /**
+     * Create a new Tape with 32 bit cells.
+     * 
+     * @param name This memory's name
+     */
+    public Tape(final String name) {
+        this(name, Integer.SIZE);
+    }
+
+    /**
+     * Create a new Tape.
+     * 
+     * @param name This memory's name
+     * @param bits width of a cell in bits, 1 to 32
+     */
+    public Tape(final String name, final int bits) {
+        super(name);
+        if ((bits < 1) || (bits > Integer.SIZE)) {
+            throw new IllegalArgumentException("Invalid cell width: " + bits);
+        }
+        this.bits = bits;
+        this.cells = new int[CHUNK];
+        this.size = 0;
+        this.journal = null;
+    }
+
+    /**
+     * Returns the value of a cell.
+     * 
+     * @param address address
+     * @return the value of the cell, zero if it was never written
+     */
+    public final int get(final int address) {
+        if ((address < 0) || (address >= size)) {
+            return 0;
+        }
+        return cells[address];
+    }
+
+    /**
+     * Returns the width of a cell in bits.
+     * 
+     * @return the width of a cell in bits
+     */
+    public final int getBits() {
+        return bits;
+    }
+
+    @Override
+    public final ArrayList<StackObject> getContent() {
+        final ArrayList<StackObject> content = new ArrayList<StackObject>(size);
+        for (int i = 0; i < size; ++i) {
+            content.add(getElementAt(i));
+        }
+        return content;
+    }
+
+    @Override
+    public final StackObject getElementAt(final int index) {
+        if ((index < 0) || (index >= size)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new BasicValueObject(cells[index], null, null);
+    }
+
+    @Override
+    public final int getSize() {
+        return size;
+    }
+
+    @Override
+    public final void reset() {
+        reset(new ArrayList<StackObject>());
+    }
+
+    @Override
+    public final void reset(final ArrayList<? extends MemoryObject> values) {
+        final int oldSize = size;
+        if ((journal != null) && journal.isRecording()) {
+            journal.recordReset(this, getContent());
+        }
+
+        Arrays.fill(cells, 0, size, 0);
+        size = 0;
+        for (int i = values.size() - 1; i >= 0; --i) {
+            final MemoryObject value = values.get(i);
+            set(i, value == null ? 0 : ((StackObject) value).getIntValue(), false);
+        }
+        size = values.size();
+
+        markDirty(0, Math.max(oldSize, size));
+    }
+
+    /**
+     * Sets the value of a cell.
+     * 
+     * @param address address
+     * @param value new value, wrapped to the width of a cell
+     */
+    public final void set(final int address, final int value) {
+        set(address, value, true);
+    }
+
+    /**
+     * Sets the value of a cell.
+     * 
+     * @param address address
+     * @param value new value, wrapped to the width of a cell
+     * @param record true to record the modification in the journal
+     */
+    private void set(final int address, final int value, final boolean record) {
+        if (address < 0) {
+            throw new IndexOutOfBoundsException("Index: " + address);
+        }
+
+        if (record && (journal != null) && journal.isRecording()) {
+            journal.recordSet(this, address, address < size ? getElementAt(address) : null, size);
+        }
+
+        if (address >= cells.length) {
+            cells = Arrays.copyOf(cells, Math.max(cells.length * 2, ((address / CHUNK) + 1) * CHUNK));
+        }
+        cells[address] = bits == Integer.SIZE ? value : value & ((1 << bits) - 1);
+
+        if (address >= size) {
+            size = address + 1;
+        }
+        markDirty(address, address);
+    }
+
+    @Override
+    public final void setElementAt(final int index, final StackObject object) {
+        set(index, object == null ? 0 : object.getIntValue());
+    }
+
+    @Override
+    public final void setJournal(final Journal journal) {
+        super.setJournal(journal);
+        this.journal = journal;
+    }
+
+    @Override
+    public final String toString() {
+        return "Tape [name=" + getName() + ", bits=" + bits + ", cells=" + Arrays.toString(Arrays.copyOf(cells, size)) + "]";
+    }
+
+    @Override
+    final void undoSetElementAt(final int index, final MemoryObject object, final int oldSize) {
+        if (index < oldSize) {
+            cells[index] = ((StackObject) object).getIntValue();
+            markDirty(index, index);
+        } else if (size > oldSize) {
+            final int newSize = size;
+            Arrays.fill(cells, oldSize, newSize, 0);
+            size = oldSize;
+            markDirty(oldSize, newSize);
+        }
+    }
+}
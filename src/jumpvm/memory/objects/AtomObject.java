@@ -20,10 +20,21 @@ package jumpvm.memory.objects;
 
 /**
  * WiMa Atom.
+ * 
+ * Equal atoms have equal ids in the {@link SymbolTable}.
  */
 public class AtomObject implements MemoryObject {
-    /** Identifier. */
-    private final String identifier;
+    /** Id of the atom. */
+    private final int atom;
+
+    /**
+     * Create a new AtomObject.
+     * 
+     * @param atom id of the atom, see {@link SymbolTable#internAtom(String)}
+     */
+    public AtomObject(final int atom) {
+        this.atom = atom;
+    }
 
     /**
      * Create a new AtomObject.
@@ -31,7 +42,16 @@ public class AtomObject implements MemoryObject {
      * @param identifier identifier
      */
     public AtomObject(final String identifier) {
-        this.identifier = identifier;
+        this(SymbolTable.internAtom(identifier));
+    }
+
+    /**
+     * Returns the id of the atom.
+     * 
+     * @return the id of the atom
+     */
+    public final int getAtom() {
+        return atom;
     }
 
     @Override
@@ -41,7 +61,7 @@ public class AtomObject implements MemoryObject {
 
     @Override
     public final String getDisplayHoverText() {
-        return identifier;
+        return getIdentifier();
     }
 
     @Override
@@ -51,7 +71,7 @@ public class AtomObject implements MemoryObject {
 
     @Override
     public final String getDisplayValue() {
-        return identifier;
+        return getIdentifier();
     }
 
     /**
@@ -60,6 +80,6 @@ public class AtomObject implements MemoryObject {
      * @return the identifier
      */
     public final String getIdentifier() {
-        return identifier;
+        return SymbolTable.getAtom(atom);
     }
 }
@@ -33,6 +33,15 @@ public class BasicValueObject extends StackObject {
     /** Long description of this values's meaning. */
     private final String descriptionLong;
 
+    /** Tag rendering the descriptions, null if they are given as strings. */
+    private final StackTag tag;
+
+    /** First tag argument. */
+    private final int first;
+
+    /** Second tag argument. */
+    private final int second;
+
     /**
      * Create a new BasicValueObject.
      * 
@@ -44,6 +53,26 @@ public class BasicValueObject extends StackObject {
         this.intValue = intValue;
         this.descriptionShort = descriptionShort;
         this.descriptionLong = descriptionLong;
+        this.tag = null;
+        this.first = 0;
+        this.second = 0;
+    }
+
+    /**
+     * Create a new BasicValueObject whose descriptions are rendered by the given tag when they are displayed.
+     * 
+     * @param intValue value
+     * @param tag tag rendering the descriptions
+     * @param first first tag argument
+     * @param second second tag argument
+     */
+    public BasicValueObject(final int intValue, final StackTag tag, final int first, final int second) {
+        this.intValue = intValue;
+        this.descriptionShort = null;
+        this.descriptionLong = null;
+        this.tag = tag;
+        this.first = first;
+        this.second = second;
     }
 
     /**
@@ -67,12 +96,18 @@ public class BasicValueObject extends StackObject {
 
     @Override
     public final String getDisplayDescription() {
-        return descriptionShort;
+        if (tag == null) {
+            return descriptionShort;
+        }
+        return tag.getDescription(intValue, first, second);
     }
 
     @Override
     public final String getDisplayHoverText() {
-        return descriptionLong;
+        if (tag == null) {
+            return descriptionLong;
+        }
+        return tag.getHoverText(intValue, first, second);
     }
 
     @Override
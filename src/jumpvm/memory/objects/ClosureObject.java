@@ -82,4 +82,13 @@ public class ClosureObject implements MemoryObject {
     public final int getGp() {
         return gp;
     }
+
+    /**
+     * Returns the name of the object to be created.
+     * 
+     * @return the name of the object to be created
+     */
+    public final String getName() {
+        return name;
+    }
 }
@@ -95,4 +95,13 @@ public class FunValObject implements MemoryObject {
     public final int getFgp() {
         return fgp;
     }
+
+    /**
+     * Returns the name of the function.
+     * 
+     * @return the name of the function
+     */
+    public final String getName() {
+        return name;
+    }
 }
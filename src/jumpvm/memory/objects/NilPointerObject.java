@@ -38,4 +38,13 @@ public class NilPointerObject extends PointerObject {
     public NilPointerObject(final String descriptionShort, final String descriptionLong) {
         super(0, Type.POINTER_NIL, descriptionShort, descriptionLong);
     }
+
+    /**
+     * Create a new NilPointerObject whose descriptions are rendered by the given tag when they are displayed.
+     * 
+     * @param tag tag rendering the descriptions
+     */
+    public NilPointerObject(final StackTag tag) {
+        super(0, Type.POINTER_NIL, tag, 0, 0);
+    }
 }
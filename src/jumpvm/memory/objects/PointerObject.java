@@ -51,6 +51,15 @@ public class PointerObject extends StackObject {
     /** Long description of this pointer's meaning. */
     private final String descriptionLong;
 
+    /** Tag rendering the descriptions, null if they are given as strings. */
+    private final StackTag tag;
+
+    /** First tag argument. */
+    private final int first;
+
+    /** Second tag argument. */
+    private final int second;
+
     /**
      * Create a new PointerObject.
      * 
@@ -64,6 +73,28 @@ public class PointerObject extends StackObject {
         this.type = type;
         this.descriptionShort = descriptionShort;
         this.descriptionLong = descriptionLong;
+        this.tag = null;
+        this.first = 0;
+        this.second = 0;
+    }
+
+    /**
+     * Create a new PointerObject whose descriptions are rendered by the given tag when they are displayed.
+     * 
+     * @param intValue address
+     * @param type pointer type
+     * @param tag tag rendering the descriptions
+     * @param first first tag argument
+     * @param second second tag argument
+     */
+    public PointerObject(final int intValue, final Type type, final StackTag tag, final int first, final int second) {
+        this.intValue = intValue;
+        this.type = type;
+        this.descriptionShort = null;
+        this.descriptionLong = null;
+        this.tag = tag;
+        this.first = first;
+        this.second = second;
     }
 
     /**
@@ -77,12 +108,18 @@ public class PointerObject extends StackObject {
 
     @Override
     public final String getDisplayDescription() {
-        return descriptionShort;
+        if (tag == null) {
+            return descriptionShort;
+        }
+        return tag.getDescription(intValue, first, second);
     }
 
     @Override
     public final String getDisplayHoverText() {
-        return descriptionLong;
+        if (tag == null) {
+            return descriptionLong;
+        }
+        return tag.getHoverText(intValue, first, second);
     }
 
     @Override
@@ -0,0 +1,232 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.memory.objects;
+
+import jumpvm.memory.Label;
+import jumpvm.memory.objects.PointerObject.Type;
+
+/**
+ * Template for the {@link StackObject}s of stack cells and heap references.
+ * 
+ * A tag knows the kind of object and renders its descriptions from the value and two optional integer arguments. Stacks only store the value, the tag and
+ * the arguments of a cell and create the object by {@link #toObject(int, int, int)} when somebody, e.g. the gui, asks for it. Objects created from a tag
+ * render their descriptions only when they are displayed. Tags are immutable and usually created once per instruction.
+ */
+public abstract class StackTag {
+    /** Tag with constant descriptions. */
+    private static final class Fixed extends StackTag {
+        /** Short description. */
+        private final String descriptionShort;
+
+        /** Long description. */
+        private final String descriptionLong;
+
+        /**
+         * Create a new Fixed tag.
+         * 
+         * @param type pointer type, or null for basic values
+         * @param descriptionShort short description
+         * @param descriptionLong long description
+         */
+        Fixed(final Type type, final String descriptionShort, final String descriptionLong) {
+            super(type);
+            this.descriptionShort = descriptionShort;
+            this.descriptionLong = descriptionLong;
+        }
+
+        @Override
+        public String getDescription(final int value, final int first, final int second) {
+            return descriptionShort;
+        }
+
+        @Override
+        public String getHoverText(final int value, final int first, final int second) {
+            return descriptionLong;
+        }
+    }
+
+    /** Boolean value, described as "true" or "false". */
+    public static final StackTag BOOLEAN = new StackTag(null) {
+        @Override
+        public String getDescription(final int value, final int first, final int second) {
+            return value == 0 ? "false" : "true";
+        }
+
+        @Override
+        public String getHoverText(final int value, final int first, final int second) {
+            return getDescription(value, first, second);
+        }
+    };
+
+    /** Basic value without description. */
+    public static final StackTag VALUE = basic(null, null);
+
+    /** Pointer type, null for basic values. */
+    private final Type type;
+
+    /**
+     * Create a new StackTag.
+     * 
+     * @param type pointer type, or null for basic values
+     */
+    protected StackTag(final Type type) {
+        this.type = type;
+    }
+
+    /**
+     * Returns a tag for basic values with constant descriptions.
+     * 
+     * @param descriptionShort short description
+     * @param descriptionLong long description
+     * @return a tag for basic values
+     */
+    public static StackTag basic(final String descriptionShort, final String descriptionLong) {
+        return new Fixed(null, descriptionShort, descriptionLong);
+    }
+
+    /**
+     * Render the short description.
+     * 
+     * @param value value of the object
+     * @param first first argument
+     * @param second second argument
+     * @return the short description
+     */
+    public abstract String getDescription(int value, int first, int second);
+
+    /**
+     * Render the long description.
+     * 
+     * @param value value of the object
+     * @param first first argument
+     * @param second second argument
+     * @return the long description
+     */
+    public abstract String getHoverText(int value, int first, int second);
+
+    /**
+     * Returns the pointer type of the objects created by this tag.
+     * 
+     * @return the pointer type, or null for basic values
+     */
+    public final Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns a tag for nil pointers with constant descriptions. The value of the cell is ignored.
+     * 
+     * @param descriptionShort short description
+     * @param descriptionLong long description
+     * @return a tag for nil pointers
+     */
+    public static StackTag nil(final String descriptionShort, final String descriptionLong) {
+        return new Fixed(Type.POINTER_NIL, descriptionShort, descriptionLong);
+    }
+
+    /**
+     * Returns a tag for the results of binary operations, described by both operands.
+     * 
+     * @param operator operator, including surrounding spaces
+     * @return a tag for the results of binary operations, expecting the operands as arguments
+     */
+    public static StackTag operation(final String operator) {
+        return new StackTag(null) {
+            @Override
+            public String getDescription(final int value, final int first, final int second) {
+                return null;
+            }
+
+            @Override
+            public String getHoverText(final int value, final int first, final int second) {
+                return String.valueOf(first) + operator + String.valueOf(second);
+            }
+        };
+    }
+
+    /**
+     * Returns a tag for pointers to the given label in program memory, described like {@link PointerObject#PointerObject(Label)}.
+     * 
+     * @param label label
+     * @return a tag for pointers to the label
+     */
+    public static StackTag pointer(final Label label) {
+        return new StackTag(Type.POINTER_PROGRAM) {
+            @Override
+            public String getDescription(final int value, final int first, final int second) {
+                return "→" + label.getName();
+            }
+
+            @Override
+            public String getHoverText(final int value, final int first, final int second) {
+                return "Pointer to " + label.getName();
+            }
+        };
+    }
+
+    /**
+     * Returns a tag for pointers with constant descriptions.
+     * 
+     * @param type pointer type
+     * @param descriptionShort short description
+     * @param descriptionLong long description
+     * @return a tag for pointers
+     */
+    public static StackTag pointer(final Type type, final String descriptionShort, final String descriptionLong) {
+        return new Fixed(type, descriptionShort, descriptionLong);
+    }
+
+    /**
+     * Returns a tag for heap references to the given object, described by its display value.
+     * 
+     * @param target referenced object
+     * @return a tag for references to the object
+     */
+    public static StackTag reference(final MemoryObject target) {
+        return new StackTag(Type.POINTER_HEAP) {
+            @Override
+            public String getDescription(final int value, final int first, final int second) {
+                return "→" + target.getDisplayValue();
+            }
+
+            @Override
+            public String getHoverText(final int value, final int first, final int second) {
+                return "Reference to " + target.getDisplayValue();
+            }
+        };
+    }
+
+    /**
+     * Create the object of a stack cell.
+     * 
+     * @param value value of the cell
+     * @param first first argument of the cell
+     * @param second second argument of the cell
+     * @return the object of the stack cell
+     */
+    public final StackObject toObject(final int value, final int first, final int second) {
+        if (type == null) {
+            return new BasicValueObject(value, this, first, second);
+        } else if (type == Type.POINTER_NIL) {
+            return new NilPointerObject(this);
+        } else {
+            return new PointerObject(value, type, this, first, second);
+        }
+    }
+}
@@ -20,14 +20,26 @@ package jumpvm.memory.objects;
 
 /**
  * WiMa Structure.
+ * 
+ * Structures with equal identifier and arity have equal functor ids in the {@link SymbolTable}.
  */
 public class StructureObject implements MemoryObject {
-    /** Identifier. */
-    private final String identifier;
+    /** Id of the functor. */
+    private final int functor;
 
     /** Arity. */
     private final int arity;
 
+    /**
+     * Create a new StructureObject.
+     * 
+     * @param functor id of the functor, see {@link SymbolTable#internFunctor(String, int)}
+     */
+    public StructureObject(final int functor) {
+        this.functor = functor;
+        this.arity = SymbolTable.getFunctorArity(functor);
+    }
+
     /**
      * Create a new StructureObject.
      * 
@@ -35,8 +47,7 @@ public class StructureObject implements MemoryObject {
      * @param arity arity
      */
     public StructureObject(final String identifier, final int arity) {
-        this.identifier = identifier;
-        this.arity = arity;
+        this(SymbolTable.internFunctor(identifier, arity));
     }
 
     /**
@@ -65,7 +76,16 @@ public class StructureObject implements MemoryObject {
 
     @Override
     public final String getDisplayValue() {
-        return identifier + "/" + arity;
+        return getIdentifier() + "/" + arity;
+    }
+
+    /**
+     * Returns the id of the functor.
+     * 
+     * @return the id of the functor
+     */
+    public final int getFunctor() {
+        return functor;
     }
 
     /**
@@ -74,6 +94,6 @@ public class StructureObject implements MemoryObject {
      * @return the identifier
      */
     public final String getIdentifier() {
-        return identifier;
+        return SymbolTable.getFunctorIdentifier(functor);
     }
 }
@@ -0,0 +1,169 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+
+package jumpvm.memory.objects;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global table of WiMa atoms and functors.
+ * 
+ * Atoms are interned to small integer ids, and so are functors, i.e. pairs of identifier and arity. Equal atoms get equal ids, so do equal functors, so terms can
+ * be compared by their ids. Symbols are interned once when a program is compiled and never removed, so the table is shared by all compilers and vms, also
+ * across threads: interning is synchronized, looking up a known symbol is not.
+ */
+public final class SymbolTable {
+    /** Initial capacity of the id arrays. */
+    private static final int CAPACITY = 64;
+
+    /** Id of each atom, by identifier. */
+    private static final ConcurrentHashMap<String, Integer> ATOM_IDS = new ConcurrentHashMap<String, Integer>();
+
+    /** Id of each functor, by "identifier/arity". */
+    private static final ConcurrentHashMap<String, Integer> FUNCTOR_IDS = new ConcurrentHashMap<String, Integer>();
+
+    /** Identifier of each atom, by id. */
+    private static volatile String[] atoms = new String[CAPACITY];
+
+    /** Number of atoms. */
+    private static int atomCount = 0;
+
+    /** Atom id of each functor's identifier, by id. */
+    private static volatile int[] functorNames = new int[CAPACITY];
+
+    /** Arity of each functor, by id. */
+    private static volatile int[] functorArities = new int[CAPACITY];
+
+    /** Number of functors. */
+    private static int functorCount = 0;
+
+    /**
+     * Returns the identifier of an atom.
+     * 
+     * @param atom id of the atom
+     * @return the identifier of the atom
+     */
+    public static String getAtom(final int atom) {
+        return atoms[atom];
+    }
+
+    /**
+     * Returns the arity of a functor.
+     * 
+     * @param functor id of the functor
+     * @return the arity of the functor
+     */
+    public static int getFunctorArity(final int functor) {
+        return functorArities[functor];
+    }
+
+    /**
+     * Returns the identifier of a functor.
+     * 
+     * @param functor id of the functor
+     * @return the identifier of the functor
+     */
+    public static String getFunctorIdentifier(final int functor) {
+        return atoms[functorNames[functor]];
+    }
+
+    /**
+     * Intern an atom.
+     * 
+     * @param identifier atom's identifier
+     * @return id of the atom
+     */
+    public static int internAtom(final String identifier) {
+        final Integer id = ATOM_IDS.get(identifier);
+        if (id != null) {
+            return id;
+        }
+        return addAtom(identifier);
+    }
+
+    /**
+     * Intern a functor.
+     * 
+     * @param identifier functor's identifier
+     * @param arity functor's arity
+     * @return id of the functor
+     */
+    public static int internFunctor(final String identifier, final int arity) {
+        final Integer id = FUNCTOR_IDS.get(identifier + "/" + arity);
+        if (id != null) {
+            return id;
+        }
+        return addFunctor(identifier, arity);
+    }
+
+    /**
+     * Add an atom unless another thread did so in the meantime. The identifier is stored before the id is published.
+     * 
+     * @param identifier atom's identifier
+     * @return id of the atom
+     */
+    private static synchronized int addAtom(final String identifier) {
+        final Integer id = ATOM_IDS.get(identifier);
+        if (id != null) {
+            return id;
+        }
+        String[] newAtoms = atoms;
+        if (atomCount == newAtoms.length) {
+            newAtoms = Arrays.copyOf(newAtoms, atomCount * 2);
+        }
+        newAtoms[atomCount] = identifier;
+        atoms = newAtoms;
+        ATOM_IDS.put(identifier, atomCount);
+        return atomCount++;
+    }
+
+    /**
+     * Add a functor unless another thread did so in the meantime. Identifier and arity are stored before the id is published.
+     * 
+     * @param identifier functor's identifier
+     * @param arity functor's arity
+     * @return id of the functor
+     */
+    private static synchronized int addFunctor(final String identifier, final int arity) {
+        final String key = identifier + "/" + arity;
+        final Integer id = FUNCTOR_IDS.get(key);
+        if (id != null) {
+            return id;
+        }
+        int[] newNames = functorNames;
+        int[] newArities = functorArities;
+        if (functorCount == newNames.length) {
+            newNames = Arrays.copyOf(newNames, functorCount * 2);
+            newArities = Arrays.copyOf(newArities, functorCount * 2);
+        }
+        newNames[functorCount] = addAtom(identifier);
+        newArities[functorCount] = arity;
+        functorNames = newNames;
+        functorArities = newArities;
+        FUNCTOR_IDS.put(key, functorCount);
+        return functorCount++;
+    }
+
+    /**
+     * Not meant for instantiation.
+     */
+    private SymbolTable() {
+    }
+}
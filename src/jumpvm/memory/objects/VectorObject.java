@@ -61,6 +61,15 @@ public class VectorObject implements MemoryObject {
         return vector.toString();
     }
 
+    /**
+     * Returns the name of the vector.
+     * 
+     * @return the name of the vector
+     */
+    public final String getName() {
+        return name;
+    }
+
     /**
      * Returns the elements.
      * 
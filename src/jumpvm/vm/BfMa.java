@@ -19,7 +19,7 @@
 package jumpvm.vm;
 
 import jumpvm.memory.Register;
-import jumpvm.memory.Stack;
+import jumpvm.memory.Tape;
 
 /**
  * BfMachine - an esoteric language similar to Brainfuck.
@@ -28,18 +28,27 @@ import jumpvm.memory.Stack;
  */
 public class BfMa extends JumpVM {
     /** "Infinite" memory band. */
-    private final Stack stack;
+    private final Tape tape;
 
     /** Head position. */
     private final Register cellPointer;
 
-    /** Create a new BfMa VM. */
+    /** Create a new BfMa VM with 32 bit cells. */
     public BfMa() {
+        this(Integer.SIZE);
+    }
+
+    /**
+     * Create a new BfMa VM.
+     * 
+     * @param bits width of a cell in bits, values wrap around to the range 0 to 2^bits - 1
+     */
+    public BfMa(final int bits) {
         this.cellPointer = new Register("CP", "Cell Pointer", 0);
         addDisplayRegister(cellPointer);
 
-        this.stack = new Stack(new Register("SP", "Stack Pointer", -1));
-        addDisplayMemory(stack);
+        this.tape = new Tape("Band", bits);
+        addDisplayMemory(tape);
     }
 
     /**
@@ -56,7 +65,7 @@ public class BfMa extends JumpVM {
      * 
      * @return the infinite memory band
      */
-    public final Stack getStack() {
-        return stack;
+    public final Tape getTape() {
+        return tape;
     }
 }
@@ -0,0 +1,252 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.vm;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.Memory;
+
+/**
+ * Periodic {@link VmState} snapshots of a {@link JumpVM}.
+ * 
+ * A snapshot is taken every few steps. Any step can be reached by restoring the nearest preceding snapshot and executing forward from there. Input is replayed
+ * from the vm's input log and output of already executed steps is discarded, so re-executing steps has no visible side effects.
+ * 
+ * The vm's {@link jumpvm.memory.Journal} keeps the last few intervals of steps. Stepping backward beyond that seeks to the previous step instead.
+ */
+public class Checkpoints {
+    /** Default number of steps between two snapshots. */
+    public static final int DEFAULT_INTERVAL = 1000;
+
+    /** Default maximum number of snapshots. */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /** Number of intervals the journal keeps. */
+    public static final int JOURNAL_INTERVALS = 2;
+
+    /** JumpVM. */
+    private final JumpVM vm;
+
+    /** Snapshots by step. */
+    private final TreeMap<Integer, VmState> states;
+
+    /** Number of steps between two snapshots, or 0 to adapt to the size of the vm's memories. */
+    private final int interval;
+
+    /** Maximum number of snapshots. */
+    private final int capacity;
+
+    /** Factor the interval is multiplied by, doubles every time the number of snapshots exceeds the capacity. */
+    private int stride;
+
+    /** Highest step executed so far. */
+    private int horizon;
+
+    /**
+     * Create new Checkpoints with an interval adapting to the size of the vm's memories.
+     * 
+     * @param vm JumpVM
+     */
+    public Checkpoints(final JumpVM vm) {
+        this(vm, 0, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create new Checkpoints.
+     * 
+     * @param vm JumpVM
+     * @param interval number of steps between two snapshots, or 0 to adapt to the size of the vm's memories
+     * @param capacity maximum number of snapshots
+     */
+    public Checkpoints(final JumpVM vm, final int interval, final int capacity) {
+        this.vm = vm;
+        this.states = new TreeMap<Integer, VmState>();
+        this.interval = Math.max(0, interval);
+        this.capacity = Math.max(2, capacity);
+
+        vm.setInputLogged(true);
+        clear();
+    }
+
+    /**
+     * Forget all snapshots and take a new one of the current state. Call this after the vm was reset or modified.
+     */
+    public final void clear() {
+        states.clear();
+        stride = 1;
+        horizon = getStep();
+
+        vm.truncateInputLog();
+        states.put(horizon, new VmState(vm));
+        limitJournal();
+    }
+
+    /**
+     * Returns the number of steps between two snapshots.
+     * 
+     * @return the number of steps between two snapshots
+     */
+    public final int getInterval() {
+        if (interval > 0) {
+            return interval * stride;
+        }
+
+        /* take snapshots no more often than their size, so saving them costs O(1) per step */
+        int cells = 0;
+        for (final Memory<?> memory : vm.getDisplayMemories()) {
+            cells += Math.max(0, memory.getSize() - memory.getLow());
+        }
+        return Math.max(DEFAULT_INTERVAL, cells) * stride;
+    }
+
+    /**
+     * Returns the number of snapshots.
+     * 
+     * @return the number of snapshots
+     */
+    public final int getSize() {
+        return states.size();
+    }
+
+    /**
+     * Returns the current step of the vm.
+     * 
+     * @return the current step
+     */
+    private int getStep() {
+        return vm.getStepCounter().getValue();
+    }
+
+    /**
+     * Limit the vm's journal to {@link #JOURNAL_INTERVALS} intervals of steps.
+     */
+    private void limitJournal() {
+        vm.getJournal().setLimit((int) Math.min(Integer.MAX_VALUE, (long) JOURNAL_INTERVALS * getInterval()));
+    }
+
+    /**
+     * Move the vm to the given step by restoring the nearest snapshot and executing forward. The steps the journal keeps are executed journaled, so they can
+     * still be reverted with {@link JumpVM#stepBackward()} afterwards.
+     * 
+     * @param step target step
+     * @return the step reached, which is lower than the target if the vm stopped before
+     * @throws ExecutionException on failure
+     */
+    public final int seek(final int step) throws ExecutionException {
+        /* restore a snapshot before the target, so at least the last step can be reverted */
+        Map.Entry<Integer, VmState> entry = states.floorEntry(step - 1);
+        if (entry == null) {
+            entry = states.firstEntry();
+        }
+
+        final int current = getStep();
+        if ((current > step) || (current < entry.getKey())) {
+            entry.getValue().set();
+            vm.getJournal().clear();
+        }
+
+        /* the journal keeps its limit of completed steps plus the current one */
+        final long journaled = (long) step - vm.getJournal().getLimit() - 1;
+        while ((getStep() < step) && vm.isRunning()) {
+            vm.setReplaying(getStep() < horizon);
+            try {
+                if (getStep() < journaled) {
+                    vm.run(1);
+                } else {
+                    vm.step();
+                }
+            } finally {
+                vm.setReplaying(false);
+            }
+            update();
+        }
+
+        return getStep();
+    }
+
+    /**
+     * Executes a single journaled step and takes a snapshot if due.
+     * 
+     * @see JumpVM#step()
+     * @throws ExecutionException on failure
+     */
+    public final void step() throws ExecutionException {
+        vm.step();
+        update();
+    }
+
+    /**
+     * Reverts the most recent step. Once the journal is exhausted, the previous step is reached by seeking.
+     * 
+     * @see JumpVM#stepBackward()
+     * @return false if there was no step to revert
+     * @throws ExecutionException on failure
+     */
+    public final boolean stepBackward() throws ExecutionException {
+        if (vm.stepBackward()) {
+            return true;
+        }
+
+        final int step = getStep();
+        if (step <= states.firstKey()) {
+            return false;
+        }
+        seek(step - 1);
+        return true;
+    }
+
+    /**
+     * Halve the number of snapshots by removing every other one, keeping the first.
+     */
+    private void thin() {
+        boolean remove = false;
+        final Iterator<Integer> iterator = states.keySet().iterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            if (remove) {
+                iterator.remove();
+            }
+            remove = !remove;
+        }
+        stride *= 2;
+    }
+
+    /**
+     * Take a snapshot of the current state, if due. Call this after every step.
+     */
+    public final void update() {
+        final int step = getStep();
+        if (step > horizon) {
+            horizon = step;
+        }
+
+        if ((step - states.lastKey()) < getInterval()) {
+            return;
+        }
+
+        states.put(step, new VmState(vm));
+        if (states.size() > capacity) {
+            thin();
+        }
+        limitJournal();
+    }
+}
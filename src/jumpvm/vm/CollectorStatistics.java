@@ -0,0 +1,126 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.vm;
+
+/**
+ * Counters of a garbage collector.
+ */
+public class CollectorStatistics {
+    /** Number of collections. */
+    private int collections;
+
+    /** Number of objects copied. */
+    private long copied;
+
+    /** Number of objects reclaimed. */
+    private long reclaimed;
+
+    /** Sum of all pause times in nanoseconds. */
+    private long totalPause;
+
+    /** Longest pause time in nanoseconds. */
+    private long maxPause;
+
+    /**
+     * Create new CollectorStatistics.
+     */
+    public CollectorStatistics() {
+        clear();
+    }
+
+    /**
+     * Reset all counters to zero.
+     */
+    public final void clear() {
+        collections = 0;
+        copied = 0;
+        reclaimed = 0;
+        totalPause = 0;
+        maxPause = 0;
+    }
+
+    /**
+     * Returns the number of collections.
+     * 
+     * @return the number of collections
+     */
+    public final int getCollections() {
+        return collections;
+    }
+
+    /**
+     * Returns the number of objects copied.
+     * 
+     * @return the number of objects copied
+     */
+    public final long getCopied() {
+        return copied;
+    }
+
+    /**
+     * Returns the longest pause time in nanoseconds.
+     * 
+     * @return the longest pause time in nanoseconds
+     */
+    public final long getMaxPause() {
+        return maxPause;
+    }
+
+    /**
+     * Returns the number of objects reclaimed.
+     * 
+     * @return the number of objects reclaimed
+     */
+    public final long getReclaimed() {
+        return reclaimed;
+    }
+
+    /**
+     * Returns the fraction of the collected objects that survived. For a nursery, this is the promotion rate.
+     * 
+     * @return the fraction of the collected objects that survived, 0 if there was no collection
+     */
+    public final double getSurvivalRate() {
+        return (copied + reclaimed) == 0 ? 0 : copied / (double) (copied + reclaimed);
+    }
+
+    /**
+     * Returns the sum of all pause times in nanoseconds.
+     * 
+     * @return the sum of all pause times in nanoseconds
+     */
+    public final long getTotalPause() {
+        return totalPause;
+    }
+
+    /**
+     * Count a collection.
+     * 
+     * @param copiedObjects number of objects copied
+     * @param reclaimedObjects number of objects reclaimed
+     * @param pause pause time in nanoseconds
+     */
+    public final void record(final int copiedObjects, final int reclaimedObjects, final long pause) {
+        ++collections;
+        copied += copiedObjects;
+        reclaimed += reclaimedObjects;
+        totalPause += pause;
+        maxPause = Math.max(maxPause, pause);
+    }
+}
@@ -22,6 +22,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Writer;
 import java.util.ArrayList;
@@ -33,7 +34,9 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
 import jumpvm.code.Instruction;
+import jumpvm.code.ProgramImage;
 import jumpvm.exception.ExecutionException;
+import jumpvm.memory.Journal;
 import jumpvm.memory.Memory;
 import jumpvm.memory.Program;
 import jumpvm.memory.Register;
@@ -61,15 +64,42 @@ public abstract class JumpVM {
     /** Program memory. */
     private final Program program;
 
+    /** Linked program that is executed. */
+    private ProgramImage image;
+
     /** Registers to display. */
     private final ArrayList<Register> displayRegisters;
 
     /** Memories to display. */
     private final ArrayList<Memory<?>> displayMemories;
 
+    /** Registers that are journaled, reset and saved like the displayed ones, but not displayed. */
+    private final ArrayList<Register> internalRegisters;
+
+    /** Memories that are journaled, reset and saved like the displayed ones, but not displayed. */
+    private final ArrayList<Memory<?>> internalMemories;
+
+    /** Write journal for undoing steps. */
+    private final Journal journal;
+
     /** Output writer. */
     private PrintWriter writer;
 
+    /** Output writer used while replaying steps. */
+    private final PrintWriter replayWriter;
+
+    /** True while already executed steps are replayed. */
+    private boolean replaying;
+
+    /** All input lines read so far, while {@link #inputLogged}. */
+    private final ArrayList<String> inputLog;
+
+    /** True if input lines are logged to be replayed, i.e. while {@link Checkpoints} are attached. */
+    private boolean inputLogged;
+
+    /** Position of the next input line in {@link #inputLog}. */
+    private final Register inputPosition;
+
     /** Input reader. */
     private BufferedReader reader;
 
@@ -85,14 +115,29 @@ public abstract class JumpVM {
         this.stepCounter = new Register("Step", "Step Counter", 0);
         this.programCounter = new Register("PC", "Program Counter", 0);
         this.program = new Program();
+        this.image = ProgramImage.EMPTY;
         this.displayRegisters = new ArrayList<Register>();
         this.displayMemories = new ArrayList<Memory<?>>();
+        this.internalRegisters = new ArrayList<Register>();
+        this.internalMemories = new ArrayList<Memory<?>>();
+        this.journal = new Journal();
         this.writer = new PrintWriter(System.out);
+        this.replayWriter = new PrintWriter(new OutputStream() {
+            @Override
+            public void write(final int b) {
+            }
+        });
+        this.replaying = false;
+        this.inputLog = new ArrayList<String>();
+        this.inputLogged = false;
+        this.inputPosition = new Register("IN", "Input Position", 0);
         this.reader = null;
 
-        displayRegisters.add(stepCounter);
-        displayRegisters.add(status);
-        displayRegisters.add(programCounter);
+        inputPosition.setJournal(journal);
+
+        addDisplayRegister(stepCounter);
+        addDisplayRegister(status);
+        addDisplayRegister(programCounter);
         displayMemories.add(program);
     }
 
@@ -102,6 +147,7 @@ public abstract class JumpVM {
      * @param memory memory to add to the list
      */
     public final void addDisplayMemory(final Memory<?> memory) {
+        memory.setJournal(journal);
         displayMemories.add(memory);
     }
 
@@ -111,9 +157,30 @@ public abstract class JumpVM {
      * @param register register to add to the list
      */
     public final void addDisplayRegister(final Register register) {
+        register.setJournal(journal);
         displayRegisters.add(register);
     }
 
+    /**
+     * Add a memory that is part of the vm state, but not displayed.
+     * 
+     * @param memory memory to add
+     */
+    protected final void addInternalMemory(final Memory<?> memory) {
+        memory.setJournal(journal);
+        internalMemories.add(memory);
+    }
+
+    /**
+     * Add a register that is part of the vm state, but not displayed.
+     * 
+     * @param register register to add
+     */
+    protected final void addInternalRegister(final Register register) {
+        register.setJournal(journal);
+        internalRegisters.add(register);
+    }
+
     /**
      * Export the current vm state.
      * 
@@ -183,20 +250,79 @@ public abstract class JumpVM {
     }
 
     /**
-     * Returns a line of user input.
+     * Returns the write journal used to undo steps.
+     * 
+     * @return the write journal
+     */
+    public final Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns the linked program that is executed.
+     * 
+     * @return the linked program
+     */
+    public final ProgramImage getImage() {
+        return image;
+    }
+
+    /**
+     * Returns a line of user input. While the input is logged, input that has already been read once is replayed from the input log, so re-executed steps
+     * see the same input.
      *
      * @return a line of user input
      */
     public final String getInput() {
+        final int position = inputPosition.getValue();
+        if (position < inputLog.size()) {
+            inputPosition.increment();
+            return inputLog.get(position);
+        }
+
+        String input;
         if (reader != null) {
             try {
-                return reader.readLine();
+                input = reader.readLine();
             } catch (final IOException e) {
-                return null;
+                input = null;
             }
+        } else {
+            input = JOptionPane.showInputDialog("Please enter value:");
         }
 
-        return JOptionPane.showInputDialog("Please enter value:");
+        if (inputLogged) {
+            inputLog.add(input);
+            inputPosition.increment();
+        }
+        return input;
+    }
+
+    /**
+     * Returns the input position register.
+     * 
+     * @return the input position register
+     */
+    final Register getInputPosition() {
+        return inputPosition;
+    }
+
+    /**
+     * Returns the list of memories that are part of the vm state, but not displayed.
+     * 
+     * @return the list of internal memories
+     */
+    final ArrayList<Memory<?>> getInternalMemories() {
+        return internalMemories;
+    }
+
+    /**
+     * Returns the list of registers that are part of the vm state, but not displayed.
+     * 
+     * @return the list of internal registers
+     */
+    final ArrayList<Register> getInternalRegisters() {
+        return internalRegisters;
     }
 
     /**
@@ -226,12 +352,24 @@ public abstract class JumpVM {
         return status;
     }
 
+    /**
+     * Returns the step counter register.
+     * 
+     * @return the step counter register
+     */
+    public final Register getStepCounter() {
+        return stepCounter;
+    }
+
     /**
      * Returns the output writer.
      * 
      * @return the writer that is used for all VM output
      */
     public final PrintWriter getWriter() {
+        if (replaying) {
+            return replayWriter;
+        }
         return writer;
     }
 
@@ -251,14 +389,23 @@ public abstract class JumpVM {
         for (final Register register : displayRegisters) {
             register.reset();
         }
+        for (final Register register : internalRegisters) {
+            register.reset();
+        }
 
         for (final Memory<?> memory : displayMemories) {
             if (memory != program) {
                 memory.reset();
             }
         }
+        for (final Memory<?> memory : internalMemories) {
+            memory.reset();
+        }
 
         status.setValue(STATUS_OK);
+        inputLog.clear();
+        inputPosition.reset();
+        journal.clear();
     }
 
     /**
@@ -267,8 +414,27 @@ public abstract class JumpVM {
      * @param instructions new program
      */
     public final void reset(final ArrayList<Instruction> instructions) {
+        reset(new ProgramImage(instructions));
+    }
+
+    /**
+     * Resets the virtual machine and sets the program store to the given linked program.
+     * 
+     * @param image new program
+     */
+    public final void reset(final ProgramImage image) {
         reset();
-        program.reset(instructions);
+        this.image = image;
+        program.reset(image.toList());
+    }
+
+    /**
+     * Set whether input lines are logged to be replayed. Headless runs don't need the log, so it is only kept while {@link Checkpoints} are attached.
+     * 
+     * @param inputLogged true to log input lines
+     */
+    final void setInputLogged(final boolean inputLogged) {
+        this.inputLogged = inputLogged;
     }
 
     /**
@@ -280,6 +446,15 @@ public abstract class JumpVM {
         this.reader = reader;
     }
 
+    /**
+     * Set whether already executed steps are replayed. While replaying, all output is discarded.
+     * 
+     * @param replaying true while replaying
+     */
+    final void setReplaying(final boolean replaying) {
+        this.replaying = replaying;
+    }
+
     /**
      * Set the output writer.
      * 
@@ -290,25 +465,96 @@ public abstract class JumpVM {
     }
 
     /**
-     * Executes a fetch-decode-execute cycle.
+     * Executes fetch-decode-execute cycles until the VM stops or the given number of steps has been executed.
+     * 
+     * Unlike {@link #step()}, no modifications are journaled and all previously journaled steps are discarded. If an instruction fails, the VM is left in the
+     * state in which the failure occurred.
+     * 
+     * @param maxSteps maximum number of steps to execute
+     * @return the number of steps executed
+     * @throws ExecutionException on failure
+     */
+    public final long run(final long maxSteps) throws ExecutionException {
+        journal.clear();
+
+        long steps = 0;
+        while ((steps < maxSteps) && isRunning()) {
+            cycle(false);
+            ++steps;
+        }
+        return steps;
+    }
+
+    /**
+     * Executes the program like {@link #run(long)}, but on a compact bytecode representation if the VM provides one. The results are the same, except that
+     * the descriptions of the memory cells get lost. VMs without a bytecode engine simply call {@link #run(long)}.
+     * 
+     * @param maxSteps maximum number of steps to execute
+     * @return the number of steps executed
+     * @throws ExecutionException on failure
+     */
+    public long runBytecode(final long maxSteps) throws ExecutionException {
+        return run(maxSteps);
+    }
+
+    /**
+     * Executes fetch-decode-execute cycles until the VM stops.
+     * 
+     * @see #run(long)
+     * @return the number of steps executed
+     * @throws ExecutionException on failure
+     */
+    public final long runUntilHalt() throws ExecutionException {
+        return run(Long.MAX_VALUE);
+    }
+
+    /**
+     * Executes a fetch-decode-execute cycle. All modifications are recorded in the {@link Journal}, so the step can be reverted with {@link #stepBackward()}.
      * 
-     * @return the previous VmState
      * @throws ExecutionException on failure
      */
-    public final VmState step() throws ExecutionException {
+    public final void step() throws ExecutionException {
+        journal.beginStep();
+        cycle(true);
+    }
+
+    /**
+     * Reverts the most recent step recorded in the {@link Journal}.
+     * 
+     * @return false if there was no step to revert
+     */
+    public final boolean stepBackward() {
+        return journal.undoStep();
+    }
 
-        /* save state */
-        final VmState state = new VmState(this);
+    /**
+     * Forget all logged input lines that have not been consumed yet.
+     */
+    final void truncateInputLog() {
+        final int position = inputPosition.getValue();
+        if (position < inputLog.size()) {
+            inputLog.subList(position, inputLog.size()).clear();
+        }
+    }
 
+    /**
+     * Executes a fetch-decode-execute cycle.
+     * 
+     * @param journaled true if the current journal step shall be reverted on failure
+     * @throws ExecutionException on failure
+     */
+    private void cycle(final boolean journaled) throws ExecutionException {
         /* increase step counter */
         stepCounter.setValue(stepCounter.getValue() + 1);
 
         /* get current instruction */
         final Instruction i;
         try {
-            i = program.getElementAt(programCounter.getValue());
+            i = image.get(programCounter.getValue());
         } catch (final RuntimeException e) {
-            state.set();
+            if (journaled) {
+                journal.undoStep();
+            }
             throw new ExecutionException(null, e);
         }
 
@@ -319,10 +565,10 @@ public abstract class JumpVM {
         try {
             i.execute(this);
         } catch (final RuntimeException e) {
-            state.set();
+            if (journaled) {
+                journal.undoStep();
+            }
             throw new ExecutionException(i, e);
         }
-
-        return state;
     }
 }
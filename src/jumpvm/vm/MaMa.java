@@ -18,12 +18,32 @@
 
 package jumpvm.vm;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import jumpvm.code.mama.MaMaBytecode;
+import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Heap;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
+import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.ClosureObject;
+import jumpvm.memory.objects.ConsObject;
+import jumpvm.memory.objects.FunValObject;
+import jumpvm.memory.objects.MemoryObject;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.VectorObject;
 
 /**
  * MaMachine - a functional language similar to Haskell.
+ * 
+ * The heap can be garbage collected by copying all objects reachable from the global pointer and the heap pointers on the stack, breadth first, to the
+ * beginning of the heap. With a nursery, the objects allocated since the last collection are collected on their own whenever there are enough of them, and the
+ * survivors are promoted to the tenured objects below. Update and rewrite are the only instructions that store into existing objects, so they remember
+ * overwritten tenured objects as additional roots for the next nursery collection. Collections only happen between two instructions. The bytecode engine
+ * copies in the same order, so heap addresses stay the same for both ways of execution.
  */
 public class MaMa extends JumpVM {
     /** Number of organizational cells in a stack frame. */
@@ -44,6 +64,30 @@ public class MaMa extends JumpVM {
     /** Heap memory. */
     private final Heap heap;
 
+    /** Bytecode of the current program, assembled on first use. */
+    private MaMaBytecode bytecode;
+
+    /** Minimum heap size that triggers a collection, 0 if garbage collection is disabled. */
+    private int gcThreshold;
+
+    /** Number of new objects that triggers a nursery collection, 0 if there is no nursery. */
+    private int nurserySize;
+
+    /** Heap size that triggers the next collection. */
+    private final Register collectionLimit;
+
+    /** Address of the first object allocated since the last collection. */
+    private final Register nurseryStart;
+
+    /** Addresses of tenured objects overwritten since the last collection. */
+    private final Heap rememberedSet;
+
+    /** Garbage collector counters. */
+    private final CollectorStatistics collectorStatistics;
+
+    /** Nursery collector counters. */
+    private final CollectorStatistics nurseryStatistics;
+
     /** Create a new MaMa VM. */
     public MaMa() {
         this.stackPointer = new Register("SP", "Stack Pointer", -1);
@@ -57,6 +101,121 @@ public class MaMa extends JumpVM {
         this.heap = new Heap();
         addDisplayMemory(stack);
         addDisplayMemory(heap);
+        this.bytecode = null;
+
+        this.gcThreshold = 0;
+        this.nurserySize = 0;
+        this.collectionLimit = new Register("GC", "Collection Limit", 0);
+        this.nurseryStart = new Register("NS", "Nursery Start", 0);
+        this.rememberedSet = new Heap("Remembered Set");
+        addInternalRegister(collectionLimit);
+        addInternalRegister(nurseryStart);
+        addInternalMemory(rememberedSet);
+        this.collectorStatistics = new CollectorStatistics();
+        this.nurseryStatistics = new CollectorStatistics();
+    }
+
+    /**
+     * Collect garbage: Copy all objects reachable from the global pointer and the heap pointers on the stack, in this order, to the beginning of the heap and
+     * relocate all pointers to them.
+     */
+    public final void collect() {
+        collect(0, collectorStatistics);
+        collectionLimit.setValue(Math.max(gcThreshold, 2 * heap.getSize()));
+    }
+
+    /**
+     * Copy the objects from the given address on that are reachable from the global pointer, the heap pointers on the stack and, unless the whole heap is
+     * collected, the remembered objects, in this order. The copies replace the objects from the given address on, everything below stays in place.
+     * 
+     * @param low lowest address to collect, 0 for the whole heap
+     * @param statistics counters to update
+     */
+    private void collect(final int low, final CollectorStatistics statistics) {
+        final long start = System.nanoTime();
+        final int size = heap.getSize();
+        final ArrayList<MemoryObject> survivors = new ArrayList<MemoryObject>();
+        final int[] forwards = new int[size - low];
+        Arrays.fill(forwards, -1);
+
+        final int newGP = forward(survivors, forwards, low, globalPointer.getValue());
+        for (int i = 0; i <= stackPointer.getValue(); ++i) {
+            if (stack.getType(i) == Type.POINTER_HEAP) {
+                final int address = stack.getInt(i);
+                final int target = forward(survivors, forwards, low, address);
+                if (target != address) {
+                    stack.setValue(i, target);
+                }
+            }
+        }
+        if (low > 0) {
+            final LinkedHashSet<Integer> remembered = new LinkedHashSet<Integer>();
+            for (final MemoryObject object : rememberedSet.getContent()) {
+                remembered.add(((StackObject) object).getIntValue());
+            }
+            for (final int address : remembered) {
+                heap.setElementAt(address, relocate(heap.getElementAt(address), survivors, forwards, low));
+            }
+        }
+
+        for (int scan = 0; scan < survivors.size(); ++scan) {
+            survivors.set(scan, relocate(survivors.get(scan), survivors, forwards, low));
+        }
+
+        for (int i = 0; i < survivors.size(); ++i) {
+            heap.setElementAt(low + i, survivors.get(i));
+        }
+        heap.truncate(low + survivors.size());
+        globalPointer.setValue(newGP);
+        nurseryStart.setValue(heap.getSize());
+        rememberedSet.reset();
+        statistics.record(survivors.size(), size - low - survivors.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Collect the nursery: Copy the objects allocated since the last collection that are reachable from the global pointer, the heap pointers on the stack and
+     * the remembered objects, promoting them to the tenured objects.
+     */
+    public final void collectNursery() {
+        collect(nurseryStart.getValue(), nurseryStatistics);
+    }
+
+    /**
+     * Copy an object to the survivors, unless it is below the collected addresses or has already been copied.
+     * 
+     * @param survivors copied objects
+     * @param forwards new address of each collected object, -1 if not copied yet
+     * @param low lowest collected address
+     * @param address old address, negative for NIL pointers
+     * @return the new address
+     */
+    private int forward(final ArrayList<MemoryObject> survivors, final int[] forwards, final int low, final int address) {
+        if ((address < low) || (address >= (low + forwards.length))) {
+            return address;
+        }
+        if (forwards[address - low] < 0) {
+            forwards[address - low] = low + survivors.size();
+            survivors.add(heap.getElementAt(address));
+        }
+        return forwards[address - low];
+    }
+
+    /**
+     * Returns the heap size that triggers the next collection.
+     * 
+     * @return the heap size that triggers the next collection
+     */
+    final int getCollectionLimit() {
+        return collectionLimit.getValue();
+    }
+
+    /**
+     * Returns the garbage collector counters.
+     * 
+     * @return the garbage collector counters
+     */
+    public final CollectorStatistics getCollectorStatistics() {
+        return collectorStatistics;
     }
 
     /**
@@ -68,6 +227,15 @@ public class MaMa extends JumpVM {
         return framePointer;
     }
 
+    /**
+     * Returns the minimum heap size that triggers a collection.
+     * 
+     * @return the minimum heap size that triggers a collection, 0 if garbage collection is disabled
+     */
+    public final int getGcThreshold() {
+        return gcThreshold;
+    }
+
     /**
      * Returns the global pointer register.
      * 
@@ -86,6 +254,42 @@ public class MaMa extends JumpVM {
         return heap;
     }
 
+    /**
+     * Returns the number of new objects that triggers a nursery collection.
+     * 
+     * @return the number of new objects that triggers a nursery collection, 0 if there is no nursery
+     */
+    public final int getNurserySize() {
+        return nurserySize;
+    }
+
+    /**
+     * Returns the address of the first object allocated since the last collection.
+     * 
+     * @return the address of the first object allocated since the last collection
+     */
+    final int getNurseryStart() {
+        return nurseryStart.getValue();
+    }
+
+    /**
+     * Returns the nursery collector counters.
+     * 
+     * @return the nursery collector counters
+     */
+    public final CollectorStatistics getNurseryStatistics() {
+        return nurseryStatistics;
+    }
+
+    /**
+     * Returns the addresses of the tenured objects overwritten since the last collection.
+     * 
+     * @return the remembered set
+     */
+    final Heap getRememberedSet() {
+        return rememberedSet;
+    }
+
     /**
      * Returns the stack memory.
      * 
@@ -103,4 +307,109 @@ public class MaMa extends JumpVM {
     public final Register getStackPointer() {
         return stackPointer;
     }
+
+    /**
+     * Collect the nursery if it is full, then collect garbage if the heap has grown to the collection limit. Called after each instruction.
+     */
+    public final void pollCollector() {
+        if ((nurserySize > 0) && ((heap.getSize() - nurseryStart.getValue()) >= nurserySize)) {
+            collectNursery();
+        }
+        if ((gcThreshold > 0) && (heap.getSize() >= collectionLimit.getValue())) {
+            collect();
+        }
+    }
+
+    /**
+     * Count a collection done by the bytecode engine and set the next collection limit to twice the number of live objects, but at least to the threshold.
+     * 
+     * @param live number of objects copied
+     * @param reclaimed number of objects reclaimed
+     * @param pause pause time in nanoseconds
+     */
+    final void recordCollection(final int live, final int reclaimed, final long pause) {
+        collectorStatistics.record(live, reclaimed, pause);
+        collectionLimit.setValue(Math.max(gcThreshold, 2 * live));
+    }
+
+    /**
+     * Copy an object, relocating the pointers it contains.
+     * 
+     * @param object object
+     * @param survivors copied objects
+     * @param forwards new address of each collected object, -1 if not copied yet
+     * @param low lowest collected address
+     * @return the relocated copy, or the object itself if it contains no pointers
+     */
+    private MemoryObject relocate(final MemoryObject object, final ArrayList<MemoryObject> survivors, final int[] forwards, final int low) {
+        if (object instanceof ClosureObject) {
+            final ClosureObject closure = (ClosureObject) object;
+            return new ClosureObject(closure.getCp(), forward(survivors, forwards, low, closure.getGp()), closure.getName());
+        } else if (object instanceof ConsObject) {
+            final ConsObject cons = (ConsObject) object;
+            final int hd = forward(survivors, forwards, low, cons.getHd());
+            final int tl = forward(survivors, forwards, low, cons.getTl());
+            return new ConsObject(hd, tl);
+        } else if (object instanceof FunValObject) {
+            final FunValObject funval = (FunValObject) object;
+            final int fap = forward(survivors, forwards, low, funval.getFap());
+            final int fgp = forward(survivors, forwards, low, funval.getFgp());
+            return new FunValObject(funval.getCf(), fap, fgp, funval.getName());
+        } else if (object instanceof VectorObject) {
+            final VectorObject vector = (VectorObject) object;
+            final ArrayList<Integer> elements = new ArrayList<Integer>(vector.getVector().size());
+            for (final int element : vector.getVector()) {
+                elements.add(forward(survivors, forwards, low, element));
+            }
+            return new VectorObject(elements, vector.getName());
+        }
+        return object;
+    }
+
+    @Override
+    public final long runBytecode(final long maxSteps) throws ExecutionException {
+        if ((bytecode == null) || (bytecode.getImage() != getImage())) {
+            bytecode = new MaMaBytecode(getImage());
+        }
+        return new MaMaEngine(this, bytecode).run(maxSteps);
+    }
+
+    /**
+     * Set the minimum heap size that triggers a collection.
+     * 
+     * @param threshold minimum heap size that triggers a collection, 0 to disable garbage collection
+     */
+    public final void setGcThreshold(final int threshold) {
+        gcThreshold = Math.max(0, threshold);
+        collectionLimit.setValue(gcThreshold);
+    }
+
+    /**
+     * Set the number of new objects that triggers a nursery collection.
+     * 
+     * @param size number of new objects that triggers a nursery collection, 0 to disable the nursery
+     */
+    public final void setNurserySize(final int size) {
+        nurserySize = Math.max(0, size);
+    }
+
+    /**
+     * Sets the address of the first object allocated since the last collection.
+     * 
+     * @param address address of the first object allocated since the last collection
+     */
+    final void setNurseryStart(final int address) {
+        nurseryStart.setValue(address);
+    }
+
+    /**
+     * Write barrier: Remember a heap object that is about to be overwritten if it is tenured, as it may point into the nursery afterwards.
+     * 
+     * @param address address of the overwritten object
+     */
+    public final void writeBarrier(final int address) {
+        if ((nurserySize > 0) && (address < nurseryStart.getValue())) {
+            rememberedSet.allocate(new BasicValueObject(address, null, null));
+        }
+    }
 }
@@ -0,0 +1,812 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.vm;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import jumpvm.code.mama.MaMaBytecode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.ClosureObject;
+import jumpvm.memory.objects.ConsObject;
+import jumpvm.memory.objects.FunValObject;
+import jumpvm.memory.objects.MemoryObject;
+import jumpvm.memory.objects.NilPointerObject;
+import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.VectorObject;
+
+/**
+ * Switch interpreter for {@link MaMaBytecode}.
+ * 
+ * The stack is an {@code int[]}. The heap is a tagged {@code int[]} with {@link #CELL} fields per object; the elements of all vectors are kept in a separate
+ * {@code int[]}. Objects are allocated and collected in the same order as by the {@link jumpvm.code.mama.MaMaInstruction}s, so all heap addresses are the
+ * same. A parallel {@code boolean[]} tells which stack cells hold heap pointers. The vm's registers and memories are copied in before and back after running,
+ * heap objects are turned into {@link MemoryObject}s by {@link #getObjectAt(int)}. Only the descriptions of the stack cells and the frame boundaries get lost.
+ */
+final class MaMaEngine {
+    /** Fields per heap object: tag, three values and a name index. */
+    private static final int CELL = 5;
+
+    /** Offset of the tag in a heap object. */
+    private static final int TAG = 0;
+
+    /** Offset of the first value in a heap object. */
+    private static final int A = 1;
+
+    /** Offset of the second value in a heap object. */
+    private static final int B = 2;
+
+    /** Offset of the third value in a heap object. */
+    private static final int C = 3;
+
+    /** Offset of the name index in a heap object. */
+    private static final int NAME = 4;
+
+    /** Tag of a basic value: value. */
+    private static final int BASIC = 0;
+
+    /** Tag of a closure: cp, gp. */
+    private static final int CLOSURE = 1;
+
+    /** Tag of a list link: hd, tl. */
+    private static final int CONS = 2;
+
+    /** Tag of a function value: cf, fap, fgp. */
+    private static final int FUNVAL = 3;
+
+    /** Tag of an empty list. */
+    private static final int NIL = 4;
+
+    /** Tag of a vector: offset into {@link #vectors}, length. */
+    private static final int VECTOR = 5;
+
+    /** NIL pointer. */
+    private static final int NIL_POINTER = -1;
+
+    /** MaMachine. */
+    private final MaMa vm;
+
+    /** Bytecode. */
+    private final int[] code;
+
+    /** Name table. */
+    private final ArrayList<String> names;
+
+    /** Index of the name of argument vectors created by {@link MaMaBytecode#TARG}. */
+    private final int argsName;
+
+    /** Stack. */
+    private int[] stack;
+
+    /** True for the stack cells holding heap pointers. */
+    private boolean[] pointers;
+
+    /** Stack pointer. */
+    private int sp;
+
+    /** Global pointer. */
+    private int gp;
+
+    /** Heap objects. */
+    private int[] heap;
+
+    /** Number of heap objects. */
+    private int heapSize;
+
+    /** Elements of all vectors. */
+    private int[] vectors;
+
+    /** Number of cells used in {@link #vectors}. */
+    private int vectorsSize;
+
+    /** Address of the first object allocated since the last collection. */
+    private int nurseryStart;
+
+    /** First element in {@link #vectors} of the objects allocated since the last collection. */
+    private int nurseryVectors;
+
+    /** Addresses of tenured objects overwritten since the last collection, without duplicates. */
+    private int[] remembered;
+
+    /** Number of addresses in {@link #remembered}. */
+    private int rememberedSize;
+
+    /** True for the addresses in {@link #remembered}. */
+    private boolean[] rememberedFlags;
+
+    /**
+     * Create a new MaMaEngine.
+     * 
+     * @param vm MaMachine
+     * @param bytecode bytecode of the vm's current program
+     */
+    MaMaEngine(final MaMa vm, final MaMaBytecode bytecode) {
+        this.vm = vm;
+        this.code = bytecode.getCode();
+        this.names = bytecode.getNames();
+        this.argsName = names.size();
+        names.add("Args");
+    }
+
+    /**
+     * Allocate a heap object.
+     * 
+     * @param tag tag
+     * @param a first value
+     * @param b second value
+     * @param c third value
+     * @param name name index
+     * @return address of the new object
+     */
+    private int alloc(final int tag, final int a, final int b, final int c, final int name) {
+        final int at = heapSize * CELL;
+        if (at == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+            rememberedFlags = Arrays.copyOf(rememberedFlags, heap.length / CELL);
+        }
+        heap[at + TAG] = tag;
+        heap[at + A] = a;
+        heap[at + B] = b;
+        heap[at + C] = c;
+        heap[at + NAME] = name;
+        return heapSize++;
+    }
+
+    /**
+     * Allocate a vector.
+     * 
+     * @param values array containing the elements
+     * @param from index of the first element in values
+     * @param length number of elements
+     * @param name name index
+     * @return address of the new object
+     */
+    private int allocVector(final int[] values, final int from, final int length, final int name) {
+        if ((vectorsSize + length) > vectors.length) {
+            vectors = Arrays.copyOf(vectors, Math.max(vectors.length * 2, vectorsSize + length));
+        }
+        System.arraycopy(values, from, vectors, vectorsSize, length);
+        vectorsSize += length;
+        return alloc(VECTOR, vectorsSize - length, length, 0, name);
+    }
+
+    /**
+     * Collect garbage like {@link MaMa#collect()} and {@link MaMa#collectNursery()}: Copy the objects from the given address on that are reachable from the
+     * global pointer, the heap pointers on the stack and, for a nursery collection, the remembered objects. The copies are appended to the arrays, then moved
+     * down to the given address.
+     * 
+     * @param low lowest address to collect
+     * @param nursery true for a nursery collection
+     */
+    private void collect(final int low, final boolean nursery) {
+        final long start = System.nanoTime();
+        final int oldSize = heapSize;
+        final int oldVectorsSize = vectorsSize;
+        final int vectorsLow = low == 0 ? 0 : nurseryVectors;
+        final int[] forwards = new int[oldSize - low];
+        Arrays.fill(forwards, -1);
+
+        gp = forward(low, oldSize, forwards, gp);
+        for (int i = 0; i <= sp; ++i) {
+            if (pointers[i]) {
+                stack[i] = forward(low, oldSize, forwards, stack[i]);
+            }
+        }
+        if (low > 0) {
+            for (int i = 0; i < rememberedSize; ++i) {
+                relocate(remembered[i], low, oldSize, forwards, vectorsLow);
+            }
+        }
+        for (int scan = oldSize; scan < heapSize; ++scan) {
+            relocate(scan, low, oldSize, forwards, vectorsLow);
+        }
+
+        /* move the copies and their vector elements down, the vectors of remembered objects may have been copied as well. */
+        final int survivors = heapSize - oldSize;
+        final int shift = oldVectorsSize - vectorsLow;
+        System.arraycopy(heap, oldSize * CELL, heap, low * CELL, survivors * CELL);
+        System.arraycopy(vectors, oldVectorsSize, vectors, vectorsLow, vectorsSize - oldVectorsSize);
+        for (int address = low; address < (low + survivors); ++address) {
+            if (heap[(address * CELL) + TAG] == VECTOR) {
+                heap[(address * CELL) + A] -= shift;
+            }
+        }
+        for (int i = 0; i < rememberedSize; ++i) {
+            final int at = remembered[i] * CELL;
+            if ((low > 0) && (heap[at + TAG] == VECTOR) && (heap[at + A] >= oldVectorsSize)) {
+                heap[at + A] -= shift;
+            }
+            rememberedFlags[remembered[i]] = false;
+        }
+        rememberedSize = 0;
+
+        heapSize = low + survivors;
+        vectorsSize -= shift;
+        nurseryStart = heapSize;
+        nurseryVectors = vectorsSize;
+
+        final long pause = System.nanoTime() - start;
+        if (nursery) {
+            vm.getNurseryStatistics().record(survivors, oldSize - low - survivors, pause);
+        } else {
+            vm.recordCollection(survivors, oldSize - survivors, pause);
+        }
+    }
+
+    /**
+     * Copy the vm's memories into the arrays.
+     */
+    private void fetchMemories() {
+        final ArrayList<StackObject> stackContent = vm.getStack().getContent();
+        stack = new int[Math.max(64, stackContent.size() * 2)];
+        pointers = new boolean[stack.length];
+        for (int i = 0; i < stackContent.size(); ++i) {
+            stack[i] = stackContent.get(i).getIntValue();
+            pointers[i] = vm.getStack().getType(i) == Type.POINTER_HEAP;
+        }
+
+        final ArrayList<MemoryObject> heapContent = vm.getHeap().getContent();
+        heap = new int[Math.max(64, heapContent.size() * 2) * CELL];
+        heapSize = 0;
+        vectors = new int[64];
+        vectorsSize = 0;
+        nurseryStart = vm.getNurseryStart();
+        nurseryVectors = 0;
+        remembered = new int[64];
+        rememberedSize = 0;
+        rememberedFlags = new boolean[heap.length / CELL];
+        for (final MemoryObject object : heapContent) {
+            if (heapSize == nurseryStart) {
+                nurseryVectors = vectorsSize;
+            }
+            if (object instanceof NilPointerObject) {
+                alloc(NIL, 0, 0, 0, -1);
+            } else if (object instanceof StackObject) {
+                alloc(BASIC, ((StackObject) object).getIntValue(), 0, 0, -1);
+            } else if (object instanceof ClosureObject) {
+                final ClosureObject closure = (ClosureObject) object;
+                alloc(CLOSURE, closure.getCp(), closure.getGp(), 0, name(closure.getName()));
+            } else if (object instanceof ConsObject) {
+                final ConsObject cons = (ConsObject) object;
+                alloc(CONS, cons.getHd(), cons.getTl(), 0, -1);
+            } else if (object instanceof FunValObject) {
+                final FunValObject funval = (FunValObject) object;
+                alloc(FUNVAL, funval.getCf(), funval.getFap(), funval.getFgp(), name(funval.getName()));
+            } else if (object instanceof VectorObject) {
+                final VectorObject vector = (VectorObject) object;
+                final int[] values = new int[vector.getVector().size()];
+                for (int i = 0; i < values.length; ++i) {
+                    values[i] = vector.getVector().get(i);
+                }
+                allocVector(values, 0, values.length, name(vector.getName()));
+            } else {
+                throw new IllegalArgumentException("Unknown heap object: " + object);
+            }
+        }
+        if (heapSize <= nurseryStart) {
+            nurseryVectors = vectorsSize;
+        }
+        for (final MemoryObject object : vm.getRememberedSet().getContent()) {
+            remember(((StackObject) object).getIntValue());
+        }
+    }
+
+    /**
+     * Append a copy of a collected object, unless it is below the collected addresses or has already been copied.
+     * 
+     * @param low lowest collected address
+     * @param oldSize number of heap objects before the collection
+     * @param forwards new address of each collected object, -1 if not copied yet
+     * @param address old address, negative for NIL pointers
+     * @return the new address, after the copies have been moved down
+     */
+    private int forward(final int low, final int oldSize, final int[] forwards, final int address) {
+        if ((address < low) || (address >= oldSize)) {
+            return address;
+        }
+        if (forwards[address - low] < 0) {
+            final int at = address * CELL;
+            final int copy;
+            if (heap[at + TAG] == VECTOR) {
+                copy = allocVector(vectors, heap[at + A], heap[at + B], heap[at + NAME]);
+            } else {
+                copy = alloc(heap[at + TAG], heap[at + A], heap[at + B], heap[at + C], heap[at + NAME]);
+            }
+            forwards[address - low] = (low + copy) - oldSize;
+        }
+        return forwards[address - low];
+    }
+
+    /**
+     * Returns the heap object at the given address as {@link MemoryObject}.
+     * 
+     * @param address address
+     * @return the heap object
+     */
+    MemoryObject getObjectAt(final int address) {
+        final int at = address * CELL;
+        final String name = heap[at + NAME] < 0 ? null : names.get(heap[at + NAME]);
+        switch (heap[at + TAG]) {
+        case BASIC:
+            return new BasicValueObject(heap[at + A], null, null);
+        case CLOSURE:
+            return new ClosureObject(heap[at + A], heap[at + B], name);
+        case CONS:
+            return new ConsObject(heap[at + A], heap[at + B]);
+        case FUNVAL:
+            return new FunValObject(heap[at + A], heap[at + B], heap[at + C], name);
+        case NIL:
+            return new NilPointerObject("[]", "Empty list");
+        case VECTOR: {
+            final ArrayList<Integer> vector = new ArrayList<Integer>(heap[at + B]);
+            for (int i = 0; i < heap[at + B]; ++i) {
+                vector.add(vectors[heap[at + A] + i]);
+            }
+            return new VectorObject(vector, name);
+        }
+        default:
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Add a name to the name table.
+     * 
+     * @param name name
+     * @return index of the name
+     */
+    private int name(final String name) {
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    /**
+     * Place a value on top of the stack.
+     * 
+     * @param value value
+     * @param pointer true if the value is a heap pointer
+     */
+    private void push(final int value, final boolean pointer) {
+        if (++sp == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+            pointers = Arrays.copyOf(pointers, stack.length);
+        }
+        stack[sp] = value;
+        pointers[sp] = pointer;
+    }
+
+    /**
+     * Push the elements of a vector on the stack.
+     * 
+     * @param address address of the vector
+     */
+    private void pushVector(final int address) {
+        final int at = address * CELL;
+        for (int i = 0; i < heap[at + B]; ++i) {
+            push(vectors[heap[at + A] + i], true);
+        }
+    }
+
+    /**
+     * Relocate the pointers in a heap object.
+     * 
+     * @param address address of the object
+     * @param low lowest collected address
+     * @param oldSize number of heap objects before the collection
+     * @param forwards new address of each collected object, -1 if not copied yet
+     * @param vectorsLow first vector element of the collected objects
+     */
+    private void relocate(final int address, final int low, final int oldSize, final int[] forwards, final int vectorsLow) {
+        final int at = address * CELL;
+        switch (heap[at + TAG]) {
+        case CLOSURE: {
+            final int closureGp = forward(low, oldSize, forwards, heap[at + B]);
+            heap[at + B] = closureGp;
+            break;
+        }
+        case CONS: {
+            final int hd = forward(low, oldSize, forwards, heap[at + A]);
+            final int tl = forward(low, oldSize, forwards, heap[at + B]);
+            heap[at + A] = hd;
+            heap[at + B] = tl;
+            break;
+        }
+        case FUNVAL: {
+            final int fap = forward(low, oldSize, forwards, heap[at + B]);
+            final int fgp = forward(low, oldSize, forwards, heap[at + C]);
+            heap[at + B] = fap;
+            heap[at + C] = fgp;
+            break;
+        }
+        case VECTOR: {
+            if ((address < low) && (heap[at + A] >= vectorsLow)) {
+                /* a remembered vector sharing its elements with a collected one, e.g. after update. */
+                final int length = heap[at + B];
+                if ((vectorsSize + length) > vectors.length) {
+                    vectors = Arrays.copyOf(vectors, Math.max(vectors.length * 2, vectorsSize + length));
+                }
+                System.arraycopy(vectors, heap[at + A], vectors, vectorsSize, length);
+                heap[at + A] = vectorsSize;
+                vectorsSize += length;
+            }
+            for (int i = heap[at + A]; i < (heap[at + A] + heap[at + B]); ++i) {
+                final int element = forward(low, oldSize, forwards, vectors[i]);
+                vectors[i] = element;
+            }
+            break;
+        }
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Write barrier: Remember a heap object that is about to be overwritten if it is tenured, like {@link MaMa#writeBarrier(int)}.
+     * 
+     * @param address address of the overwritten object
+     */
+    private void remember(final int address) {
+        if ((address < nurseryStart) && !rememberedFlags[address]) {
+            if (rememberedSize == remembered.length) {
+                remembered = Arrays.copyOf(remembered, remembered.length * 2);
+            }
+            remembered[rememberedSize++] = address;
+            rememberedFlags[address] = true;
+        }
+    }
+
+    /**
+     * Execute bytecode until the vm stops or the given number of steps has been executed.
+     * 
+     * @param maxSteps maximum number of steps to execute
+     * @return the number of steps executed
+     * @throws ExecutionException on failure
+     */
+    long run(final long maxSteps) throws ExecutionException {
+        final int[] code = this.code;
+        final PrintWriter writer = vm.getWriter();
+        final int instructions = code.length / MaMaBytecode.WIDTH;
+
+        vm.getJournal().clear();
+        fetchMemories();
+        sp = vm.getStackPointer().getValue();
+        int fp = vm.getFramePointer().getValue();
+        gp = vm.getGlobalPointer().getValue();
+        int pc = vm.getProgramCounter().getValue();
+        boolean running = vm.isRunning();
+        final boolean collecting = vm.getGcThreshold() > 0;
+        final int nurserySize = vm.getNurserySize();
+        int collectionLimit = vm.getCollectionLimit();
+        long steps = 0;
+
+        try {
+            while ((steps < maxSteps) && running) {
+                ++steps;
+
+                if ((pc < 0) || (pc >= instructions)) {
+                    throw new ExecutionException(null, new ArrayIndexOutOfBoundsException(pc));
+                }
+
+                final int at = pc * MaMaBytecode.WIDTH;
+                final int a = code[at + 1];
+                final int b = code[at + 2];
+                ++pc;
+
+                try {
+                    switch (code[at]) {
+                    case MaMaBytecode.ADD:
+                        stack[sp - 1] = stack[sp - 1] + stack[sp];
+                        --sp;
+                        break;
+                    case MaMaBytecode.ALLOC:
+                        push(alloc(CLOSURE, NIL_POINTER, NIL_POINTER, 0, a), true);
+                        break;
+                    case MaMaBytecode.AND:
+                        stack[sp - 1] = ((stack[sp - 1] != 0) && (stack[sp] != 0)) ? 1 : 0;
+                        --sp;
+                        break;
+                    case MaMaBytecode.APPLY: {
+                        final int h = stack[sp--] * CELL;
+                        if (heap[h + TAG] != FUNVAL) {
+                            throw new ExecutionException(vm.getImage().get(at / MaMaBytecode.WIDTH), "not funval value");
+                        }
+                        pc = heap[h + A];
+                        gp = heap[h + C];
+                        if (heap[(heap[h + B] * CELL) + TAG] != VECTOR) {
+                            throw new ExecutionException(vm.getImage().get(at / MaMaBytecode.WIDTH), "not vector value");
+                        }
+                        pushVector(heap[h + B]);
+                        break;
+                    }
+                    case MaMaBytecode.CONS: {
+                        final int head = stack[sp--];
+                        final int body = stack[sp--];
+                        final int tag = heap[(body * CELL) + TAG];
+                        if ((tag != CONS) && (tag != CLOSURE) && (tag != NIL)) {
+                            throw new ExecutionException(vm.getImage().get(at / MaMaBytecode.WIDTH), "not list object");
+                        }
+                        push(alloc(CONS, head, body, 0, -1), true);
+                        break;
+                    }
+                    case MaMaBytecode.DIV:
+                        stack[sp - 1] = stack[sp - 1] / stack[sp];
+                        --sp;
+                        break;
+                    case MaMaBytecode.EQL:
+                        stack[sp - 1] = (stack[sp - 1] == stack[sp]) ? 1 : 0;
+                        --sp;
+                        break;
+                    case MaMaBytecode.EVAL: {
+                        final int h = stack[sp] * CELL;
+                        if (heap[h + TAG] == CLOSURE) {
+                            push(pc, false);
+                            push(fp, false);
+                            push(gp, true);
+                            gp = heap[h + B];
+                            pc = heap[h + A];
+                            fp = sp;
+                        }
+                        break;
+                    }
+                    case MaMaBytecode.GETBASIC: {
+                        final int h = stack[sp--] * CELL;
+                        if (heap[h + TAG] != BASIC) {
+                            throw new ExecutionException(vm.getImage().get(at / MaMaBytecode.WIDTH), "not basic value");
+                        }
+                        push(heap[h + A], false);
+                        break;
+                    }
+                    case MaMaBytecode.GT:
+                        stack[sp - 1] = (stack[sp - 1] > stack[sp]) ? 1 : 0;
+                        --sp;
+                        break;
+                    case MaMaBytecode.GTE:
+                        stack[sp - 1] = (stack[sp - 1] >= stack[sp]) ? 1 : 0;
+                        --sp;
+                        break;
+                    case MaMaBytecode.HALT: {
+                        final MemoryObject object = getObjectAt(stack[sp]);
+                        running = false;
+                        writer.print(object.getDisplayValue());
+                        writer.print(" [");
+                        writer.print(object.getDisplayType());
+                        writer.print("]");
+                        writer.println();
+                        break;
+                    }
+                    case MaMaBytecode.HD:
+                    case MaMaBytecode.TL: {
+                        final int h = stack[sp--] * CELL;
+                        if (heap[h + TAG] != CONS) {
+                            throw new ExecutionException(vm.getImage().get(at / MaMaBytecode.WIDTH), "not cons value");
+                        }
+                        push(heap[h + (code[at] == MaMaBytecode.HD ? A : B)], true);
+                        break;
+                    }
+                    case MaMaBytecode.ISNIL:
+                        stack[sp] = (heap[(stack[sp] * CELL) + TAG] == NIL) ? 1 : 0;
+                        pointers[sp] = false;
+                        break;
+                    case MaMaBytecode.JFALSE:
+                        if (stack[sp--] == 0) {
+                            pc = a;
+                        }
+                        break;
+                    case MaMaBytecode.LDB:
+                    case MaMaBytecode.LDL:
+                        push(a, false);
+                        break;
+                    case MaMaBytecode.LT:
+                        stack[sp - 1] = (stack[sp - 1] < stack[sp]) ? 1 : 0;
+                        --sp;
+                        break;
+                    case MaMaBytecode.LTE:
+                        stack[sp - 1] = (stack[sp - 1] <= stack[sp]) ? 1 : 0;
+                        --sp;
+                        break;
+                    case MaMaBytecode.MARK:
+                        push(a, false);
+                        push(fp, false);
+                        push(gp, true);
+                        fp = sp;
+                        break;
+                    case MaMaBytecode.MINUS:
+                        stack[sp] = -stack[sp];
+                        break;
+                    case MaMaBytecode.MKBASIC:
+                        stack[sp] = alloc(BASIC, stack[sp], 0, 0, -1);
+                        pointers[sp] = true;
+                        break;
+                    case MaMaBytecode.MKCLOS: {
+                        final int cp = stack[sp--];
+                        final int closureGp = stack[sp--];
+                        push(alloc(CLOSURE, cp, closureGp, 0, a), true);
+                        break;
+                    }
+                    case MaMaBytecode.MKFUNVAL: {
+                        final int cf = stack[sp--];
+                        final int fap = stack[sp--];
+                        final int fgp = stack[sp--];
+                        push(alloc(FUNVAL, cf, fap, fgp, a), true);
+                        break;
+                    }
+                    case MaMaBytecode.MKVEC:
+                        sp -= a;
+                        push(allocVector(stack, sp + 1, a, b), true);
+                        break;
+                    case MaMaBytecode.MUL:
+                        stack[sp - 1] = stack[sp - 1] * stack[sp];
+                        --sp;
+                        break;
+                    case MaMaBytecode.NEQ:
+                        stack[sp - 1] = (stack[sp - 1] != stack[sp]) ? 1 : 0;
+                        --sp;
+                        break;
+                    case MaMaBytecode.NIL:
+                        push(alloc(NIL, 0, 0, 0, -1), true);
+                        break;
+                    case MaMaBytecode.NOT:
+                        stack[sp] = (stack[sp] == 0) ? 1 : 0;
+                        break;
+                    case MaMaBytecode.OR:
+                        stack[sp - 1] = ((stack[sp - 1] != 0) || (stack[sp] != 0)) ? 1 : 0;
+                        --sp;
+                        break;
+                    case MaMaBytecode.PUSHGLOB: {
+                        final int g = gp * CELL;
+                        if (heap[g + TAG] != VECTOR) {
+                            throw new ExecutionException(vm.getImage().get(at / MaMaBytecode.WIDTH), "not vector value");
+                        }
+                        if ((a < 1) || (a > heap[g + B])) {
+                            throw new IndexOutOfBoundsException("Index: " + (a - 1) + ", Size: " + heap[g + B]);
+                        }
+                        push(vectors[(heap[g + A] + a) - 1], true);
+                        break;
+                    }
+                    case MaMaBytecode.PUSHLOC:
+                        push(stack[(sp + 1) - a], pointers[(sp + 1) - a]);
+                        break;
+                    case MaMaBytecode.RETURN:
+                        if (sp == (fp + 1 + a)) {
+                            pc = stack[fp - 2];
+                            gp = stack[fp];
+                            stack[fp - 2] = stack[sp];
+                            pointers[fp - 2] = pointers[sp];
+                            sp = fp - 2;
+                            fp = stack[fp - 1];
+                        } else {
+                            final int h = stack[sp] * CELL;
+                            if (heap[h + TAG] != FUNVAL) {
+                                throw new ClassCastException("not funval value");
+                            }
+                            pc = heap[h + A];
+                            gp = heap[h + C];
+                            sp = sp - a - 1;
+                            if (heap[(heap[h + B] * CELL) + TAG] != VECTOR) {
+                                throw new ClassCastException("not vector value");
+                            }
+                            pushVector(heap[h + B]);
+                        }
+                        break;
+                    case MaMaBytecode.REWRITE: {
+                        final int h = stack[sp--];
+                        if (nurserySize > 0) {
+                            remember(stack[sp - (a - 1)]);
+                        }
+                        System.arraycopy(heap, h * CELL, heap, stack[sp - (a - 1)] * CELL, CELL);
+                        break;
+                    }
+                    case MaMaBytecode.SLIDE:
+                        stack[sp - a] = stack[sp];
+                        pointers[sp - a] = pointers[sp];
+                        sp -= a;
+                        break;
+                    case MaMaBytecode.SUB:
+                        stack[sp - 1] = stack[sp - 1] - stack[sp];
+                        --sp;
+                        break;
+                    case MaMaBytecode.TARG:
+                        if ((sp - fp) < a) {
+                            final int h = stack[fp - 2];
+                            final int vector = allocVector(stack, fp + 1, sp - fp, argsName);
+                            stack[fp - 2] = alloc(FUNVAL, pc - 1, vector, gp, b);
+                            pointers[fp - 2] = true;
+                            gp = stack[fp];
+                            sp = fp - 2;
+                            fp = stack[fp - 1];
+                            pc = h;
+                        }
+                        break;
+                    case MaMaBytecode.UJMP:
+                        pc = a;
+                        break;
+                    case MaMaBytecode.UPDATE:
+                        if (nurserySize > 0) {
+                            remember(stack[sp - MaMa.FRAME_SIZE - 1]);
+                        }
+                        System.arraycopy(heap, stack[sp] * CELL, heap, stack[sp - MaMa.FRAME_SIZE - 1] * CELL, CELL);
+                        pc = stack[fp - 2];
+                        gp = stack[fp];
+                        sp = fp - MaMa.FRAME_SIZE;
+                        fp = stack[fp - 1];
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown opcode " + code[at]);
+                    }
+                } catch (final RuntimeException e) {
+                    throw new ExecutionException(vm.getImage().get(at / MaMaBytecode.WIDTH), e);
+                }
+
+                /* garbage is only collected between two instructions, like in MaMaInstruction. */
+                if ((nurserySize > 0) && ((heapSize - nurseryStart) >= nurserySize)) {
+                    collect(nurseryStart, true);
+                }
+                if (collecting && (heapSize >= collectionLimit)) {
+                    collect(0, false);
+                    collectionLimit = vm.getCollectionLimit();
+                }
+            }
+        } finally {
+            storeMemories();
+            vm.getStackPointer().setValue(sp);
+            vm.getFramePointer().setValue(fp);
+            vm.getGlobalPointer().setValue(gp);
+            vm.getProgramCounter().setValue(pc);
+            vm.getStepCounter().setValue((int) (vm.getStepCounter().getValue() + steps));
+            if (!running) {
+                vm.getStatus().setValue(JumpVM.STATUS_STOP);
+            }
+        }
+
+        return steps;
+    }
+
+    /**
+     * Copy the arrays back into the vm's memories.
+     */
+    private void storeMemories() {
+        final ArrayList<StackObject> stackContent = new ArrayList<StackObject>(sp + 1);
+        for (int i = 0; i <= sp; ++i) {
+            if (pointers[i]) {
+                stackContent.add(new PointerObject(stack[i], Type.POINTER_HEAP, null, null));
+            } else {
+                stackContent.add(new BasicValueObject(stack[i], null, null));
+            }
+        }
+        vm.getStack().reset(stackContent);
+        vm.getStack().clearFrames();
+
+        final ArrayList<MemoryObject> heapContent = new ArrayList<MemoryObject>(heapSize);
+        for (int i = 0; i < heapSize; ++i) {
+            heapContent.add(getObjectAt(i));
+        }
+        vm.getHeap().reset(heapContent);
+
+        final ArrayList<MemoryObject> rememberedContent = new ArrayList<MemoryObject>(rememberedSize);
+        for (int i = 0; i < rememberedSize; ++i) {
+            rememberedContent.add(new BasicValueObject(remembered[i], null, null));
+        }
+        vm.getRememberedSet().reset(rememberedContent);
+        vm.setNurseryStart(nurseryStart);
+    }
+}
@@ -18,17 +18,20 @@
 
 package jumpvm.vm;
 
-import jumpvm.memory.Heap;
+import jumpvm.code.pama.PaMaBytecode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.DescendingHeap;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
 import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StackTag;
 
 /**
  * PaMachine - an imperative language similar to Pascal.
  */
 public class PaMa extends JumpVM {
-    /** Stack size. */
-    public static final int STACKSIZE = 0x100;
+    /** Default store size. */
+    public static final int STORE_SIZE = 0x100;
 
     /** Offset of the return value in a frame. */
     public static final int OFFSET_RETVAL = 0;
@@ -51,8 +54,11 @@ public class PaMa extends JumpVM {
     /** Stack. */
     private final Stack stack;
 
-    /** Heap. */
-    private final Heap heap;
+    /** Display: base address of the innermost frame of each static depth. */
+    private final Stack display;
+
+    /** Heap, growing down from the top of the store. */
+    private final DescendingHeap heap;
 
     /** Stack pointer. */
     private final Register stackPointer;
@@ -66,22 +72,97 @@ public class PaMa extends JumpVM {
     /** Mark pointer. */
     private final Register markPointer;
 
-    /** Create a new PaMa VM. */
+    /** Display pointer = depth of the highest valid display entry. */
+    private final Register displayPointer;
+
+    /** Bytecode of the current program, assembled on first use. */
+    private PaMaBytecode bytecode;
+
+    /** Create a new PaMa VM with the default store size. */
     public PaMa() {
+        this(STORE_SIZE);
+    }
+
+    /**
+     * Create a new PaMa VM.
+     *
+     * @param storeSize number of cells shared by stack and heap, the heap starts at the top
+     */
+    public PaMa(final int storeSize) {
         this.stackPointer = new Register("SP", "Stack Pointer", -1);
-        this.newPointer = new Register("NP", "New Pointer", STACKSIZE);
+        this.newPointer = new Register("NP", "New Pointer", storeSize);
         this.extremePointer = new Register("EP", "Extreme stack Pointer", 0);
         this.markPointer = new Register("MP", "Mark Pointer", 0);
+        this.displayPointer = new Register("DP", "Display Pointer", -1);
 
         addDisplayRegister(stackPointer);
         addDisplayRegister(newPointer);
         addDisplayRegister(extremePointer);
         addDisplayRegister(markPointer);
+        addDisplayRegister(displayPointer);
 
         this.stack = new Stack(stackPointer);
-        this.heap = new Heap();
+        this.heap = new DescendingHeap("Heap", storeSize);
         addDisplayMemory(stack);
         addDisplayMemory(heap);
+        this.display = new Stack(displayPointer, "Display");
+        addDisplayMemory(display);
+        this.bytecode = null;
+    }
+
+    /**
+     * Copy a stack cell to another stack address, without creating its object.
+     *
+     * @param from source address
+     * @param to target address
+     */
+    public final void copy(final int from, final int to) {
+        stack.copy(from, to);
+    }
+
+    /**
+     * Sets a range of cells to the same object.
+     *
+     * @param address lowest address
+     * @param count number of cells
+     * @param object object, shared by all cells
+     */
+    public final void fillRange(final int address, final int count, final StackObject object) {
+        if (address > extremePointer.getValue()) {
+            heap.fillRange(address, count, object);
+        } else {
+            for (int i = 0; i < count; ++i) {
+                setElementAt(address + i, object);
+            }
+        }
+    }
+
+    /**
+     * Returns the display.
+     *
+     * @return the display
+     */
+    final Stack getDisplay() {
+        return display;
+    }
+
+    /**
+     * Returns the base address of the innermost frame of the given static depth, as recorded in the display.
+     *
+     * @param depth static depth
+     * @return the frame's base address
+     */
+    public final int getDisplayEntry(final int depth) {
+        return display.getInt(depth);
+    }
+
+    /**
+     * Returns the display pointer register.
+     *
+     * @return the display pointer register
+     */
+    public final Register getDisplayPointer() {
+        return displayPointer;
     }
 
     /**
@@ -94,7 +175,7 @@ public class PaMa extends JumpVM {
         if (address <= stackPointer.getValue()) {
             return stack.getElementAt(address);
         } else {
-            return (StackObject) heap.getElementAt(address);
+            return heap.getElementAt(address);
         }
     }
 
@@ -107,6 +188,29 @@ public class PaMa extends JumpVM {
         return extremePointer;
     }
 
+    /**
+     * Returns the heap.
+     *
+     * @return the heap
+     */
+    final DescendingHeap getHeap() {
+        return heap;
+    }
+
+    /**
+     * Returns the value at the given address, without creating a stack object.
+     *
+     * @param address address
+     * @return the value at the given address
+     */
+    public final int getInt(final int address) {
+        if (address <= stackPointer.getValue()) {
+            return stack.getInt(address);
+        } else {
+            return heap.getInt(address);
+        }
+    }
+
     /**
      * Returns the mark pointer register.
      *
@@ -116,6 +220,15 @@ public class PaMa extends JumpVM {
         return markPointer;
     }
 
+    /**
+     * Returns the number of cells shared by stack and heap.
+     *
+     * @return the store size
+     */
+    public final int getStoreSize() {
+        return heap.getTop();
+    }
+
     /**
      * Returns the new pointer register.
      *
@@ -125,6 +238,15 @@ public class PaMa extends JumpVM {
         return newPointer;
     }
 
+    /**
+     * Returns the stack.
+     *
+     * @return the stack
+     */
+    final Stack getStack() {
+        return stack;
+    }
+
     /**
      * Returns the stack pointer register.
      *
@@ -143,6 +265,15 @@ public class PaMa extends JumpVM {
         return stack.peek();
     }
 
+    /**
+     * Returns the value on top of the stack without removing it or creating its object.
+     *
+     * @return the value on top of the stack
+     */
+    public final int peekInt() {
+        return stack.peekInt();
+    }
+
     /**
      * Returns the element on top of the stack and removes it from there.
      *
@@ -152,6 +283,15 @@ public class PaMa extends JumpVM {
         return stack.pop();
     }
 
+    /**
+     * Returns the value on top of the stack and removes it from there, without creating its object.
+     *
+     * @return the value on top of the stack
+     */
+    public final int popInt() {
+        return stack.popInt();
+    }
+
     /**
      * Place object on top of the stack. Updates stack pointer register accordingly.
      *
@@ -161,6 +301,102 @@ public class PaMa extends JumpVM {
         stack.push(object);
     }
 
+    /**
+     * Place value on top of the stack. Updates stack pointer register accordingly.
+     *
+     * @param value value
+     * @param tag tag describing the value
+     */
+    public final void push(final int value, final StackTag tag) {
+        stack.push(value, tag);
+    }
+
+    /**
+     * Place value on top of the stack. Updates stack pointer register accordingly.
+     *
+     * @param value value
+     * @param tag tag describing the value
+     * @param first first tag argument
+     * @param second second tag argument
+     */
+    public final void push(final int value, final StackTag tag, final int first, final int second) {
+        stack.push(value, tag, first, second);
+    }
+
+    /**
+     * Place a copy of the element at the given address on top of the stack. Updates stack pointer register accordingly.
+     *
+     * @param address address
+     */
+    public final void pushCopy(final int address) {
+        if (address <= stackPointer.getValue()) {
+            stack.pushCopy(address);
+        } else {
+            stack.push(heap.getElementAt(address));
+        }
+    }
+
+    /**
+     * Place copies of a range of cells on top of the stack. Updates stack pointer register accordingly.
+     *
+     * @param address address of the first cell
+     * @param count number of cells
+     */
+    public final void pushRange(final int address, final int count) {
+        if (((address + count) - 1) <= stackPointer.getValue()) {
+            stack.pushRange(address, count);
+        } else if (address > stackPointer.getValue()) {
+            heap.pushRange(address, count, stack);
+        } else {
+            for (int i = 0; i < count; ++i) {
+                pushCopy(address + i);
+            }
+        }
+    }
+
+    @Override
+    public final long runBytecode(final long maxSteps) throws ExecutionException {
+        if ((bytecode == null) || (bytecode.getImage() != getImage())) {
+            bytecode = new PaMaBytecode(getImage());
+        }
+        return new PaMaEngine(this, bytecode).run(maxSteps);
+    }
+
+    /**
+     * Sets the value at the given address.
+     *
+     * @param address address
+     * @param value value
+     * @param tag tag describing the value
+     */
+    public final void set(final int address, final int value, final StackTag tag) {
+        if (address <= extremePointer.getValue()) {
+            stack.set(address, value, tag);
+        } else {
+            heap.set(address, value, tag);
+        }
+    }
+
+    /**
+     * Sets the display entry of the given static depth.
+     *
+     * @param depth static depth
+     * @param frame the frame's base address
+     * @param tag tag describing the frame
+     */
+    public final void setDisplayEntry(final int depth, final int frame, final StackTag tag) {
+        display.set(depth, frame, tag);
+    }
+
+    /**
+     * Sets the display pointer and discards all display entries above it.
+     *
+     * @param value new display pointer
+     */
+    public final void setDisplayPointer(final int value) {
+        display.setStackPointer(value);
+    }
+
     /**
      * Sets element at the given address.
      *
@@ -175,6 +411,15 @@ public class PaMa extends JumpVM {
         }
     }
 
+    /**
+     * Sets the stack pointer and discards all stack cells above it.
+     *
+     * @param value new stack pointer
+     */
+    public final void setStackPointer(final int value) {
+        stack.setStackPointer(value);
+    }
+
     /** Mark the beginning of a new frame. */
     public final void startFrame() {
         stack.startFrame(FRAME_SIZE);
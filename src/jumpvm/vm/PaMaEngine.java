@@ -0,0 +1,584 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.vm;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import jumpvm.code.pama.PaMaBytecode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.DescendingHeap;
+import jumpvm.memory.Stack;
+import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.StackObject;
+
+/**
+ * Switch interpreter for {@link PaMaBytecode}.
+ *
+ * The vm's registers and memories are copied into a single primitive array before and back after running, only the descriptions of the values and the frame
+ * boundaries get lost. The stack grows up from the bottom of the array and the heap grows down from its end. Whenever they meet, the array doubles and the
+ * heap moves to the new end, addresses stay the same. As in {@link PaMa}, writes up to EP go to the stack and everything else goes to the heap. Reading a cell
+ * that was never written yields 0 instead of failing.
+ */
+final class PaMaEngine {
+    /** Value of a nil pointer. */
+    private static final int NIL = -1;
+
+    /** Minimum capacity of the store. */
+    private static final int CAPACITY = 64;
+
+    /** PaMachine. */
+    private final PaMa vm;
+
+    /** Bytecode. */
+    private final int[] code;
+
+    /** Store: stack cells indexed by address from the bottom, heap cells at the end. */
+    private int[] store;
+
+    /** Size of the store = first address above the heap. */
+    private int top;
+
+    /** Lowest heap address written. */
+    private int low;
+
+    /** Offset of the heap cells: heap address a is kept in store[a + offset]. */
+    private int offset;
+
+    /** Display: base address of the innermost frame of each static depth. */
+    private int[] display;
+
+    /** Display pointer. */
+    private int dp;
+
+    /** Stack pointer. */
+    private int sp;
+
+    /** Extreme pointer. */
+    private int ep;
+
+    /**
+     * Create a new PaMaEngine.
+     *
+     * @param vm PaMachine
+     * @param bytecode bytecode of the vm's current program
+     */
+    PaMaEngine(final PaMa vm, final PaMaBytecode bytecode) {
+        this.vm = vm;
+        this.code = bytecode.getCode();
+    }
+
+    /**
+     * Calculate the address of an object, given it's stacking depth and relative address.
+     *
+     * @param p stacking depth
+     * @param a relative address
+     * @return absolute address of the object
+     */
+    private int base(final int p, final int a) {
+        int address = a;
+        for (int i = 0; i < p; ++i) {
+            address = load(address + 1);
+        }
+        return address;
+    }
+
+    /**
+     * Make room in the store for stack cells up to and heap cells down to the given address. Doubles the store until both fit.
+     *
+     * @param stackTop highest stack address to keep
+     * @param heapLow lowest heap address to keep
+     */
+    private void ensureCapacity(final int stackTop, final int heapLow) {
+        int length = store.length;
+        while ((heapLow + offset + (length - store.length)) <= stackTop) {
+            length *= 2;
+        }
+        if (length == store.length) {
+            return;
+        }
+
+        final int[] cells = new int[length];
+        final int newOffset = offset + (length - store.length);
+        System.arraycopy(store, 0, cells, 0, low + offset);
+        System.arraycopy(store, low + offset, cells, low + newOffset, top - low);
+        store = cells;
+        offset = newOffset;
+    }
+
+    /**
+     * Copy the vm's memories into the store.
+     */
+    private void fetchMemories() {
+        final ArrayList<StackObject> stackContent = vm.getStack().getContent();
+        final DescendingHeap heap = vm.getHeap();
+        top = heap.getTop();
+        low = heap.getLow();
+
+        store = new int[Math.max(CAPACITY, (stackContent.size() + (top - low)) * 2)];
+        offset = store.length - top;
+        for (int i = 0; i < stackContent.size(); ++i) {
+            final StackObject object = stackContent.get(i);
+            store[i] = object == null ? 0 : object.getIntValue();
+        }
+        for (int address = low; address < top; ++address) {
+            final StackObject object = heap.getElementAt(address);
+            store[address + offset] = object == null ? 0 : object.getIntValue();
+        }
+
+        final ArrayList<StackObject> displayContent = vm.getDisplay().getContent();
+        display = new int[Math.max(CAPACITY, displayContent.size() * 2)];
+        for (int i = 0; i < displayContent.size(); ++i) {
+            display[i] = displayContent.get(i).getIntValue();
+        }
+    }
+
+    /**
+     * Read a cell.
+     *
+     * @param address address
+     * @return value
+     */
+    private int load(final int address) {
+        if (address < low) {
+            return store[address];
+        }
+        return store[address + offset];
+    }
+
+    /**
+     * Place a value on top of the stack.
+     *
+     * @param value value
+     */
+    private void push(final int value) {
+        if (++sp >= (low + offset)) {
+            ensureCapacity(sp, low);
+        }
+        store[sp] = value;
+    }
+
+    /**
+     * Place copies of a range of cells on top of the stack.
+     *
+     * @param address address of the first cell
+     * @param count number of cells
+     */
+    private void pushRange(final int address, final int count) {
+        final int last = (address + count) - 1;
+        final boolean onStack = (address >= 0) && (last <= sp) && (last < low);
+        final boolean onHeap = (address >= low) && (last < top);
+        if ((count <= 0) || !(onStack || onHeap)) {
+            /* empty or crossing the stack pointer or the bottom of the heap */
+            for (int i = 0; i < count; ++i) {
+                push(load(address + i));
+            }
+            return;
+        }
+
+        if ((sp + count) >= (low + offset)) {
+            ensureCapacity(sp + count, low);
+        }
+        System.arraycopy(store, onStack ? address : address + offset, store, sp + 1, count);
+        sp += count;
+    }
+
+    /**
+     * Execute bytecode until the vm stops or the given number of steps has been executed.
+     *
+     * @param maxSteps maximum number of steps to execute
+     * @return the number of steps executed
+     * @throws ExecutionException on failure
+     */
+    long run(final long maxSteps) throws ExecutionException {
+        final int[] code = this.code;
+        final PrintWriter writer = vm.getWriter();
+        final int instructions = code.length / PaMaBytecode.WIDTH;
+
+        vm.getJournal().clear();
+        fetchMemories();
+        sp = vm.getStackPointer().getValue();
+        ep = vm.getExtremePointer().getValue();
+        dp = vm.getDisplayPointer().getValue();
+        int np = vm.getNewPointer().getValue();
+        int mp = vm.getMarkPointer().getValue();
+        int pc = vm.getProgramCounter().getValue();
+        boolean running = vm.isRunning();
+        long steps = 0;
+
+        try {
+            while ((steps < maxSteps) && running) {
+                ++steps;
+
+                if ((pc < 0) || (pc >= instructions)) {
+                    throw new ExecutionException(null, new ArrayIndexOutOfBoundsException(pc));
+                }
+
+                final int at = pc * PaMaBytecode.WIDTH;
+                final int a = code[at + 1];
+                final int b = code[at + 2];
+                ++pc;
+
+                try {
+                    switch (code[at]) {
+                    case PaMaBytecode.ADD:
+                        store[sp - 1] = store[sp - 1] + store[sp];
+                        --sp;
+                        break;
+                    case PaMaBytecode.AND:
+                        store[sp - 1] = ((store[sp - 1] != 0) && (store[sp] != 0)) ? 1 : 0;
+                        --sp;
+                        break;
+                    case PaMaBytecode.CHD: {
+                        final int value = store[sp];
+                        final int address = load(sp - 3);
+                        if ((value < load(address + a + a + 1)) || (value > load(address + a + a + 2))) {
+                            throw new ExecutionException(vm.getImage().get(at / PaMaBytecode.WIDTH), "Index out of range");
+                        }
+                        break;
+                    }
+                    case PaMaBytecode.CHK:
+                        if ((store[sp] < a) || (store[sp] > b)) {
+                            throw new ExecutionException(vm.getImage().get(at / PaMaBytecode.WIDTH), "Index out of range");
+                        }
+                        break;
+                    case PaMaBytecode.CUP:
+                        mp = sp - ((a + PaMa.FRAME_SIZE) - 1);
+                        store(mp + PaMa.OFFSET_RSA, pc);
+                        pc = b;
+                        break;
+                    case PaMaBytecode.CUPI:
+                        store(mp + PaMa.OFFSET_RSA, pc);
+                        pc = load(base(a, load(mp + 2)) + b);
+                        break;
+                    case PaMaBytecode.CUPID:
+                        store(mp + PaMa.OFFSET_RSA, pc);
+                        pc = load(display[a] + b);
+                        break;
+                    case PaMaBytecode.DIV:
+                        store[sp - 1] = store[sp - 1] / store[sp];
+                        --sp;
+                        break;
+                    case PaMaBytecode.DPL:
+                        push(store[sp]);
+                        break;
+                    case PaMaBytecode.DSP: {
+                        if (a >= display.length) {
+                            display = Arrays.copyOf(display, Math.max(a + 1, display.length * 2));
+                        }
+                        int frame = mp;
+                        for (int k = a; (k >= 0) && ((k > dp) || (display[k] != frame)); --k) {
+                            display[k] = frame;
+                            if (k > 0) {
+                                frame = load(frame + PaMa.OFFSET_SPD);
+                            }
+                        }
+                        dp = a;
+                        break;
+                    }
+                    case PaMaBytecode.EQU:
+                        store[sp - 1] = (store[sp - 1] == store[sp]) ? 1 : 0;
+                        --sp;
+                        break;
+                    case PaMaBytecode.FJP:
+                        if (store[sp--] == 0) {
+                            pc = a;
+                        }
+                        break;
+                    case PaMaBytecode.GEQ:
+                        store[sp - 1] = (store[sp - 1] >= store[sp]) ? 1 : 0;
+                        --sp;
+                        break;
+                    case PaMaBytecode.GRT:
+                        store[sp - 1] = (store[sp - 1] > store[sp]) ? 1 : 0;
+                        --sp;
+                        break;
+                    case PaMaBytecode.HIGH: {
+                        final int dimension = store[sp--];
+                        final int descriptor = store[sp--];
+                        push(load(descriptor + dimension + dimension + 2));
+                        break;
+                    }
+                    case PaMaBytecode.INC:
+                        store[sp] += a;
+                        break;
+                    case PaMaBytecode.IND: {
+                        final int address = store[sp--];
+                        push(load(address));
+                        break;
+                    }
+                    case PaMaBytecode.IXA: {
+                        final int d = store[sp--];
+                        store[sp] += d * a;
+                        break;
+                    }
+                    case PaMaBytecode.IXJ:
+                        pc = (store[sp--] + a) - 1;
+                        break;
+                    case PaMaBytecode.LDA:
+                        push(base(a, mp) + b);
+                        break;
+                    case PaMaBytecode.LDAD:
+                        push(display[a] + b);
+                        break;
+                    case PaMaBytecode.LDC:
+                        push(a);
+                        break;
+                    case PaMaBytecode.LDD:
+                        push(load(load(sp - 2) + a));
+                        break;
+                    case PaMaBytecode.LEQ:
+                        store[sp - 1] = (store[sp - 1] <= store[sp]) ? 1 : 0;
+                        --sp;
+                        break;
+                    case PaMaBytecode.LES:
+                        store[sp - 1] = (store[sp - 1] < store[sp]) ? 1 : 0;
+                        --sp;
+                        break;
+                    case PaMaBytecode.LOD:
+                        push(load(base(a, mp) + b));
+                        break;
+                    case PaMaBytecode.LODD:
+                        push(load(display[a] + b));
+                        break;
+                    case PaMaBytecode.LOW: {
+                        final int dimension = store[sp--];
+                        final int descriptor = store[sp--];
+                        push(load(descriptor + dimension + dimension + 1));
+                        break;
+                    }
+                    case PaMaBytecode.MOVD: {
+                        final int address = load(mp + a);
+                        final int size = load(mp + a + 1);
+                        final int subtractor = load(mp + a + 2);
+                        final int oldSp = sp;
+                        pushRange(address + subtractor, size);
+                        store(mp + a, (oldSp + 1) - subtractor);
+                        break;
+                    }
+                    case PaMaBytecode.MOVS: {
+                        final int address = store[sp--];
+                        pushRange(address, a);
+                        break;
+                    }
+                    case PaMaBytecode.MST: {
+                        final int spd = base(a, mp);
+                        push(0);
+                        push(spd);
+                        push(mp);
+                        push(ep);
+                        push(0);
+                        break;
+                    }
+                    case PaMaBytecode.MSTD: {
+                        final int spd = display[a];
+                        push(0);
+                        push(spd);
+                        push(mp);
+                        push(ep);
+                        push(0);
+                        break;
+                    }
+                    case PaMaBytecode.MSTF: {
+                        push(0);
+                        push(load(base(a, mp) + b + 1));
+                        push(mp);
+                        push(ep);
+                        push(0);
+                        break;
+                    }
+                    case PaMaBytecode.MSTFD: {
+                        push(0);
+                        push(load(display[a] + b + 1));
+                        push(mp);
+                        push(ep);
+                        push(0);
+                        break;
+                    }
+                    case PaMaBytecode.MUL:
+                        store[sp - 1] = store[sp - 1] * store[sp];
+                        --sp;
+                        break;
+                    case PaMaBytecode.NEG:
+                        store[sp] = -store[sp];
+                        break;
+                    case PaMaBytecode.NEQ:
+                        store[sp - 1] = (store[sp - 1] != store[sp]) ? 1 : 0;
+                        --sp;
+                        break;
+                    case PaMaBytecode.NEW: {
+                        final int size = store[sp--];
+                        final int address = store[sp--];
+                        if ((np - size) <= ep) {
+                            throw new ExecutionException(vm.getImage().get(at / PaMaBytecode.WIDTH), "Store overflow");
+                        }
+                        np -= size;
+                        store(address, np);
+                        if (size > 0) {
+                            store(np, NIL);
+                            Arrays.fill(store, np + offset, np + size + offset, NIL);
+                        }
+                        break;
+                    }
+                    case PaMaBytecode.NOT:
+                        store[sp] = (store[sp] == 0) ? 1 : 0;
+                        break;
+                    case PaMaBytecode.OR:
+                        store[sp - 1] = ((store[sp - 1] != 0) || (store[sp] != 0)) ? 1 : 0;
+                        --sp;
+                        break;
+                    case PaMaBytecode.POP:
+                        store[sp--] = 0;
+                        break;
+                    case PaMaBytecode.READLN:
+                        while (true) {
+                            try {
+                                push(Integer.parseInt(vm.getInput()));
+                                break;
+                            } catch (final NumberFormatException e) {
+                                continue;
+                            }
+                        }
+                        break;
+                    case PaMaBytecode.RETF:
+                    case PaMaBytecode.RETP: {
+                        final int oldMp = mp;
+                        pc = load(oldMp + PaMa.OFFSET_RSA);
+                        ep = load(oldMp + PaMa.OFFSET_EP);
+                        if (ep >= np) {
+                            throw new ExecutionException(vm.getImage().get(at / PaMaBytecode.WIDTH), code[at] == PaMaBytecode.RETF ? "Store overflow" : "Store Overflow");
+                        }
+                        mp = load(oldMp + 2);
+                        sp = code[at] == PaMaBytecode.RETF ? oldMp : oldMp - 1;
+                        break;
+                    }
+                    case PaMaBytecode.SEP:
+                        ep = sp + a;
+                        if (ep >= np) {
+                            throw new ExecutionException(vm.getImage().get(at / PaMaBytecode.WIDTH), "Store overflow");
+                        }
+                        break;
+                    case PaMaBytecode.SLI:
+                        store[sp - 1] = store[sp];
+                        --sp;
+                        break;
+                    case PaMaBytecode.SMP:
+                        mp = sp - a - (PaMa.FRAME_SIZE - 1);
+                        break;
+                    case PaMaBytecode.SOF:
+                        store(a + load(sp), b);
+                        break;
+                    case PaMaBytecode.SSP: {
+                        final int s = (mp + a) - 1;
+                        while (sp < s) {
+                            push(0);
+                        }
+                        sp = s;
+                        break;
+                    }
+                    case PaMaBytecode.STO: {
+                        final int value = store[sp--];
+                        final int address = store[sp--];
+                        store(address, value);
+                        break;
+                    }
+                    case PaMaBytecode.STP:
+                        running = false;
+                        break;
+                    case PaMaBytecode.SUB:
+                        store[sp - 1] = store[sp - 1] - store[sp];
+                        --sp;
+                        break;
+                    case PaMaBytecode.UJP:
+                        pc = a;
+                        break;
+                    case PaMaBytecode.WRITELN:
+                        writer.println(store[sp--]);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown opcode " + code[at]);
+                    }
+                } catch (final RuntimeException e) {
+                    throw new ExecutionException(vm.getImage().get(at / PaMaBytecode.WIDTH), e);
+                }
+            }
+        } finally {
+            storeMemories();
+            vm.getStackPointer().setValue(sp);
+            vm.getExtremePointer().setValue(ep);
+            vm.getNewPointer().setValue(np);
+            vm.getMarkPointer().setValue(mp);
+            vm.getProgramCounter().setValue(pc);
+            vm.getStepCounter().setValue((int) (vm.getStepCounter().getValue() + steps));
+            if (!running) {
+                vm.getStatus().setValue(JumpVM.STATUS_STOP);
+            }
+        }
+
+        return steps;
+    }
+
+    /**
+     * Write a cell.
+     *
+     * @param address address
+     * @param value value
+     */
+    private void store(final int address, final int value) {
+        if ((address <= ep) && (address < low)) {
+            if (address >= (low + offset)) {
+                ensureCapacity(address, low);
+            }
+            store[address] = value;
+        } else {
+            if (address < low) {
+                if (address < 0) {
+                    throw new ArrayIndexOutOfBoundsException(address);
+                }
+                ensureCapacity(Math.max(sp, ep), address);
+                Arrays.fill(store, address + offset, low + offset, 0);
+                low = address;
+            }
+            store[address + offset] = value;
+        }
+    }
+
+    /**
+     * Copy the store back into the vm's memories.
+     */
+    private void storeMemories() {
+        final Stack vmStack = vm.getStack();
+        final ArrayList<StackObject> stackContent = new ArrayList<StackObject>(sp + 1);
+        for (int i = 0; i <= sp; ++i) {
+            stackContent.add(new BasicValueObject(store[i], null, null));
+        }
+        vmStack.reset(stackContent);
+        vmStack.clearFrames();
+
+        vm.getHeap().reset(low, store, offset);
+
+        final ArrayList<StackObject> displayContent = new ArrayList<StackObject>(dp + 1);
+        for (int i = 0; i <= dp; ++i) {
+            displayContent.add(new BasicValueObject(display[i], null, null));
+        }
+        vm.getDisplay().reset(displayContent);
+        vm.getDisplayPointer().setValue(dp);
+    }
+}
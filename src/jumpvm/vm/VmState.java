@@ -23,33 +23,60 @@ import java.util.HashMap;
 
 import jumpvm.memory.Memory;
 import jumpvm.memory.Register;
+import jumpvm.memory.Stack;
 import jumpvm.memory.objects.MemoryObject;
 
 /**
  * Snapshot of the state of a {@link JumpVM}.
  */
 public class VmState {
+    /** JumpVM. */
+    private final JumpVM vm;
+
     /** Registers. */
     private final HashMap<Register, Integer> registerSet;
 
     /** Memories. */
     private final HashMap<Memory<?>, ArrayList<?>> memorySet;
 
+    /** Stack frames. */
+    private final HashMap<Stack, int[]> frameSet;
+
+    /** Position in the input log. */
+    private final int inputPosition;
+
     /**
      * Create a new VmState.
      * 
      * @param vm JumpVM
      */
     public VmState(final JumpVM vm) {
+        this.vm = vm;
+
         registerSet = new HashMap<Register, Integer>();
         for (final Register register : vm.getDisplayRegisters()) {
             registerSet.put(register, register.getValue());
         }
+        for (final Register register : vm.getInternalRegisters()) {
+            registerSet.put(register, register.getValue());
+        }
 
         memorySet = new HashMap<Memory<?>, ArrayList<?>>();
+        frameSet = new HashMap<Stack, int[]>();
         for (final Memory<?> memory : vm.getDisplayMemories()) {
-            memorySet.put(memory, memory.getContent());
+            memorySet.put(memory, memory.getSnapshot());
+
+            if (memory instanceof Stack) {
+                final Stack stack = (Stack) memory;
+                registerSet.put(stack.getStackPointer(), stack.getStackPointer().getValue());
+                frameSet.put(stack, stack.getFrames());
+            }
+        }
+        for (final Memory<?> memory : vm.getInternalMemories()) {
+            memorySet.put(memory, memory.getSnapshot());
         }
+
+        inputPosition = vm.getInputPosition().getValue();
     }
 
     /**
@@ -64,5 +91,11 @@ public class VmState {
         for (final Memory<?> memory : memorySet.keySet()) {
             memory.reset((ArrayList<? extends MemoryObject>) memorySet.get(memory));
         }
+
+        for (final Stack stack : frameSet.keySet()) {
+            stack.setFrames(frameSet.get(stack));
+        }
+
+        vm.getInputPosition().setValue(inputPosition);
     }
 }
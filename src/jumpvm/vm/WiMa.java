@@ -20,6 +20,8 @@ package jumpvm.vm;
 
 import java.util.HashMap;
 
+import jumpvm.code.wima.WiMaBytecode;
+import jumpvm.exception.ExecutionException;
 import jumpvm.memory.Heap;
 import jumpvm.memory.Register;
 import jumpvm.memory.Stack;
@@ -80,6 +82,9 @@ public class WiMa extends JumpVM {
     /** Trail memory. */
     private final Heap trail;
 
+    /** Bytecode of the current program, assembled on first use. */
+    private WiMaBytecode bytecode;
+
     /**
      * Create a new WiMa.
      */
@@ -108,6 +113,7 @@ public class WiMa extends JumpVM {
         addDisplayMemory(stack);
         addDisplayMemory(heap);
         addDisplayMemory(trail);
+        this.bytecode = null;
     }
 
     /**
@@ -190,4 +196,12 @@ public class WiMa extends JumpVM {
     public final Register getTrailPointer() {
         return trailPointer;
     }
+
+    @Override
+    public final long runBytecode(final long maxSteps) throws ExecutionException {
+        if ((bytecode == null) || (bytecode.getImage() != getImage())) {
+            bytecode = new WiMaBytecode(getImage());
+        }
+        return new WiMaEngine(this, bytecode).run(maxSteps);
+    }
 }
@@ -0,0 +1,876 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package jumpvm.vm;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import jumpvm.code.wima.WiMaBytecode;
+import jumpvm.exception.ExecutionException;
+import jumpvm.memory.objects.AtomObject;
+import jumpvm.memory.objects.BasicValueObject;
+import jumpvm.memory.objects.MemoryObject;
+import jumpvm.memory.objects.NilPointerObject;
+import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StackObject;
+import jumpvm.memory.objects.StructureObject;
+import jumpvm.memory.objects.SymbolTable;
+
+/**
+ * Switch interpreter for {@link WiMaBytecode}.
+ * 
+ * Stack, heap and trail are {@code int[]}s. Each cell holds a tagged word: the value shifted left by {@link #TAG_BITS}, or-ed with one of the tags. A structure
+ * is a {@link #FUNCTOR} cell followed by its arguments, pointers to it are {@link #REF} words like any other heap pointer. Unification uses an explicit work
+ * list instead of recursion. The semantics are the same as the {@link jumpvm.code.wima.WiMaInstruction}s', including failing without aborting the current
+ * instruction. The vm's registers and memories are copied in before and back after running, only the descriptions of the cells and the frame boundaries get
+ * lost.
+ */
+final class WiMaEngine {
+    /** Number of bits used for the tag of a word. */
+    private static final int TAG_BITS = 3;
+
+    /** Mask for the tag of a word. */
+    private static final int TAG_MASK = (1 << TAG_BITS) - 1;
+
+    /** Tag of a heap pointer, free variables point to themselves. */
+    private static final int REF = 0;
+
+    /** Tag of an atom, the value is the atom's id in the {@link SymbolTable}. */
+    private static final int ATOM = 1;
+
+    /** Tag of a structure header, the value is the functor's id in the {@link SymbolTable}. */
+    private static final int FUNCTOR = 2;
+
+    /** Tag of a nil pointer. */
+    private static final int NIL = 3;
+
+    /** Tag of a basic value. */
+    private static final int INT = 4;
+
+    /** Tag of a code address. */
+    private static final int CODE = 5;
+
+    /** WiMachine. */
+    private final WiMa vm;
+
+    /** Bytecode. */
+    private final int[] code;
+
+    /** Switch tables, hashed with open addressing: key and code address of each slot, key -1 for free slots. */
+    private final int[][] tables;
+
+    /** Output writer. */
+    private PrintWriter writer;
+
+    /** Stack. */
+    private int[] stack;
+
+    /** Heap. */
+    private int[] heap;
+
+    /** Number of heap cells, the value of the heap pointer. */
+    private int heapSize;
+
+    /** Trail. */
+    private int[] trail;
+
+    /** Number of trail cells. */
+    private int trailSize;
+
+    /** Work list for {@link #unify(int, int)}. */
+    private int[] work;
+
+    /** Program counter. */
+    private int pc;
+
+    /** Stack pointer. */
+    private int sp;
+
+    /** Frame pointer. */
+    private int fp;
+
+    /** Back track pointer. */
+    private int btp;
+
+    /** Trail pointer. */
+    private int tp;
+
+    /** Modus. */
+    private int modus;
+
+    /** False once the vm has stopped. */
+    private boolean running;
+
+    /** Index of the instruction being executed. */
+    private int current;
+
+    /**
+     * Create a new WiMaEngine.
+     * 
+     * @param vm WiMachine
+     * @param bytecode bytecode of the vm's current program
+     */
+    WiMaEngine(final WiMa vm, final WiMaBytecode bytecode) {
+        this.vm = vm;
+        this.code = bytecode.getCode();
+        this.tables = new int[bytecode.getTableCount()][];
+        for (int i = 0; i < tables.length; ++i) {
+            tables[i] = hashTable(bytecode.getTable(i));
+        }
+        this.work = new int[64];
+    }
+
+    /**
+     * Returns the tag of a word.
+     * 
+     * @param word word
+     * @return the tag
+     */
+    private static int tag(final int word) {
+        return word & TAG_MASK;
+    }
+
+    /**
+     * Returns the value of a word.
+     * 
+     * @param word word
+     * @return the value
+     */
+    private static int value(final int word) {
+        return word >> TAG_BITS;
+    }
+
+    /**
+     * Create a word.
+     * 
+     * @param tag tag
+     * @param value value
+     * @return the word
+     */
+    private static int word(final int tag, final int value) {
+        return (value << TAG_BITS) | tag;
+    }
+
+    /**
+     * Append a cell to the heap.
+     * 
+     * @param word content of the new cell
+     * @return address of the new cell
+     */
+    private int alloc(final int word) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        heap[heapSize] = word;
+        return heapSize++;
+    }
+
+    /**
+     * Allocate a structure with unset arguments.
+     * 
+     * @param functor index of the functor
+     * @param arity arity
+     * @return address of the structure
+     */
+    private int allocStructure(final int functor, final int arity) {
+        final int address = alloc(word(FUNCTOR, functor));
+        for (int i = 0; i < arity; ++i) {
+            alloc(word(NIL, -1));
+        }
+        return address;
+    }
+
+    /**
+     * Reset to next alternative.
+     */
+    private void backtrack() {
+        final int newFP = btp;
+        final int newHP = value(stack[newFP + WiMa.OFFSET_REG_HP]);
+        final int newTP = value(stack[newFP + WiMa.OFFSET_REG_TP]);
+        final int newPC = value(stack[newFP + WiMa.OFFSET_ADDR_NEG]);
+
+        if (newPC == 0) {
+            fail();
+            return;
+        }
+
+        fp = newFP;
+        if (newHP < heapSize) {
+            heapSize = newHP;
+        }
+
+        for (int i = newTP + 1; i <= tp; ++i) {
+            heap[trail[i]] = word(REF, trail[i]);
+        }
+        if (newTP < tp) {
+            trailSize = newTP + 1;
+        }
+
+        tp = newTP;
+        pc = newPC;
+    }
+
+    /**
+     * Returns the content of a heap cell.
+     * 
+     * @param address address
+     * @return the content
+     */
+    private int cell(final int address) {
+        if (address >= heapSize) {
+            throw new IndexOutOfBoundsException("Index: " + address + ", Size: " + heapSize);
+        }
+        return heap[address];
+    }
+
+    /**
+     * Dereference a chain of pointers.
+     * 
+     * @param address starting address
+     * @return address of target element
+     */
+    private int deref(final int address) {
+        int a = address;
+        while (true) {
+            final int w = cell(a);
+            if ((tag(w) != REF) || (value(w) == a)) {
+                return a;
+            }
+            a = value(w);
+        }
+    }
+
+    /**
+     * Stop execution with no more alternatives to follow.
+     */
+    private void fail() {
+        running = false;
+        writer.println("no");
+    }
+
+    /**
+     * Copy the vm's memories into the arrays.
+     */
+    private void fetchMemories() {
+        final ArrayList<StackObject> stackContent = vm.getStack().getContent();
+        stack = new int[Math.max(64, stackContent.size() * 2)];
+        for (int i = 0; i < stackContent.size(); ++i) {
+            stack[i] = toWord(stackContent.get(i));
+        }
+
+        final ArrayList<MemoryObject> heapContent = vm.getHeap().getContent();
+        heap = new int[Math.max(64, heapContent.size() * 2)];
+        heapSize = 0;
+        for (final MemoryObject object : heapContent) {
+            alloc(toWord(object));
+        }
+
+        final ArrayList<MemoryObject> trailContent = vm.getTrail().getContent();
+        trail = new int[Math.max(64, trailContent.size() * 2)];
+        trailSize = trailContent.size();
+        for (int i = 0; i < trailSize; ++i) {
+            trail[i] = ((StackObject) trailContent.get(i)).getIntValue();
+        }
+    }
+
+    /**
+     * Returns the printable representation of a term.
+     * 
+     * @param address address of the term
+     * @return the printable representation of the term
+     */
+    private String getName(final int address) {
+        final int a = deref(address);
+        final int w = cell(a);
+
+        if (tag(w) != FUNCTOR) {
+            return toObject(w).getDisplayValue();
+        }
+
+        final int arity = SymbolTable.getFunctorArity(value(w));
+        final String identifier = SymbolTable.getFunctorIdentifier(value(w));
+        if (arity == 0) {
+            return identifier + "()";
+        }
+
+        final StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(identifier);
+        stringBuilder.append("(");
+
+        for (int i = 0; i < (arity - 1); ++i) {
+            stringBuilder.append(getName(a + i + 1));
+            stringBuilder.append(", ");
+        }
+
+        stringBuilder.append(getName(a + arity));
+        stringBuilder.append(")");
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Create an open addressing hash table.
+     * 
+     * @param pairs pairs of key and code address, keys are not negative
+     * @return the hash table
+     */
+    private static int[] hashTable(final int[] pairs) {
+        int capacity = 2;
+        while (capacity < pairs.length) {
+            capacity *= 2;
+        }
+
+        final int[] table = new int[capacity * 2];
+        Arrays.fill(table, -1);
+        for (int i = 0; i < pairs.length; i += 2) {
+            int slot = pairs[i] & (capacity - 1);
+            while (table[slot * 2] != -1) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            table[slot * 2] = pairs[i];
+            table[(slot * 2) + 1] = pairs[i + 1];
+        }
+        return table;
+    }
+
+    /**
+     * Look up a key in a hash table created by {@link #hashTable(int[])}.
+     * 
+     * @param table hash table
+     * @param key key
+     * @param otherwise result if the key is missing
+     * @return the code address of the key
+     */
+    private static int lookup(final int[] table, final int key, final int otherwise) {
+        final int mask = (table.length / 2) - 1;
+        int slot = key & mask;
+        while (table[slot * 2] != -1) {
+            if (table[slot * 2] == key) {
+                return table[(slot * 2) + 1];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return otherwise;
+    }
+
+    /**
+     * Place a word on top of the stack.
+     * 
+     * @param word word
+     */
+    private void push(final int word) {
+        if (++sp == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[sp] = word;
+    }
+
+    /**
+     * Execute bytecode until the vm stops or the given number of steps has been executed.
+     * 
+     * @param maxSteps maximum number of steps to execute
+     * @return the number of steps executed
+     * @throws ExecutionException on failure
+     */
+    long run(final long maxSteps) throws ExecutionException {
+        final int[] code = this.code;
+        final int instructions = code.length / WiMaBytecode.WIDTH;
+
+        vm.getJournal().clear();
+        writer = vm.getWriter();
+        fetchMemories();
+        sp = vm.getStackPointer().getValue();
+        fp = vm.getFramePointer().getValue();
+        btp = vm.getBackTrackPointer().getValue();
+        tp = vm.getTrailPointer().getValue();
+        modus = vm.getModus().getValue();
+        pc = vm.getProgramCounter().getValue();
+        running = vm.isRunning();
+        long steps = 0;
+
+        try {
+            while ((steps < maxSteps) && running) {
+                ++steps;
+
+                if ((pc < 0) || (pc >= instructions)) {
+                    throw new ExecutionException(null, new ArrayIndexOutOfBoundsException(pc));
+                }
+
+                current = pc;
+                final int at = pc * WiMaBytecode.WIDTH;
+                final int a = code[at + 1];
+                final int b = code[at + 2];
+                ++pc;
+
+                try {
+                    switch (code[at]) {
+                    case WiMaBytecode.BROTHER:
+                    case WiMaBytecode.DOWN: {
+                        final int address = value(stack[sp]) + (code[at] == WiMaBytecode.DOWN ? 1 : a);
+                        if (modus == WiMa.MODUS_READ) {
+                            final int w = cell(address);
+                            if ((tag(w) == ATOM) || (tag(w) == FUNCTOR)) {
+                                throw new ClassCastException(toObject(w).getClass().getName());
+                            }
+                            push(w);
+                        } else {
+                            push(word(INT, address));
+                        }
+                        break;
+                    }
+                    case WiMaBytecode.CALL:
+                        fp = sp - b - (WiMa.FRAME_SIZE - 1);
+                        stack[fp + WiMa.OFFSET_ADDR_POS] = word(CODE, pc);
+                        pc = a;
+                        break;
+                    case WiMaBytecode.DELBTP:
+                        btp = value(stack[fp + WiMa.OFFSET_REG_BTP]);
+                        break;
+                    case WiMaBytecode.ENTER:
+                        push(word(CODE, 0));
+                        push(word(INT, fp));
+                        push(word(INT, 0));
+                        push(word(INT, 0));
+                        push(word(INT, 0));
+                        push(word(CODE, 0));
+                        break;
+                    case WiMaBytecode.HALT: {
+                        boolean yes = true;
+                        for (int i = WiMa.FRAME_SIZE + 1; i <= sp; ++i) {
+                            if (tag(stack[i]) != REF) {
+                                break;
+                            }
+                            yes = false;
+                            final int address = deref(value(stack[i]));
+                            writer.print(getName(address));
+                            writer.print(" ");
+                            writer.print("[" + toObject(cell(deref(address))).getDisplayType() + "]");
+                            writer.println();
+                        }
+                        if (yes) {
+                            writer.println("yes");
+                        }
+                        if (btp > fp) {
+                            backtrack();
+                        } else {
+                            running = false;
+                        }
+                        break;
+                    }
+                    case WiMaBytecode.INIT:
+                        fp = 1;
+                        tp = -1;
+                        btp = 1;
+                        push(word(CODE, 0));
+                        push(word(INT, 0));
+                        push(word(INT, 0));
+                        push(word(INT, -1));
+                        push(word(INT, -1));
+                        push(word(CODE, 0));
+                        break;
+                    case WiMaBytecode.LASTCALL: {
+                        final int newFP = sp - b - (WiMa.FRAME_SIZE - 1);
+                        if (fp > btp) {
+                            System.arraycopy(stack, newFP + WiMa.OFFSET_REG_BTP, stack, fp + WiMa.OFFSET_REG_BTP, sp - newFP);
+                            sp = fp + (sp - newFP);
+                        } else {
+                            stack[newFP + WiMa.OFFSET_ADDR_POS] = stack[fp + WiMa.OFFSET_ADDR_POS];
+                            stack[newFP + WiMa.OFFSET_REG_FP] = stack[fp + WiMa.OFFSET_REG_FP];
+                            fp = newFP;
+                        }
+                        pc = a;
+                        break;
+                    }
+                    case WiMaBytecode.NEXTALT:
+                        stack[fp + WiMa.OFFSET_ADDR_NEG] = word(CODE, a);
+                        break;
+                    case WiMaBytecode.POPENV: {
+                        final int newPC = value(stack[fp + WiMa.OFFSET_ADDR_POS]);
+                        final int newFP = value(stack[fp + WiMa.OFFSET_REG_FP]);
+                        if (fp > btp) {
+                            sp = fp - 2;
+                        }
+                        pc = newPC;
+                        fp = newFP;
+                        break;
+                    }
+                    case WiMaBytecode.PUSHARG:
+                        push(stack[fp + WiMa.OFFSET_ADDR_NEG + a]);
+                        break;
+                    case WiMaBytecode.PUSHENV:
+                        while (sp < (fp + a)) {
+                            push(word(NIL, 0));
+                        }
+                        if (sp > (fp + a)) {
+                            sp = fp + a;
+                        }
+                        break;
+                    case WiMaBytecode.PUTATOM:
+                        push(word(REF, alloc(word(ATOM, a))));
+                        break;
+                    case WiMaBytecode.PUTREF:
+                        push(stack[fp + a]);
+                        break;
+                    case WiMaBytecode.PUTSTRUCT: {
+                        sp -= b;
+                        final int address = alloc(word(FUNCTOR, a));
+                        for (int i = 1; i <= b; ++i) {
+                            alloc(stack[sp + i]);
+                        }
+                        push(word(REF, address));
+                        break;
+                    }
+                    case WiMaBytecode.PUTVAR: {
+                        final int variable = word(REF, alloc(word(REF, heapSize)));
+                        push(variable);
+                        stack[fp + a] = variable;
+                        break;
+                    }
+                    case WiMaBytecode.RESTORE:
+                        pc = value(stack[fp + WiMa.OFFSET_ADDR_POS]);
+                        fp = value(stack[fp + WiMa.OFFSET_REG_FP]);
+                        break;
+                    case WiMaBytecode.RETRY:
+                        stack[fp + WiMa.OFFSET_ADDR_NEG] = word(CODE, a);
+                        pc = b;
+                        break;
+                    case WiMaBytecode.SETBTP:
+                        stack[fp + WiMa.OFFSET_REG_BTP] = word(INT, btp);
+                        stack[fp + WiMa.OFFSET_REG_TP] = word(INT, tp);
+                        stack[fp + WiMa.OFFSET_REG_HP] = word(INT, heapSize);
+                        stack[fp + WiMa.OFFSET_ADDR_NEG] = word(CODE, a);
+                        btp = fp;
+                        break;
+                    case WiMaBytecode.SWITCHONCONSTANT:
+                    case WiMaBytecode.SWITCHONSTRUCTURE: {
+                        final int target = lookup(tables[a], value(cell(deref(value(stack[fp + WiMa.OFFSET_ADDR_NEG + 1])))), b);
+                        if (target == -1) {
+                            backtrack();
+                        } else {
+                            pc = target;
+                        }
+                        break;
+                    }
+                    case WiMaBytecode.SWITCHONTERM: {
+                        final int w = cell(deref(value(stack[fp + WiMa.OFFSET_ADDR_NEG + 1])));
+                        if (tag(w) == ATOM) {
+                            pc = a;
+                        } else if (tag(w) == FUNCTOR) {
+                            pc = b;
+                        }
+                        break;
+                    }
+                    case WiMaBytecode.TRUST:
+                        btp = value(stack[fp + WiMa.OFFSET_REG_BTP]);
+                        pc = a;
+                        break;
+                    case WiMaBytecode.TRY:
+                        stack[fp + WiMa.OFFSET_REG_BTP] = word(INT, btp);
+                        stack[fp + WiMa.OFFSET_REG_TP] = word(INT, tp);
+                        stack[fp + WiMa.OFFSET_REG_HP] = word(INT, heapSize);
+                        stack[fp + WiMa.OFFSET_ADDR_NEG] = word(CODE, a);
+                        btp = fp;
+                        pc = b;
+                        break;
+                    case WiMaBytecode.UATOM:
+                        if (modus == WiMa.MODUS_READ) {
+                            final int v = deref(value(stack[sp--]));
+                            final int w = cell(v);
+                            if (tag(w) == ATOM) {
+                                if (value(w) != a) {
+                                    backtrack();
+                                }
+                            } else if (isPointer(w) && (value(w) == v)) {
+                                /* allocate first, alloc may replace the heap array. */
+                                final int atom = alloc(word(ATOM, a));
+                                heap[v] = word(REF, atom);
+                                trail(v);
+                            } else {
+                                backtrack();
+                            }
+                        } else {
+                            final int address = value(stack[sp--]);
+                            final int atom = alloc(word(ATOM, a));
+                            heap[address] = word(REF, atom);
+                        }
+                        break;
+                    case WiMaBytecode.UP:
+                        --sp;
+                        if (modus == WiMa.MODUS_WRITE) {
+                            modus = value(stack[sp--]);
+                        }
+                        break;
+                    case WiMaBytecode.UREF:
+                        if (modus == WiMa.MODUS_READ) {
+                            unify(value(stack[sp]), value(stack[fp + a]));
+                        } else {
+                            heap[value(stack[sp])] = stack[fp + a];
+                        }
+                        --sp;
+                        break;
+                    case WiMaBytecode.USTRUCT:
+                        if (modus == WiMa.MODUS_READ) {
+                            final int v = deref(value(stack[sp--]));
+                            final int w = cell(v);
+                            if (tag(w) == FUNCTOR) {
+                                if (value(w) == a) {
+                                    push(word(REF, v));
+                                } else {
+                                    backtrack();
+                                }
+                            } else if (isPointer(w) && (value(w) == v)) {
+                                push(word(INT, modus));
+                                final int address = allocStructure(a, b);
+                                push(word(REF, address));
+                                heap[v] = word(REF, address);
+                                modus = WiMa.MODUS_WRITE;
+                                trail(v);
+                            } else {
+                                backtrack();
+                            }
+                        } else {
+                            final int address = allocStructure(a, b);
+                            heap[value(stack[sp])] = word(REF, address);
+                            push(word(REF, address));
+                        }
+                        break;
+                    case WiMaBytecode.UVAR: {
+                        final int address = value(stack[sp--]);
+                        if (modus == WiMa.MODUS_READ) {
+                            stack[fp + a] = word(REF, deref(address));
+                        } else {
+                            final int variable = word(REF, alloc(word(REF, heapSize)));
+                            stack[fp + a] = variable;
+                            heap[address] = variable;
+                        }
+                        break;
+                    }
+                    default:
+                        throw new IllegalStateException("Unknown opcode " + code[at]);
+                    }
+                } catch (final RuntimeException e) {
+                    throw new ExecutionException(vm.getImage().get(current), e);
+                }
+            }
+        } finally {
+            storeMemories();
+            vm.getStackPointer().setValue(sp);
+            vm.getFramePointer().setValue(fp);
+            vm.getBackTrackPointer().setValue(btp);
+            vm.getHeapPointer().setValue(heapSize);
+            vm.getTrailPointer().setValue(tp);
+            vm.getModus().setValue(modus);
+            vm.getProgramCounter().setValue(pc);
+            vm.getStepCounter().setValue((int) (vm.getStepCounter().getValue() + steps));
+            if (!running) {
+                vm.getStatus().setValue(JumpVM.STATUS_STOP);
+            }
+        }
+
+        return steps;
+    }
+
+    /**
+     * Returns true if the word corresponds to a {@link PointerObject}.
+     * 
+     * @param word word
+     * @return true for heap pointers, nil pointers and code addresses
+     */
+    private static boolean isPointer(final int word) {
+        final int tag = tag(word);
+        return (tag == REF) || (tag == NIL) || (tag == CODE);
+    }
+
+    /**
+     * Copy the arrays back into the vm's memories.
+     */
+    private void storeMemories() {
+        final ArrayList<StackObject> stackContent = new ArrayList<StackObject>(sp + 1);
+        for (int i = 0; i <= sp; ++i) {
+            stackContent.add((StackObject) toObject(stack[i]));
+        }
+        vm.getStack().reset(stackContent);
+        vm.getStack().clearFrames();
+
+        final ArrayList<MemoryObject> heapContent = new ArrayList<MemoryObject>(heapSize);
+        for (int i = 0; i < heapSize; ++i) {
+            heapContent.add(toObject(heap[i]));
+        }
+        vm.getHeap().reset(heapContent);
+
+        final ArrayList<MemoryObject> trailContent = new ArrayList<MemoryObject>(trailSize);
+        for (int i = 0; i < trailSize; ++i) {
+            trailContent.add(new PointerObject(trail[i], Type.POINTER_HEAP, null, null));
+        }
+        vm.getTrail().reset(trailContent);
+    }
+
+    /**
+     * Returns the {@link MemoryObject} corresponding to a word.
+     * 
+     * @param word word
+     * @return the memory object
+     */
+    private MemoryObject toObject(final int word) {
+        final int value = value(word);
+        switch (tag(word)) {
+        case REF:
+            return new PointerObject(value, Type.POINTER_HEAP, null, null);
+        case ATOM:
+            return new AtomObject(value);
+        case FUNCTOR:
+            return new StructureObject(value);
+        case NIL:
+            return value == -1 ? new NilPointerObject() : new NilPointerObject(null, null);
+        case INT:
+            return new BasicValueObject(value, null, null);
+        case CODE:
+            return new PointerObject(value, Type.POINTER_PROGRAM, null, null);
+        default:
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Returns the word corresponding to a {@link MemoryObject}.
+     * 
+     * @param object memory object
+     * @return the word
+     */
+    private int toWord(final MemoryObject object) {
+        if (object instanceof AtomObject) {
+            return word(ATOM, ((AtomObject) object).getAtom());
+        } else if (object instanceof StructureObject) {
+            return word(FUNCTOR, ((StructureObject) object).getFunctor());
+        } else if (object instanceof PointerObject) {
+            final PointerObject pointer = (PointerObject) object;
+            switch (pointer.getType()) {
+            case POINTER_HEAP:
+                return word(REF, pointer.getIntValue());
+            case POINTER_NIL:
+                return word(NIL, pointer.getIntValue());
+            case POINTER_PROGRAM:
+                return word(CODE, pointer.getIntValue());
+            default:
+                throw new IllegalArgumentException("Unexpected pointer: " + pointer.getDisplayType());
+            }
+        } else if (object instanceof StackObject) {
+            return word(INT, ((StackObject) object).getIntValue());
+        } else {
+            throw new IllegalArgumentException("Unknown object: " + object);
+        }
+    }
+
+    /**
+     * Track the binding of a variable.
+     * 
+     * @param address heap address of the variable
+     */
+    private void trail(final int address) {
+        if (address < value(stack[btp + WiMa.OFFSET_REG_HP])) {
+            ++tp;
+            if (tp >= trail.length) {
+                trail = Arrays.copyOf(trail, Math.max(trail.length * 2, tp + 1));
+            }
+            trail[tp] = address;
+            trailSize = Math.max(trailSize, tp + 1);
+        }
+    }
+
+    /**
+     * Unify two elements on the heap. The elements themselves are not dereferenced, the arguments of structures are. Unification stops at the first mismatch.
+     * 
+     * @param a first element
+     * @param b second element
+     * @throws ExecutionException on failure
+     */
+    private void unify(final int a, final int b) throws ExecutionException {
+        int pending = 0;
+        int x = a;
+        int y = b;
+        while (true) {
+            final int t1 = cell(x);
+            final int t2 = cell(y);
+            final int tag1 = tag(t1);
+            final int tag2 = tag(t2);
+
+            if ((tag1 == NIL) || (tag1 == CODE)) {
+                throw new ExecutionException(vm.getImage().get(current), "t1 of unexpected type");
+            }
+            if ((tag2 == NIL) || (tag2 == CODE)) {
+                throw new ExecutionException(vm.getImage().get(current), "t2 of unexpected type");
+            }
+            if ((tag1 == INT) || ((tag2 == INT) && ((tag1 == ATOM) || (tag1 == REF) || (tag1 == FUNCTOR)))) {
+                throw new ExecutionException(vm.getImage().get(current), tag1 == INT ? "t1 of unexpected type" : "t2 of unexpected type");
+            }
+
+            if (tag1 == ATOM) {
+                if (tag2 == ATOM) {
+                    /* Atom & atom. */
+                    if (value(t1) != value(t2)) {
+                        fail();
+                        return;
+                    }
+                } else if (tag2 == REF) {
+                    /* Atom & variable. */
+                    heap[y] = word(REF, x);
+                } else {
+                    /* Atom & structure. */
+                    fail();
+                    return;
+                }
+            } else if (tag1 == REF) {
+                /* Variable & anything. */
+                if ((tag2 != REF) || (value(t1) != value(t2))) {
+                    heap[x] = word(REF, y);
+                }
+            } else {
+                if (tag2 == ATOM) {
+                    /* Structure & atom. */
+                    fail();
+                    return;
+                } else if (tag2 == REF) {
+                    /* Structure & variable. */
+                    heap[y] = word(REF, x);
+                } else {
+                    /* Structure & structure. */
+                    if (value(t1) != value(t2)) {
+                        fail();
+                        return;
+                    }
+                    final int arity = SymbolTable.getFunctorArity(value(t1));
+                    if ((pending + arity + arity) > work.length) {
+                        work = Arrays.copyOf(work, Math.max(work.length * 2, pending + arity + arity));
+                    }
+                    for (int i = arity; i > 0; --i) {
+                        work[pending++] = x + i;
+                        work[pending++] = y + i;
+                    }
+                }
+            }
+
+            if (pending == 0) {
+                return;
+            }
+            y = deref(work[--pending]);
+            x = deref(work[--pending]);
+        }
+    }
+}
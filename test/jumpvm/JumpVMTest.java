@@ -36,10 +36,17 @@ import jumpvm.Main.VmType;
 import jumpvm.code.Instruction;
 import jumpvm.compiler.Compiler;
 import jumpvm.compiler.LocatedReader;
+import jumpvm.memory.Memory;
+import jumpvm.memory.Register;
+import jumpvm.memory.objects.MemoryObject;
 import jumpvm.tests.BfMaTest;
 import jumpvm.tests.MaMaTest;
+import jumpvm.tests.PaMaRecursionTest;
 import jumpvm.tests.PaMaTest;
+import jumpvm.tests.WiMaEngineTest;
 import jumpvm.tests.WiMaTest;
+import jumpvm.tests.WiMaUnifyTest;
+import jumpvm.vm.JumpVM;
 
 import org.junit.Assert;
 import org.junit.runner.RunWith;
@@ -48,7 +55,7 @@ import org.junit.runners.Suite.SuiteClasses;
 
 /** JumpVM test suite. */
 @RunWith(Suite.class)
-@SuiteClasses({BfMaTest.class, MaMaTest.class, PaMaTest.class, WiMaTest.class})
+@SuiteClasses({BfMaTest.class, MaMaTest.class, PaMaTest.class, PaMaRecursionTest.class, WiMaTest.class, WiMaEngineTest.class, WiMaUnifyTest.class})
 public final class JumpVMTest {
     /** Maximum processing time in milliseconds. */
     public static final int TIMEOUT = 5000;
@@ -181,6 +188,50 @@ public final class JumpVMTest {
         return strings;
     }
 
+    /**
+     * Returns the displayed registers and memories of a vm as an ArrayList of Strings.
+     * 
+     * @param vm vm
+     * @return the vm's displayed state as an ArrayList of Strings
+     */
+    public static ArrayList<String> toStrings(final JumpVM vm) {
+        final ArrayList<String> strings = new ArrayList<String>();
+        for (final Register register : vm.getDisplayRegisters()) {
+            strings.add(register.getShortName() + " = " + register.getValue());
+        }
+        for (final Memory<?> memory : vm.getDisplayMemories()) {
+            strings.add(memory.getName() + ":");
+            for (final MemoryObject object : memory.getContent()) {
+                if (object == null) {
+                    strings.add("null");
+                } else {
+                    strings.add(object.getDisplayValue() + " " + object.getDisplayType() + " " + object.getDisplayDescription());
+                }
+            }
+        }
+        return strings;
+    }
+
+    /**
+     * Returns the values of the displayed registers and memories of a vm as an ArrayList of Strings, ignoring types and descriptions.
+     * 
+     * @param vm vm
+     * @return the vm's displayed values as an ArrayList of Strings
+     */
+    public static ArrayList<String> toValues(final JumpVM vm) {
+        final ArrayList<String> strings = new ArrayList<String>();
+        for (final Register register : vm.getDisplayRegisters()) {
+            strings.add(register.getShortName() + " = " + register.getValue());
+        }
+        for (final Memory<?> memory : vm.getDisplayMemories()) {
+            strings.add(memory.getName() + ":");
+            for (final MemoryObject object : memory.getContent()) {
+                strings.add(object == null ? "null" : object.getDisplayValue());
+            }
+        }
+        return strings;
+    }
+
     /**
      * Writes an ArrayList of Objects to a file.
      * 
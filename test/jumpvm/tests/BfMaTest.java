@@ -26,6 +26,7 @@ import java.util.List;
 import jumpvm.JumpVMTest;
 import jumpvm.Main.VmType;
 import jumpvm.code.Instruction;
+import jumpvm.code.ProgramImage;
 import jumpvm.compiler.Token;
 import jumpvm.compiler.bfma.BfMaCompiler;
 import jumpvm.compiler.bfma.BfMaDotBackend;
@@ -35,6 +36,8 @@ import jumpvm.compiler.bfma.BfMaToken;
 import jumpvm.compiler.mama.MaMaToken;
 import jumpvm.exception.CompileException;
 import jumpvm.exception.ParseException;
+import jumpvm.memory.objects.StackObject;
+import jumpvm.vm.Checkpoints;
 import jumpvm.vm.BfMa;
 
 import org.junit.Assert;
@@ -75,7 +78,19 @@ public class BfMaTest {
      * @throws ParseException on failure
      */
     private BfMaCompiler createCompiler() throws CompileException, ParseException {
-        final BfMaCompiler compiler = new BfMaCompiler();
+        return createCompiler(false);
+    }
+
+    /**
+     * Create a compiler for the given source file and compile.
+     * 
+     * @param optimize true to fold runs and replace loop idioms
+     * @return the compiler
+     * @throws CompileException on failure
+     * @throws ParseException on failure
+     */
+    private BfMaCompiler createCompiler(final boolean optimize) throws CompileException, ParseException {
+        final BfMaCompiler compiler = new BfMaCompiler(optimize);
         final BfMaParser parser = createParser();
         compiler.processProgram(parser.parse());
 
@@ -194,4 +209,201 @@ public class BfMaTest {
 
         JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
     }
+
+    /**
+     * Test run without intermediate states.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunUntilHalt() throws Exception {
+        final BfMa vm = createVM();
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        vm.runUntilHalt();
+
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test run with 8 bit cells.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunByteCells() throws Exception {
+        final BfMa vm = new BfMa(Byte.SIZE);
+        vm.reset(createCompiler().getInstructions());
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        vm.runUntilHalt();
+
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+        for (final StackObject cell : vm.getTape().getContent()) {
+            Assert.assertTrue(cell.getIntValue() >= 0);
+            Assert.assertTrue(cell.getIntValue() < 256);
+        }
+    }
+
+    /**
+     * Test run of the optimized program.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunOptimized() throws Exception {
+        final ArrayList<Instruction> instructions = createCompiler(true).getInstructions();
+        Assert.assertTrue(instructions.size() < createCompiler().getInstructions().size());
+
+        final BfMa vm = new BfMa();
+        vm.reset(instructions);
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        vm.runUntilHalt();
+
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test running one linked program image on two vms.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunSharedImage() throws Exception {
+        final ProgramImage image = new ProgramImage(createCompiler().getInstructions());
+
+        for (int i = 0; i < 2; ++i) {
+            final BfMa vm = new BfMa();
+            vm.reset(image);
+
+            final StringWriter stringWriter = new StringWriter();
+            vm.setWriter(stringWriter);
+
+            vm.runUntilHalt();
+
+            JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+        }
+    }
+
+    /**
+     * Test stepping backward to the initial state.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testStepBackward() throws Exception {
+        final BfMa vm = createVM();
+        vm.getJournal().setLimit(Integer.MAX_VALUE);
+        vm.setWriter(new StringWriter());
+
+        final ArrayList<String> initialState = JumpVMTest.toStrings(vm);
+        while (vm.isRunning()) {
+            vm.step();
+        }
+        while (vm.stepBackward()) {
+            continue;
+        }
+
+        Assert.assertEquals(initialState, JumpVMTest.toStrings(vm));
+    }
+
+    /**
+     * Test seeking with checkpoints.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testSeek() throws Exception {
+        final BfMa vm = createVM();
+        final Checkpoints checkpoints = new Checkpoints(vm, 7, 4);
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        final ArrayList<String> initialState = JumpVMTest.toStrings(vm);
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        final int last = vm.getStepCounter().getValue();
+        final ArrayList<String> lastState = JumpVMTest.toStrings(vm);
+
+        final BfMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.run(last / 2);
+
+        Assert.assertEquals(last / 2, checkpoints.seek(last / 2));
+        Assert.assertEquals(JumpVMTest.toStrings(reference), JumpVMTest.toStrings(vm));
+        Assert.assertEquals(0, checkpoints.seek(0));
+        Assert.assertEquals(initialState, JumpVMTest.toStrings(vm));
+        Assert.assertEquals(last, checkpoints.seek(last + 1));
+        Assert.assertEquals(lastState, JumpVMTest.toStrings(vm));
+
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test stepping backward after seeking with checkpoints.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testSeekStepBackward() throws Exception {
+        final BfMa vm = createVM();
+        final Checkpoints checkpoints = new Checkpoints(vm, 7, 4);
+        vm.setWriter(new StringWriter());
+
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        final int target = (vm.getStepCounter().getValue() + 1) / 2;
+
+        final BfMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.run(target - 1);
+
+        Assert.assertEquals(target, checkpoints.seek(target));
+        Assert.assertTrue(vm.stepBackward());
+        Assert.assertEquals(JumpVMTest.toStrings(reference), JumpVMTest.toStrings(vm));
+    }
+
+    /**
+     * Test stepping backward with checkpoints beyond the steps kept by the journal.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testStepBackwardPastJournal() throws Exception {
+        final BfMa vm = createVM();
+        final Checkpoints checkpoints = new Checkpoints(vm, 3, 64);
+        vm.setWriter(new StringWriter());
+
+        final ArrayList<String> initialState = JumpVMTest.toStrings(vm);
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        Assert.assertTrue(vm.getJournal().getSteps() <= (vm.getJournal().getLimit() + 1));
+        final int target = vm.getStepCounter().getValue() / 4;
+
+        final BfMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.run(target);
+
+        while (vm.getStepCounter().getValue() > target) {
+            Assert.assertTrue(checkpoints.stepBackward());
+        }
+        Assert.assertEquals(JumpVMTest.toStrings(reference), JumpVMTest.toStrings(vm));
+
+        while (checkpoints.stepBackward()) {
+            continue;
+        }
+        Assert.assertEquals(0, vm.getStepCounter().getValue());
+        Assert.assertEquals(initialState, JumpVMTest.toStrings(vm));
+    }
 }
@@ -26,6 +26,7 @@ import java.util.List;
 import jumpvm.JumpVMTest;
 import jumpvm.Main.VmType;
 import jumpvm.code.Instruction;
+import jumpvm.code.ProgramImage;
 import jumpvm.compiler.Token;
 import jumpvm.compiler.mama.MaMaCompiler;
 import jumpvm.compiler.mama.MaMaDotBackend;
@@ -34,6 +35,7 @@ import jumpvm.compiler.mama.MaMaParser;
 import jumpvm.compiler.mama.MaMaToken;
 import jumpvm.exception.CompileException;
 import jumpvm.exception.ParseException;
+import jumpvm.vm.Checkpoints;
 import jumpvm.vm.MaMa;
 
 import org.junit.Assert;
@@ -193,4 +195,233 @@ public class MaMaTest {
 
         JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
     }
+
+    /**
+     * Test run without intermediate states.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunUntilHalt() throws Exception {
+        final MaMa vm = createVM();
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        vm.runUntilHalt();
+
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test running the bytecode engine.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunBytecode() throws Exception {
+        final MaMa vm = createVM();
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        vm.runBytecode(Long.MAX_VALUE);
+
+        final MaMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.runUntilHalt();
+
+        Assert.assertEquals(JumpVMTest.toValues(reference), JumpVMTest.toValues(vm));
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test running with a small garbage collection threshold, on the instructions and on the bytecode engine.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunCollected() throws Exception {
+        final MaMa vm = createVM();
+        vm.setGcThreshold(8);
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+        vm.runUntilHalt();
+        JumpVMTest.compare(getExpectFile("runCollected"), stringWriter.toString());
+
+        final MaMa engine = createVM();
+        engine.setGcThreshold(8);
+        final StringWriter engineWriter = new StringWriter();
+        engine.setWriter(engineWriter);
+        engine.runBytecode(Long.MAX_VALUE);
+        JumpVMTest.compare(getExpectFile("runCollected"), engineWriter.toString());
+
+        Assert.assertEquals(vm.getCollectorStatistics().getCollections(), engine.getCollectorStatistics().getCollections());
+        Assert.assertEquals(JumpVMTest.toValues(vm), JumpVMTest.toValues(engine));
+    }
+
+    /**
+     * Test running with a nursery and a garbage collection threshold, on the instructions and on the bytecode engine.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunGenerational() throws Exception {
+        final MaMa vm = createVM();
+        vm.setNurserySize(3);
+        vm.setGcThreshold(16);
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+        vm.runUntilHalt();
+        JumpVMTest.compare(getExpectFile("runGenerational"), stringWriter.toString());
+
+        final MaMa engine = createVM();
+        engine.setNurserySize(3);
+        engine.setGcThreshold(16);
+        final StringWriter engineWriter = new StringWriter();
+        engine.setWriter(engineWriter);
+        engine.runBytecode(Long.MAX_VALUE);
+        JumpVMTest.compare(getExpectFile("runGenerational"), engineWriter.toString());
+
+        Assert.assertEquals(vm.getNurseryStatistics().getCopied(), engine.getNurseryStatistics().getCopied());
+        Assert.assertEquals(vm.getCollectorStatistics().getCollections(), engine.getCollectorStatistics().getCollections());
+        Assert.assertEquals(JumpVMTest.toValues(vm), JumpVMTest.toValues(engine));
+    }
+
+    /**
+     * Test running one linked program image on two vms.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunSharedImage() throws Exception {
+        final ProgramImage image = new ProgramImage(createCompiler().getInstructions());
+
+        for (int i = 0; i < 2; ++i) {
+            final MaMa vm = new MaMa();
+            vm.reset(image);
+
+            final StringWriter stringWriter = new StringWriter();
+            vm.setWriter(stringWriter);
+
+            vm.runUntilHalt();
+
+            JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+        }
+    }
+
+    /**
+     * Test stepping backward to the initial state.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testStepBackward() throws Exception {
+        final MaMa vm = createVM();
+        vm.getJournal().setLimit(Integer.MAX_VALUE);
+        vm.setWriter(new StringWriter());
+
+        final ArrayList<String> initialState = JumpVMTest.toStrings(vm);
+        while (vm.isRunning()) {
+            vm.step();
+        }
+        while (vm.stepBackward()) {
+            continue;
+        }
+
+        Assert.assertEquals(initialState, JumpVMTest.toStrings(vm));
+    }
+
+    /**
+     * Test seeking with checkpoints.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testSeek() throws Exception {
+        final MaMa vm = createVM();
+        final Checkpoints checkpoints = new Checkpoints(vm, 7, 4);
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        final ArrayList<String> initialState = JumpVMTest.toStrings(vm);
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        final int last = vm.getStepCounter().getValue();
+        final ArrayList<String> lastState = JumpVMTest.toStrings(vm);
+
+        final MaMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.run(last / 2);
+
+        Assert.assertEquals(last / 2, checkpoints.seek(last / 2));
+        Assert.assertEquals(JumpVMTest.toStrings(reference), JumpVMTest.toStrings(vm));
+        Assert.assertEquals(0, checkpoints.seek(0));
+        Assert.assertEquals(initialState, JumpVMTest.toStrings(vm));
+        Assert.assertEquals(last, checkpoints.seek(last + 1));
+        Assert.assertEquals(lastState, JumpVMTest.toStrings(vm));
+
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test stepping backward after seeking with checkpoints.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testSeekStepBackward() throws Exception {
+        final MaMa vm = createVM();
+        final Checkpoints checkpoints = new Checkpoints(vm, 7, 4);
+        vm.setWriter(new StringWriter());
+
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        final int target = (vm.getStepCounter().getValue() + 1) / 2;
+
+        final MaMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.run(target - 1);
+
+        Assert.assertEquals(target, checkpoints.seek(target));
+        Assert.assertTrue(vm.stepBackward());
+        Assert.assertEquals(JumpVMTest.toStrings(reference), JumpVMTest.toStrings(vm));
+    }
+
+    /**
+     * Test stepping backward with checkpoints beyond the steps kept by the journal.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testStepBackwardPastJournal() throws Exception {
+        final MaMa vm = createVM();
+        final Checkpoints checkpoints = new Checkpoints(vm, 3, 64);
+        vm.setWriter(new StringWriter());
+
+        final ArrayList<String> initialState = JumpVMTest.toStrings(vm);
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        Assert.assertTrue(vm.getJournal().getSteps() <= (vm.getJournal().getLimit() + 1));
+        final int target = vm.getStepCounter().getValue() / 4;
+
+        final MaMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.run(target);
+
+        while (vm.getStepCounter().getValue() > target) {
+            Assert.assertTrue(checkpoints.stepBackward());
+        }
+        Assert.assertEquals(JumpVMTest.toStrings(reference), JumpVMTest.toStrings(vm));
+
+        while (checkpoints.stepBackward()) {
+            continue;
+        }
+        Assert.assertEquals(0, vm.getStepCounter().getValue());
+        Assert.assertEquals(initialState, JumpVMTest.toStrings(vm));
+    }
 }
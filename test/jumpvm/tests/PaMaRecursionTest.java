@@ -0,0 +1,145 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+
+package jumpvm.tests;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import jumpvm.JumpVMTest;
+import jumpvm.compiler.LocatedReader;
+import jumpvm.compiler.pama.PaMaCompiler;
+import jumpvm.compiler.pama.PaMaLexer;
+import jumpvm.compiler.pama.PaMaParser;
+import jumpvm.exception.CompileException;
+import jumpvm.exception.ParseException;
+import jumpvm.vm.Checkpoints;
+import jumpvm.vm.PaMa;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/** JUnit testcase for deep PaMa recursion. Popping a frame must not depend on the number of frames below it. */
+public class PaMaRecursionTest {
+    /** Recursion depth. */
+    private static final int DEPTH = 20000;
+
+    /** Store size, large enough for {@link #DEPTH} frames. */
+    private static final int STORE_SIZE = 1000000;
+
+    /** Program recursing {@link #DEPTH} levels deep and printing the depth. */
+    private static final String SOURCE = "program\n"
+            + "    var n: integer\n"
+            + "    function Depth(k: integer): integer\n"
+            + "    begin\n"
+            + "        if k = 0 then\n"
+            + "            Depth := 0\n"
+            + "        else\n"
+            + "            Depth := Depth(k - 1) + 1\n"
+            + "        end\n"
+            + "    end\n"
+            + "begin\n"
+            + "    n := Depth(" + DEPTH + ");\n"
+            + "    writeln(n)\n"
+            + "end.\n";
+
+    /** Output of the vm. */
+    private final StringWriter stringWriter;
+
+    /** PaMa, loaded with {@link #SOURCE}. */
+    private final PaMa vm;
+
+    /**
+     * Create a new PaMaRecursionTest.
+     * 
+     * @throws CompileException on failure
+     * @throws ParseException on failure
+     */
+    public PaMaRecursionTest() throws CompileException, ParseException {
+        this.stringWriter = new StringWriter();
+        this.vm = createVM();
+        vm.setWriter(stringWriter);
+    }
+
+    /**
+     * Compile {@link #SOURCE} and load it into a new vm.
+     * 
+     * @return the vm
+     * @throws CompileException on failure
+     * @throws ParseException on failure
+     */
+    private static PaMa createVM() throws CompileException, ParseException {
+        final PaMaCompiler compiler = new PaMaCompiler(false);
+        compiler.processProgram(new PaMaParser(new PaMaLexer(new LocatedReader(new StringReader(SOURCE), "recursion.pama"))).parse());
+
+        final PaMa vm = new PaMa(STORE_SIZE);
+        vm.reset(compiler.getInstructions());
+        return vm;
+    }
+
+    /**
+     * Test recursing with checkpoints and seeking to the deepest point.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testCheckpoints() throws Exception {
+        final Checkpoints checkpoints = new Checkpoints(vm);
+        int deepest = 0;
+        int height = 0;
+        while (vm.isRunning()) {
+            checkpoints.step();
+            if (vm.getStackPointer().getValue() > height) {
+                height = vm.getStackPointer().getValue();
+                deepest = vm.getStepCounter().getValue();
+            }
+        }
+        Assert.assertEquals(DEPTH + System.lineSeparator(), stringWriter.toString());
+
+        Assert.assertEquals(deepest, checkpoints.seek(deepest));
+        Assert.assertEquals(height, vm.getStackPointer().getValue());
+        Assert.assertEquals(deepest + 1, checkpoints.seek(deepest + 1));
+        Assert.assertTrue(checkpoints.stepBackward());
+        Assert.assertEquals(height, vm.getStackPointer().getValue());
+    }
+
+    /**
+     * Test recursing with the run mode.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRun() throws Exception {
+        vm.runUntilHalt();
+        Assert.assertEquals(DEPTH + System.lineSeparator(), stringWriter.toString());
+    }
+
+    /**
+     * Test recursing with journaled steps.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testStep() throws Exception {
+        while (vm.isRunning()) {
+            vm.step();
+        }
+        Assert.assertEquals(DEPTH + System.lineSeparator(), stringWriter.toString());
+    }
+}
@@ -26,6 +26,10 @@ import java.util.List;
 import jumpvm.JumpVMTest;
 import jumpvm.Main.VmType;
 import jumpvm.code.Instruction;
+import jumpvm.code.ProgramImage;
+import jumpvm.code.pama.MovdInstruction;
+import jumpvm.code.pama.MovsInstruction;
+import jumpvm.code.pama.NewInstruction;
 import jumpvm.compiler.Token;
 import jumpvm.compiler.pama.PaMaCompiler;
 import jumpvm.compiler.pama.PaMaDotBackend;
@@ -34,6 +38,8 @@ import jumpvm.compiler.pama.PaMaParser;
 import jumpvm.compiler.pama.PaMaToken;
 import jumpvm.exception.CompileException;
 import jumpvm.exception.ParseException;
+import jumpvm.memory.Memory;
+import jumpvm.vm.Checkpoints;
 import jumpvm.vm.PaMa;
 
 import org.junit.Assert;
@@ -74,7 +80,19 @@ public class PaMaTest {
      * @throws ParseException on failure
      */
     private PaMaCompiler createCompiler() throws CompileException, ParseException {
-        final PaMaCompiler compiler = new PaMaCompiler();
+        return createCompiler(false);
+    }
+
+    /**
+     * Create a compiler for the given source file and compile.
+     *
+     * @param display true to generate display code
+     * @return the compiler
+     * @throws CompileException on failure
+     * @throws ParseException on failure
+     */
+    private PaMaCompiler createCompiler(final boolean display) throws CompileException, ParseException {
+        final PaMaCompiler compiler = new PaMaCompiler(display);
         final PaMaParser parser = createParser();
         compiler.processProgram(parser.parse());
 
@@ -107,10 +125,35 @@ public class PaMaTest {
      * @throws ParseException on failure
      */
     private PaMa createVM() throws CompileException, ParseException {
-        final ArrayList<Instruction> instructions = createCompiler().getInstructions();
+        return createVM(PaMa.STORE_SIZE);
+    }
+
+    /**
+     * Create a vm with the given store size for the given source file, compile and load.
+     *
+     * @param storeSize store size
+     * @return the vm
+     * @throws CompileException on failure
+     * @throws ParseException on failure
+     */
+    private PaMa createVM(final int storeSize) throws CompileException, ParseException {
+        return createVM(storeSize, false);
+    }
+
+    /**
+     * Create a vm with the given store size for the given source file, compile and load.
+     *
+     * @param storeSize store size
+     * @param display true to generate display code
+     * @return the vm
+     * @throws CompileException on failure
+     * @throws ParseException on failure
+     */
+    private PaMa createVM(final int storeSize, final boolean display) throws CompileException, ParseException {
+        final ArrayList<Instruction> instructions = createCompiler(display).getInstructions();
         Assert.assertNotEquals(instructions.size(), 0);
 
-        final PaMa vm = new PaMa();
+        final PaMa vm = new PaMa(storeSize);
         vm.reset(instructions);
         return vm;
     }
@@ -193,4 +236,310 @@ public class PaMaTest {
 
         JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
     }
+
+    /**
+     * Test run without intermediate states.
+     *
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunUntilHalt() throws Exception {
+        final PaMa vm = createVM();
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        vm.runUntilHalt();
+
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test running the bytecode engine.
+     *
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunBytecode() throws Exception {
+        final PaMa vm = createVM();
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        vm.runBytecode(Long.MAX_VALUE);
+
+        final PaMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.runUntilHalt();
+
+        Assert.assertEquals(JumpVMTest.toValues(reference), JumpVMTest.toValues(vm));
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test running display code, with both the instructions and the bytecode engine.
+     *
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunDisplay() throws Exception {
+        final PaMa vm = createVM(PaMa.STORE_SIZE, true);
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+        vm.runUntilHalt();
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+
+        final PaMa bytecodeVm = createVM(PaMa.STORE_SIZE, true);
+        final StringWriter bytecodeWriter = new StringWriter();
+        bytecodeVm.setWriter(bytecodeWriter);
+        bytecodeVm.runBytecode(Long.MAX_VALUE);
+        JumpVMTest.compare(getExpectFile("run"), bytecodeWriter.toString());
+
+        Assert.assertEquals(JumpVMTest.toValues(vm), JumpVMTest.toValues(bytecodeVm));
+    }
+
+    /**
+     * Test running on a large store, with both the instructions and the bytecode engine.
+     *
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunLargeStore() throws Exception {
+        final PaMa vm = createVM(1 << 24);
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+        vm.runUntilHalt();
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+
+        final PaMa bytecodeVm = createVM(1 << 24);
+        final StringWriter bytecodeWriter = new StringWriter();
+        bytecodeVm.setWriter(bytecodeWriter);
+        bytecodeVm.runBytecode(Long.MAX_VALUE);
+        JumpVMTest.compare(getExpectFile("run"), bytecodeWriter.toString());
+
+        Assert.assertEquals(vm.getNewPointer().getValue(), bytecodeVm.getNewPointer().getValue());
+    }
+
+    /**
+     * Test seeking with checkpoints on a large store. Snapshots only hold the heap cells in use, not the whole store.
+     *
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testSeekLargeStore() throws Exception {
+        final PaMa vm = createVM(1 << 24);
+        final Checkpoints checkpoints = new Checkpoints(vm, 7, 64);
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        final int last = vm.getStepCounter().getValue();
+
+        final Memory<?> heap = vm.getDisplayMemories().get(2);
+        Assert.assertEquals(Math.max(0, heap.getSize() - heap.getLow()), heap.getSnapshot().size());
+
+        final PaMa reference = createVM(1 << 24);
+        reference.setWriter(new StringWriter());
+        reference.run(last / 2);
+
+        Assert.assertEquals(last / 2, checkpoints.seek(last / 2));
+        for (int i = 0; i < vm.getDisplayRegisters().size(); ++i) {
+            Assert.assertEquals(reference.getDisplayRegisters().get(i).getValue(), vm.getDisplayRegisters().get(i).getValue());
+        }
+        Assert.assertEquals(last, checkpoints.seek(last));
+
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test the bulk range instructions movs, movd and new. Each marks the block it writes dirty and is reverted by stepping backward.
+     *
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunRanges() throws Exception {
+        final PaMa vm = createVM();
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        final Memory<?> stack = vm.getDisplayMemories().get(1);
+        final Memory<?> heap = vm.getDisplayMemories().get(2);
+        while (vm.isRunning()) {
+            final Instruction instruction = vm.getImage().get(vm.getProgramCounter().getValue());
+            if (!(instruction instanceof MovsInstruction) && !(instruction instanceof MovdInstruction) && !(instruction instanceof NewInstruction)) {
+                vm.step();
+                continue;
+            }
+
+            final ArrayList<String> state = JumpVMTest.toStrings(vm);
+            final int sp = vm.getStackPointer().getValue();
+            final int np = vm.getNewPointer().getValue();
+            stack.takeDirtyRange();
+            heap.takeDirtyRange();
+            vm.step();
+
+            final int[] range;
+            final int low;
+            final int high;
+            if (instruction instanceof NewInstruction) {
+                range = heap.takeDirtyRange();
+                low = vm.getNewPointer().getValue();
+                high = np - 1;
+            } else {
+                range = stack.takeDirtyRange();
+                low = instruction instanceof MovsInstruction ? sp : sp + 1;
+                high = vm.getStackPointer().getValue();
+            }
+            if (low <= high) {
+                Assert.assertNotNull(range);
+                Assert.assertTrue((range[0] <= low) && (range[1] >= high));
+            }
+
+            Assert.assertTrue(vm.stepBackward());
+            Assert.assertEquals(state, JumpVMTest.toStrings(vm));
+            vm.step();
+        }
+
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test running one linked program image on two vms.
+     *
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunSharedImage() throws Exception {
+        final ProgramImage image = new ProgramImage(createCompiler().getInstructions());
+
+        for (int i = 0; i < 2; ++i) {
+            final PaMa vm = new PaMa();
+            vm.reset(image);
+
+            final StringWriter stringWriter = new StringWriter();
+            vm.setWriter(stringWriter);
+
+            vm.runUntilHalt();
+
+            JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+        }
+    }
+
+    /**
+     * Test stepping backward to the initial state.
+     *
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testStepBackward() throws Exception {
+        final PaMa vm = createVM();
+        vm.getJournal().setLimit(Integer.MAX_VALUE);
+        vm.setWriter(new StringWriter());
+
+        final ArrayList<String> initialState = JumpVMTest.toStrings(vm);
+        while (vm.isRunning()) {
+            vm.step();
+        }
+        while (vm.stepBackward()) {
+            continue;
+        }
+
+        Assert.assertEquals(initialState, JumpVMTest.toStrings(vm));
+    }
+
+    /**
+     * Test seeking with checkpoints.
+     *
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testSeek() throws Exception {
+        final PaMa vm = createVM();
+        final Checkpoints checkpoints = new Checkpoints(vm, 7, 4);
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        final ArrayList<String> initialState = JumpVMTest.toStrings(vm);
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        final int last = vm.getStepCounter().getValue();
+        final ArrayList<String> lastState = JumpVMTest.toStrings(vm);
+
+        final PaMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.run(last / 2);
+
+        Assert.assertEquals(last / 2, checkpoints.seek(last / 2));
+        Assert.assertEquals(JumpVMTest.toStrings(reference), JumpVMTest.toStrings(vm));
+        Assert.assertEquals(0, checkpoints.seek(0));
+        Assert.assertEquals(initialState, JumpVMTest.toStrings(vm));
+        Assert.assertEquals(last, checkpoints.seek(last + 1));
+        Assert.assertEquals(lastState, JumpVMTest.toStrings(vm));
+
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test stepping backward after seeking with checkpoints.
+     *
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testSeekStepBackward() throws Exception {
+        final PaMa vm = createVM();
+        final Checkpoints checkpoints = new Checkpoints(vm, 7, 4);
+        vm.setWriter(new StringWriter());
+
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        final int target = (vm.getStepCounter().getValue() + 1) / 2;
+
+        final PaMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.run(target - 1);
+
+        Assert.assertEquals(target, checkpoints.seek(target));
+        Assert.assertTrue(vm.stepBackward());
+        Assert.assertEquals(JumpVMTest.toStrings(reference), JumpVMTest.toStrings(vm));
+    }
+
+    /**
+     * Test stepping backward with checkpoints beyond the steps kept by the journal.
+     *
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testStepBackwardPastJournal() throws Exception {
+        final PaMa vm = createVM();
+        final Checkpoints checkpoints = new Checkpoints(vm, 3, 64);
+        vm.setWriter(new StringWriter());
+
+        final ArrayList<String> initialState = JumpVMTest.toStrings(vm);
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        Assert.assertTrue(vm.getJournal().getSteps() <= (vm.getJournal().getLimit() + 1));
+        final int target = vm.getStepCounter().getValue() / 4;
+
+        final PaMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.run(target);
+
+        while (vm.getStepCounter().getValue() > target) {
+            Assert.assertTrue(checkpoints.stepBackward());
+        }
+        Assert.assertEquals(JumpVMTest.toStrings(reference), JumpVMTest.toStrings(vm));
+
+        while (checkpoints.stepBackward()) {
+            continue;
+        }
+        Assert.assertEquals(0, vm.getStepCounter().getValue());
+        Assert.assertEquals(initialState, JumpVMTest.toStrings(vm));
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+
+package jumpvm.tests;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import jumpvm.JumpVMTest;
+import jumpvm.compiler.LocatedReader;
+import jumpvm.compiler.wima.WiMaCompiler;
+import jumpvm.compiler.wima.WiMaLexer;
+import jumpvm.compiler.wima.WiMaParser;
+import jumpvm.exception.CompileException;
+import jumpvm.exception.ParseException;
+import jumpvm.vm.WiMa;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/** JUnit testcase for the WiMa interpreter and bytecode engine on generated programs. */
+public class WiMaEngineTest {
+    /**
+     * Compile the given source code and load it into a new vm.
+     * 
+     * @param source source code
+     * @param writer output writer
+     * @param optimize true to compile with optimization
+     * @return the vm
+     * @throws CompileException on failure
+     * @throws ParseException on failure
+     */
+    private static WiMa createVM(final String source, final StringWriter writer, final boolean optimize) throws CompileException, ParseException {
+        final WiMaCompiler compiler = new WiMaCompiler(optimize);
+        compiler.processProgram(new WiMaParser(new WiMaLexer(new LocatedReader(new StringReader(source), "generated.wima"))).parse());
+
+        final WiMa vm = new WiMa();
+        vm.reset(compiler.getInstructions());
+        vm.setWriter(writer);
+        return vm;
+    }
+
+    /**
+     * Run a counting program recursing to the given depth with optimization and return the highest stack pointer.
+     * 
+     * @param depth recursion depth
+     * @param bytecode true to run the bytecode engine instead of the interpreter
+     * @return the highest stack pointer
+     * @throws Exception on failure
+     */
+    private static int getStackHeight(final int depth, final boolean bytecode) throws Exception {
+        final StringBuilder term = new StringBuilder("z");
+        for (int i = 0; i < depth; ++i) {
+            term.insert(0, "s(").append(')');
+        }
+
+        final StringWriter output = new StringWriter();
+        final WiMa vm = createVM("cnt(z).\ncnt(s(N)) :- cnt(N).\n?- cnt(" + term + ").\n", output, true);
+
+        int height = 0;
+        while (vm.isRunning()) {
+            if (bytecode) {
+                vm.runBytecode(1);
+            } else {
+                vm.step();
+            }
+            height = Math.max(height, vm.getStackPointer().getValue());
+        }
+
+        Assert.assertTrue(output.toString().startsWith("yes"));
+        return height;
+    }
+
+    /**
+     * Test that last calls run in constant stack space, i.e. the stack height does not depend on the recursion depth.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testLastCallStackHeight() throws Exception {
+        Assert.assertEquals(getStackHeight(100, false), getStackHeight(300, false));
+        Assert.assertEquals(getStackHeight(100, true), getStackHeight(300, true));
+    }
+
+    /**
+     * Test binding variables to atoms while the engine's heap grows. The query's variables fill the initial heap capacity, so the atom allocated by one of
+     * the uatom instructions replaces the heap array.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testUAtomHeapGrowth() throws Exception {
+        final StringBuilder fact = new StringBuilder("p(a");
+        final StringBuilder query = new StringBuilder("?- p(X0");
+        for (int i = 1; i < 40; ++i) {
+            fact.append(", a");
+            query.append(", X" + i);
+        }
+        final String source = fact + ").\n" + query + ").\n";
+
+        final StringWriter output = new StringWriter();
+        final WiMa vm = createVM(source, output, false);
+        vm.runBytecode(Long.MAX_VALUE);
+
+        final StringWriter referenceOutput = new StringWriter();
+        final WiMa reference = createVM(source, referenceOutput, false);
+        reference.runUntilHalt();
+
+        Assert.assertEquals(referenceOutput.toString(), output.toString());
+        Assert.assertEquals(JumpVMTest.toValues(reference), JumpVMTest.toValues(vm));
+    }
+}
@@ -22,10 +22,16 @@ import java.io.File;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import jumpvm.JumpVMTest;
 import jumpvm.Main.VmType;
 import jumpvm.code.Instruction;
+import jumpvm.code.ProgramImage;
+import jumpvm.code.wima.WiMaBytecode;
 import jumpvm.compiler.Token;
 import jumpvm.compiler.wima.WiMaCompiler;
 import jumpvm.compiler.wima.WiMaDotBackend;
@@ -34,6 +40,7 @@ import jumpvm.compiler.wima.WiMaParser;
 import jumpvm.compiler.wima.WiMaToken;
 import jumpvm.exception.CompileException;
 import jumpvm.exception.ParseException;
+import jumpvm.vm.Checkpoints;
 import jumpvm.vm.WiMa;
 
 import org.junit.Assert;
@@ -74,7 +81,19 @@ public class WiMaTest {
      * @throws ParseException on failure
      */
     private WiMaCompiler createCompiler() throws CompileException, ParseException {
-        final WiMaCompiler compiler = new WiMaCompiler();
+        return createCompiler(false);
+    }
+
+    /**
+     * Create a compiler for the given source file and compile.
+     * 
+     * @param optimize true to index clauses on their first argument
+     * @return the compiler
+     * @throws CompileException on failure
+     * @throws ParseException on failure
+     */
+    private WiMaCompiler createCompiler(final boolean optimize) throws CompileException, ParseException {
+        final WiMaCompiler compiler = new WiMaCompiler(optimize);
         final WiMaParser parser = createParser();
         compiler.processProgram(parser.parse());
 
@@ -192,4 +211,254 @@ public class WiMaTest {
 
         JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
     }
+
+    /**
+     * Test run without intermediate states.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunUntilHalt() throws Exception {
+        final WiMa vm = createVM();
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        vm.runUntilHalt();
+
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test run of the optimized program. Deterministic calls leave no back track points, so the final "no" may be missing. The stack never grows higher than
+     * without optimization.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunOptimized() throws Exception {
+        final WiMa vm = new WiMa();
+        vm.reset(createCompiler(true).getInstructions());
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        int height = 0;
+        while (vm.isRunning()) {
+            vm.step();
+            height = Math.max(height, vm.getStackPointer().getValue());
+        }
+
+        final WiMa reference = createVM();
+        reference.setWriter(new StringWriter());
+
+        int referenceHeight = 0;
+        while (reference.isRunning()) {
+            reference.step();
+            referenceHeight = Math.max(referenceHeight, reference.getStackPointer().getValue());
+        }
+
+        final WiMa engine = new WiMa();
+        engine.reset(createCompiler(true).getInstructions());
+        engine.setWriter(new StringWriter());
+        engine.runBytecode(Long.MAX_VALUE);
+
+        Assert.assertTrue(height <= referenceHeight);
+        Assert.assertEquals(JumpVMTest.toValues(vm), JumpVMTest.toValues(engine));
+        JumpVMTest.compare(getExpectFile("runOptimized"), stringWriter.toString());
+    }
+
+    /**
+     * Test running the bytecode engine.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunBytecode() throws Exception {
+        final WiMa vm = createVM();
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        vm.runBytecode(Long.MAX_VALUE);
+
+        final WiMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.runUntilHalt();
+
+        Assert.assertEquals(JumpVMTest.toValues(reference), JumpVMTest.toValues(vm));
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test compiling and running the program on several threads at once. All compilers share one symbol table, so they produce the same bytecode.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunConcurrent() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final ArrayList<Future<WiMa>> futures = new ArrayList<Future<WiMa>>();
+        final ArrayList<StringWriter> stringWriters = new ArrayList<StringWriter>();
+        try {
+            for (int i = 0; i < 4; ++i) {
+                final StringWriter stringWriter = new StringWriter();
+                stringWriters.add(stringWriter);
+                futures.add(executor.submit(new Callable<WiMa>() {
+                    @Override
+                    public WiMa call() throws Exception {
+                        final WiMa vm = createVM();
+                        vm.setWriter(stringWriter);
+                        vm.runBytecode(Long.MAX_VALUE);
+                        return vm;
+                    }
+                }));
+            }
+
+            final int[] code = new WiMaBytecode(futures.get(0).get().getImage()).getCode();
+            for (int i = 0; i < futures.size(); ++i) {
+                Assert.assertArrayEquals(code, new WiMaBytecode(futures.get(i).get().getImage()).getCode());
+                JumpVMTest.compare(getExpectFile("run"), stringWriters.get(i).toString());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test running one linked program image on two vms.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testRunSharedImage() throws Exception {
+        final ProgramImage image = new ProgramImage(createCompiler().getInstructions());
+
+        for (int i = 0; i < 2; ++i) {
+            final WiMa vm = new WiMa();
+            vm.reset(image);
+
+            final StringWriter stringWriter = new StringWriter();
+            vm.setWriter(stringWriter);
+
+            vm.runUntilHalt();
+
+            JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+        }
+    }
+
+    /**
+     * Test stepping backward to the initial state.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testStepBackward() throws Exception {
+        final WiMa vm = createVM();
+        vm.getJournal().setLimit(Integer.MAX_VALUE);
+        vm.setWriter(new StringWriter());
+
+        final ArrayList<String> initialState = JumpVMTest.toStrings(vm);
+        while (vm.isRunning()) {
+            vm.step();
+        }
+        while (vm.stepBackward()) {
+            continue;
+        }
+
+        Assert.assertEquals(initialState, JumpVMTest.toStrings(vm));
+    }
+
+    /**
+     * Test seeking with checkpoints.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testSeek() throws Exception {
+        final WiMa vm = createVM();
+        final Checkpoints checkpoints = new Checkpoints(vm, 7, 4);
+
+        final StringWriter stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        final ArrayList<String> initialState = JumpVMTest.toStrings(vm);
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        final int last = vm.getStepCounter().getValue();
+        final ArrayList<String> lastState = JumpVMTest.toStrings(vm);
+
+        final WiMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.run(last / 2);
+
+        Assert.assertEquals(last / 2, checkpoints.seek(last / 2));
+        Assert.assertEquals(JumpVMTest.toStrings(reference), JumpVMTest.toStrings(vm));
+        Assert.assertEquals(0, checkpoints.seek(0));
+        Assert.assertEquals(initialState, JumpVMTest.toStrings(vm));
+        Assert.assertEquals(last, checkpoints.seek(last + 1));
+        Assert.assertEquals(lastState, JumpVMTest.toStrings(vm));
+
+        JumpVMTest.compare(getExpectFile("run"), stringWriter.toString());
+    }
+
+    /**
+     * Test stepping backward after seeking with checkpoints.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testSeekStepBackward() throws Exception {
+        final WiMa vm = createVM();
+        final Checkpoints checkpoints = new Checkpoints(vm, 7, 4);
+        vm.setWriter(new StringWriter());
+
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        final int target = (vm.getStepCounter().getValue() + 1) / 2;
+
+        final WiMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.run(target - 1);
+
+        Assert.assertEquals(target, checkpoints.seek(target));
+        Assert.assertTrue(vm.stepBackward());
+        Assert.assertEquals(JumpVMTest.toStrings(reference), JumpVMTest.toStrings(vm));
+    }
+
+    /**
+     * Test stepping backward with checkpoints beyond the steps kept by the journal.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testStepBackwardPastJournal() throws Exception {
+        final WiMa vm = createVM();
+        final Checkpoints checkpoints = new Checkpoints(vm, 3, 64);
+        vm.setWriter(new StringWriter());
+
+        final ArrayList<String> initialState = JumpVMTest.toStrings(vm);
+        while (vm.isRunning()) {
+            checkpoints.step();
+        }
+        Assert.assertTrue(vm.getJournal().getSteps() <= (vm.getJournal().getLimit() + 1));
+        final int target = vm.getStepCounter().getValue() / 4;
+
+        final WiMa reference = createVM();
+        reference.setWriter(new StringWriter());
+        reference.run(target);
+
+        while (vm.getStepCounter().getValue() > target) {
+            Assert.assertTrue(checkpoints.stepBackward());
+        }
+        Assert.assertEquals(JumpVMTest.toStrings(reference), JumpVMTest.toStrings(vm));
+
+        while (checkpoints.stepBackward()) {
+            continue;
+        }
+        Assert.assertEquals(0, vm.getStepCounter().getValue());
+        Assert.assertEquals(initialState, JumpVMTest.toStrings(vm));
+    }
 }
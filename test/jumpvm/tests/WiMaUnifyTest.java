@@ -0,0 +1,158 @@
+/*
+ * JumpVM: The Java Unified Multi Paradigm Virtual Machine.
+ * Copyright (C) 2013 Tim Wiederhake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+
+
+package jumpvm.tests;
+
+import java.io.StringWriter;
+
+import jumpvm.JumpVMTest;
+import jumpvm.code.wima.URefInstruction;
+import jumpvm.memory.Heap;
+import jumpvm.memory.objects.AtomObject;
+import jumpvm.memory.objects.PointerObject;
+import jumpvm.memory.objects.PointerObject.Type;
+import jumpvm.memory.objects.StructureObject;
+import jumpvm.vm.WiMa;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/** JUnit testcase for unification of deep WiMa terms. */
+public class WiMaUnifyTest {
+    /** Number of elements of the unified lists. */
+    private static final int LENGTH = 1000000;
+
+    /** WiMa, its heap holding the atoms "a", "b" and "nil". */
+    private final WiMa vm;
+
+    /** Output of the vm. */
+    private final StringWriter stringWriter;
+
+    /** Heap address of the atom "a". */
+    private final int a;
+
+    /** Heap address of the atom "b". */
+    private final int b;
+
+    /** Heap address of the atom "nil". */
+    private final int nil;
+
+    /**
+     * Create a new WiMaUnifyTest.
+     */
+    public WiMaUnifyTest() {
+        this.vm = new WiMa();
+        this.stringWriter = new StringWriter();
+        vm.setWriter(stringWriter);
+
+        final Heap heap = vm.getHeap();
+        this.a = heap.allocate(new AtomObject("a"));
+        this.b = heap.allocate(new AtomObject("b"));
+        this.nil = heap.allocate(new AtomObject("nil"));
+    }
+
+    /**
+     * Allocate a chain of {@link #LENGTH} variables on the heap, each bound to the next one.
+     * 
+     * @param target heap address the last variable is bound to
+     * @return heap address of the first variable
+     */
+    private int allocateChain(final int target) {
+        final Heap heap = vm.getHeap();
+
+        final int first = heap.getSize();
+        for (int i = 0; i < LENGTH; ++i) {
+            heap.allocate(new PointerObject(i == (LENGTH - 1) ? target : first + i + 1, Type.POINTER_HEAP, null, null));
+        }
+        return first;
+    }
+
+    /**
+     * Allocate a list of {@link #LENGTH} atoms "a" on the heap, built from cons/2 structures.
+     * 
+     * @param tail heap address the tail of the last cons cell points to
+     * @return heap address of the first cons cell
+     */
+    private int allocateList(final int tail) {
+        final Heap heap = vm.getHeap();
+        final StructureObject cons = new StructureObject("cons", 2);
+        final PointerObject head = new PointerObject(a, Type.POINTER_HEAP, null, null);
+
+        final int first = heap.getSize();
+        for (int i = 0; i < LENGTH; ++i) {
+            final int address = heap.allocate(cons);
+            heap.allocate(head);
+            heap.allocate(new PointerObject(i == (LENGTH - 1) ? tail : address + 3, Type.POINTER_HEAP, null, null));
+        }
+        return first;
+    }
+
+    /**
+     * Unify two terms on the heap like the uref instruction in read mode does.
+     * 
+     * @param first heap address of the first term
+     * @param second heap address of the second term
+     * @throws Exception on failure
+     */
+    private void unify(final int first, final int second) throws Exception {
+        vm.getStack().push(new PointerObject(second, Type.POINTER_HEAP, null, null));
+        vm.getStack().push(new PointerObject(first, Type.POINTER_HEAP, null, null));
+        new URefInstruction(null, 0, "X").execute(vm);
+    }
+
+    /**
+     * Test unifying two equal lists.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testUnifyEqual() throws Exception {
+        unify(allocateList(nil), allocateList(nil));
+
+        Assert.assertTrue(vm.isRunning());
+        Assert.assertEquals("", stringWriter.toString());
+    }
+
+    /**
+     * Test unifying two lists that differ in their last element.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testUnifyMismatch() throws Exception {
+        unify(allocateList(nil), allocateList(b));
+
+        Assert.assertFalse(vm.isRunning());
+        Assert.assertEquals("no" + System.lineSeparator(), stringWriter.toString());
+    }
+
+    /**
+     * Test unifying a list with a list whose end is reached through a long chain of bound variables.
+     * 
+     * @throws Exception on failure
+     */
+    @Test(timeout = JumpVMTest.TIMEOUT)
+    public final void testUnifyVariable() throws Exception {
+        final int variable = vm.getHeap().allocate(new PointerObject(vm.getHeap().getSize(), Type.POINTER_HEAP, null, null));
+        unify(allocateList(nil), allocateList(allocateChain(variable)));
+
+        Assert.assertTrue(vm.isRunning());
+        Assert.assertEquals(nil, ((PointerObject) vm.getHeap().getElementAt(variable)).getIntValue());
+    }
+}